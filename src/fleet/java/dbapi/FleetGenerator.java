@@ -0,0 +1,341 @@
+package dbapi;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.output.MigrateResult;
+import datecalculations.DateCodec;
+import datecalculations.RequiredRepair;
+import datecalculations.RequiredRepairCalculator;
+
+/**
+ * Fills SQLite database with synthetic fleet for load and scale testing.
+ * <p>
+ * Database file is created if absent and migrated by Flyway with the same migrations as
+ * application database, then generated rows are added to existing ones. Models beyond existing
+ * ones are copies of existing models with the same repair periods and numbered names. Rows are
+ * inserted in batches, every batch is a separate transaction.
+ * <p>
+ * Dates of every repair type are generated relatively to {@code today}: most of next repairs
+ * are ahead, some are due within a month, some are overdue and some cells are empty. Values of
+ * last and required repair columns are calculated from generated dates. The same seed and
+ * {@code today} give the same database.
+ * <p>
+ * Can be run from command line: {@code --database=fleet.db --models=20 --records=100000
+ * --archive=10000 --seed=1 --today=01.01.2023}, or with {@code gradlew generateFleet}.
+ * Generator is kept in its own source set, so it is not packed into application jar.
+ */
+public class FleetGenerator {
+  private static final Logger logger = LogManager.getLogger();
+  private static final String MIGRATIONS = "classpath:db/migration";
+  private static final int REPAIR_TYPES = RequiredRepairCalculator.REPAIR_TYPES;
+  private static final int BATCH_SIZE = 10_000;
+  private static final int ARCHIVE_COLUMN_COUNT = 15;
+  private static final int NEAR_DUE_DAYS = 30;
+  private final Random random;
+  private final int todayDay;
+  private final RequiredRepairCalculator calculator;
+  private int nextLocoNumber;
+
+  /**
+   * Generator of synthetic fleet data.
+   * @param seed of random values
+   * @param today date to which generated repair dates are related
+   */
+  public FleetGenerator(final long seed, final LocalDate today) {
+    super();
+    random = new Random(seed);
+    todayDay = (int) today.toEpochDay();
+    calculator = new RequiredRepairCalculator();
+    nextLocoNumber = 1;
+  }
+
+  /**
+   * Creates or supplements database with generated models, repair records and archive rows.
+   * @param databaseFile path to SQLite database, created if absent
+   * @param modelsCount total count of models the database should have, existing models included
+   * @param recordsCount count of repair records to add
+   * @param archiveCount count of archive rows to add
+   * @throws FlywayException if database could not be migrated
+   * @throws SQLException if data could not be written
+   */
+  public void generate(final Path databaseFile, final int modelsCount, final int recordsCount,
+                       final int archiveCount) throws SQLException {
+    migrate(databaseFile);
+    final SqliteConnection sqliteConnection =
+        new SqliteConnection(databaseFile, PragmaProfile.FAST.toString(), 0);
+    try {
+      final Connection connection = sqliteConnection.getConnection();
+      connection.setAutoCommit(false);
+      final Map<String, List<Integer>> repairPeriods = readRepairPeriods(connection);
+      nextLocoNumber = Math.max(nextLocoNumber, readMaxRecordId(connection) + 1);
+      insertModels(connection, repairPeriods, modelsCount);
+      insertRecords(connection, repairPeriods, recordsCount);
+      insertArchive(connection, repairPeriods, archiveCount);
+    } finally {
+      sqliteConnection.close();
+    }
+  }
+
+  /**
+   * Generates repair records without writing them anywhere.
+   * @param repairPeriods models to pick from with their repair periods
+   * @param recordsCount count of records to generate
+   * @return records as lists of 19 values in order of repair records table columns
+   */
+  public List<List<String>> generateRecords(
+      final Map<String, List<Integer>> repairPeriods, final int recordsCount) {
+    final String[] modelNames = repairPeriods.keySet().toArray(new String[0]);
+    final List<List<String>> records = new ArrayList<>(recordsCount);
+    for (int j = 0; j < recordsCount; j++) {
+      final String modelName = modelNames[random.nextInt(modelNames.length)];
+      records.add(generateRecord(modelName, repairPeriods.get(modelName)));
+    }
+    return records;
+  }
+
+  private List<String> generateRecord(final String modelName, final List<Integer> periods) {
+    final String[] record = new String[RepairRecordStore.COLUMN_COUNT];
+    Arrays.fill(record, "");
+    record[RepairRecordStore.MODEL_NAME] = modelName;
+    record[RepairRecordStore.LOCO_NUMBER] = String.format("%04d", nextLocoNumber++);
+    final int[] nextRepairsDays = new int[REPAIR_TYPES];
+    int lastRepairDay = DateCodec.EMPTY;
+    int lastRepairType = -1;
+    for (int k = 0; k < REPAIR_TYPES; k++) {
+      final int period = periods.get(k);
+      final int lastDay = generateLastRepairDay(period);
+      nextRepairsDays[k] = lastDay == DateCodec.EMPTY ? DateCodec.EMPTY : lastDay + period;
+      record[RepairRecordStore.FIRST_REPAIR_DATE + 2 * k] = DateCodec.format(lastDay);
+      record[RepairRecordStore.FIRST_REPAIR_DATE + 2 * k + 1] =
+          DateCodec.format(nextRepairsDays[k]);
+      if (lastDay != DateCodec.EMPTY && lastDay >= lastRepairDay) {
+        lastRepairDay = lastDay;
+        lastRepairType = k;
+      }
+    }
+    if (lastRepairType != -1) {
+      record[RepairRecordStore.LAST_REPAIR_TYPE] =
+          RequiredRepairCalculator.getRepairName(lastRepairType);
+      record[RepairRecordStore.LAST_REPAIR_DATE] = DateCodec.format(lastRepairDay);
+    }
+    final RequiredRepair requiredRepair = calculator.calculate(nextRepairsDays, todayDay);
+    if (requiredRepair != null) {
+      record[RepairRecordStore.REQUIRED_REPAIR_TYPE] = requiredRepair.getRepairName();
+      record[RepairRecordStore.REQUIRED_REPAIR_DATE] =
+          DateCodec.format(requiredRepair.getEpochDay());
+    }
+    if (random.nextInt(10) == 0) {
+      record[RepairRecordStore.NOTES] = "Примечание " + random.nextInt(1000);
+    }
+    return Arrays.asList(record);
+  }
+
+  /**
+   * Defines last repair date so that about 6% of cells are empty, 10% of next repairs are
+   * overdue, 12% are due within a month and the rest are ahead.
+   */
+  private int generateLastRepairDay(final int period) {
+    final int kind = random.nextInt(100);
+    final int daysAgo;
+    if (kind < 6) {
+      return DateCodec.EMPTY;
+    } else if (kind < 16) {
+      daysAgo = period + 1 + random.nextInt(Math.max(period / 2, 1));
+    } else if (kind < 28) {
+      daysAgo = period - random.nextInt(Math.min(NEAR_DUE_DAYS, period));
+    } else {
+      daysAgo = random.nextInt(Math.max(period - NEAR_DUE_DAYS, 1));
+    }
+    return todayDay - daysAgo;
+  }
+
+  private void insertModels(final Connection connection,
+                            final Map<String, List<Integer>> repairPeriods,
+                            final int modelsCount) throws SQLException {
+    if (repairPeriods.isEmpty() || repairPeriods.size() >= modelsCount) {
+      return;
+    }
+    final String[] baseModels = repairPeriods.keySet().toArray(new String[0]);
+    final Map<String, List<Integer>> newModels = new LinkedHashMap<>();
+    for (int j = 1; repairPeriods.size() + newModels.size() < modelsCount; j++) {
+      final String baseModel = baseModels[j % baseModels.length];
+      final String modelName = baseModel + "-" + j;
+      if (!repairPeriods.containsKey(modelName)) {
+        newModels.put(modelName, repairPeriods.get(baseModel));
+      }
+    }
+    try (final PreparedStatement insertRow =
+             connection.prepareStatement(SqlCommands.PT_INSERT_ROW)) {
+      for (final Map.Entry<String, List<Integer>> model : newModels.entrySet()) {
+        insertRow.setString(1, model.getKey());
+        for (int k = 0; k < REPAIR_TYPES; k++) {
+          insertRow.setInt(k + 2, model.getValue().get(k));
+        }
+        insertRow.addBatch();
+      }
+      insertRow.executeBatch();
+      connection.commit();
+    } catch (final SQLException err) {
+      connection.rollback();
+      throw err;
+    }
+    repairPeriods.putAll(newModels);
+    logger.info(newModels.size() + " models were added, " + repairPeriods.size() + " in total.");
+  }
+
+  private void insertRecords(final Connection connection,
+                             final Map<String, List<Integer>> repairPeriods,
+                             final int recordsCount) throws SQLException {
+    final long start = System.nanoTime();
+    try (final PreparedStatement insertRow =
+             connection.prepareStatement(SqlCommands.RT_INSERT_ROW)) {
+      for (int inserted = 0; inserted < recordsCount; inserted += BATCH_SIZE) {
+        final int batchSize = Math.min(BATCH_SIZE, recordsCount - inserted);
+        for (final List<String> record : generateRecords(repairPeriods, batchSize)) {
+          for (int column = 0; column < RepairRecordStore.COLUMN_COUNT; column++) {
+            bindValue(insertRow, column + 1, column, record.get(column));
+          }
+          insertRow.addBatch();
+        }
+        insertRow.executeBatch();
+        connection.commit();
+      }
+    } catch (final SQLException err) {
+      connection.rollback();
+      throw err;
+    }
+    logger.info(recordsCount + " repair records were added in "
+        + (System.nanoTime() - start) / 1_000_000 + " ms.");
+  }
+
+  private void insertArchive(final Connection connection,
+                             final Map<String, List<Integer>> repairPeriods,
+                             final int archiveCount) throws SQLException {
+    final long start = System.nanoTime();
+    try (final PreparedStatement insertRow =
+             connection.prepareStatement(SqlCommands.AT_INSERT_ROW)) {
+      for (int inserted = 0; inserted < archiveCount; inserted += BATCH_SIZE) {
+        final int batchSize = Math.min(BATCH_SIZE, archiveCount - inserted);
+        for (final List<String> record : generateRecords(repairPeriods, batchSize)) {
+          // Archive has no last and required repair columns, notes follow next overhaul date
+          for (int column = 0; column < ARCHIVE_COLUMN_COUNT - 1; column++) {
+            bindValue(insertRow, column + 1, column, record.get(column));
+          }
+          insertRow.setString(ARCHIVE_COLUMN_COUNT, record.get(RepairRecordStore.NOTES));
+          insertRow.addBatch();
+        }
+        insertRow.executeBatch();
+        connection.commit();
+      }
+    } catch (final SQLException err) {
+      connection.rollback();
+      throw err;
+    }
+    logger.info(archiveCount + " archive rows were added in "
+        + (System.nanoTime() - start) / 1_000_000 + " ms.");
+  }
+
+  private static void bindValue(final PreparedStatement statement, final int parameterIndex,
+                                final int columnIndex, final String value) throws SQLException {
+    if (RepairRecordStore.isDateColumn(columnIndex)) {
+      EpochDayColumns.bind(statement, parameterIndex, value);
+    } else {
+      statement.setString(parameterIndex, value);
+    }
+  }
+
+  private static int readMaxRecordId(final Connection connection) throws SQLException {
+    try (final Statement statement = connection.createStatement();
+         final ResultSet resultSet = statement.executeQuery(SqlCommands.RT_MAX_ID)) {
+      return resultSet.next() ? resultSet.getInt(1) : 0;
+    }
+  }
+
+  private static Map<String, List<Integer>> readRepairPeriods(final Connection connection)
+                                                                          throws SQLException {
+    final Map<String, List<Integer>> repairPeriods = new LinkedHashMap<>();
+    try (final Statement statement = connection.createStatement();
+         final ResultSet resultSet = statement.executeQuery(SqlCommands.PT_ALL_DATA)) {
+      while (resultSet.next()) {
+        final List<Integer> periods = new ArrayList<>(REPAIR_TYPES);
+        for (int k = 0; k < REPAIR_TYPES; k++) {
+          periods.add(resultSet.getInt(k + 2));
+        }
+        repairPeriods.put(resultSet.getString(1), periods);
+      }
+    }
+    return repairPeriods;
+  }
+
+  /**
+   * Applies pending migrations of application database schema to given database file.
+   * @param databaseFile path to SQLite database, created if absent
+   * @throws FlywayException if any migration fails
+   */
+  static void migrate(final Path databaseFile) {
+    final MigrateResult result = Flyway.configure()
+        .dataSource("jdbc:sqlite:" + databaseFile, null, null)
+        .locations(MIGRATIONS)
+        .load()
+        .migrate();
+    if (result.migrationsExecuted > 0) {
+      logger.info(result.migrationsExecuted + " migrations were applied to " + databaseFile);
+    }
+  }
+
+  /**
+   * Generates synthetic fleet database.
+   * @param args {@code --name=value} options: database (fleet.db), models (count of existing
+   * models), records (1000), archive (0), seed (1) and today (current date, dd.MM.yyyy)
+   */
+  public static void main(final String[] args) {
+    final Map<String, String> options = new HashMap<>();
+    for (final String arg : args) {
+      final int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator == -1) {
+        logger.error("Unknown argument " + arg + ", --name=value expected.");
+        System.exit(2);
+      }
+      options.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    final Path databaseFile = Paths.get(options.getOrDefault("database", "fleet.db"));
+    final String today = options.get("today");
+    final FleetGenerator generator = new FleetGenerator(
+        Long.parseLong(options.getOrDefault("seed", "1")),
+        today == null ? LocalDate.now() : DateCodec.toLocalDate(DateCodec.parse(today)));
+    try {
+      generator.generate(databaseFile,
+          Integer.parseInt(options.getOrDefault("models", "0")),
+          Integer.parseInt(options.getOrDefault("records", "1000")),
+          Integer.parseInt(options.getOrDefault("archive", "0")));
+    } catch (SQLException | FlywayException err) {
+      logger.error("Synthetic fleet was not generated: " + err.getMessage());
+      err.printStackTrace();
+      System.exit(1);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "FleetGenerator [today=" + DateCodec.format(todayDay) + ", nextLocoNumber="
+        + nextLocoNumber + "]";
+  }
+
+}
@@ -0,0 +1,131 @@
+package datavalidation;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import dbapi.BenchmarkDatabase;
+import dbapi.DbManagerSqliteImp;
+import dbapi.FleetGenerator;
+import dbapi.RepairRecordStore;
+
+/**
+ * Measures {@code InputValidator} methods: single calls as they are made on user input, and
+ * validation of all locomotive numbers and repair dates of the fleet, as it would be done on
+ * import, one by one and with bulk {@code validateRows}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InputValidatorBenchmark {
+  private BenchmarkDatabase database;
+  private DbManagerSqliteImp dbManager;
+  private InputValidator validator;
+
+  /**
+   * Records of the fleet, created without database.
+   */
+  @State(Scope.Benchmark)
+  public static class Fleet {
+    @Param({"100", "1000", "10000", "100000"})
+    private int fleetSize;
+    private List<List<String>> records;
+
+    @Setup(Level.Trial)
+    public void createRecords(final InputValidatorBenchmark benchmark) {
+      records = new FleetGenerator(fleetSize, LocalDate.now())
+          .generateRecords(benchmark.dbManager.getAllRepairPeriodData(), fleetSize);
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void createDatabase() throws IOException, SQLException {
+    database = BenchmarkDatabase.create(0);
+    dbManager = new DbManagerSqliteImp(database.getConnection());
+    validator = new InputValidator(dbManager);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteDatabase() throws IOException {
+    dbManager.shutdown();
+    database.delete();
+  }
+
+  @Benchmark
+  public void validateLocoNumber() {
+    validator.validateLocoNumber("0150");
+  }
+
+  @Benchmark
+  public void validateRepairDate() {
+    validator.validateRepairDate("01.03.2022");
+  }
+
+  @Benchmark
+  public boolean validateInvalidRepairDate() {
+    try {
+      validator.validateRepairDate("31.02.2022");
+      return true;
+    } catch (final IllegalArgumentException err) {
+      return false;
+    }
+  }
+
+  @Benchmark
+  public void validateRepairPeriodsModelName() {
+    validator.validateRepairPeriodsModelName("ЧМЭ3");
+  }
+
+  @Benchmark
+  public void validateRepairPeriod() {
+    validator.validateRepairPeriod(225);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void validateFleetLocoNumbers(final Fleet fleet) {
+    for (final List<String> record : fleet.records) {
+      validator.validateLocoNumber(record.get(RepairRecordStore.LOCO_NUMBER));
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void validateFleetRepairDates(final Fleet fleet) {
+    for (final List<String> record : fleet.records) {
+      for (int column = RepairRecordStore.FIRST_REPAIR_DATE;
+           column < RepairRecordStore.LAST_REPAIR_TYPE; column++) {
+        validator.validateRepairDate(record.get(column));
+      }
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public List<CellValidationError> validateFleetRows(final Fleet fleet) {
+    return validator.validateRows(fleet.records);
+  }
+
+  @Override
+  public String toString() {
+    return "InputValidatorBenchmark [validator=" + validator + "]";
+  }
+
+}
@@ -0,0 +1,114 @@
+package datecalculations;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.swing.table.AbstractTableModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import dbapi.BenchmarkDatabase;
+import dbapi.DbManagerSqliteImp;
+import gui.GuiManager;
+import gui.tablemodels.TableChangeCoalescer;
+import gui.utility.DialogWindow;
+
+/**
+ * Measures every cascade case of {@code DateCalculationsHandler}: calculation of next repair
+ * dates after last repair date of given column was entered, including required repair update.
+ * <p>
+ * Cascade works with one record, so its cost does not depend on fleet size and small fleet is
+ * used. GUI manager could not be created headless, so it is a stub-only mock which returns change
+ * coalescer of a table model without listeners; the stub call is the same for every case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DateCalculationsBenchmark {
+  private static final int FLEET_SIZE = 100;
+  @Param({"2", "3", "4", "5", "6", "7"})
+  private int columnIndex;
+  private BenchmarkDatabase database;
+  private DbManagerSqliteImp dbManager;
+  private DateCalculationsHandler dateCalculationsHandler;
+  private Map<Integer, List<String>> repairRecords;
+  private LocalDate today;
+  private String lastRepairDate;
+  private int ordinalNumber;
+
+  @Setup(Level.Trial)
+  public void createDatabase() throws IOException, SQLException {
+    database = BenchmarkDatabase.create(FLEET_SIZE);
+    dbManager = new DbManagerSqliteImp(database.getConnection());
+    repairRecords = dbManager.getAllRepairRecords();
+
+    final AbstractTableModel tableModel = new AbstractTableModel() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public int getRowCount() {
+        return FLEET_SIZE * 2;
+      }
+
+      @Override
+      public int getColumnCount() {
+        return 11;
+      }
+
+      @Override
+      public Object getValueAt(final int rowIndex, final int columnIndex) {
+        return "";
+      }
+    };
+    final GuiManager guiManager = mock(GuiManager.class, withSettings().stubOnly());
+    when(guiManager.getRecordsChangeCoalescer())
+        .thenReturn(new TableChangeCoalescer(tableModel));
+
+    dateCalculationsHandler = new DateCalculationsHandler(guiManager, dbManager,
+        new RequiredRepairHandler(dbManager), new DialogWindow());
+    today = LocalDate.now();
+    lastRepairDate = DateCodec.format((int) today.minusDays(10).toEpochDay());
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteDatabase() throws IOException {
+    dbManager.shutdown();
+    database.delete();
+  }
+
+  @Benchmark
+  public RecordPatch handleDateCalculations() {
+    final int rowId = dbManager.getIdByOrdinalNumber(ordinalNumber);
+    final RecordPatch patch = new RecordPatch(rowId, repairRecords.get(rowId));
+    dateCalculationsHandler.handleDateCalculations(
+        lastRepairDate, ordinalNumber * 2, columnIndex, today, patch);
+    ordinalNumber = (ordinalNumber + 1) % FLEET_SIZE;
+    return patch;
+  }
+
+  @Override
+  public String toString() {
+    return "DateCalculationsBenchmark [columnIndex=" + columnIndex + "]";
+  }
+
+}
@@ -0,0 +1,91 @@
+package datecalculations;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import dbapi.BenchmarkDatabase;
+import dbapi.DbManagerSqliteImp;
+
+/**
+ * Measures definition of required repairs for the whole fleet: record by record with
+ * {@code RequiredRepairHandler} as GUI does, and with {@code FleetRecomputeService} as it is
+ * done at startup.
+ * <p>
+ * Changes are not written into the database, so every invocation works with the same data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RequiredRepairBenchmark {
+  @Param({"100", "1000", "10000", "100000"})
+  private int fleetSize;
+  private BenchmarkDatabase database;
+  private DbManagerSqliteImp dbManager;
+  private RequiredRepairHandler requiredRepairHandler;
+  private FleetRecomputeService fleetRecomputeService;
+  private int[] rowIds;
+  private LocalDate today;
+
+  @Setup(Level.Trial)
+  public void createDatabase() throws IOException, SQLException {
+    database = BenchmarkDatabase.create(fleetSize);
+    dbManager = new DbManagerSqliteImp(database.getConnection());
+    requiredRepairHandler = new RequiredRepairHandler(dbManager);
+    fleetRecomputeService = new FleetRecomputeService();
+    rowIds = new int[dbManager.getRecordsCount()];
+    for (int j = 0; j < rowIds.length; j++) {
+      rowIds[j] = dbManager.getIdByOrdinalNumber(j);
+    }
+    today = LocalDate.now();
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteDatabase() throws IOException {
+    dbManager.shutdown();
+    database.delete();
+  }
+
+  @Benchmark
+  public int updateRequiredRepairValues() {
+    final Map<Integer, List<String>> repairRecords = dbManager.getAllRepairRecords();
+    int changedRecords = 0;
+    for (final int rowId : rowIds) {
+      final RecordPatch patch = new RecordPatch(rowId, repairRecords.get(rowId));
+      requiredRepairHandler.updateRequiredRepairValues(patch, today);
+      if (!patch.isEmpty()) {
+        changedRecords++;
+      }
+    }
+    return changedRecords;
+  }
+
+  @Benchmark
+  public List<RequiredRepairChange> fleetRecompute() {
+    return fleetRecomputeService.recompute(dbManager.getRepairRecordStore(), rowIds, today);
+  }
+
+  @Override
+  public String toString() {
+    return "RequiredRepairBenchmark [fleetSize=" + fleetSize + "]";
+  }
+
+}
@@ -0,0 +1,66 @@
+package dbapi;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/**
+ * Temporary SQLite database with given count of repair records generated by
+ * {@link FleetGenerator}, shared by benchmarks.
+ * <p>
+ * Records are generated with fixed seed, so database of the same size has the same content in
+ * every run of the same day.
+ */
+public final class BenchmarkDatabase {
+  private static final long SEED = 20_221_018L;
+  private final Path directory;
+  private final Path file;
+  private final SqliteConnection connection;
+
+  private BenchmarkDatabase(final Path directory) {
+    this.directory = directory;
+    file = directory.resolve("benchmark.db");
+    connection = new SqliteConnection(file, PragmaProfile.SAFE.toString(), 0);
+  }
+
+  /**
+   * Creates database with given count of repair records in temporary directory.
+   * @param recordsCount count of repair records to insert
+   * @return created database
+   * @throws IOException if migrations could not be read
+   * @throws SQLException if database could not be filled
+   */
+  public static BenchmarkDatabase create(final int recordsCount) throws IOException, SQLException {
+    final BenchmarkDatabase database =
+        new BenchmarkDatabase(Files.createTempDirectory("logbook-benchmark"));
+    new FleetGenerator(SEED, LocalDate.now()).generate(database.file, 0, recordsCount, 0);
+    return database;
+  }
+
+  public SqliteConnection getConnection() {
+    return connection;
+  }
+
+  /**
+   * Closes connection and deletes database files.
+   * @throws IOException if files could not be deleted
+   */
+  public void delete() throws IOException {
+    connection.close();
+    try (final Stream<Path> files = Files.list(directory)) {
+      for (final Path path : (Iterable<Path>) files::iterator) {
+        Files.delete(path);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  @Override
+  public String toString() {
+    return "BenchmarkDatabase [file=" + file + "]";
+  }
+
+}
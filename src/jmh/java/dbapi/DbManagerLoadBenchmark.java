@@ -0,0 +1,64 @@
+package dbapi;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures startup load of repair records: creation of {@code DbManagerSqliteImp}, which reads
+ * repair records and periods from the database and recomputes required repairs.
+ * <p>
+ * Connection is opened once per trial, so only reading and recomputing are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DbManagerLoadBenchmark {
+  @Param({"100", "1000", "10000", "100000"})
+  private int fleetSize;
+  private BenchmarkDatabase database;
+  private DbManagerSqliteImp dbManager;
+
+  @Setup(Level.Trial)
+  public void createDatabase() throws IOException, SQLException {
+    database = BenchmarkDatabase.create(fleetSize);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteDatabase() throws IOException {
+    database.delete();
+  }
+
+  @TearDown(Level.Invocation)
+  public void shutdownDbManager() {
+    dbManager.shutdown();
+  }
+
+  @Benchmark
+  public int loadRecords() {
+    dbManager = new DbManagerSqliteImp(database.getConnection());
+    return dbManager.getRecordsCount();
+  }
+
+  @Override
+  public String toString() {
+    return "DbManagerLoadBenchmark [fleetSize=" + fleetSize + "]";
+  }
+
+}
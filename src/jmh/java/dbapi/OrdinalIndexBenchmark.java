@@ -0,0 +1,111 @@
+package dbapi;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares deletion of records in {@code OrdinalIndex} with previous approach, where ordinal
+ * numbers were kept in {@code HashMap} and shifted one by one after every deletion.
+ * <p>
+ * Every iteration deletes the same randomly chosen records from a freshly filled fleet, so one
+ * invocation is measured per iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class OrdinalIndexBenchmark {
+  private static final int DELETIONS = 1_000;
+  @Param({"10000", "50000"})
+  private int fleetSize;
+  private int[] idsToDelete;
+  private OrdinalIndex ordinalIndex;
+  private Map<Integer, Integer> orderedId;
+
+  @Setup(Level.Trial)
+  public void chooseIdsToDelete() {
+    final Random random = new Random(7);
+    idsToDelete = new int[DELETIONS];
+    final boolean[] used = new boolean[fleetSize + 1];
+    for (int j = 0; j < DELETIONS; j++) {
+      int id;
+      do {
+        id = 1 + random.nextInt(fleetSize);
+      } while (used[id]);
+      used[id] = true;
+      idsToDelete[j] = id;
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void fillFleet() {
+    ordinalIndex = new OrdinalIndex(fleetSize);
+    orderedId = new HashMap<>();
+    for (int id = 1; id <= fleetSize; id++) {
+      ordinalIndex.append(id);
+      orderedId.put(id - 1, id);
+    }
+  }
+
+  @Benchmark
+  public int randomDeletionsFromOrdinalIndex() {
+    for (final int id : idsToDelete) {
+      ordinalIndex.remove(id);
+    }
+    return ordinalIndex.size();
+  }
+
+  @Benchmark
+  public int randomDeletionsFromShiftingHashMap() {
+    int maxId = fleetSize;
+    for (final int id : idsToDelete) {
+      maxId = removeByShifting(orderedId, maxId, id);
+    }
+    return maxId;
+  }
+
+  @Benchmark
+  public int deletionOfEveryRecordFromTheTop() {
+    for (int id = 1; id <= fleetSize; id++) {
+      ordinalIndex.remove(id);
+    }
+    return ordinalIndex.size();
+  }
+
+  /**
+   * Reproduces removal that was used before {@code OrdinalIndex}.
+   */
+  private static int removeByShifting(
+      final Map<Integer, Integer> orderedId, final int maxId, final int rowId) {
+    final int idToDelete = orderedId.keySet().stream()
+                     .filter(key -> orderedId.get(key) == rowId)
+                     .limit(1)
+                     .reduce((a, b) -> a).get();
+    for (int j = idToDelete; j < maxId; j++) {
+      orderedId.put(j, orderedId.get(j + 1));
+    }
+    return maxId - 1;
+  }
+
+  @Override
+  public String toString() {
+    return "OrdinalIndexBenchmark [fleetSize=" + fleetSize + ", deletions=" + DELETIONS + "]";
+  }
+
+}
@@ -0,0 +1,69 @@
+package dbapi;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures latency of {@code DbManager.setRepairRecordCell}, which is called on every edit of
+ * repair records table, in both write modes.
+ * <p>
+ * Every call changes notes of the next record, so that values really change and records are
+ * spread over the whole table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RepairRecordCellUpdateBenchmark {
+  @Param({"100", "1000", "10000", "100000"})
+  private int fleetSize;
+  @Param({"sync", "write-behind"})
+  private String writeMode;
+  private BenchmarkDatabase database;
+  private DbManagerSqliteImp dbManager;
+  private int ordinalNumber;
+  private long updatesCount;
+
+  @Setup(Level.Trial)
+  public void createDatabase() throws IOException, SQLException {
+    database = BenchmarkDatabase.create(fleetSize);
+    dbManager = new DbManagerSqliteImp(database.getConnection(), writeMode, 200);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteDatabase() throws IOException {
+    dbManager.shutdown();
+    database.delete();
+  }
+
+  @Benchmark
+  public boolean setRepairRecordCell() {
+    final int rowId = dbManager.getIdByOrdinalNumber(ordinalNumber);
+    ordinalNumber = (ordinalNumber + 1) % fleetSize;
+    return dbManager.setRepairRecordCell(
+        rowId, RepairRecordStore.NOTES, "Примечание " + updatesCount++);
+  }
+
+  @Override
+  public String toString() {
+    return "RepairRecordCellUpdateBenchmark [fleetSize=" + fleetSize + ", writeMode=" + writeMode
+        + "]";
+  }
+
+}
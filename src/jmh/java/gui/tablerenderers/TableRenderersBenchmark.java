@@ -0,0 +1,146 @@
+package gui.tablerenderers;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JTable;
+import javax.swing.table.JTableHeader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import dbapi.BenchmarkDatabase;
+import dbapi.DbManagerSqliteImp;
+import gui.GuiManager;
+import gui.tablemodels.RepairRecordsTableModel;
+
+/**
+ * Measures table renderers in headless mode: rendering of single cells and painting of
+ * repair records table viewport and header into an offscreen image while scrolling.
+ * <p>
+ * Records table uses real table model over the benchmark database. GUI manager could not be
+ * created headless, so it is a stub-only mock which tells that next repairs dates are shown.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TableRenderersBenchmark {
+  private static final int VIEWPORT_WIDTH = 1600;
+  private static final int VIEWPORT_HEIGHT = 900;
+  private static final int SCROLL_STEP = 48;
+  @Param({"100", "1000", "10000", "100000"})
+  private int fleetSize;
+  private BenchmarkDatabase database;
+  private DbManagerSqliteImp dbManager;
+  private JTable recordsTable;
+  private RepairRecordsTableRenderer recordsRenderer;
+  private RecordsArchiveTableRenderer archiveRenderer;
+  private RepairPeriodsTableRenderer periodsRenderer;
+  private BufferedImage image;
+  private int frameTop;
+  private int cellIndex;
+
+  @Setup(Level.Trial)
+  public void createTable() throws IOException, SQLException {
+    database = BenchmarkDatabase.create(fleetSize);
+    dbManager = new DbManagerSqliteImp(database.getConnection());
+    final GuiManager guiManager = mock(GuiManager.class, withSettings().stubOnly());
+    when(guiManager.isShowNextRepairsDates()).thenReturn(true);
+
+    final RepairRecordsTableModel tableModel =
+        new RepairRecordsTableModel(dbManager, guiManager, null);
+    recordsTable = new JTable(tableModel);
+    recordsRenderer = new RepairRecordsTableRenderer(dbManager);
+    tableModel.addTableModelListener(recordsRenderer);
+    recordsTable.setDefaultRenderer(Object.class, recordsRenderer);
+    recordsTable.getTableHeader()
+        .setDefaultRenderer(new RepairRecordsHeaderRenderer(recordsTable));
+    recordsTable.setDoubleBuffered(false);
+    recordsTable.setSize(VIEWPORT_WIDTH, recordsTable.getRowHeight() * recordsTable.getRowCount());
+    recordsTable.doLayout();
+    final JTableHeader header = recordsTable.getTableHeader();
+    header.setSize(VIEWPORT_WIDTH, header.getPreferredSize().height);
+
+    archiveRenderer = new RecordsArchiveTableRenderer();
+    periodsRenderer = new RepairPeriodsTableRenderer();
+    image = new BufferedImage(VIEWPORT_WIDTH, VIEWPORT_HEIGHT, BufferedImage.TYPE_INT_RGB);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteDatabase() throws IOException {
+    dbManager.shutdown();
+    database.delete();
+  }
+
+  @Benchmark
+  public Component renderRecordsCell() {
+    final int row = cellIndex / 11 % recordsTable.getRowCount();
+    final int column = cellIndex % 11;
+    cellIndex++;
+    return recordsRenderer.getTableCellRendererComponent(
+        recordsTable, recordsTable.getValueAt(row, column), false, false, row, column);
+  }
+
+  @Benchmark
+  public Component renderArchiveCell() {
+    final int row = cellIndex / 11 % recordsTable.getRowCount();
+    cellIndex++;
+    return archiveRenderer.getTableCellRendererComponent(
+        recordsTable, "01.03.2022", false, false, row, cellIndex % 11);
+  }
+
+  @Benchmark
+  public Component renderPeriodsCell() {
+    final int row = cellIndex / 7 % recordsTable.getRowCount();
+    cellIndex++;
+    return periodsRenderer.getTableCellRendererComponent(
+        recordsTable, "225", false, false, row, cellIndex % 7);
+  }
+
+  /**
+   * Paints next frame of scrolled table; frames are sampled, so that percentiles of frame time
+   * are reported besides the mean.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public BufferedImage paintRecordsFrame() {
+    final int lastFrameTop = Math.max(recordsTable.getHeight() - VIEWPORT_HEIGHT, 1);
+    frameTop = (frameTop + SCROLL_STEP) % lastFrameTop;
+    final Graphics2D graphics = image.createGraphics();
+    try {
+      recordsTable.getTableHeader().paint(graphics);
+      graphics.translate(0, -frameTop);
+      graphics.setClip(0, frameTop, VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+      recordsTable.paint(graphics);
+    } finally {
+      graphics.dispose();
+    }
+    return image;
+  }
+
+  @Override
+  public String toString() {
+    return "TableRenderersBenchmark [fleetSize=" + fleetSize + "]";
+  }
+
+}
@@ -0,0 +1,60 @@
+package gui.utility;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures sorting of model names of the whole fleet with {@code ModelNamesComparator}.
+ * <p>
+ * Names are the preset models of the comparator and a few non-standard ones, in random order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModelNamesComparatorBenchmark {
+  private static final String[] MODEL_NAMES = {"ТЭМ", "ТЭМ2У", "ТЭМ2М", "ТЭМ2УМ", "ТЭМ15",
+      "ТЭМ18", "ТГМ4", "ТГМ4А", "ТГМ4(А)", "ТГМ4Б", "ТГМ4(Б)", "ТГМ4Бл", "ЧМЭ3", "ТЭМ7А", "М62"};
+  @Param({"100", "1000", "10000", "100000"})
+  private int fleetSize;
+  private ModelNamesComparator comparator;
+  private String[] modelNames;
+
+  @Setup(Level.Trial)
+  public void createModelNames() {
+    comparator = new ModelNamesComparator();
+    final Random random = new Random(fleetSize);
+    modelNames = new String[fleetSize];
+    for (int j = 0; j < modelNames.length; j++) {
+      modelNames[j] = MODEL_NAMES[random.nextInt(MODEL_NAMES.length)];
+    }
+  }
+
+  @Benchmark
+  public String[] sortModelNames() {
+    final String[] sortedNames = modelNames.clone();
+    Arrays.sort(sortedNames, comparator);
+    return sortedNames;
+  }
+
+  @Override
+  public String toString() {
+    return "ModelNamesComparatorBenchmark [fleetSize=" + fleetSize + "]";
+  }
+
+}
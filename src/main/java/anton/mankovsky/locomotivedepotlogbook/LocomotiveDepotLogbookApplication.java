@@ -19,6 +19,7 @@ import org.springframework.context.ApplicationContext;
 import com.formdev.flatlaf.FlatDarkLaf;
 import com.formdev.flatlaf.FlatIntelliJLaf;
 import gui.GuiManager;
+import gui.SplashWindow;
 
 /**
  * Application entry point. 
@@ -26,7 +27,8 @@ import gui.GuiManager;
  * Custom FlatLaf theme by JFormDesigner open source project: 
  * @see <a href=https://github.com/JFormDesigner/FlatLaf>FlatLaf LAF</a>
  */
-@SpringBootApplication(scanBasePackageClasses = {gui.GuiManager.class, dbapi.DbManager.class})
+@SpringBootApplication(scanBasePackageClasses = {gui.GuiManager.class, dbapi.DbManager.class,
+    metrics.MetricsRegistry.class, tracing.Tracing.class})
 public class LocomotiveDepotLogbookApplication {
   private static final Logger logger = LogManager.getLogger();
   private static final Path UI_CONFIG_PATH = Paths.get(".", "UITheme.txt");
@@ -37,22 +39,41 @@ public class LocomotiveDepotLogbookApplication {
    * <p>
    * Changes headless property to false, cause the application is meant to run in environment that
    * supports GUI.
+   * <p>
+   * Spring context is created and data is loaded on a background thread while splash window
+   * shows startup stages, so the Event Dispatch Thread stays responsive. GuiManager is built on
+   * the Event Dispatch Thread once data is ready.
    */
 	public static void main(String[] args) {
 	  defineUiTheme();
 	  setLookAndFeel();
-	  EventQueue.invokeLater(new Runnable() {
-      
-      @Override
-      public void run() {
-        final SpringApplication springApplication = 
-            new SpringApplication(LocomotiveDepotLogbookApplication.class);
-        springApplication.setHeadless(false);
-        final ApplicationContext applicationContext = springApplication.run(args);
-        applicationContext.getBean(GuiManager.class);
-      }
-    });
-	  
+	  final SplashWindow splashWindow = new SplashWindow();
+	  splashWindow.display();
+	  final StartupProgress startupProgress = new StartupProgress(splashWindow);
+	  final Thread startupThread = new Thread(() -> {
+	    startupProgress.onStage(StartupProgress.STARTING_APPLICATION);
+	    final SpringApplication springApplication = 
+	        new SpringApplication(LocomotiveDepotLogbookApplication.class);
+	    springApplication.setHeadless(false);
+	    springApplication.addInitializers(context -> context.getBeanFactory()
+	        .registerSingleton("startupProgressListener", startupProgress));
+	    final ApplicationContext applicationContext;
+	    try {
+	      applicationContext = springApplication.run(args);
+	    } catch (final RuntimeException err) {
+	      logger.fatal("Application failed to start: " + err.getMessage());
+	      err.printStackTrace();
+	      splashWindow.close();
+	      System.exit(1);
+	      return;
+	    }
+	    startupProgress.onStage(StartupProgress.BUILDING_GUI);
+	    EventQueue.invokeLater(() -> {
+	      applicationContext.getBean(GuiManager.class);
+	      startupProgress.finish();
+	    });
+	  }, "startup");
+	  startupThread.start();
 	}
 	
 	 /**
@@ -0,0 +1,67 @@
+package anton.mankovsky.locomotivedepotlogbook;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import dbapi.StartupProgressListener;
+import gui.SplashWindow;
+import metrics.MetricsRegistry;
+
+/**
+ * Tracks startup stages: shows them on splash window and logs time spent in each of them.
+ * <p>
+ * Durations are also recorded in global metrics registry as {@code startup.<stage>} and
+ * {@code startup.total} timers.
+ */
+class StartupProgress implements StartupProgressListener {
+  static final String STARTING_APPLICATION = "Запуск приложения";
+  static final String BUILDING_GUI = "Построение интерфейса";
+  private static final Logger logger = LogManager.getLogger();
+  private final SplashWindow splashWindow;
+  private final long startTime;
+  private String currentStage;
+  private long currentStageStart;
+
+  /**
+   * Creates tracker which starts measuring time at once.
+   * @param splashWindow to show stages on
+   */
+  StartupProgress(final SplashWindow splashWindow) {
+    super();
+    this.splashWindow = splashWindow;
+    startTime = System.nanoTime();
+  }
+
+  @Override
+  public synchronized void onStage(final String stage) {
+    finishCurrentStage();
+    currentStage = stage;
+    currentStageStart = System.nanoTime();
+    splashWindow.showStage(stage);
+  }
+
+  /**
+   * Finishes the last stage, closes splash window and logs total startup time.
+   */
+  synchronized void finish() {
+    finishCurrentStage();
+    currentStage = null;
+    splashWindow.close();
+    final long duration = System.nanoTime() - startTime;
+    MetricsRegistry.getGlobal().timer("startup.total").record(duration);
+    logger.info("Application started in " + duration / 1_000_000 + " ms.");
+  }
+
+  private void finishCurrentStage() {
+    if (currentStage != null) {
+      final long duration = System.nanoTime() - currentStageStart;
+      MetricsRegistry.getGlobal().timer("startup." + currentStage).record(duration);
+      logger.info("Startup stage \"" + currentStage + "\" took " + duration / 1_000_000 + " ms.");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "StartupProgress [currentStage=" + currentStage + "]";
+  }
+
+}
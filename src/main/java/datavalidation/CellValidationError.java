@@ -0,0 +1,97 @@
+package datavalidation;
+
+import java.util.Objects;
+
+/**
+ * Describes a cell that failed bulk validation of repair records rows.
+ * <p>
+ * Row is the position of the row in validated rows, column is the index of the value in repair
+ * records data list.
+ */
+public final class CellValidationError {
+  private final int row;
+  private final int column;
+  private final String value;
+  private final Reason reason;
+
+  /**
+   * Why the value of a cell is invalid.
+   */
+  public enum Reason {
+    /** Model name is empty or there is no such model in repair periods table. */
+    UNKNOWN_MODEL("Unknown locomotive model"),
+    /** Locomotive number is empty or contains anything except digits. */
+    INVALID_NUMBER("Locomotive number should contain only digits"),
+    /** Date does not match dd.MM.yyyy format. */
+    INVALID_DATE_FORMAT("Date should be in dd.MM.yyyy format"),
+    /** Date matches dd.MM.yyyy format, but there is no such date. */
+    INVALID_DATE_VALUE("There is no such date");
+
+    private final String description;
+
+    Reason(final String description) {
+      this.description = description;
+    }
+
+    public String getDescription() {
+      return description;
+    }
+  }
+
+  /**
+   * Creates description of invalid cell.
+   * @param row position of the row in validated rows, starting with 0
+   * @param column index of the value in repair records data list
+   * @param value that failed validation
+   * @param reason of failure
+   */
+  public CellValidationError(final int row, final int column, final String value,
+                             final Reason reason) {
+    super();
+    this.row = row;
+    this.column = column;
+    this.value = value;
+    this.reason = reason;
+  }
+
+  public int getRow() {
+    return row;
+  }
+
+  public int getColumn() {
+    return column;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public Reason getReason() {
+    return reason;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof CellValidationError)) {
+      return false;
+    }
+    final CellValidationError error = (CellValidationError) other;
+    return row == error.row && column == error.column && Objects.equals(value, error.value)
+        && reason == error.reason;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(row, column, value, reason);
+  }
+
+  @Override
+  public String toString() {
+    return "CellValidationError [row=" + row + ", column=" + column + ", value=" + value
+        + ", reason=" + reason + "]";
+  }
+
+}
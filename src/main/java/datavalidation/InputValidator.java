@@ -1,18 +1,33 @@
 package datavalidation;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import datavalidation.CellValidationError.Reason;
+import datecalculations.DateCodec;
 import dbapi.DbManager;
+import dbapi.ModelNameIndex;
+import dbapi.RepairRecordStore;
+import tracing.Stage;
+import tracing.Trace;
+import tracing.Tracing;
 
 /**
  * Validates data before it goes into the database. 
+ * <p>
+ * Patterns are compiled once, dates are checked without creating date objects and model names
+ * are looked up in {@link ModelNameIndex}, so validation of many values is cheap. Rows of
+ * imports and bulk edits could be validated at once with {@link #validateRows(Iterable)}, which
+ * does not throw exceptions and returns all invalid cells.
+ * <p>
+ * Every validation is traced as Java Flight Recorder event.
  */
 public class InputValidator {
   private static final Logger logger = LogManager.getLogger();
+  private static final Pattern LOCO_NUMBER = Pattern.compile("[0-9]+");
+  private static final Pattern MODEL_NAME_SPECIAL_CHARACTERS = Pattern.compile("[\"'\\\\]");
   private final DbManager dbManager;
   
   /**
@@ -29,14 +44,21 @@ public class InputValidator {
    * @throws IllegalArgumentException when number is null or contains anything except digits
    */
   public void validateLocoNumber(final String locoNumber) throws IllegalArgumentException {
-    Pattern pattern = Pattern.compile("[0-9]+");
-    if (locoNumber == null || !pattern.matcher(locoNumber.trim()).matches()) {
-      final String logString = "\"" + locoNumber + "\"" + " failed locomotive number validation:"
-          + " it may not be null and should cointain only digits (one or more).";
-      logger.warn(logString);
+    final Trace trace = Tracing.begin(Stage.VALIDATION);
+    try {
+      checkLocoNumber(locoNumber);
+    } finally {
+      trace.finish("validateLocoNumber");
+    }
+  }
+  
+  private void checkLocoNumber(final String locoNumber) throws IllegalArgumentException {
+    if (!isLocoNumber(locoNumber)) {
+      logger.warn("\"{}\" failed locomotive number validation: it may not be null and should "
+          + "cointain only digits (one or more).", locoNumber);
       throw new IllegalArgumentException("Invalid locomotive number: " + locoNumber);
     } else {
-      logger.info("\"" + locoNumber + "\"" + " passed locomotive number validation.");
+      logger.debug("\"{}\" passed locomotive number validation.", locoNumber);
     }
   }
   
@@ -48,28 +70,33 @@ public class InputValidator {
    * @param date to validate
    * @throws IllegalArgumentException if contains any characters while violates pattern dd.MM.yyyy
    */
-  public void validateRepairDate(String date) throws IllegalArgumentException {
+  public void validateRepairDate(final String date) throws IllegalArgumentException {
+    final Trace trace = Tracing.begin(Stage.VALIDATION);
+    try {
+      checkRepairDate(date);
+    } finally {
+      trace.finish("validateRepairDate");
+    }
+  }
+  
+  private void checkRepairDate(String date) throws IllegalArgumentException {
     if (date == null || date.equals("")) {
       //logger.info("Repair date passed validation cause nulls and empty strings are allowed.");
       return;
     }
     
     date = date.trim();
-    Pattern pattern = Pattern.compile("[0-9]{2}\\.[0-9]{2}\\.[0-9]{4}");
-    if (!pattern.matcher(date).matches()) {
-      logger.warn(date + " failed validation due to violation of required date format: dd.MM.yyyy");
+    final Reason failure = checkDate(date);
+    if (failure == Reason.INVALID_DATE_FORMAT) {
+      logger.warn("{} failed validation due to violation of required date format: dd.MM.yyyy",
+          date);
       throw new IllegalArgumentException("Invalid date format: " + date + ". dd.MM.yyyy expected.");
-    } else {
-      final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-      try {
-        LocalDate.parse(date, formatter);
-      } catch (final DateTimeParseException e) {
-        logger.warn(date + " failed validation due to invalid value: " + e.getMessage());
-        throw new IllegalArgumentException("Invalid date value: " + e.getMessage());
-      }
+    } else if (failure == Reason.INVALID_DATE_VALUE) {
+      logger.warn("{} failed validation due to invalid value: there is no such date", date);
+      throw new IllegalArgumentException("Invalid date value: " + date);
     }
     
-    logger.info("Repair date " + date + " passed the validation.");
+    logger.debug("Repair date {} passed the validation.", date);
   }
   
   /**
@@ -80,28 +107,34 @@ public class InputValidator {
    * @param modelName to validate
    * @throws IllegalArgumentException if validation fails
    */
-  public void validateRepairPeriodsModelName(String modelName) throws 
-                                                                        IllegalArgumentException {
+  public void validateRepairPeriodsModelName(final String modelName)
+                                                                throws IllegalArgumentException {
+    final Trace trace = Tracing.begin(Stage.VALIDATION);
+    try {
+      checkRepairPeriodsModelName(modelName);
+    } finally {
+      trace.finish("validateRepairPeriodsModelName");
+    }
+  }
+  
+  private void checkRepairPeriodsModelName(String modelName) throws IllegalArgumentException {
     modelName = modelName == null ? "" : modelName.trim();
     if (modelName.equals("")) {
-      logger.warn(modelName + " failed model name validation: it can not be empty or NULL");
+      logger.warn("{} failed model name validation: it can not be empty or NULL", modelName);
       throw new IllegalArgumentException("Invalid locomotive model name: cannot be empty or NULL");
     }
     
-    if (modelName.contains("\"") || modelName.contains("\'") || modelName.contains("\\")) {
-      logger.warn(modelName + " failed model name validation: it contains special character");
+    if (MODEL_NAME_SPECIAL_CHARACTERS.matcher(modelName).find()) {
+      logger.warn("{} failed model name validation: it contains special character", modelName);
       throw new IllegalArgumentException("Invalid locomotive model name: special character.");
     }
     
-    for (String name : dbManager.getAllModelNames()) {
-      if (modelName.equals(name)) {
-        final String logString = modelName + " failed model name validation: model with the same "
-            + "name already exists.";
-        logger.warn(logString);
-        throw new IllegalArgumentException("Not unique model name: " + modelName);
-      }
+    if (dbManager.getModelNameIndex().getRow(modelName) >= 0) {
+      logger.warn("{} failed model name validation: model with the same name already exists.",
+          modelName);
+      throw new IllegalArgumentException("Not unique model name: " + modelName);
     }
-    logger.info(modelName + " passed model name validation.");
+    logger.debug("{} passed model name validation.", modelName);
   }
   
   /**
@@ -112,16 +145,95 @@ public class InputValidator {
    * @throws IllegalArgumentException if period is not a positive number
    */
   public void validateRepairPeriod(final int period) throws IllegalArgumentException {
+    final Trace trace = Tracing.begin(Stage.VALIDATION);
+    try {
+      checkRepairPeriod(period);
+    } finally {
+      trace.finish("validateRepairPeriod");
+    }
+  }
+  
+  private void checkRepairPeriod(final int period) throws IllegalArgumentException {
     if (period > 0 && period < 36400) {
-      logger.info("Repair period value " + period +  " passed the validation.");
+      logger.debug("Repair period value {} passed the validation.", period);
     } else {
-      logger.warn("Repair period value " + period
-                + " failed validation cause it`s not positive or it`s too big");
+      logger.warn(
+          "Repair period value {} failed validation cause it`s not positive or it`s too big",
+          period);
       throw new IllegalArgumentException(
           "Repair period " + period + " is not a positive number or it`s too big");
     }
   }
   
+  /**
+   * Validates rows of repair records table, e.g. before import or bulk edit.
+   * <p>
+   * Model name should be a name of existing model, locomotive number should contain only digits
+   * and repair dates should be empty or valid dates in {@code dd.MM.yyyy} format. Values are
+   * trimmed before validation, other columns are not validated.
+   * @param rows with values in the same order as in repair records data lists
+   * @return invalid cells in order of rows and columns, empty list if all cells are valid
+   */
+  public List<CellValidationError> validateRows(final Iterable<List<String>> rows) {
+    final Trace trace = Tracing.begin(Stage.VALIDATION);
+    final ModelNameIndex modelNameIndex = dbManager.getModelNameIndex();
+    final List<CellValidationError> errors = new ArrayList<>();
+    int rowNumber = 0;
+    try {
+      for (final List<String> row : rows) {
+        validateRow(row, rowNumber++, modelNameIndex, errors);
+      }
+    } finally {
+      trace.finish("validateRows");
+    }
+    if (!errors.isEmpty()) {
+      logger.warn("{} of {} validated rows contain invalid values, first invalid cell: {}",
+          countRows(errors), rowNumber, errors.get(0));
+    }
+    return errors;
+  }
+
+  private static void validateRow(final List<String> row, final int rowNumber,
+      final ModelNameIndex modelNameIndex, final List<CellValidationError> errors) {
+    final int columns = Math.min(row.size(), RepairRecordStore.COLUMN_COUNT);
+    for (int column = 0; column < columns; column++) {
+      final String value = row.get(column);
+      final String trimmed = value == null ? "" : value.trim();
+      final Reason failure;
+      if (column == RepairRecordStore.MODEL_NAME) {
+        failure = modelNameIndex.getRow(trimmed) >= 0 ? null : Reason.UNKNOWN_MODEL;
+      } else if (column == RepairRecordStore.LOCO_NUMBER) {
+        failure = isLocoNumber(trimmed) ? null : Reason.INVALID_NUMBER;
+      } else if (RepairRecordStore.isDateColumn(column) && !trimmed.isEmpty()) {
+        failure = checkDate(trimmed);
+      } else {
+        failure = null;
+      }
+      if (failure != null) {
+        errors.add(new CellValidationError(rowNumber, column, value, failure));
+      }
+    }
+  }
+
+  private static boolean isLocoNumber(final String locoNumber) {
+    return locoNumber != null && LOCO_NUMBER.matcher(locoNumber.trim()).matches();
+  }
+
+  /**
+   * Checks trimmed non-empty date.
+   * @return reason of failure or {@code null} if date is valid
+   */
+  private static Reason checkDate(final String date) {
+    if (!DateCodec.hasDateFormat(date)) {
+      return Reason.INVALID_DATE_FORMAT;
+    }
+    return DateCodec.tryParse(date) == DateCodec.INVALID ? Reason.INVALID_DATE_VALUE : null;
+  }
+
+  private static long countRows(final List<CellValidationError> errors) {
+    return errors.stream().mapToInt(CellValidationError::getRow).distinct().count();
+  }
+
   @Override
   public String toString() {
     return "InputValidator object - container for methods with input data validation.";
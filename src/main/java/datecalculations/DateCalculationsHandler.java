@@ -1,24 +1,23 @@
 package datecalculations;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-import javax.swing.table.AbstractTableModel;
-import javax.swing.table.TableModel;
 import dbapi.DbManager;
+import dbapi.RepairRecordStore;
 import gui.GuiManager;
 import gui.utility.DialogWindow;
+import tracing.Stage;
+import tracing.Trace;
+import tracing.Tracing;
 
 /**
  * Encapsulates methods for automatic next repair dates calculations (for new last repair values).
+ * <p>
+ * Next repair dates are calculated by {@link RepairCascade}.
  */
 public class DateCalculationsHandler {
   private final GuiManager guiManager;
   private final DbManager dbManager;
   private final RequiredRepairHandler requiredRepairHandler;
-  private List<String> recordData;
-  private List<Integer> periodsData;
-  private final DateTimeFormatter formatter;
   private final DialogWindow dialogWindow;
   
   /**
@@ -36,7 +35,6 @@ public class DateCalculationsHandler {
     this.dbManager = dbManager;
     this.requiredRepairHandler = requiredRepairHandler;
     this.dialogWindow = dialogWindow;
-    formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
   }
   
   /**
@@ -49,298 +47,82 @@ public class DateCalculationsHandler {
    * <p>
    * Updates {@code required_repair} column through {@code RequiredRepairHandler object}.
    * <p>
-   * Writes new values to database and notifies repair records GUI table that values were changed.
+   * Collects new values in the given patch and notifies repair records GUI table that values were
+   * changed. Patch should be written to the database by the caller, then overdue state should be
+   * applied with {@link #applyOverdueState(RecordPatch)} and user informed about potential typo
+   * with {@link #informUserIfLastRepairDateIsAfterToday(String, LocalDate)}.
    * @param lastRepairString that represents a valid date from user`s input
    * @param rowIndex for record in which last repair date was inserted
    * @param colIndex for type of last repair
-   * @param today date to define potential typo of given date
+   * @param today date to detect overdue repair and define required repair date
+   * @param recordPatch with changes of the record, which will be supplemented with calculated
+   * next repair dates and required repair values
    */
   public void handleDateCalculations(final String lastRepairString, final int rowIndex,
-                                     final int colIndex, final LocalDate today ) {
-    final int rowId = dbManager.getIdByOrdinalNumber(rowIndex / 2);
-    recordData = dbManager.getAllRepairRecords().get(rowId);
-    periodsData = dbManager.getAllRepairPeriodData().get(recordData.get(0));
-    final LocalDate lastRepairDate = LocalDate.parse(lastRepairString, formatter);
-    switch (colIndex) {
-    case 2:
-      threeMaintenanceCase(lastRepairDate, rowIndex, colIndex);
-      break;
-    case 3:
-      oneCurrentRepairCase(lastRepairDate, rowIndex, colIndex);
-      break;
-    case 4:
-      twoCurrentRepairCase(lastRepairDate, rowIndex, colIndex);
-      break;
-    case 5:
-      threeCurrentRepairCase(lastRepairDate, rowIndex, colIndex);
-      break;
-    case 6:
-      mediumRepairCase(lastRepairDate, rowIndex, colIndex);
-      break;
-    case 7:
-      overhaulCase(lastRepairDate, rowIndex, colIndex);
-      break;
-    default:
-    }
-    
-    updateRequiredRepairColumn(rowIndex);
-    informUserIfLastRepairDateIsAfterToday(lastRepairDate, today);
-  }
-  
-  private void threeMaintenanceCase(
-      final LocalDate lastThreeMaintenanceDate, final int rowIndex, final int colIndex) {
-    final int rowId = dbManager.getIdByOrdinalNumber(rowIndex / 2);
-    final long threeMaintenancePeriod = periodsData.get(0);
-    final LocalDate nextTreeMaintenanceDate =
-        lastThreeMaintenanceDate.plusDays(threeMaintenancePeriod);
-    final String nextTreeMaintenanceString = nextTreeMaintenanceDate.format(formatter);
-    
-    dbManager.setRepairRecordCell(rowId, colIndex * 2 - 1, nextTreeMaintenanceString);
-    fireCellUpdated(rowIndex + 1, colIndex, colIndex);
-  }
-  
-  private void oneCurrentRepairCase(
-      final LocalDate lastOneCurrentRepairDate, final int rowIndex, final int colIndex) {
-    final int rowId = dbManager.getIdByOrdinalNumber(rowIndex / 2);
-    
-    final long threeMaintenancePeriod = periodsData.get(0);
-    final long oneCurrentRepairPeriod = periodsData.get(1);
-    
-    final LocalDate nextTreeMaintenanceDate =
-        lastOneCurrentRepairDate.plusDays(threeMaintenancePeriod);
-    final LocalDate nextOneCurrentRepairDate =
-        lastOneCurrentRepairDate.plusDays(oneCurrentRepairPeriod);
-    
-    final String nextTreeMaintenanceString = nextTreeMaintenanceDate.format(formatter);
-    final String nextOneCurrentRepairString = nextOneCurrentRepairDate.format(formatter);
-    
-    // TODO: replace multiple database calls for every cell with single call that would
-    // insert values in database for all cells of row at once (for all repair cases).
-    dbManager.setRepairRecordCell(rowId, colIndex * 2 - 1, nextOneCurrentRepairString);
-    if (shouldUpdate((colIndex - 1) * 2 - 1, nextTreeMaintenanceDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 1) * 2 - 1, nextTreeMaintenanceString);
-    }
-    
-    fireCellUpdated(rowIndex + 1, colIndex, colIndex - 1);
-  }
-  
-  private void twoCurrentRepairCase(
-      final LocalDate lastTwoCurrentRepairDate, final int rowIndex, final int colIndex) {
-    final int rowId = dbManager.getIdByOrdinalNumber(rowIndex / 2);
-    
-    final long threeMaintenancePeriod = periodsData.get(0);
-    final long oneCurrentRepairPeriod = periodsData.get(1);
-    final long twoCurrentRepairPeriod = periodsData.get(2);
-    
-    final LocalDate nextTreeMaintenanceDate =
-        lastTwoCurrentRepairDate.plusDays(threeMaintenancePeriod);
-    final LocalDate nextOneCurrentRepairDate =
-        lastTwoCurrentRepairDate.plusDays(oneCurrentRepairPeriod);
-    final LocalDate nextTwoCurrentRepairDate =
-        lastTwoCurrentRepairDate.plusDays(twoCurrentRepairPeriod);
-
-    final String nextTreeMaintenanceString = nextTreeMaintenanceDate.format(formatter);
-    final String nextOneCurrentRepairString = nextOneCurrentRepairDate.format(formatter);
-    final String nextTwoCurrentRepairString = nextTwoCurrentRepairDate.format(formatter);
-    
-    dbManager.setRepairRecordCell(rowId, colIndex * 2 - 1, nextTwoCurrentRepairString);
-    if (shouldUpdate((colIndex - 1) * 2 - 1, nextOneCurrentRepairDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 1) * 2 - 1, nextOneCurrentRepairString);
-    }
-    if (shouldUpdate((colIndex - 2) * 2 - 1, nextTreeMaintenanceDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 2) * 2 - 1, nextTreeMaintenanceString);
-    }
-
-    fireCellUpdated(rowIndex + 1, colIndex, colIndex - 2);
-  }
-  
-  private void threeCurrentRepairCase(
-      final LocalDate lastThreeCurrentRepairDate, final int rowIndex, final int colIndex) {
-    final int rowId = dbManager.getIdByOrdinalNumber(rowIndex / 2);
-    
-    final long threeMaintenancePeriod = periodsData.get(0);
-    final long oneCurrentRepairPeriod = periodsData.get(1);
-    final long twoCurrentRepairPeriod = periodsData.get(2);
-    final long threeCurrentRepairPeriod = periodsData.get(3);
-    
-    final LocalDate nextTreeMaintenanceDate =
-        lastThreeCurrentRepairDate.plusDays(threeMaintenancePeriod);
-    final LocalDate nextOneCurrentRepairDate =
-        lastThreeCurrentRepairDate.plusDays(oneCurrentRepairPeriod);
-    final LocalDate nextTwoCurrentRepairDate =
-        lastThreeCurrentRepairDate.plusDays(twoCurrentRepairPeriod);
-    final LocalDate nextThreeCurrentRepairDate =
-        lastThreeCurrentRepairDate.plusDays(threeCurrentRepairPeriod);
-    
-    final String nextTreeMaintenanceString = nextTreeMaintenanceDate.format(formatter);
-    final String nextOneCurrentRepairString = nextOneCurrentRepairDate.format(formatter);
-    final String nextTwoCurrentRepairString = nextTwoCurrentRepairDate.format(formatter);
-    final String nextThreeCurrentRepairString = nextThreeCurrentRepairDate.format(formatter);
-    
-    dbManager.setRepairRecordCell(rowId, colIndex * 2 - 1, nextThreeCurrentRepairString);
-    if (shouldUpdate((colIndex - 1) * 2 - 1, nextTwoCurrentRepairDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 1) * 2 - 1, nextTwoCurrentRepairString);
-    }
-    if (shouldUpdate((colIndex - 2) * 2 - 1, nextOneCurrentRepairDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 2) * 2 - 1, nextOneCurrentRepairString);
-    }
-    if (shouldUpdate((colIndex - 3) * 2 - 1, nextTreeMaintenanceDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 3) * 2 - 1, nextTreeMaintenanceString);
-    }
-    
-    fireCellUpdated(rowIndex + 1, colIndex, colIndex - 3);
-  }
-  
-  private void mediumRepairCase(
-      final LocalDate lastMediumRepairDate, final int rowIndex, final int colIndex) {
-    final int rowId = dbManager.getIdByOrdinalNumber(rowIndex / 2);
-    
-    final long threeMaintenancePeriod = periodsData.get(0);
-    final long oneCurrentRepairPeriod = periodsData.get(1);
-    final long twoCurrentRepairPeriod = periodsData.get(2);
-    final long threeCurrentRepairPeriod = periodsData.get(3);
-    final long mediumRepairPeriod = periodsData.get(4);
-    
-    final LocalDate nextTreeMaintenanceDate =
-        lastMediumRepairDate.plusDays(threeMaintenancePeriod);
-    final LocalDate nextOneCurrentRepairDate =
-        lastMediumRepairDate.plusDays(oneCurrentRepairPeriod);
-    final LocalDate nextTwoCurrentRepairDate =
-        lastMediumRepairDate.plusDays(twoCurrentRepairPeriod);
-    final LocalDate nextThreeCurrentRepairDate =
-        lastMediumRepairDate.plusDays(threeCurrentRepairPeriod);
-    final LocalDate nextMediumRepairDate =
-        lastMediumRepairDate.plusDays(mediumRepairPeriod);
-    
-    final String nextTreeMaintenanceString = nextTreeMaintenanceDate.format(formatter);
-    final String nextOneCurrentRepairString = nextOneCurrentRepairDate.format(formatter);
-    final String nextTwoCurrentRepairString = nextTwoCurrentRepairDate.format(formatter);
-    final String nextThreeCurrentRepairString = nextThreeCurrentRepairDate.format(formatter);
-    final String nextMediumRepairString = nextMediumRepairDate.format(formatter);
-    
-    dbManager.setRepairRecordCell(rowId, colIndex * 2 - 1, nextMediumRepairString);
-    if (shouldUpdate((colIndex - 1) * 2 - 1, nextThreeCurrentRepairDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 1) * 2 - 1, nextThreeCurrentRepairString);
-    }
-    if (shouldUpdate((colIndex - 2) * 2 - 1, nextTwoCurrentRepairDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 2) * 2 - 1, nextTwoCurrentRepairString);
-    }
-    if (shouldUpdate((colIndex - 3) * 2 - 1, nextOneCurrentRepairDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 3) * 2 - 1, nextOneCurrentRepairString);
-    }
-    if (shouldUpdate((colIndex - 4) * 2 - 1, nextTreeMaintenanceDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 4) * 2 - 1, nextTreeMaintenanceString);
+                                     final int colIndex, final LocalDate today,
+                                     final RecordPatch recordPatch) {
+    final int lastRepairDay = DateCodec.parse(lastRepairString);
+    final int repairTypeIndex = colIndex - 2;
+    if (repairTypeIndex >= 0 && repairTypeIndex < RequiredRepairCalculator.REPAIR_TYPES) {
+      final Trace trace = Tracing.begin(Stage.DATE_CALCULATION);
+      try {
+        final int[] periods = RepairCascade.toPeriodTable(
+            dbManager.getAllRepairPeriodData().get(recordPatch.get(RepairRecordStore.MODEL_NAME)));
+        RepairCascade.applyTo(recordPatch, lastRepairDay, repairTypeIndex, periods);
+        // Next dates of performed repair and all smaller repairs are shown on the next row
+        fireCellsUpdated(rowIndex + 1, 2, colIndex);
+      } finally {
+        trace.finish(RequiredRepairCalculator.getRepairName(repairTypeIndex), rowIndex, colIndex);
+      }
     }
     
-    fireCellUpdated(rowIndex + 1, colIndex, colIndex - 4);
+    updateRequiredRepairColumn(recordPatch, rowIndex, today);
   }
   
-  private void overhaulCase(
-      final LocalDate lastOverhaulDate, final int rowIndex, final int colIndex) {
-    final int rowId = dbManager.getIdByOrdinalNumber(rowIndex / 2);
-    
-    final long threeMaintenancePeriod = periodsData.get(0);
-    final long oneCurrentRepairPeriod = periodsData.get(1);
-    final long twoCurrentRepairPeriod = periodsData.get(2);
-    final long threeCurrentRepairPeriod = periodsData.get(3);
-    final long mediumRepairPeriod = periodsData.get(4);
-    final long overhaulPeriod = periodsData.get(5);
-    
-    final LocalDate nextTreeMaintenanceDate =
-        lastOverhaulDate.plusDays(threeMaintenancePeriod);
-    final LocalDate nextOneCurrentRepairDate =
-        lastOverhaulDate.plusDays(oneCurrentRepairPeriod);
-    final LocalDate nextTwoCurrentRepairDate =
-        lastOverhaulDate.plusDays(twoCurrentRepairPeriod);
-    final LocalDate nextThreeCurrentRepairDate =
-        lastOverhaulDate.plusDays(threeCurrentRepairPeriod);
-    final LocalDate nextMediumRepairDate =
-        lastOverhaulDate.plusDays(mediumRepairPeriod);
-    final LocalDate nextOverhaulDate =
-        lastOverhaulDate.plusDays(overhaulPeriod);
-    
-    final String nextTreeMaintenanceString = nextTreeMaintenanceDate.format(formatter);
-    final String nextOneCurrentRepairString = nextOneCurrentRepairDate.format(formatter);
-    final String nextTwoCurrentRepairString = nextTwoCurrentRepairDate.format(formatter);
-    final String nextThreeCurrentRepairString = nextThreeCurrentRepairDate.format(formatter);
-    final String nextMediumRepairString = nextMediumRepairDate.format(formatter);
-    final String nextOverhaulString = nextOverhaulDate.format(formatter);
-    
-    dbManager.setRepairRecordCell(rowId, colIndex * 2 - 1, nextOverhaulString);
-    if (shouldUpdate((colIndex - 1) * 2 - 1, nextMediumRepairDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 1) * 2 - 1, nextMediumRepairString);
-    }
-    if (shouldUpdate((colIndex - 2) * 2 - 1, nextThreeCurrentRepairDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 2) * 2 - 1, nextThreeCurrentRepairString);
-    }
-    if (shouldUpdate((colIndex - 3) * 2 - 1, nextTwoCurrentRepairDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 3) * 2 - 1, nextTwoCurrentRepairString);
-    }
-    if (shouldUpdate((colIndex - 4) * 2 - 1, nextOneCurrentRepairDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 4) * 2 - 1, nextOneCurrentRepairString);
-    }
-    if (shouldUpdate((colIndex - 5) * 2 - 1, nextTreeMaintenanceDate)) {
-      dbManager.setRepairRecordCell(rowId, (colIndex - 5) * 2 - 1, nextTreeMaintenanceString);
-    }
-    
-    fireCellUpdated(rowIndex + 1, colIndex, colIndex - 5);
+  /**
+   * Updates DB Manager data structure of overdue repairs with state calculated for the patch.
+   * <p>
+   * Should be called only after the patch was written into the database.
+   * @param recordPatch that was handled by this object and written into the database
+   */
+  public void applyOverdueState(final RecordPatch recordPatch) {
+    requiredRepairHandler.applyOverdueState(recordPatch);
   }
   
   /**
    * Notifies repair records table model that cells in certain range have been changed.
    * @param rowIndex for row whose values were changed
-   * @param firstColIndex inclusive
-   * @param lastColIndex inclusive
+   * @param firstColIndex leftmost changed column, inclusive
+   * @param lastColIndex rightmost changed column, inclusive
    */
-  private void fireCellUpdated(
+  private void fireCellsUpdated(
       final int rowIndex, final int firstColIndex, final int lastColIndex) {
-    final TableModel tm = guiManager.getRepairRecordsTable().getModel();
-    if (tm instanceof AbstractTableModel) {
-      final AbstractTableModel recordsModel = (AbstractTableModel) tm;
-      for (int j = firstColIndex; j >= lastColIndex; j--) {
-        recordsModel.fireTableCellUpdated(rowIndex, j);
-      }
-    } 
+    guiManager.getRecordsChangeCoalescer().cellsUpdated(rowIndex, firstColIndex, lastColIndex);
   }
   
   /**
-   * Defines whether or not date value should be updated.
-   * @param colId for repair type
-   * @param newDate to compare with old date
-   * @return {@code true} if new date is after old date
+   * Calls required repair handler and fireCellsUpdated to handle possible required repair changes.
+   * @param recordPatch with changes of the record
+   * @param rowIndex for record in which changes have been performed
+   * @param today date to detect overdue repair and define required repair date
    */
-  private boolean shouldUpdate(final int colId, final LocalDate newDate) {
-    final String oldDateString = recordData.get(colId);
-    if (oldDateString == null|| oldDateString.equals("")) {
-      return true;
-    }
-    final LocalDate oldDate = LocalDate.parse(oldDateString, formatter);
-    if (newDate.isAfter(oldDate)) {
-      return true;
-    }
-    return false;
-  }
-  
-  /**
-   * Calls required repair handler and fireCellUpdated to handle possible required repair changes.
-   * @param rowIndex for record in which changes have been performed. Converts it to correct
-   * {@code rowId} for last repair handler.
-   */
-  private void updateRequiredRepairColumn(final int rowIndex) {
-    final int rowId = dbManager.getIdByOrdinalNumber(rowIndex / 2);
-    requiredRepairHandler.updateRequiredRepairValues(rowId, LocalDate.now());
-    fireCellUpdated(rowIndex, 9, 9);
-    fireCellUpdated(rowIndex + 1, 9, 9);
+  private void updateRequiredRepairColumn(final RecordPatch recordPatch, final int rowIndex,
+                                          final LocalDate today) {
+    requiredRepairHandler.updateRequiredRepairValues(recordPatch, today);
+    fireCellsUpdated(rowIndex, 9, 9);
+    fireCellsUpdated(rowIndex + 1, 9, 9);
   }
   
   /**
    * Informs user if last repair date is after today, cause it`s not expected typical use case.
-   * @param lastRepairDate to compare with {@code today}
-   * @param today to compare with {@code lastRepairDate}
+   * <p>
+   * Dialog window waits for the user, so it should be shown after the value was written.
+   * @param lastRepairString that represents a valid date from user`s input
+   * @param today to compare with last repair date
    */
-  private void informUserIfLastRepairDateIsAfterToday(
-      final LocalDate lastRepairDate, final LocalDate today) {
-    if (lastRepairDate.isAfter(today)) {
+  public void informUserIfLastRepairDateIsAfterToday(
+      final String lastRepairString, final LocalDate today) {
+    if (DateCodec.parse(lastRepairString) > today.toEpochDay()) {
       dialogWindow.showInfoMessage(guiManager.getMainFrame(),
             "Потенциальная опечатка", "Введённая дата ремонта больше сегодняшней");
     }
@@ -0,0 +1,187 @@
+package datecalculations;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Converts repair dates between {@code dd.MM.yyyy} strings and epoch days.
+ * <p>
+ * Epoch day is a primitive {@code int}, so dates could be stored and compared without objects.
+ * Empty date is represented with {@code EMPTY} value.
+ * <br>
+ * Strings for dates between 1950 and 2150 are created once and then reused, so formatting of
+ * the same date twice does not allocate memory.
+ */
+public final class DateCodec {
+  /** Epoch day value of empty date. */
+  public static final int EMPTY = Integer.MIN_VALUE;
+  /** Value returned by {@link #tryParse(String)} for strings that are not valid dates. */
+  public static final int INVALID = Integer.MIN_VALUE + 1;
+  private static final int CACHE_FIRST_DAY = (int) LocalDate.of(1950, 1, 1).toEpochDay();
+  private static final int CACHE_SIZE =
+      (int) LocalDate.of(2150, 1, 1).toEpochDay() - CACHE_FIRST_DAY;
+  private static final String[] FORMATTED_DATES = new String[CACHE_SIZE];
+  private static final int DATE_LENGTH = 10;
+
+  private DateCodec() {
+  }
+
+  /**
+   * Converts date string to epoch day.
+   * @param value in {@code dd.MM.yyyy} format, {@code null} or empty string
+   * @return epoch day or {@code EMPTY} for {@code null} and empty string
+   * @throws DateTimeParseException if value is not a valid date in {@code dd.MM.yyyy} format
+   */
+  public static int parse(final String value) {
+    if (value == null || value.isEmpty()) {
+      return EMPTY;
+    }
+    if (value.length() != DATE_LENGTH || value.charAt(2) != '.' || value.charAt(5) != '.') {
+      throw new DateTimeParseException("Date must be in dd.MM.yyyy format", value, 0);
+    }
+    final int day = parseDigits(value, 0, 2);
+    final int month = parseDigits(value, 3, 5);
+    final int year = parseDigits(value, 6, 10);
+    try {
+      return (int) LocalDate.of(year, month, day).toEpochDay();
+    } catch (final DateTimeException err) {
+      throw new DateTimeParseException(err.getMessage(), value, 0);
+    }
+  }
+
+  /**
+   * Converts date string to epoch day without throwing exceptions, so that large amounts of
+   * input could be checked cheaply.
+   * @param value in {@code dd.MM.yyyy} format, {@code null} or empty string
+   * @return epoch day, {@code EMPTY} for {@code null} and empty string or {@code INVALID} if
+   * value is not a valid date in {@code dd.MM.yyyy} format
+   */
+  public static int tryParse(final String value) {
+    if (value == null || value.isEmpty()) {
+      return EMPTY;
+    }
+    if (!hasDateFormat(value)) {
+      return INVALID;
+    }
+    final int day = (value.charAt(0) - '0') * 10 + value.charAt(1) - '0';
+    final int month = (value.charAt(3) - '0') * 10 + value.charAt(4) - '0';
+    final int year = (value.charAt(6) - '0') * 1000 + (value.charAt(7) - '0') * 100
+        + (value.charAt(8) - '0') * 10 + value.charAt(9) - '0';
+    if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+      return INVALID;
+    }
+    return toEpochDay(year, month, day);
+  }
+
+  /**
+   * Checks that value consists of two digits, dot, two digits, dot and four digits.
+   * <br>
+   * Does not check that day and month values exist.
+   * @param value to check, not {@code null}
+   * @return {@code true} if value looks like {@code dd.MM.yyyy} date
+   */
+  public static boolean hasDateFormat(final String value) {
+    if (value.length() != DATE_LENGTH || value.charAt(2) != '.' || value.charAt(5) != '.') {
+      return false;
+    }
+    for (int j = 0; j < DATE_LENGTH; j++) {
+      final char symbol = value.charAt(j);
+      if (j != 2 && j != 5 && (symbol < '0' || symbol > '9')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Converts epoch day to date string.
+   * @param epochDay to convert or {@code EMPTY}
+   * @return date in {@code dd.MM.yyyy} format or empty string for {@code EMPTY}
+   */
+  public static String format(final int epochDay) {
+    if (epochDay == EMPTY) {
+      return "";
+    }
+    final int cacheIndex = epochDay - CACHE_FIRST_DAY;
+    if (cacheIndex < 0 || cacheIndex >= CACHE_SIZE) {
+      return formatDate(LocalDate.ofEpochDay(epochDay));
+    }
+    // Concurrent calls could create equal strings, which is harmless
+    String formatted = FORMATTED_DATES[cacheIndex];
+    if (formatted == null) {
+      formatted = formatDate(LocalDate.ofEpochDay(epochDay));
+      FORMATTED_DATES[cacheIndex] = formatted;
+    }
+    return formatted;
+  }
+
+  /**
+   * Converts epoch day to {@code LocalDate}.
+   * @param epochDay to convert
+   * @return corresponding date or {@code null} for {@code EMPTY}
+   */
+  public static LocalDate toLocalDate(final int epochDay) {
+    return epochDay == EMPTY ? null : LocalDate.ofEpochDay(epochDay);
+  }
+
+  private static int lengthOfMonth(final int year, final int month) {
+    switch (month) {
+      case 2:
+        final boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+        return leap ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  /**
+   * Counts days since 1970-01-01 for non-negative year, same as {@code LocalDate.toEpochDay}.
+   */
+  private static int toEpochDay(final int year, final int month, final int day) {
+    // Years start in March, so that leap day is the last day of a year
+    final int shiftedYear = month <= 2 ? year - 1 : year;
+    final int era = (shiftedYear >= 0 ? shiftedYear : shiftedYear - 399) / 400;
+    final int yearOfEra = shiftedYear - era * 400;
+    final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146_097 + dayOfEra - 719_468;
+  }
+
+  private static int parseDigits(final String value, final int from, final int to) {
+    int result = 0;
+    for (int j = from; j < to; j++) {
+      final char digit = value.charAt(j);
+      if (digit < '0' || digit > '9') {
+        throw new DateTimeParseException("Date must be in dd.MM.yyyy format", value, j);
+      }
+      result = result * 10 + digit - '0';
+    }
+    return result;
+  }
+
+  private static String formatDate(final LocalDate date) {
+    final char[] chars = new char[DATE_LENGTH];
+    writeDigits(chars, 0, 2, date.getDayOfMonth());
+    chars[2] = '.';
+    writeDigits(chars, 3, 5, date.getMonthValue());
+    chars[5] = '.';
+    writeDigits(chars, 6, 10, date.getYear());
+    return new String(chars);
+  }
+
+  private static void writeDigits(final char[] chars, final int from, final int to,
+                                  final int value) {
+    int rest = value;
+    for (int j = to - 1; j >= from; j--) {
+      chars[j] = (char) ('0' + rest % 10);
+      rest /= 10;
+    }
+  }
+
+}
@@ -0,0 +1,141 @@
+package datecalculations;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import dbapi.RepairRecordStore;
+
+/**
+ * Recomputes required repairs of the whole fleet in parallel.
+ * <p>
+ * Records are split into ranges which are processed by tasks of {@code ForkJoinPool}. Every task
+ * only reads repair records and returns immutable change sets, so nothing is written while
+ * calculations run: the caller applies gathered changes and writes them in one place.
+ * <br>
+ * Repair records store must not be modified until {@code recompute} returns.
+ */
+public class FleetRecomputeService {
+  /** Records count which is processed by one task without further splitting. */
+  static final int DEFAULT_THRESHOLD = 2_048;
+  private final ForkJoinPool pool;
+  private final int threshold;
+  private final RequiredRepairCalculator calculator;
+
+  /**
+   * Creates service which uses common fork-join pool.
+   */
+  public FleetRecomputeService() {
+    this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Creates service.
+   * @param pool to run tasks in
+   * @param threshold count of records processed by one task without splitting
+   */
+  public FleetRecomputeService(final ForkJoinPool pool, final int threshold) {
+    super();
+    this.pool = pool;
+    this.threshold = Math.max(threshold, 1);
+    calculator = new RequiredRepairCalculator();
+  }
+
+  /**
+   * Computes required repair values of given records.
+   * @param store to read records from
+   * @param rowIds of records to recompute
+   * @param today date to detect overdue repairs
+   * @return change sets in order of given ids, one for every record
+   */
+  public List<RequiredRepairChange> recompute(
+      final RepairRecordStore store, final int[] rowIds, final LocalDate today) {
+    if (rowIds.length == 0) {
+      return Collections.emptyList();
+    }
+    final List<RequiredRepairChange> changes =
+        pool.invoke(new RecomputeTask(store, rowIds, 0, rowIds.length, today.toEpochDay()));
+    return Collections.unmodifiableList(changes);
+  }
+
+  /**
+   * Computes required repair values of one record.
+   * @param store to read record from
+   * @param rowId of the record
+   * @param todayDay epoch day of today
+   * @return change set of the record
+   */
+  RequiredRepairChange recomputeRecord(
+      final RepairRecordStore store, final int rowId, final long todayDay) {
+    final int[] nextRepairsDays = new int[RequiredRepairCalculator.REPAIR_TYPES];
+    for (int k = 0; k < nextRepairsDays.length; k++) {
+      final int nextRepairDateColumn = RepairCascade.nextRepairDateColumn(k);
+      nextRepairsDays[k] = store.getEpochDay(rowId, nextRepairDateColumn);
+    }
+    final RequiredRepair requiredRepair = calculator.calculate(nextRepairsDays, todayDay);
+    if (requiredRepair == null) {
+      return new RequiredRepairChange(rowId, false, Collections.emptyMap());
+    }
+    final String requiredRepairDateString = DateCodec.format(requiredRepair.getEpochDay());
+    if (requiredRepairDateString.equals(
+        store.getString(rowId, RepairRecordStore.REQUIRED_REPAIR_DATE))) {
+      return new RequiredRepairChange(rowId, requiredRepair.isOverdue(), Collections.emptyMap());
+    }
+    final Map<Integer, String> changes = new HashMap<>(4);
+    changes.put(RepairRecordStore.REQUIRED_REPAIR_TYPE, requiredRepair.getRepairName());
+    changes.put(RepairRecordStore.REQUIRED_REPAIR_DATE, requiredRepairDateString);
+    return new RequiredRepairChange(rowId, requiredRepair.isOverdue(), changes);
+  }
+
+  @Override
+  public String toString() {
+    return "FleetRecomputeService [parallelism=" + pool.getParallelism() + ", threshold="
+        + threshold + "]";
+  }
+
+  /**
+   * Recomputes records in range of ids array, splitting it in halves while it is too large.
+   */
+  private class RecomputeTask extends RecursiveTask<List<RequiredRepairChange>> {
+    private static final long serialVersionUID = 1L;
+    private final transient RepairRecordStore store;
+    private final int[] rowIds;
+    private final int from;
+    private final int to;
+    private final long todayDay;
+
+    RecomputeTask(final RepairRecordStore store, final int[] rowIds, final int from,
+                  final int to, final long todayDay) {
+      super();
+      this.store = store;
+      this.rowIds = rowIds;
+      this.from = from;
+      this.to = to;
+      this.todayDay = todayDay;
+    }
+
+    @Override
+    protected List<RequiredRepairChange> compute() {
+      if (to - from <= threshold) {
+        final List<RequiredRepairChange> changes = new ArrayList<>(to - from);
+        for (int j = from; j < to; j++) {
+          changes.add(recomputeRecord(store, rowIds[j], todayDay));
+        }
+        return changes;
+      }
+      final int middle = (from + to) >>> 1;
+      final RecomputeTask left = new RecomputeTask(store, rowIds, from, middle, todayDay);
+      final RecomputeTask right = new RecomputeTask(store, rowIds, middle, to, todayDay);
+      left.fork();
+      final List<RequiredRepairChange> rightChanges = right.compute();
+      final List<RequiredRepairChange> changes = left.join();
+      changes.addAll(rightChanges);
+      return changes;
+    }
+  }
+
+}
@@ -1,11 +1,12 @@
 package datecalculations;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
-import javax.swing.table.AbstractTableModel;
 import dbapi.DbManager;
+import dbapi.RepairRecordStore;
 import gui.GuiManager;
+import gui.tablemodels.TableChangeCoalescer;
+import tracing.Stage;
+import tracing.Trace;
+import tracing.Tracing;
 
 /**
  * Controls correctness of {@code last_repair} column.
@@ -13,8 +14,6 @@ import gui.GuiManager;
 public class LastRepairHandler {
   private final GuiManager guiManager;
   private final DbManager dbManager;
-  private List<String> recordData;
-  private final DateTimeFormatter formatter;
   private static final String[] REPAIR_NAMES = {"ТО-3", "ТР-1", "ТР-2", "ТР-3", "СР", "КР"};
   
   /**
@@ -26,7 +25,6 @@ public class LastRepairHandler {
     super();
     this.guiManager = guiManager;
     this.dbManager = dbManager;
-    formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
   }
   
   /**
@@ -36,61 +34,67 @@ public class LastRepairHandler {
    * scale than others.
    * <p>
    * If a row does not contain any dates, value will be an empty string.
+   * <p>
+   * New values are not written into the database directly but collected in the given patch.
    * @param rowIndex where new last repair date was inserted
+   * @param patch with changes of the record, which will be supplemented with last repair values
    */
-  public void updateLastRepairColumn(final int rowIndex) {
-    final int rowId = dbManager.getIdByOrdinalNumber(rowIndex / 2);
-    final LocalDate[] lastRepairsDates = getLastRepairsDates(rowId);
-    LocalDate lastRepairDate = null;
+  public void updateLastRepairColumn(final int rowIndex, final RecordPatch patch) {
+    final Trace trace = Tracing.begin(Stage.LAST_REPAIR);
+    try {
+      defineLastRepair(rowIndex, patch);
+    } finally {
+      trace.finish("updateLastRepairColumn", rowIndex, 8);
+    }
+  }
+  
+  private void defineLastRepair(final int rowIndex, final RecordPatch patch) {
+    final int[] lastRepairsDays = getLastRepairsDays(patch);
+    int lastRepairDay = DateCodec.EMPTY;
     int index = -1;
     
-    if (lastRepairsDates != null) {
-    lastRepairDate = LocalDate.ofEpochDay(0);
+    if (lastRepairsDays != null) {
+    lastRepairDay = 0;
     for (int j = 0; j < 6; j++) {
-      if (lastRepairsDates[j] != null && lastRepairDate.isBefore(lastRepairsDates[j])) {
-        lastRepairDate = lastRepairsDates[j];
+      if (lastRepairsDays[j] != DateCodec.EMPTY && lastRepairDay < lastRepairsDays[j]) {
+        lastRepairDay = lastRepairsDays[j];
         index = j;
       }
     }
     }
     
-    final String currentLastRepair = dbManager.getAllRepairRecords().get(rowId).get(15);
-    final String lastRepairDateString =
-          lastRepairDate != null ? lastRepairDate.format(formatter) : "";
+    final String currentLastRepair = patch.get(RepairRecordStore.LAST_REPAIR_DATE);
+    final String lastRepairDateString = DateCodec.format(lastRepairDay);
     if (currentLastRepair.equals(lastRepairDateString)) {
       return;
     }
     
-    dbManager.setRepairRecordCell(rowId, 14, index != -1 ? REPAIR_NAMES[index] : "");
-    dbManager.setRepairRecordCell(rowId, 15, lastRepairDateString);
+    patch.set(RepairRecordStore.LAST_REPAIR_TYPE, index != -1 ? REPAIR_NAMES[index] : "");
+    patch.set(RepairRecordStore.LAST_REPAIR_DATE, lastRepairDateString);
     
-    final AbstractTableModel recordsModel =
-        (AbstractTableModel) guiManager.getRepairRecordsTable().getModel();
-    recordsModel.fireTableCellUpdated(rowIndex, 8);
-    recordsModel.fireTableCellUpdated(rowIndex + 1, 8);
+    final TableChangeCoalescer changeCoalescer = guiManager.getRecordsChangeCoalescer();
+    changeCoalescer.cellUpdated(rowIndex, 8);
+    changeCoalescer.cellUpdated(rowIndex + 1, 8);
     
   }
   
   /**
-   * Returns array of last repair dates if there is at least one, otherwise returns {@code null}.
-   * @param rowId of repair record in database table
-   * @return array of last repair dates or {@code null} if record has no last repair dates yet
+   * Returns epoch days of last repairs if there is at least one, otherwise returns {@code null}.
+   * @param patch to read record values from
+   * @return array of last repair epoch days, where missing dates are {@code DateCodec.EMPTY}, or
+   * {@code null} if record has no last repair dates yet
    */
-  private LocalDate[] getLastRepairsDates(final int rowId) {
-    recordData = dbManager.getAllRepairRecords().get(rowId);
-    final LocalDate[] lastRepairsDates = new LocalDate[6];
+  private int[] getLastRepairsDays(final RecordPatch patch) {
+    final int[] lastRepairsDays = new int[6];
     boolean atLeastOneDate = false;
-    String tempString;
     // j for indices of last_repair values, k for natural order elements in array
-    for (int j = 2, k = 0; j <= 12; j+=2, k++) {
-      tempString = recordData.get(j);
-      if (tempString == null || tempString.equals("")) {
-        continue;
+    for (int j = RepairRecordStore.FIRST_REPAIR_DATE, k = 0; k < 6; j += 2, k++) {
+      lastRepairsDays[k] = patch.getEpochDay(j);
+      if (lastRepairsDays[k] != DateCodec.EMPTY) {
+        atLeastOneDate = true;
       }
-      lastRepairsDates[k] = LocalDate.parse(tempString, formatter);
-      atLeastOneDate = true;
     }
-    return atLeastOneDate ? lastRepairsDates : null;
+    return atLeastOneDate ? lastRepairsDays : null;
   }
 
   @Override
@@ -100,8 +104,6 @@ public class LastRepairHandler {
     builder.append(guiManager);
     builder.append(", dbManager=");
     builder.append(dbManager);
-    builder.append(", formatter=");
-    builder.append(formatter);
     builder.append("]");
     return builder.toString();
   }
@@ -0,0 +1,111 @@
+package datecalculations;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import dbapi.RepairRecordStore;
+
+/**
+ * Collects changes of one repair record so that they could be written into the database at once.
+ * <p>
+ * Handlers read cell values through the patch, so every handler sees changes made by handlers
+ * called before it, while original record data stays untouched until the patch is written with
+ * {@code DbManager.updateRepairRecordCells}.
+ */
+public class RecordPatch {
+  private final int rowId;
+  private final List<String> recordData;
+  private final Map<Integer, String> changes;
+  private Boolean overdue;
+  
+  /**
+   * Creates empty patch for given repair record.
+   * @param rowId of repair record in database table
+   * @param recordData current values of repair record, which are not modified by the patch
+   */
+  public RecordPatch(final int rowId, final List<String> recordData) {
+    super();
+    this.rowId = rowId;
+    this.recordData = recordData;
+    changes = new TreeMap<>();
+  }
+  
+  /**
+   * Returns value of the cell with respect to changes collected so far.
+   * @param columnIndex of the cell in repair records data list
+   * @return changed value if cell was changed, otherwise original value
+   */
+  public String get(final int columnIndex) {
+    if (changes.containsKey(columnIndex)) {
+      return changes.get(columnIndex);
+    }
+    return recordData.get(columnIndex);
+  }
+  
+  /**
+   * Returns date of the cell as epoch day with respect to changes collected so far.
+   * <p>
+   * Original values of records from {@code RepairRecordStore} are read without parsing.
+   * @param columnIndex of date cell in repair records data list
+   * @return epoch day or {@code DateCodec.EMPTY} if the cell is empty
+   * @throws java.time.format.DateTimeParseException if changed or original value of the cell is
+   * not a valid date
+   */
+  public int getEpochDay(final int columnIndex) {
+    if (!changes.containsKey(columnIndex) && recordData instanceof RepairRecordStore.RecordView) {
+      return ((RepairRecordStore.RecordView) recordData).getEpochDay(columnIndex);
+    }
+    return DateCodec.parse(get(columnIndex));
+  }
+  
+  /**
+   * Records new value for the cell.
+   * @param columnIndex of the cell in repair records data list
+   * @param value to set
+   */
+  public void set(final int columnIndex, final String value) {
+    changes.put(columnIndex, value);
+  }
+  
+  /**
+   * Returns collected changes ordered by column index.
+   * @return read-only map with column indices as keys and new values as values
+   */
+  public Map<Integer, String> getChanges() {
+    return Collections.unmodifiableMap(changes);
+  }
+  
+  /**
+   * Records whether required repair of the record is overdue with respect to collected changes.
+   * <p>
+   * State is kept in the patch until the patch is written, so that DB Manager data structure of
+   * overdue repairs is not changed for records that failed to update.
+   * @param overdue {@code true} if required repair is overdue
+   */
+  public void setOverdue(final boolean overdue) {
+    this.overdue = overdue;
+  }
+  
+  /**
+   * Returns overdue state of required repair recorded by {@link #setOverdue(boolean)}.
+   * @return overdue state or {@code null} if it was not defined for the patch
+   */
+  public Boolean getOverdue() {
+    return overdue;
+  }
+  
+  public boolean isEmpty() {
+    return changes.isEmpty();
+  }
+  
+  public int getRowId() {
+    return rowId;
+  }
+
+  @Override
+  public String toString() {
+    return "RecordPatch [rowId=" + rowId + ", changes=" + changes + ", overdue=" + overdue + "]";
+  }
+  
+}
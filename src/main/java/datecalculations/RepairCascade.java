@@ -0,0 +1,113 @@
+package datecalculations;
+
+import java.util.List;
+import dbapi.RepairRecordStore;
+
+/**
+ * Calculates next repair dates after repair of some type was performed.
+ * <p>
+ * Repair of bigger caliber includes all repairs of smaller calibers, so after it next dates of
+ * all smaller repair types are moved too: next date of performed repair type is always replaced,
+ * next dates of smaller types are replaced only if they are empty or earlier than calculated ones,
+ * next dates of bigger types stay untouched.
+ * <p>
+ * Dates are epoch days and periods are read from period table, where period of repair type
+ * {@code k} is at index {@code k}, so nothing is parsed, formatted or boxed while dates are
+ * calculated and compared. Result is a change vector: bit {@code 1 << k} is set if next date of repair type
+ * {@code k} was replaced. The same rules are used for user edits, imports and recomputes of the
+ * whole fleet.
+ */
+public final class RepairCascade {
+  /** Change vector without changes. */
+  public static final int NO_CHANGES = 0;
+
+  private RepairCascade() {
+  }
+
+  /**
+   * Replaces next repair dates in given array.
+   * @param lastRepairDay epoch day of performed repair
+   * @param repairTypeIndex of performed repair, from 0 to 5
+   * @param periods period table of locomotive model, see {@link #toPeriodTable(List)}
+   * @param nextRepairsDays epoch days of next repairs of all six types in natural order, missing
+   * dates are {@code DateCodec.EMPTY}; changed in place
+   * @return change vector of replaced next repair dates
+   */
+  public static int apply(final int lastRepairDay, final int repairTypeIndex,
+                          final int[] periods, final int[] nextRepairsDays) {
+    int changes = NO_CHANGES;
+    for (int k = repairTypeIndex; k >= 0; k--) {
+      final int candidateDay = lastRepairDay + periods[k];
+      if (k == repairTypeIndex || replaces(candidateDay, nextRepairsDays[k])) {
+        nextRepairsDays[k] = candidateDay;
+        changes |= 1 << k;
+      }
+    }
+    return changes;
+  }
+
+  /**
+   * Sets next repair dates of repair record in given patch.
+   * <p>
+   * Current next repair dates are read through the patch, so values set by the caller before are
+   * taken into account. Only replaced dates are formatted.
+   * @param patch of repair record
+   * @param lastRepairDay epoch day of performed repair
+   * @param repairTypeIndex of performed repair, from 0 to 5
+   * @param periods period table of locomotive model, see {@link #toPeriodTable(List)}
+   * @return change vector of replaced next repair dates
+   */
+  public static int applyTo(final RecordPatch patch, final int lastRepairDay,
+                            final int repairTypeIndex, final int[] periods) {
+    final int[] nextRepairsDays = new int[repairTypeIndex + 1];
+    // Next date of performed repair type is replaced anyway, so it is not read
+    nextRepairsDays[repairTypeIndex] = DateCodec.EMPTY;
+    for (int k = 0; k < repairTypeIndex; k++) {
+      nextRepairsDays[k] = patch.getEpochDay(nextRepairDateColumn(k));
+    }
+    final int changes = apply(lastRepairDay, repairTypeIndex, periods, nextRepairsDays);
+    for (int k = 0; k <= repairTypeIndex; k++) {
+      if (isChanged(changes, k)) {
+        patch.set(nextRepairDateColumn(k), DateCodec.format(nextRepairsDays[k]));
+      }
+    }
+    return changes;
+  }
+
+  /**
+   * Converts repair periods of locomotive model into period table.
+   * @param periods repair periods of locomotive model in days for all six types
+   * @return array with period of repair type {@code k} at index {@code k}
+   */
+  public static int[] toPeriodTable(final List<Integer> periods) {
+    final int[] periodTable = new int[periods.size()];
+    for (int k = 0; k < periodTable.length; k++) {
+      periodTable[k] = periods.get(k);
+    }
+    return periodTable;
+  }
+
+  /**
+   * Tells whether next date of repair type was replaced.
+   * @param changes change vector
+   * @param repairTypeIndex from 0 to 5
+   * @return {@code true} if next date of the type is in change vector
+   */
+  public static boolean isChanged(final int changes, final int repairTypeIndex) {
+    return (changes & 1 << repairTypeIndex) != 0;
+  }
+
+  /**
+   * Returns column of next repair date of given repair type in repair records data list.
+   * @param repairTypeIndex from 0 to 5
+   * @return column index
+   */
+  public static int nextRepairDateColumn(final int repairTypeIndex) {
+    return RepairRecordStore.FIRST_REPAIR_DATE + 1 + 2 * repairTypeIndex;
+  }
+
+  private static boolean replaces(final int candidateDay, final int currentDay) {
+    return currentDay == DateCodec.EMPTY || candidateDay > currentDay;
+  }
+
+}
@@ -0,0 +1,46 @@
+package datecalculations;
+
+/**
+ * Immutable result of required repair calculation: the repair which should be performed next.
+ */
+public final class RequiredRepair {
+  private final int repairTypeIndex;
+  private final int epochDay;
+  private final boolean overdue;
+
+  /**
+   * Creates result of calculation.
+   * @param repairTypeIndex from 0 (ТО-3) to 5 (КР)
+   * @param epochDay date of required repair
+   * @param overdue {@code true} if required repair date is before today
+   */
+  public RequiredRepair(final int repairTypeIndex, final int epochDay, final boolean overdue) {
+    super();
+    this.repairTypeIndex = repairTypeIndex;
+    this.epochDay = epochDay;
+    this.overdue = overdue;
+  }
+
+  public int getRepairTypeIndex() {
+    return repairTypeIndex;
+  }
+
+  public String getRepairName() {
+    return RequiredRepairCalculator.REPAIR_NAMES[repairTypeIndex];
+  }
+
+  public int getEpochDay() {
+    return epochDay;
+  }
+
+  public boolean isOverdue() {
+    return overdue;
+  }
+
+  @Override
+  public String toString() {
+    return "RequiredRepair [repair=" + getRepairName() + ", date=" + DateCodec.format(epochDay)
+        + ", overdue=" + overdue + "]";
+  }
+
+}
@@ -0,0 +1,97 @@
+package datecalculations;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Stateless calculations of repair dates.
+ * <p>
+ * All methods work with epoch days and depend only on their arguments, so one instance could be
+ * shared between threads.
+ */
+public class RequiredRepairCalculator {
+  static final String[] REPAIR_NAMES = {"ТО-3", "ТР-1", "ТР-2", "ТР-3", "СР", "КР"};
+  /** Count of repair types. */
+  public static final int REPAIR_TYPES = REPAIR_NAMES.length;
+
+  /**
+   * Defines repair which should be performed next.
+   * <p>
+   * If some of next repair dates are before today, the overdue repair of a biggest caliber is
+   * picked. Otherwise the nearest next repair is picked, and if two or more repairs fall within
+   * the same month, repair with a bigger caliber is picked.
+   * @param nextRepairsDays epoch days of next repairs of all six types in natural order,
+   * missing dates are {@code DateCodec.EMPTY}
+   * @param todayDay epoch day of today
+   * @return required repair or {@code null} if there are no next repair dates at all
+   */
+  public RequiredRepair calculate(final int[] nextRepairsDays, final long todayDay) {
+    int overdueIndex = -1;
+    int nearestDay = Integer.MAX_VALUE;
+    for (int j = 0; j < REPAIR_TYPES; j++) {
+      final int day = nextRepairsDays[j];
+      if (day == DateCodec.EMPTY) {
+        continue;
+      }
+      if (day < todayDay) {
+        overdueIndex = j;
+      }
+      if (day < nearestDay) {
+        nearestDay = day;
+      }
+    }
+    if (nearestDay == Integer.MAX_VALUE) {
+      return null;
+    }
+    if (overdueIndex != -1) {
+      return new RequiredRepair(overdueIndex, nextRepairsDays[overdueIndex], true);
+    }
+    // find the largest next repair type within a month of nearest next repair
+    final LocalDate nearestDate = LocalDate.ofEpochDay(nearestDay);
+    final long monthStartDay = nearestDate.withDayOfMonth(1).toEpochDay();
+    final long monthEndDay = monthStartDay + nearestDate.lengthOfMonth();
+    int index = 0;
+    int requiredDay = nearestDay;
+    for (int j = 0; j < REPAIR_TYPES; j++) {
+      final int day = nextRepairsDays[j];
+      if (day != DateCodec.EMPTY && day >= monthStartDay && day < monthEndDay) {
+        requiredDay = day;
+        index = j;
+      }
+    }
+    return new RequiredRepair(index, requiredDay, false);
+  }
+
+  /**
+   * Calculates next repair dates after repair of given type was performed.
+   * <p>
+   * Next dates are replaced by the rules of {@link RepairCascade}.
+   * @param lastRepairDay epoch day of performed repair
+   * @param repairTypeIndex of performed repair, from 0 to 5
+   * @param periods period table of locomotive model, see {@link RepairCascade#toPeriodTable}
+   * @param currentNextRepairsDays current epoch days of next repairs, not modified
+   * @return new array with epoch days of next repairs
+   */
+  public int[] calculateNextRepairsDays(final int lastRepairDay, final int repairTypeIndex,
+                                        final int[] periods,
+                                        final int[] currentNextRepairsDays) {
+    final int[] nextRepairsDays = Arrays.copyOf(currentNextRepairsDays, REPAIR_TYPES);
+    RepairCascade.apply(lastRepairDay, repairTypeIndex, periods, nextRepairsDays);
+    return nextRepairsDays;
+  }
+
+  /**
+   * Returns name of repair type.
+   * @param repairTypeIndex from 0 to 5
+   * @return short name of repair type
+   */
+  public static String getRepairName(final int repairTypeIndex) {
+    return REPAIR_NAMES[repairTypeIndex];
+  }
+
+  @Override
+  public String toString() {
+    return "RequiredRepairCalculator " + Arrays.toString(REPAIR_NAMES);
+  }
+
+}
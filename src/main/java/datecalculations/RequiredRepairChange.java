@@ -0,0 +1,55 @@
+package datecalculations;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable result of required repair recomputation for one repair record.
+ */
+public final class RequiredRepairChange {
+  private final int rowId;
+  private final boolean overdue;
+  private final Map<Integer, String> changes;
+
+  /**
+   * Creates change set of one record.
+   * @param rowId of repair record
+   * @param overdue whether or not record has overdue repair
+   * @param changes new values of required repair columns, could be empty
+   */
+  public RequiredRepairChange(
+      final int rowId, final boolean overdue, final Map<Integer, String> changes) {
+    super();
+    this.rowId = rowId;
+    this.overdue = overdue;
+    this.changes = Collections.unmodifiableMap(new TreeMap<>(changes));
+  }
+
+  public int getRowId() {
+    return rowId;
+  }
+
+  public boolean isOverdue() {
+    return overdue;
+  }
+
+  /**
+   * Returns new values of the record.
+   * @return read-only map with column indices as keys, empty if values did not change
+   */
+  public Map<Integer, String> getChanges() {
+    return changes;
+  }
+
+  public boolean hasChanges() {
+    return !changes.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "RequiredRepairChange [rowId=" + rowId + ", overdue=" + overdue + ", changes="
+        + changes + "]";
+  }
+
+}
@@ -1,20 +1,21 @@
 package datecalculations;
 
 import java.time.LocalDate;
-import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
 import dbapi.DbManager;
+import dbapi.RepairRecordStore;
+import tracing.Stage;
+import tracing.Trace;
+import tracing.Tracing;
 
 /**
  * Handles values of {@code required_repair} type and date.
+ * <p>
+ * Calculations are delegated to stateless {@code RequiredRepairCalculator}, the handler does not
+ * keep state between calls.
  */
 public class RequiredRepairHandler {
   private final DbManager dbManager;
-  private List<String> recordData;
-  private LocalDate today;
-  private final DateTimeFormatter formatter;
-  private static final String[] REPAIR_NAMES = {"ТО-3", "ТР-1", "ТР-2", "ТР-3", "СР", "КР"};
+  private final RequiredRepairCalculator calculator;
 
   /**
    * Object that encapsulates {@code required_repair} column business-logic.
@@ -23,132 +24,79 @@ public class RequiredRepairHandler {
   public RequiredRepairHandler(final DbManager dbManager) {
     super();
     this.dbManager = dbManager;
-    formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    calculator = new RequiredRepairCalculator();
   }
   
   /**
    * Updates database values of {@code required_repair} columns for record with given rowId.
    * <p>
-   * Updates DB Manager data structure of overdue repairs with relevant values.
+   * Changed values are written into the database with single call. DB Manager data structure of
+   * overdue repairs is updated only if values were written or there was nothing to write.
    * @param rowId of database repair record
    * @param todayDate to detect overdue repair and define required repair date 
    */
   public void updateRequiredRepairValues(final int rowId, final LocalDate todayDate) {
-    today = todayDate;
-    recordData = dbManager.getAllRepairRecords().get(rowId);
-    final LocalDate[] nextRepairsDates = getNextRepairsDates();
-    
-    if (nextRepairsDates == null) {
-      dbManager.getOverdueRepairsMap().put(rowId, false);
-      return;
-    }
-    
-    if (checkOverdueRepair(nextRepairsDates, rowId)) {
-      dbManager.getOverdueRepairsMap().put(rowId, true);
-      return;
+    final RecordPatch recordPatch =
+        new RecordPatch(rowId, dbManager.getAllRepairRecords().get(rowId));
+    updateRequiredRepairValues(recordPatch, todayDate);
+    if (recordPatch.isEmpty()
+        || dbManager.updateRepairRecordCells(rowId, recordPatch.getChanges())) {
+      applyOverdueState(recordPatch);
     }
-    dbManager.getOverdueRepairsMap().put(rowId, false);
-    
-    findNextRequiredRepair(nextRepairsDates, rowId);
   }
   
   /**
-   * Returns whether or not repair record has overdue repair.
+   * Defines values of {@code required_repair} columns for record represented by given patch.
    * <p>
-   * Updates {@code required_repair} values in the database.
-   * <p>
-   * Looks for given next repair dates and picks the one which is behind today date.
-   * If there is more than one overdue repair, the repair of a biggest caliber will be picked.
-   * @param nextRepairsDates to choose from
-   * @param rowId of repair record to write data into the database
-   * @return {@code true} if there is overdue repair
+   * New values are not written into the database directly but collected in the given patch,
+   * together with overdue state of required repair. Overdue state should be applied with
+   * {@link #applyOverdueState(RecordPatch)} after the patch was written.
+   * @param recordPatch with changes of the record, which will be supplemented with required
+   * repair values
+   * @param todayDate to detect overdue repair and define required repair date 
    */
-  private boolean checkOverdueRepair(final LocalDate[] nextRepairsDates, final int rowId) {
-    LocalDate overdueRepair = null;
-    int index = 0;
-    for (int j = 0; j < 6; j++) {
-     if (nextRepairsDates[j] != null && nextRepairsDates[j].isBefore(today)) {
-       overdueRepair = nextRepairsDates[j];
-       index = j;
-     }
+  public void updateRequiredRepairValues(final RecordPatch recordPatch, final LocalDate todayDate) {
+    final Trace trace = Tracing.begin(Stage.REQUIRED_REPAIR);
+    try {
+      calculateRequiredRepairValues(recordPatch, todayDate);
+    } finally {
+      trace.finish("updateRequiredRepairValues", recordPatch.getRowId(), -1);
     }
-    
-    if (overdueRepair != null) {
-      final String currentRequiredRepair = recordData.get(17);
-      final String requiredRepairDateString = overdueRepair.format(formatter);
-      
-      if (!currentRequiredRepair.equals(requiredRepairDateString)) {
-        dbManager.setRepairRecordCell(rowId, 16, REPAIR_NAMES[index]);
-        dbManager.setRepairRecordCell(rowId, 17, requiredRepairDateString);
-      }
-      
-      return true;
-    }
-    
-    return false;
   }
   
   /**
-   * Defines next repair date and write corresponding values into the database.
+   * Updates DB Manager data structure of overdue repairs with overdue state of given patch.
    * <p>
-   * Looks for given next repair dates and picks the one which is behind the others on a time scale.
-   * <br>
-   * {@code checkOverdueRepair} method should be called before this one, cause it is not accounting
-   * for the possible overdue repairs.
-   * <p>
-   * If two or more repairs fall within same month, repair with a bigger caliber will be picked.
-   * @param nextRepairsDates to choose from
-   * @param rowId of repair record to write data into the database
+   * Does nothing if overdue state was not defined for the patch.
+   * @param recordPatch that was written into the database
    */
-  private void findNextRequiredRepair(final LocalDate[] nextRepairsDates, final int rowId) {
-    // find the nearest next repair
-    LocalDate nextRepairDate = today.plusYears(100);
-    for (int j = 0; j < 6; j++) {
-      if (nextRepairsDates[j] != null && (nextRepairsDates[j].isBefore(nextRepairDate))) {
-        nextRepairDate = nextRepairsDates[j];
-      }
+  public void applyOverdueState(final RecordPatch recordPatch) {
+    final Boolean overdue = recordPatch.getOverdue();
+    if (overdue != null) {
+      dbManager.getOverdueRepairsMap().put(recordPatch.getRowId(), overdue);
     }
-    // find the largest next repair type within a month of nearest next repair
-    int index = 0;
-    YearMonth nextRepairMonth = YearMonth.of(nextRepairDate.getYear(), nextRepairDate.getMonth());
-    for (int j = 0; j < 6; j++) {
-      if (nextRepairsDates[j] != null
-          && nextRepairsDates[j].getYear() == nextRepairMonth.getYear()
-          && nextRepairsDates[j].getMonth() == nextRepairMonth.getMonth()) {
-        nextRepairDate = nextRepairsDates[j];
-        index = j;
-      }
+  }
+  
+  private void calculateRequiredRepairValues(
+      final RecordPatch recordPatch, final LocalDate todayDate) {
+    final int[] nextRepairsDays = new int[RequiredRepairCalculator.REPAIR_TYPES];
+    for (int k = 0; k < nextRepairsDays.length; k++) {
+      final int nextRepairDateColumn = RepairCascade.nextRepairDateColumn(k);
+      nextRepairsDays[k] = recordPatch.getEpochDay(nextRepairDateColumn);
     }
-    // update required repair values if needed
-    final String currentRequiredRepair = recordData.get(17);
-    final String requiredRepairDateString = nextRepairDate.format(formatter);
-    
-    if (!currentRequiredRepair.equals(requiredRepairDateString)) {
-      dbManager.setRepairRecordCell(rowId, 16, REPAIR_NAMES[index]);
-      dbManager.setRepairRecordCell(rowId, 17, requiredRepairDateString);
+    final RequiredRepair requiredRepair =
+        calculator.calculate(nextRepairsDays, todayDate.toEpochDay());
+    recordPatch.setOverdue(requiredRepair != null && requiredRepair.isOverdue());
+    if (requiredRepair == null) {
+      return;
     }
     
-  }
-  
-  /**
-   * Returns array of next repair dates if there is at least one, otherwise returns {@code null}.
-   * @return array of next repair dates or {@code null} if record has no next repair dates yet
-   */
-  private LocalDate[] getNextRepairsDates() {
-    final LocalDate[] nextRepairsDates = new LocalDate[6];
-    boolean atLeastOneDate = false;
-    String nextRepairString;
-    for (int j = 3, k = 0; j <= 13; j+=2, k++) {
-      nextRepairString = recordData.get(j);
-      
-      if (nextRepairString == null || nextRepairString.equals("")) {
-        continue;
-      }
-      
-      nextRepairsDates[k] = LocalDate.parse(nextRepairString, formatter);
-      atLeastOneDate = true;
+    final String currentRequiredRepair = recordPatch.get(RepairRecordStore.REQUIRED_REPAIR_DATE);
+    final String requiredRepairDateString = DateCodec.format(requiredRepair.getEpochDay());
+    if (!currentRequiredRepair.equals(requiredRepairDateString)) {
+      recordPatch.set(RepairRecordStore.REQUIRED_REPAIR_TYPE, requiredRepair.getRepairName());
+      recordPatch.set(RepairRecordStore.REQUIRED_REPAIR_DATE, requiredRepairDateString);
     }
-    return atLeastOneDate ? nextRepairsDates : null;
   }
 
   @Override
@@ -156,8 +104,6 @@ public class RequiredRepairHandler {
     StringBuilder builder = new StringBuilder();
     builder.append("RequiredRepairHandler to define required repair column values. \n[dbManager=");
     builder.append(dbManager);
-    builder.append(", formatter=");
-    builder.append(formatter);
     builder.append("]");
     return builder.toString();
   }
@@ -0,0 +1,222 @@
+package dbapi;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import metrics.CacheCounter;
+import metrics.MetricsRegistry;
+
+/**
+ * Provides paged read access to records archive table with bounded memory usage.
+ * <p>
+ * Rows are read by pages of fixed size in {@code id} order using keyset pagination: every page is
+ * selected with {@code WHERE id > ?} condition, where parameter is the id of the last row of the
+ * previous page (page anchor). Anchors are remembered for every loaded page, so sequential
+ * scrolling never scans skipped rows. If user jumps to a page with unknown anchor, the anchor is
+ * looked up once by offset over the primary key only.
+ * <p>
+ * Loaded pages are kept in LRU cache with limited capacity.
+ */
+public class ArchivePager {
+  private static final Logger logger = LogManager.getLogger();
+  private static final CacheCounter PAGES_CACHE =
+      MetricsRegistry.getGlobal().cache("dbapi.archive-pages");
+  private final PreparedStatementCache statementCache;
+  private final StatementTimer statementTimer;
+  private final int pageSize;
+  private final Map<Integer, List<List<String>>> pages;
+  private final Map<Integer, Integer> pageAnchors;
+  private int count;
+
+  /**
+   * Creates pager with empty cache.
+   * @param statementCache to obtain statements from
+   * @param statementTimer to execute statements with
+   * @param pageSize count of rows in one page
+   * @param maxCachedPages how many pages could be kept in memory at once
+   */
+  ArchivePager(final PreparedStatementCache statementCache, final StatementTimer statementTimer,
+               final int pageSize, final int maxCachedPages) {
+    super();
+    this.statementCache = statementCache;
+    this.statementTimer = statementTimer;
+    this.pageSize = pageSize;
+    pages = new LinkedHashMap<Integer, List<List<String>>>(maxCachedPages + 1, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Integer, List<List<String>>> eldest) {
+        return size() > maxCachedPages;
+      }
+    };
+    pageAnchors = new HashMap<>();
+    pageAnchors.put(0, Integer.MIN_VALUE);
+    count = -1;
+  }
+
+  /**
+   * Returns count of rows in records archive table. Value is cached until invalidation.
+   * @return count of archive records
+   * @throws SQLException if a database access error occurs
+   */
+  public int getCount() throws SQLException {
+    if (count < 0) {
+      final PreparedStatement countRows = statementCache.get(SqlCommands.AT_COUNT);
+      try (final ResultSet resultSet =
+               statementTimer.executeQuery(StatementKind.AT_COUNT, countRows)) {
+        count = resultSet.next() ? resultSet.getInt(1) : 0;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns consecutive archive rows in {@code id} order.
+   * <p>
+   * If requested rows form exactly one page, cached page object is returned without copying.
+   * @param offset position of the first row
+   * @param limit maximum count of rows
+   * @return read-only list of rows, shorter than limit at the end of the table
+   * @throws SQLException if a database access error occurs
+   */
+  public List<List<String>> getRows(final int offset, final int limit) throws SQLException {
+    if (offset % pageSize == 0 && limit == pageSize) {
+      return getPage(offset / pageSize);
+    }
+    final List<List<String>> rows = new ArrayList<>(limit);
+    int position = offset;
+    while (position < offset + limit) {
+      final List<List<String>> page = getPage(position / pageSize);
+      final int from = position % pageSize;
+      if (from >= page.size()) {
+        break;
+      }
+      final int to = Math.min(page.size(), from + offset + limit - position);
+      rows.addAll(page.subList(from, to));
+      position += to - from;
+    }
+    return Collections.unmodifiableList(rows);
+  }
+
+  /**
+   * Forgets all cached pages, anchors and count.
+   */
+  public void invalidate() {
+    pages.clear();
+    pageAnchors.clear();
+    pageAnchors.put(0, Integer.MIN_VALUE);
+    count = -1;
+  }
+
+  /**
+   * Updates cache after new row was inserted at the end of the table (with the biggest id).
+   * <p>
+   * Only the last page is affected, so anchors and full pages stay valid. Cached pages that are
+   * shorter than page size are dropped: one of them is the last page, even if count of rows is
+   * not known yet.
+   */
+  public void onRowAppended() {
+    pages.values().removeIf(page -> page.size() < pageSize);
+    if (count >= 0) {
+      count++;
+    }
+  }
+
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Reads one row of records archive table.
+   * @param resultSet positioned on the row to read
+   * @return list of 15 values: model, number, six pairs of repair dates and notes
+   * @throws SQLException if a database access error occurs
+   */
+  static List<String> readArchiveRow(final ResultSet resultSet) throws SQLException {
+    final List<String> archiveRecord = new ArrayList<>(15);
+    archiveRecord.add(resultSet.getString("loco_model_name"));
+    archiveRecord.add(resultSet.getString("loco_number"));
+    archiveRecord.add(EpochDayColumns.read(resultSet, "last_three_maintenance"));
+    archiveRecord.add(EpochDayColumns.read(resultSet, "next_three_maintenance"));
+    archiveRecord.add(EpochDayColumns.read(resultSet, "last_one_current_repair"));
+    archiveRecord.add(EpochDayColumns.read(resultSet, "next_one_current_repair"));
+    archiveRecord.add(EpochDayColumns.read(resultSet, "last_two_current_repair"));
+    archiveRecord.add(EpochDayColumns.read(resultSet, "next_two_current_repair"));
+    archiveRecord.add(EpochDayColumns.read(resultSet, "last_three_current_repair"));
+    archiveRecord.add(EpochDayColumns.read(resultSet, "next_three_current_repair"));
+    archiveRecord.add(EpochDayColumns.read(resultSet, "last_medium_repair"));
+    archiveRecord.add(EpochDayColumns.read(resultSet, "next_medium_repair"));
+    archiveRecord.add(EpochDayColumns.read(resultSet, "last_overhaul"));
+    archiveRecord.add(EpochDayColumns.read(resultSet, "next_overhaul"));
+    archiveRecord.add(resultSet.getString("notes"));
+    return archiveRecord;
+  }
+
+  private List<List<String>> getPage(final int pageIndex) throws SQLException {
+    List<List<String>> page = pages.get(pageIndex);
+    PAGES_CACHE.record(page != null);
+    if (page != null) {
+      return page;
+    }
+    final int lowerBoundId = findPageAnchor(pageIndex);
+    final List<List<String>> rows = new ArrayList<>(pageSize);
+    int lastId = lowerBoundId;
+    final PreparedStatement selectPage = statementCache.get(SqlCommands.AT_PAGE);
+    selectPage.setInt(1, lowerBoundId);
+    selectPage.setInt(2, pageSize);
+    try (final ResultSet resultSet = statementTimer.executeQuery(StatementKind.AT_PAGE, selectPage,
+        () -> "after id=" + lowerBoundId + ", limit=" + pageSize)) {
+      while (resultSet.next()) {
+        rows.add(readArchiveRow(resultSet));
+        lastId = resultSet.getInt("id");
+      }
+    }
+    if (rows.size() == pageSize) {
+      pageAnchors.put(pageIndex + 1, lastId);
+    }
+    page = Collections.unmodifiableList(rows);
+    pages.put(pageIndex, page);
+    logger.debug("Archive page {} was loaded ({} rows).", pageIndex, rows.size());
+    return page;
+  }
+
+  /**
+   * Returns id of the last row before given page.
+   * @param pageIndex of the page to load
+   * @return lower exclusive bound of ids of the page rows
+   * @throws SQLException if a database access error occurs
+   */
+  private int findPageAnchor(final int pageIndex) throws SQLException {
+    final Integer anchor = pageAnchors.get(pageIndex);
+    if (anchor != null) {
+      return anchor;
+    }
+    final PreparedStatement selectId = statementCache.get(SqlCommands.AT_ID_AT_OFFSET);
+    selectId.setInt(1, pageIndex * pageSize - 1);
+    try (final ResultSet resultSet = statementTimer.executeQuery(StatementKind.AT_ID_AT_OFFSET,
+        selectId, () -> "offset=" + (pageIndex * pageSize - 1))) {
+      if (!resultSet.next()) {
+        // Page is beyond the end of the table
+        return Integer.MAX_VALUE;
+      }
+      final int id = resultSet.getInt(1);
+      pageAnchors.put(pageIndex, id);
+      return id;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ArchivePager [pageSize=" + pageSize + ", cachedPages=" + pages.keySet()
+        + ", count=" + count + "]";
+  }
+
+}
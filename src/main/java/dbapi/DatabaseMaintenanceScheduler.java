@@ -0,0 +1,273 @@
+package dbapi;
+
+import java.awt.AWTEvent;
+import java.awt.GraphicsEnvironment;
+import java.awt.Toolkit;
+import java.awt.event.AWTEventListener;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs database maintenance in background while user does not interact with the application.
+ * <p>
+ * Replaces unconditional VACUUM on every launch. Periodically checks whether user interface was
+ * idle long enough and, if so, once per idle period:
+ * <ul>
+ * <li>reads page and freelist counts and reclaims free pages only if their share exceeds
+ * configured threshold: with {@code PRAGMA incremental_vacuum} if database is in incremental
+ * auto-vacuum mode, otherwise with full VACUUM, which also switches database to incremental mode
+ * so that next runs are cheap;
+ * <li>runs {@code PRAGMA optimize}, which analyzes tables only when statistics are outdated.
+ * </ul>
+ * Duration of every run is logged.
+ * <p>
+ * Maintenance holds transaction lock of {@link SqliteConnection} for the whole run, so it is
+ * never interleaved with transactions, checkpoints or closing of the connection. If the lock is
+ * held by another thread, the run is skipped and repeated on the next check. Incremental vacuum
+ * frees at most {@code INCREMENTAL_VACUUM_PAGES} pages per step and the run stops as soon as
+ * user interacts with the application again, so that edits wait for one step at most. Full
+ * VACUUM could not be interrupted, but it is run only once to switch auto-vacuum mode.
+ * @see <a href="https://www.sqlite.org/lang_vacuum.html">SQLite VACUUM</a>
+ * @see <a href="https://www.sqlite.org/pragma.html#pragma_optimize">SQLite PRAGMA optimize</a>
+ */
+@Component
+public class DatabaseMaintenanceScheduler {
+  private static final Logger logger = LogManager.getLogger();
+  private static final int AUTO_VACUUM_INCREMENTAL = 2;
+  private static final long STOP_TIMEOUT_SECONDS = 10;
+  private static final int INCREMENTAL_VACUUM_PAGES = 256;
+  private final SqliteConnection connection;
+  private final long checkIntervalSeconds;
+  private final long idleMillis;
+  private final double freelistRatio;
+  private final long minFreelistPages;
+  private ScheduledExecutorService executor;
+  private AWTEventListener activityListener;
+  private volatile long lastActivityMillis;
+  private volatile long lastMaintenanceMillis;
+
+  /**
+   * Kinds of free space reclaiming.
+   */
+  enum VacuumType {
+    NONE, INCREMENTAL, FULL
+  }
+
+  /**
+   * Creates scheduler, which is started after dependency injection.
+   * @param connection to the database
+   * @param checkIntervalSeconds how often idle state is checked, 0 disables maintenance
+   * @param idleSeconds how long user interface must be idle before maintenance starts
+   * @param freelistRatio share of free pages in database file that triggers vacuum
+   * @param minFreelistPages minimal count of free pages that triggers vacuum
+   */
+  @Autowired
+  public DatabaseMaintenanceScheduler(
+      final SqliteConnection connection,
+      @Value("${sqlite.maintenance.check-interval-seconds:60}") final long checkIntervalSeconds,
+      @Value("${sqlite.maintenance.idle-seconds:120}") final long idleSeconds,
+      @Value("${sqlite.maintenance.freelist-ratio:0.25}") final double freelistRatio,
+      @Value("${sqlite.maintenance.min-freelist-pages:256}") final long minFreelistPages) {
+    super();
+    this.connection = connection;
+    this.checkIntervalSeconds = checkIntervalSeconds;
+    this.idleMillis = TimeUnit.SECONDS.toMillis(idleSeconds);
+    this.freelistRatio = freelistRatio;
+    this.minFreelistPages = minFreelistPages;
+    lastActivityMillis = System.currentTimeMillis();
+    lastMaintenanceMillis = 0;
+  }
+
+  /**
+   * Starts to track user activity and schedules idle checks.
+   */
+  @PostConstruct
+  public void start() {
+    if (checkIntervalSeconds <= 0) {
+      logger.info("Database maintenance is disabled.");
+      return;
+    }
+    if (!GraphicsEnvironment.isHeadless()) {
+      activityListener = event -> recordUserActivity();
+      Toolkit.getDefaultToolkit().addAWTEventListener(activityListener,
+          AWTEvent.KEY_EVENT_MASK | AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_WHEEL_EVENT_MASK);
+    }
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "db-maintenance");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleWithFixedDelay(
+        this::runIfIdle, checkIntervalSeconds, checkIntervalSeconds, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Stops idle checks and activity tracking, then waits for maintenance that is already running.
+   * <p>
+   * Called by Spring on application context shutdown before database connection is closed, so
+   * the connection is not closed under running VACUUM. Waiting is bounded by
+   * {@code STOP_TIMEOUT_SECONDS}, after that maintenance thread is interrupted.
+   */
+  @PreDestroy
+  public void stop() {
+    if (activityListener != null) {
+      Toolkit.getDefaultToolkit().removeAWTEventListener(activityListener);
+      activityListener = null;
+    }
+    if (executor != null) {
+      executor.shutdown();
+      try {
+        if (!executor.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+          logger.error("Database maintenance was not finished in " + STOP_TIMEOUT_SECONDS
+              + " s and will be interrupted.");
+          executor.shutdownNow();
+        }
+      } catch (final InterruptedException err) {
+        executor.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+      executor = null;
+    }
+  }
+
+  /**
+   * Marks current moment as the last user interaction with the application.
+   */
+  public void recordUserActivity() {
+    lastActivityMillis = System.currentTimeMillis();
+  }
+
+  /**
+   * Tells whether or not maintenance should run at given moment: user interface must be idle
+   * long enough and maintenance must not have run during current idle period.
+   * @param nowMillis current time
+   * @return {@code true} if maintenance should run
+   */
+  boolean shouldRun(final long nowMillis) {
+    return nowMillis - lastActivityMillis >= idleMillis
+        && lastMaintenanceMillis <= lastActivityMillis;
+  }
+
+  /**
+   * Chooses how to reclaim free pages of database file.
+   * @param pageCount total count of pages in database file
+   * @param freelistCount count of unused pages
+   * @param autoVacuumMode value of {@code PRAGMA auto_vacuum}
+   * @return kind of vacuum to run
+   */
+  VacuumType chooseVacuum(final long pageCount, final long freelistCount,
+                          final int autoVacuumMode) {
+    if (pageCount <= 0 || freelistCount < minFreelistPages
+        || (double) freelistCount / pageCount < freelistRatio) {
+      return VacuumType.NONE;
+    }
+    return autoVacuumMode == AUTO_VACUUM_INCREMENTAL ? VacuumType.INCREMENTAL : VacuumType.FULL;
+  }
+
+  private void runIfIdle() {
+    final long now = System.currentTimeMillis();
+    if (shouldRun(now) && runMaintenance()) {
+      lastMaintenanceMillis = now;
+    }
+  }
+
+  /**
+   * Performs all maintenance steps under transaction lock and logs their duration.
+   * @return {@code false} if maintenance was skipped, because another thread holds the lock
+   */
+  boolean runMaintenance() {
+    if (!connection.tryLock()) {
+      logger.debug("Database maintenance was skipped: connection is in use.");
+      return false;
+    }
+    try {
+      runMaintenanceSteps();
+      return true;
+    } finally {
+      connection.unlock();
+    }
+  }
+
+  private void runMaintenanceSteps() {
+    final long start = System.nanoTime();
+    final long startMillis = System.currentTimeMillis();
+    try {
+      final long pageCount = queryPragma("page_count");
+      final long freelistCount = queryPragma("freelist_count");
+      final int autoVacuumMode = (int) queryPragma("auto_vacuum");
+      final VacuumType vacuumType = chooseVacuum(pageCount, freelistCount, autoVacuumMode);
+      switch (vacuumType) {
+      case INCREMENTAL:
+        for (long freePages = freelistCount; freePages > 0; freePages -= INCREMENTAL_VACUUM_PAGES) {
+          if (isInterrupted(startMillis)) {
+            return;
+          }
+          execute("PRAGMA incremental_vacuum(" + INCREMENTAL_VACUUM_PAGES + ");");
+        }
+        break;
+      case FULL:
+        // New auto-vacuum mode takes effect only after VACUUM
+        execute("PRAGMA auto_vacuum=INCREMENTAL;");
+        execute("VACUUM;");
+        break;
+      default:
+        break;
+      }
+      if (isInterrupted(startMillis)) {
+        return;
+      }
+      execute("PRAGMA optimize;");
+      logger.info("Database maintenance finished in " + (System.nanoTime() - start) / 1_000_000
+          + " ms: pages=" + pageCount + ", free pages=" + freelistCount
+          + ", vacuum=" + vacuumType);
+    } catch (final SQLException err) {
+      logger.error("Database maintenance failed after " + (System.nanoTime() - start) / 1_000_000
+          + " ms: " + err.getMessage());
+      err.printStackTrace();
+    }
+  }
+
+  /**
+   * Tells whether user interacted with the application since maintenance was started, in that
+   * case remaining steps are left for the next idle period.
+   */
+  private boolean isInterrupted(final long startMillis) {
+    if (lastActivityMillis <= startMillis) {
+      return false;
+    }
+    logger.info("Database maintenance was interrupted by user activity.");
+    return true;
+  }
+
+  private long queryPragma(final String pragmaName) throws SQLException {
+    try (final Statement statement = connection.getConnection().createStatement();
+         final ResultSet resultSet = statement.executeQuery("PRAGMA " + pragmaName + ";")) {
+      return resultSet.next() ? resultSet.getLong(1) : 0;
+    }
+  }
+
+  private void execute(final String sql) throws SQLException {
+    try (final Statement statement = connection.getConnection().createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "DatabaseMaintenanceScheduler [checkIntervalSeconds=" + checkIntervalSeconds
+        + ", idleMillis=" + idleMillis + ", freelistRatio=" + freelistRatio
+        + ", minFreelistPages=" + minFreelistPages + "]";
+  }
+
+}
@@ -22,6 +22,15 @@ public abstract interface DbManager {
    */
   public abstract Map<Integer, List<String>> getAllRepairRecords();
   
+  /**
+   * Returns typed storage of repair records data.
+   * <p>
+   * Provides the same data as {@code getAllRepairRecords}, but allows to read dates as epoch days
+   * and model names without parsing and copying. Should not be used to modify the data.
+   * @return store with all repair records
+   */
+  public abstract RepairRecordStore getRepairRecordStore();
+  
   /**
    * Creates new row in repair records table. 
    * <p>
@@ -40,6 +49,17 @@ public abstract interface DbManager {
    */
   public abstract boolean setRepairRecordCell(int rowId, int columnIndex, String value);
   
+  /**
+   * Set values of several cells of one row in repair records table at once.
+   * <p>
+   * All values are written with single statement inside one transaction. Data returned by
+   * {@code getAllRepairRecords} is updated only if the whole operation succeeds.
+   * @param rowId as row coordinate
+   * @param values map with column indices as keys and values to set as values
+   * @return {@code false} if operation fails and {@code true} if operation succeeds
+   */
+  public abstract boolean updateRepairRecordCells(int rowId, Map<Integer, String> values);
+  
   /**
    * Deletes row from repair record table.
    * @param rowId to delete
@@ -121,16 +141,45 @@ public abstract interface DbManager {
    */
   public abstract String[] getAllModelNames();
   
+  /**
+   * Returns sorted index of repair periods table.
+   * <p>
+   * Index is cached and rebuilt only after a model is inserted or deleted, so it could be read on
+   * every repaint.
+   * @return model names in preferred order with their rows and repair periods
+   */
+  public abstract ModelNameIndex getModelNameIndex();
+  
   // Methods for records archive table
   
   /**
-   * Returns all data from records archive table.
+   * Returns count of rows in records archive table.
    * <p>
-   * The table is meant to be used rarely so it should build GUI components and load data only when
-   * user opens Archive Frame.
-   * @return list of rows from records archive database table.
+   * Does not load archive rows.
+   * @return count of archive records, 0 if it could not be obtained
    */
-    public abstract List<List<String>> getAllRecordsArchiveData();
+  public abstract int getArchiveCount();
+  
+  /**
+   * Returns consecutive rows of records archive table in the order of their insertion.
+   * <p>
+   * Only requested rows are loaded from the database, recently used pages are cached.
+   * Every row contains 15 values: model, number, six pairs of repair dates and notes.
+   * @param offset position of the first row to return
+   * @param limit maximum count of rows to return
+   * @return read-only list of rows, which is shorter than limit at the end of the table and empty
+   * if rows could not be loaded
+   */
+  public abstract List<List<String>> getArchivePage(int offset, int limit);
+  
+  /**
+   * Returns count of rows in pages of records archive table cached by DbManager.
+   * <p>
+   * Pages requested from {@code getArchivePage} with this size and offsets divisible by it
+   * match cached pages.
+   * @return count of rows in one page
+   */
+  public abstract int getArchivePageSize();
   
   /**
    * Creates new row in records archive table. 
@@ -146,5 +195,24 @@ public abstract interface DbManager {
    * @return {@code false} if operation fails and {@code true} if operation succeeds
    */
   public abstract boolean clearArchive();
-  
+
+  // Methods for write mode
+
+  /**
+   * Registers listener that will be notified if changes of repair records, which were already
+   * accepted and applied to in-memory data, failed to be written into the database.
+   * <p>
+   * Only relevant in write-behind mode, where cell changes are written in background.
+   * @param listener to notify on the Event Dispatch Thread, could be {@code null}
+   */
+  public abstract void setWriteFailureListener(WriteFailureListener listener);
+
+  /**
+   * Writes all queued changes into the database and releases resources held by DbManager.
+   * <p>
+   * Called once on application context shutdown, repeated calls do nothing. Declared in the
+   * interface, so it is also reachable through proxies that expose only this interface.
+   */
+  public abstract void shutdown();
+
 }
\ No newline at end of file
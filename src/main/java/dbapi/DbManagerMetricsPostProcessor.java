@@ -0,0 +1,72 @@
+package dbapi;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.stereotype.Component;
+import metrics.MetricsRegistry;
+import metrics.TimedProxy;
+
+/**
+ * Wraps {@link DbManager} bean in proxy which measures methods that change data or execute
+ * statements with a timer named {@code dbapi.<method name>} in global metrics registry.
+ * <p>
+ * Only calls through the interface are measured, calls inside implementation are not.
+ * <br>
+ * Disabled by default: getters that are not measured still become reflective calls, and table
+ * models and renderers call them for every painted cell.
+ * <p>
+ * Proxy implements only {@link DbManager} interface, so lifecycle annotations of the wrapped
+ * bean are not visible on it. Post processor calls {@link DbManager#shutdown()} itself when
+ * wrapped bean is destroyed.
+ */
+@Component
+public class DbManagerMetricsPostProcessor implements DestructionAwareBeanPostProcessor {
+  static final String TIMER_PREFIX = "dbapi";
+  static final Set<String> TIMED_METHODS = Collections.unmodifiableSet(new HashSet<>(
+      Arrays.asList("insertNewRepairRecord", "setRepairRecordCell", "updateRepairRecordCells",
+          "deleteRepairRecord", "insertNewModelRepairPeriods", "setRepairPeriodCell",
+          "deleteRepairPeriods", "getArchiveCount", "getArchivePage", "insertNewArchiveRecord",
+          "clearArchive")));
+  private final boolean enabled;
+
+  /**
+   * Creates post processor.
+   * @param enabled whether DbManager methods should be measured
+   */
+  public DbManagerMetricsPostProcessor(
+      @Value("${metrics.dbmanager-timers:false}") final boolean enabled) {
+    super();
+    this.enabled = enabled;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+    if (enabled && bean instanceof DbManager) {
+      return TimedProxy.wrap(DbManager.class, (DbManager) bean, MetricsRegistry.getGlobal(),
+          TIMER_PREFIX, TIMED_METHODS);
+    }
+    return bean;
+  }
+
+  @Override
+  public boolean requiresDestruction(final Object bean) {
+    return enabled && bean instanceof DbManager;
+  }
+
+  @Override
+  public void postProcessBeforeDestruction(final Object bean, final String beanName) {
+    if (requiresDestruction(bean)) {
+      ((DbManager) bean).shutdown();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "DbManagerMetricsPostProcessor [enabled=" + enabled + "]";
+  }
+
+}
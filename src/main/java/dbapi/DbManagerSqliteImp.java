@@ -1,58 +1,161 @@
 package dbapi;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import javax.annotation.PreDestroy;
+import javax.swing.SwingUtilities;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import datecalculations.FleetRecomputeService;
+import datecalculations.RequiredRepairChange;
 import datecalculations.RequiredRepairHandler;
 import exceptions.IdAlreadyExistsException;
-import gui.utility.ModelNamesComparator;
+import exceptions.OutdatedSchemaException;
+import metrics.CacheCounter;
+import metrics.MetricsRegistry;
 
 /**
  * Implements DbManager interface for SQLite database.
+ * <p>
+ * Supports two write modes, selected with {@code dbapi.write-mode} property:
+ * <ul>
+ * <li>{@code sync} (default) - every change is written into the database before method returns;
+ * <li>{@code write-behind} - repair records cell changes are applied to in-memory data at once and
+ * written into the database by {@link WriteBehindQueue} in background. All other operations wait
+ * for queued changes to be written before they are performed.
+ * </ul>
+ * Every transaction is run under transaction lock of {@link SqliteConnection}, so statements of
+ * database maintenance and checkpoints never become part of it.
  */
 @Service
 @Profile("SqliteDb")
 public class DbManagerSqliteImp implements DbManager {
   private static final Logger logger = LogManager.getLogger();
+  /** Logger of data changes, written to separate audit log, see log4j2.xml. */
+  private static final Logger auditLogger = LogManager.getLogger("audit");
+  private static final String WRITE_BEHIND_MODE = "write-behind";
+  private static final int ARCHIVE_PAGE_SIZE = 100;
+  private static final int ARCHIVE_CACHED_PAGES = 32;
+  private static final long NO_CHANGE_COUNTER = -1;
+  private static final CacheCounter SNAPSHOT_CACHE =
+      MetricsRegistry.getGlobal().cache("dbapi.startup-snapshot");
   private SqliteConnection connection;
+  private PreparedStatementCache statementCache;
+  private StatementTimer statementTimer;
   private Map<String, List<Integer>> repairPeriodsTableData;
+  private ModelNameIndex modelNameIndex;
+  private RepairRecordStore repairRecordStore;
   private Map<Integer, List<String>> repairRecordsTableData;
-  private Map<Integer, Integer> orderedId;
+  private OrdinalIndex orderedId;
   private Map<Integer, Boolean> overdueRepairsMap;
-  private int maxId;
-  private List<List<String>> recordsArchiveTableData;
-  private boolean archiveInitialized;
+  private ArchivePager archivePager;
+  private WriteBehindQueue writeBehindQueue;
+  private WriteFailureListener writeFailureListener;
+  private final FleetRecomputeService fleetRecomputeService = new FleetRecomputeService();
+  private Path startupSnapshotPath;
+  private boolean shutDown;
+  
+  /**
+   * Provides methods for working with database in synchronous write mode.
+   * <br>
+   * Any data manipulation must be done only through methods of this object.
+   * @param connection to the database
+   */
+  public DbManagerSqliteImp(final SqliteConnection connection) {
+    this(connection, "sync", 0);
+  }
+  
+  /**
+   * Provides methods for working with database without startup snapshot.
+   * <br>
+   * Any data manipulation must be done only through methods of this object.
+   * @param connection to the database
+   * @param writeMode {@code write-behind} to write repair records cell changes in background,
+   * any other value for synchronous writes
+   * @param flushDelayMillis how long cell changes are collected before they are written in
+   * write-behind mode
+   */
+  public DbManagerSqliteImp(
+      final SqliteConnection connection, final String writeMode, final long flushDelayMillis) {
+    this(connection, writeMode, flushDelayMillis, "",
+        StatementTimer.DEFAULT_SLOW_THRESHOLD_MILLIS, Optional.empty());
+  }
   
   /**
    * Provides methods for working with database.
    * <br>
    * Any data manipulation must be done only through methods of this object.
+   * <p>
+   * If startup snapshot file is set, data is loaded from it when database did not change since
+   * the snapshot was written, and the snapshot is rewritten at shutdown.
    * @param connection to the database
+   * @param writeMode {@code write-behind} to write repair records cell changes in background,
+   * any other value for synchronous writes
+   * @param flushDelayMillis how long cell changes are collected before they are written in
+   * write-behind mode
+   * @param startupSnapshotFile path to {@link StartupSnapshot} file, empty string disables it
+   * @param slowStatementThresholdMillis how long statement may be executed before it is logged
+   * as slow, 0 disables slow statement log
+   * @param progressListener to notify about startup stages, if present
    */
   @Autowired
-  public DbManagerSqliteImp(final SqliteConnection connection) {
+  public DbManagerSqliteImp(
+      final SqliteConnection connection,
+      @Value("${dbapi.write-mode:sync}") final String writeMode,
+      @Value("${dbapi.write-behind.flush-delay-ms:200}") final long flushDelayMillis,
+      @Value("${dbapi.startup-snapshot:}") final String startupSnapshotFile,
+      @Value("${dbapi.slow-statement-threshold-ms:250}") final long slowStatementThresholdMillis,
+      final Optional<StartupProgressListener> progressListener) {
+    final StartupProgressListener startupProgress = progressListener.orElse(stage -> { });
+    startupProgress.onStage(StartupProgressListener.OPENING_DATABASE);
     this.connection = connection;
-    clearUnusedDiskSpace();
+    statementTimer = new StatementTimer(slowStatementThresholdMillis);
+    startupSnapshotPath = startupSnapshotFile.isEmpty() ? null : Paths.get(startupSnapshotFile);
+    statementCache = new PreparedStatementCache(connection);
+    if (WRITE_BEHIND_MODE.equals(writeMode)) {
+      writeBehindQueue = new WriteBehindQueue(
+          this::writeRepairRecordsBatch, this::onWriteBehindFailure, flushDelayMillis);
+      logger.info("Database write mode: write-behind (flush delay {} ms).", flushDelayMillis);
+    } else {
+      logger.info("Database write mode: sync.");
+    }
+    
+    openConnection();
+    checkDateColumnsSchema();
     
-    orderedId = new HashMap<>();
-    repairRecordsTableData = loadDataFromRepairRecordsTable();
-    repairPeriodsTableData = loadDataFromRepairPeriodsTable();
-    recordsArchiveTableData = new ArrayList<>(0);
-    archiveInitialized = false;
+    startupProgress.onStage(StartupProgressListener.LOADING_RECORDS);
+    orderedId = new OrdinalIndex(0);
+    if (!loadStartupSnapshot()) {
+      repairRecordStore = loadDataFromRepairRecordsTable();
+      repairPeriodsTableData = loadDataFromRepairPeriodsTable();
+    }
+    repairRecordsTableData = repairRecordStore.asMap();
+    archivePager = new ArchivePager(
+        statementCache, statementTimer, ARCHIVE_PAGE_SIZE, ARCHIVE_CACHED_PAGES);
     overdueRepairsMap = new HashMap<>();
     
+    startupProgress.onStage(StartupProgressListener.RECOMPUTING_DUE_DATES);
     updateRequiredRepairValues();
   }
   
@@ -67,15 +170,22 @@ public class DbManagerSqliteImp implements DbManager {
     return repairRecordsTableData;
   }
 
+  @Override
+  public RepairRecordStore getRepairRecordStore() {
+    return repairRecordStore;
+  }
+
   @Override
   public boolean insertNewRepairRecord(final List<String> rowToInsert) {
+    awaitPendingWrites();
     try (final PreparedStatement insertRow =
           connection.getConnection().prepareStatement(SqlCommands.RT_INSERT_ROW)) {
       for (int j = 0; j < rowToInsert.size(); j++) {
-        insertRow.setString(j + 1, rowToInsert.get(j));
+        bindRepairRecordValue(insertRow, j + 1, j, rowToInsert.get(j));
       }
-      insertRow.executeUpdate();
-      logger.info("Row was succesfully inserted in repair records database table: " + rowToInsert);
+      statementTimer.executeUpdate(
+          StatementKind.RT_INSERT_ROW, insertRow, () -> String.valueOf(rowToInsert));
+      auditLogger.info("Row was inserted in repair records table: {}", rowToInsert);
     } catch (final SQLException err) {
       logger.error("Row was not inserted in repair records table: " + rowToInsert
           + " Error: " + err.getMessage());
@@ -95,10 +205,8 @@ public class DbManagerSqliteImp implements DbManager {
   public boolean setRepairRecordCell(final int rowId, final int columnIndex, final String value) {
     final String sqlStatement;
     try {
-      sqlStatement =
-        "UPDATE repair_records SET " 
-        + IndexToColumnNameTranslator.translateForRepairRecordsTable(columnIndex)
-        + " = '" + value + "' WHERE id = " + rowId;
+      sqlStatement = SqlCommands.rtUpdateCell(
+          IndexToColumnNameTranslator.translateForRepairRecordsTable(columnIndex));
     } catch (final IllegalArgumentException err) {
       logger.error("Failed to prepare update cell SQL statement: " 
           + "cannot convert given index to column name: " 
@@ -106,13 +214,19 @@ public class DbManagerSqliteImp implements DbManager {
       return false;
     }
     
-    try (final PreparedStatement updateCell =
-          connection.getConnection().prepareStatement(sqlStatement)) {
-      updateCell.executeUpdate();
+    if (writeBehindQueue != null) {
+      return enqueueRepairRecordCells(rowId, Collections.singletonMap(columnIndex, value));
+    }
+    
+    try {
+      final PreparedStatement updateCell = statementCache.get(sqlStatement);
+      bindRepairRecordValue(updateCell, 1, columnIndex, value);
+      updateCell.setInt(2, rowId);
+      statementTimer.executeUpdate(StatementKind.RT_UPDATE_CELL, updateCell,
+          () -> "id=" + rowId + ", column " + columnIndex + "=" + value);
       repairRecordsTableData.get(rowId).set(columnIndex, value);
-      final String logString = "Repair records table was succesfully updated: row="
-          + rowId + "; column index=" + columnIndex + "; new value=" + value;
-      logger.info(logString);
+      auditLogger.info("Repair records table was updated: row={}; column index={}; new value={}",
+          rowId, columnIndex, value);
       return true;
     } catch (final SQLException err) {
       logger.error("Failed to update " + rowId + " row " + columnIndex + " column with value " 
@@ -122,17 +236,133 @@ public class DbManagerSqliteImp implements DbManager {
     }
   }
 
+  @Override
+  public boolean updateRepairRecordCells(final int rowId, final Map<Integer, String> values) {
+    if (values.isEmpty()) {
+      return true;
+    }
+    final Map<Integer, String> sortedValues = new TreeMap<>(values);
+    try {
+      for (final int columnIndex : sortedValues.keySet()) {
+        IndexToColumnNameTranslator.translateForRepairRecordsTable(columnIndex);
+      }
+    } catch (final IllegalArgumentException err) {
+      logger.error("Failed to prepare update cells SQL statement: " 
+          + "cannot convert given index to column name: " 
+          + err.getMessage());
+      return false;
+    }
+    
+    if (writeBehindQueue != null) {
+      return enqueueRepairRecordCells(rowId, sortedValues);
+    }
+    
+    Connection dbConnection = null;
+    connection.lock();
+    try {
+      dbConnection = connection.getConnection();
+      dbConnection.setAutoCommit(false);
+      executeUpdateCells(rowId, sortedValues);
+      dbConnection.commit();
+      
+      final List<String> row = repairRecordsTableData.get(rowId);
+      for (final Map.Entry<Integer, String> entry : sortedValues.entrySet()) {
+        row.set(entry.getKey(), entry.getValue());
+      }
+      auditLogger.info("Repair records table was updated: row={}; new values={}", rowId, values);
+      return true;
+    } catch (final SQLException err) {
+      logger.error("Failed to update " + rowId + " row with values " + values + ": "
+          + err.getMessage());
+      err.printStackTrace();
+      rollback(dbConnection);
+      return false;
+    } finally {
+      restoreAutoCommit(dbConnection);
+      connection.unlock();
+    }
+  }
+
+  /**
+   * Applies new values to in-memory data and queues them to be written in background.
+   * @param rowId of repair record
+   * @param values with valid column indices as keys
+   * @return {@code false} if queue does not accept changes anymore, otherwise {@code true}
+   */
+  private boolean enqueueRepairRecordCells(final int rowId, final Map<Integer, String> values) {
+    final List<String> row = repairRecordsTableData.get(rowId);
+    final Map<Integer, String> oldValues = new HashMap<>();
+    for (final int columnIndex : values.keySet()) {
+      oldValues.put(columnIndex, row.get(columnIndex));
+    }
+    try {
+      writeBehindQueue.enqueue(rowId, values, oldValues);
+    } catch (final IllegalStateException err) {
+      logger.error("Failed to queue update of " + rowId + " row with values " + values + ": "
+          + err.getMessage());
+      return false;
+    }
+    for (final Map.Entry<Integer, String> entry : values.entrySet()) {
+      row.set(entry.getKey(), entry.getValue());
+    }
+    auditLogger.info(
+        "Repair records table update was queued: row={}; new values={}", rowId, values);
+    return true;
+  }
+  
+  /**
+   * Binds values to cached update statement for given row and executes it.
+   * @param rowId of repair record
+   * @param sortedValues with valid column indices as keys, ordered by column index
+   * @throws SQLException if a database access error occurs
+   */
+  private void executeUpdateCells(final int rowId, final Map<Integer, String> sortedValues)
+                                                                          throws SQLException {
+    final List<String> columnNames = new ArrayList<>(sortedValues.size());
+    for (final int columnIndex : sortedValues.keySet()) {
+      columnNames.add(IndexToColumnNameTranslator.translateForRepairRecordsTable(columnIndex));
+    }
+    final PreparedStatement updateCells =
+        statementCache.get(SqlCommands.rtUpdateCells(columnNames));
+    int parameterIndex = 1;
+    for (final Map.Entry<Integer, String> entry : sortedValues.entrySet()) {
+      bindRepairRecordValue(updateCells, parameterIndex++, entry.getKey(), entry.getValue());
+    }
+    updateCells.setInt(parameterIndex, rowId);
+    statementTimer.executeUpdate(StatementKind.RT_UPDATE_CELLS, updateCells,
+        () -> "id=" + rowId + ", values=" + sortedValues);
+  }
+  
+  /**
+   * Binds value of repair records column, converting dates to epoch days.
+   * @param statement to bind parameter of
+   * @param parameterIndex of the parameter
+   * @param columnIndex of the value in repair records data list
+   * @param value to bind
+   * @throws SQLException if date value is invalid or a database access error occurs
+   */
+  private static void bindRepairRecordValue(final PreparedStatement statement,
+      final int parameterIndex, final int columnIndex, final String value) throws SQLException {
+    if (RepairRecordStore.isDateColumn(columnIndex)) {
+      EpochDayColumns.bind(statement, parameterIndex, value);
+    } else {
+      statement.setString(parameterIndex, value);
+    }
+  }
+
   @Override
   public boolean deleteRepairRecord(final int rowId) {
-    final String sqlStatement = "DELETE FROM repair_records WHERE id = " + rowId;
-    try (final PreparedStatement deleteRow =
-        connection.getConnection().prepareStatement(sqlStatement)) {
-      deleteRow.executeUpdate();
-      insertNewArchiveRecord(repairRecordsTableData.get(rowId));
+    awaitPendingWrites();
+    try {
+      final PreparedStatement deleteRow = statementCache.get(SqlCommands.RT_DELETE_ROW);
+      deleteRow.setInt(1, rowId);
+      statementTimer.executeUpdate(StatementKind.RT_DELETE_ROW, deleteRow, () -> "id=" + rowId);
+      // Copy values, cause the view of the record becomes invalid after its removal
+      insertNewArchiveRecord(new ArrayList<>(repairRecordsTableData.get(rowId)));
       repairRecordsTableData.remove(rowId);
       overdueRepairsMap.remove(rowId);
-      reorderIdOnRowDeletion(rowId);
-      logger.info("Row with id=" + rowId + " was succesfully deleted from repair_records table");
+      orderedId.remove(rowId);
+      auditLogger.info("Row with id={} was deleted from repair records table", rowId);
       return true;
     } catch (final SQLException err) {
       logger.error("Failed to delete row with id=" + rowId + " from repair_records table: "
@@ -142,27 +372,14 @@ public class DbManagerSqliteImp implements DbManager {
     }
   }
   
-  private void reorderIdOnRowDeletion(final int rowId) {
-    // Find ordered id that points to deleted row id
-    final int idToDelete = orderedId.keySet().stream()
-                     .filter(key -> orderedId.get(key) == rowId)
-                     .limit(1)
-                     .reduce((a, b) -> a).get();
-    // Shift ordered id`s by one to the left in order to fill the hole
-    for (int j = idToDelete; j < maxId; j++) {
-      orderedId.put(j, orderedId.get(j + 1));
-    }
-    maxId--;
-  }
-  
   @Override
   public int getIdByOrdinalNumber(final int ordinalNumber) {
-    return orderedId.get(ordinalNumber);
+    return orderedId.getId(ordinalNumber);
   }
   
   @Override
   public int getRecordsCount() {
-    return maxId;
+    return orderedId.size();
   }
   
   @Override
@@ -180,18 +397,19 @@ public class DbManagerSqliteImp implements DbManager {
   @Override
   public boolean insertNewModelRepairPeriods(
                   final String modelName, final List<Integer> repairPeriods) {
-    
+    awaitPendingWrites();
     try (final PreparedStatement insertRow =
           connection.getConnection().prepareStatement(SqlCommands.PT_INSERT_ROW)) {
       insertRow.setString(1, modelName);
       for (int j = 0; j < repairPeriods.size(); j++) {
         insertRow.setInt(j + 2, repairPeriods.get(j));
       }
-      insertRow.executeUpdate();
+      statementTimer.executeUpdate(StatementKind.PT_INSERT_ROW, insertRow,
+          () -> "model=" + modelName + ", periods=" + repairPeriods);
       repairPeriodsTableData.put(modelName, repairPeriods);
-      final String logString = "Row was succesfully inserted in repair periods database table: "
-            + modelName + ":" + repairPeriods;
-      logger.info(logString);
+      modelNameIndex = null;
+      auditLogger.info(
+          "Row was inserted in repair periods table: {}:{}", modelName, repairPeriods);
       return true;
     } catch (final SQLException err) {
       logger.error("Row was not inserted in repair periods table: " + repairPeriods
@@ -206,10 +424,8 @@ public class DbManagerSqliteImp implements DbManager {
                   final String modelName, final int columnIndex, final int value) {
     final String sqlStatement;
     try {
-      sqlStatement =
-              "UPDATE repair_periods SET "
-              + IndexToColumnNameTranslator.translateForRepairPeriodsTable(columnIndex)
-              + " = " + value + " WHERE loco_model_name = " + "'" + modelName + "'";
+      sqlStatement = SqlCommands.ptUpdateCell(
+          IndexToColumnNameTranslator.translateForRepairPeriodsTable(columnIndex));
     } catch (final IllegalArgumentException e) {
       logger.error("Failed to prepare update cell SQL statement: " 
           + "cannot convert given index to column name: " 
@@ -217,13 +433,17 @@ public class DbManagerSqliteImp implements DbManager {
       return false;
     }
 
-    try (final PreparedStatement updateCell =
-          connection.getConnection().prepareStatement(sqlStatement)) {
-      updateCell.executeUpdate();
+    awaitPendingWrites();
+    try {
+      final PreparedStatement updateCell = statementCache.get(sqlStatement);
+      updateCell.setInt(1, value);
+      updateCell.setString(2, modelName);
+      statementTimer.executeUpdate(StatementKind.PT_UPDATE_CELL, updateCell,
+          () -> "model=" + modelName + ", column " + columnIndex + "=" + value);
       repairPeriodsTableData.get(modelName).set(columnIndex, value);
-      final String logString = "Repair periods table was succesfully updated: row="
-          + modelName + "; repair period index=" + columnIndex + "; new value=" + value;
-      logger.info(logString);
+      auditLogger.info(
+          "Repair periods table was updated: row={}; repair period index={}; new value={}",
+          modelName, columnIndex, value);
       return true;
     } catch (final Exception err) {
       logger.error("Failed to update " + modelName + " row " + columnIndex + " column with value " 
@@ -235,14 +455,15 @@ public class DbManagerSqliteImp implements DbManager {
   
   @Override
   public boolean deleteRepairPeriods(final String modelName) {
-    final String sqlStatement =
-        "DELETE FROM repair_periods WHERE loco_model_name = " + "\"" + modelName + "\"";
-      try (final PreparedStatement deleteRow =
-          connection.getConnection().prepareStatement(sqlStatement)) {
-        deleteRow.executeUpdate();
+      awaitPendingWrites();
+      try {
+        final PreparedStatement deleteRow = statementCache.get(SqlCommands.PT_DELETE_ROW);
+        deleteRow.setString(1, modelName);
+        statementTimer.executeUpdate(
+            StatementKind.PT_DELETE_ROW, deleteRow, () -> "model=" + modelName);
         repairPeriodsTableData.remove(modelName);
-        logger.info(
-            "Row with model " + modelName + " was succesfully deleted from repair_periods table");
+        modelNameIndex = null;
+        auditLogger.info("Row with model {} was deleted from repair periods table", modelName);
         return true;
       } catch (final SQLException err) {
         logger.error(
@@ -255,25 +476,50 @@ public class DbManagerSqliteImp implements DbManager {
 
   @Override
   public String[] getAllModelNames() {
-    final Set<String> namesSet = repairPeriodsTableData.keySet();
-    final String[] names = namesSet.toArray(new String[namesSet.size()]);
-    Arrays.sort(names, new ModelNamesComparator());
-    return names;
+    return getModelNameIndex().getNames();
+  }
+  
+  @Override
+  public ModelNameIndex getModelNameIndex() {
+    if (modelNameIndex == null) {
+      modelNameIndex = new ModelNameIndex(repairPeriodsTableData);
+    }
+    return modelNameIndex;
   }
   
   // ============================= Methods for records archive table =============================
   
   @Override
-  public List<List<String>> getAllRecordsArchiveData() {
-    if (!archiveInitialized) {
-      recordsArchiveTableData = loadDataFromRecordsArchiveTable();
-      archiveInitialized = true;
+  public int getArchiveCount() {
+    try {
+      return archivePager.getCount();
+    } catch (final SQLException err) {
+      logger.error("Failed to count rows of records archive table: " + err.getMessage());
+      err.printStackTrace();
+      return 0;
+    }
+  }
+  
+  @Override
+  public List<List<String>> getArchivePage(final int offset, final int limit) {
+    try {
+      return archivePager.getRows(offset, limit);
+    } catch (final SQLException err) {
+      logger.error("Failed to load records archive rows: offset=" + offset + ", limit=" + limit
+          + " Error: " + err.getMessage());
+      err.printStackTrace();
+      return Collections.emptyList();
     }
-    return recordsArchiveTableData;
+  }
+  
+  @Override
+  public int getArchivePageSize() {
+    return archivePager.getPageSize();
   }
   
   @Override
   public void insertNewArchiveRecord(final List<String> rowToInsert) {
+    awaitPendingWrites();
     try (final PreparedStatement insertRow =
           connection.getConnection().prepareStatement(SqlCommands.AT_INSERT_ROW)) {
       for (int j = 0; j < rowToInsert.size(); j++) {
@@ -283,14 +529,12 @@ public class DbManagerSqliteImp implements DbManager {
           insertRow.setString(15, rowToInsert.get(18));
           break;
         }
-        insertRow.setString(j + 1, rowToInsert.get(j));
-      }
-      insertRow.executeUpdate();
-      logger.info(
-          "Row was succesfully inserted in records archive database table: " + rowToInsert);
-      if (archiveInitialized) {
-        recordsArchiveTableData.add(rowToInsert);
+        bindRepairRecordValue(insertRow, j + 1, j, rowToInsert.get(j));
       }
+      statementTimer.executeUpdate(
+          StatementKind.AT_INSERT_ROW, insertRow, () -> String.valueOf(rowToInsert));
+      auditLogger.info("Row was inserted in records archive table: {}", rowToInsert);
+      archivePager.onRowAppended();
     } catch (final SQLException err) {
       logger.error("Row was not inserted in records_archive table: " + rowToInsert
           + " Error: " + err.getMessage());
@@ -300,11 +544,12 @@ public class DbManagerSqliteImp implements DbManager {
   
   @Override
   public boolean clearArchive() {
+    awaitPendingWrites();
     try (final PreparedStatement clearTable =
           connection.getConnection().prepareStatement("DELETE FROM records_archive;")) {
-      clearTable.executeUpdate();
-      recordsArchiveTableData.clear();
-      logger.info("All data was deleted from archive table");
+      statementTimer.executeUpdate(StatementKind.AT_CLEAR, clearTable);
+      archivePager.invalidate();
+      auditLogger.info("All data was deleted from records archive table");
       return true;
     } catch (final SQLException err) {
       logger.error("Failed to delete all data from repair_periods table: " + err.getMessage());
@@ -313,13 +558,260 @@ public class DbManagerSqliteImp implements DbManager {
     }
   }
 
+  // ================================ Methods for write mode ================================
+
+  @Override
+  public void setWriteFailureListener(final WriteFailureListener listener) {
+    writeFailureListener = listener;
+  }
+  
+  /**
+   * Writes all queued changes into the database, stops background writer and writes startup
+   * snapshot.
+   * <p>
+   * Called by Spring on application context shutdown, before database connection is closed.
+   * <br>
+   * If some queued changes were not written, in-memory data may differ from the database under
+   * the same change counter, so snapshot is not written and the old one is deleted.
+   * <br>
+   * Repeated calls do nothing: when DbManager is wrapped by {@link DbManagerMetricsPostProcessor}
+   * it is called by the post processor as well.
+   */
+  @Override
+  @PreDestroy
+  public synchronized void shutdown() {
+    if (shutDown) {
+      return;
+    }
+    shutDown = true;
+    if (writeBehindQueue != null && !writeBehindQueue.close()) {
+      logger.error("Not all queued changes were written, startup snapshot is discarded.");
+      deleteStartupSnapshot();
+      return;
+    }
+    writeStartupSnapshot();
+  }
+  
+  /**
+   * Blocks until all queued cell changes are written, so that operation, which is about to be
+   * performed synchronously, is not reordered with them. Does nothing in sync mode.
+   */
+  private void awaitPendingWrites() {
+    if (writeBehindQueue != null) {
+      writeBehindQueue.flush();
+    }
+  }
+  
+  /**
+   * Writes batch of queued cell changes in one transaction. Runs on the writer thread.
+   * @param batch map with row id`s as keys and maps of column indices and new values as values
+   * @throws SQLException if batch was not written, transaction is rolled back in that case
+   */
+  private void writeRepairRecordsBatch(final Map<Integer, Map<Integer, String>> batch)
+                                                                          throws SQLException {
+    connection.lock();
+    try {
+      final Connection dbConnection = connection.getConnection();
+      try {
+        dbConnection.setAutoCommit(false);
+        for (final Map.Entry<Integer, Map<Integer, String>> row : batch.entrySet()) {
+          executeUpdateCells(row.getKey(), row.getValue());
+        }
+        dbConnection.commit();
+      } catch (final SQLException err) {
+        rollback(dbConnection);
+        throw err;
+      } finally {
+        restoreAutoCommit(dbConnection);
+      }
+    } finally {
+      connection.unlock();
+    }
+  }
+  
+  /**
+   * Rolls back in-memory data to the values stored in the database and notifies listener.
+   * <p>
+   * Runs on the writer thread and passes the work to the Event Dispatch Thread, which owns
+   * in-memory data. Cells which were changed again after failed batch was taken are not rolled
+   * back, because their newer values are still queued.
+   * @param failedValues values that were not written, grouped by row id
+   * @param persistedValues values of the same cells stored in the database
+   * @param err cause of failure
+   */
+  private void onWriteBehindFailure(final Map<Integer, Map<Integer, String>> failedValues,
+                                    final Map<Integer, Map<Integer, String>> persistedValues,
+                                    final SQLException err) {
+    SwingUtilities.invokeLater(() -> {
+      final RequiredRepairHandler requiredRepairHandler = new RequiredRepairHandler(this);
+      final LocalDate today = LocalDate.now();
+      for (final Map.Entry<Integer, Map<Integer, String>> failedRow : failedValues.entrySet()) {
+        final List<String> row = repairRecordsTableData.get(failedRow.getKey());
+        if (row == null) {
+          continue;
+        }
+        final Map<Integer, String> persistedRow = persistedValues.get(failedRow.getKey());
+        for (final Map.Entry<Integer, String> failedCell : failedRow.getValue().entrySet()) {
+          if (Objects.equals(row.get(failedCell.getKey()), failedCell.getValue())) {
+            row.set(failedCell.getKey(), persistedRow.get(failedCell.getKey()));
+          }
+        }
+        requiredRepairHandler.updateRequiredRepairValues(failedRow.getKey(), today);
+      }
+      logger.warn("In-memory data was rolled back for rows " + failedValues.keySet());
+      if (writeFailureListener != null) {
+        writeFailureListener.onWriteFailure(failedValues.keySet());
+      }
+    });
+  }
+
 // ====================================== Utility methods ======================================
   
+  /**
+   * Opens connection in advance, so that its time is not mixed with data loading. Failure is only
+   * logged: it will be reported again by the methods which load data.
+   */
+  private void openConnection() {
+    try {
+      connection.getConnection();
+    } catch (final SQLException err) {
+      logger.fatal("Unable to open connection with database: " + err.getMessage());
+      err.printStackTrace();
+    }
+  }
+  
+  /**
+   * Makes sure that date columns were converted to epoch days by V5 migration.
+   * <p>
+   * Dates of older schema are {@code dd.MM.yyyy} strings, which would be read as wrong numbers
+   * and then overwritten by recomputed required repair values, so DbManager must not start.
+   * @throws OutdatedSchemaException if repair records table is missing or has non-INTEGER date
+   * columns
+   */
+  private void checkDateColumnsSchema() {
+    final String dateColumnType;
+    try (final PreparedStatement readType =
+        connection.getConnection().prepareStatement(SqlCommands.RT_DATE_COLUMN_TYPE)) {
+      final ResultSet resultSet =
+          statementTimer.executeQuery(StatementKind.RT_DATE_COLUMN_TYPE, readType);
+      dateColumnType = resultSet.next() ? resultSet.getString("type") : "";
+    } catch (final SQLException err) {
+      logger.error("Failed to check type of date columns: " + err.getMessage());
+      err.printStackTrace();
+      return;
+    }
+    if (!"INTEGER".equalsIgnoreCase(dateColumnType)) {
+      final String message = "Database schema is outdated: date columns of repair records table "
+          + "have type '" + dateColumnType + "' instead of INTEGER. Apply migrations with "
+          + "\"gradlew flywayMigrate\" before starting the application.";
+      logger.fatal(message);
+      throw new OutdatedSchemaException(message);
+    }
+  }
+  
+  /**
+   * Loads repair records, their ordinal numbers and repair periods from startup snapshot.
+   * @return {@code true} if data was loaded, {@code false} if snapshot is disabled, missing,
+   * outdated or corrupted and data must be loaded from the database
+   */
+  private boolean loadStartupSnapshot() {
+    if (startupSnapshotPath == null) {
+      return false;
+    }
+    final boolean loaded = readStartupSnapshot();
+    SNAPSHOT_CACHE.record(loaded);
+    return loaded;
+  }
+  
+  private boolean readStartupSnapshot() {
+    final long changeCounter = readChangeCounter();
+    if (changeCounter == NO_CHANGE_COUNTER) {
+      return false;
+    }
+    final long start = System.nanoTime();
+    try {
+      final StartupSnapshot snapshot = StartupSnapshot.read(startupSnapshotPath, changeCounter);
+      if (snapshot == null) {
+        logger.info("Startup snapshot " + startupSnapshotPath + " is missing or outdated, "
+            + "data is loaded from database.");
+        return false;
+      }
+      repairRecordStore = snapshot.getRepairRecordStore();
+      orderedId = snapshot.getOrderedId();
+      repairPeriodsTableData = snapshot.getRepairPeriods();
+      logger.info("Data was loaded from startup snapshot " + startupSnapshotPath + " ("
+          + repairRecordStore.size() + " repair records, " + repairPeriodsTableData.size()
+          + " repair periods) in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+      return true;
+    } catch (final IOException err) {
+      logger.warn("Failed to read startup snapshot, data is loaded from database: "
+          + err.getMessage());
+      return false;
+    }
+  }
+  
+  /**
+   * Writes startup snapshot with current data. Failures are only logged: data will be loaded
+   * from the database at the next start.
+   */
+  private void writeStartupSnapshot() {
+    if (startupSnapshotPath == null) {
+      return;
+    }
+    final long changeCounter = readChangeCounter();
+    if (changeCounter == NO_CHANGE_COUNTER) {
+      return;
+    }
+    final long start = System.nanoTime();
+    try {
+      StartupSnapshot.write(startupSnapshotPath, changeCounter, repairRecordStore, orderedId,
+          repairPeriodsTableData);
+      logger.info("Startup snapshot " + startupSnapshotPath + " was written in "
+          + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    } catch (final IOException err) {
+      logger.warn("Failed to write startup snapshot: " + err.getMessage());
+    }
+  }
+  
+  private void deleteStartupSnapshot() {
+    if (startupSnapshotPath == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(startupSnapshotPath);
+    } catch (final IOException err) {
+      logger.error("Failed to delete startup snapshot " + startupSnapshotPath + ": "
+          + err.getMessage());
+      err.printStackTrace();
+    }
+  }
+  
+  /**
+   * Reads database change counter.
+   * @return value of the counter or {@code NO_CHANGE_COUNTER} if it is not available, for example
+   * if V6 migration was not applied
+   */
+  private long readChangeCounter() {
+    try (final PreparedStatement readCounter =
+        connection.getConnection().prepareStatement(SqlCommands.CC_COUNTER)) {
+      final ResultSet resultSet =
+          statementTimer.executeQuery(StatementKind.CC_COUNTER, readCounter);
+      if (resultSet.next()) {
+        return resultSet.getLong("counter");
+      }
+      logger.warn("Database change counter is missing, startup snapshot is not used.");
+    } catch (final SQLException err) {
+      logger.warn("Failed to read database change counter, startup snapshot is not used: "
+          + err.getMessage());
+    }
+    return NO_CHANGE_COUNTER;
+  }
+  
   private Map<String, List<Integer>> loadDataFromRepairPeriodsTable() {
     final Map<String, List<Integer>> data = new HashMap<>();
     try (final PreparedStatement fetchData =
         connection.getConnection().prepareStatement(SqlCommands.PT_ALL_DATA)) {
-      final ResultSet resultSet = fetchData.executeQuery();
+      final ResultSet resultSet = statementTimer.executeQuery(StatementKind.PT_ALL_DATA, fetchData);
       while (resultSet.next()) {
         final List<Integer> repairPeriods = new ArrayList<>(6);
         repairPeriods.clear();
@@ -345,36 +837,39 @@ public class DbManagerSqliteImp implements DbManager {
     return data;
   }
   
-  private Map<Integer, List<String>> loadDataFromRepairRecordsTable() {
-    final Map<Integer, List<String>> data = new HashMap<>();
+  private RepairRecordStore loadDataFromRepairRecordsTable() {
+    final RepairRecordStore data = new RepairRecordStore(0);
+    orderedId.clear();
     try (final PreparedStatement fetchData =
         connection.getConnection().prepareStatement(SqlCommands.RT_ALL_DATA)) {
-      final ResultSet resultSet = fetchData.executeQuery();
-      maxId = 0;
+      final ResultSet resultSet = statementTimer.executeQuery(StatementKind.RT_ALL_DATA, fetchData);
+      // Values are copied into the store, so the same array is reused for every row
+      final String[] repairRecord = new String[RepairRecordStore.COLUMN_COUNT];
+      final List<String> repairRecordView = Arrays.asList(repairRecord);
       while (resultSet.next()) {
-        final List<String> repairRecords = new ArrayList<>(19);
-        repairRecords.add(resultSet.getString("loco_model_name"));
-        repairRecords.add(resultSet.getString("loco_number"));
-        repairRecords.add(validateString(resultSet.getString("last_three_maintenance")));
-        repairRecords.add(validateString(resultSet.getString("next_three_maintenance")));
-        repairRecords.add(validateString(resultSet.getString("last_one_current_repair")));
-        repairRecords.add(validateString(resultSet.getString("next_one_current_repair")));
-        repairRecords.add(validateString(resultSet.getString("last_two_current_repair")));
-        repairRecords.add(validateString(resultSet.getString("next_two_current_repair")));
-        repairRecords.add(validateString(resultSet.getString("last_three_current_repair")));
-        repairRecords.add(validateString(resultSet.getString("next_three_current_repair")));
-        repairRecords.add(validateString(resultSet.getString("last_medium_repair")));
-        repairRecords.add(validateString(resultSet.getString("next_medium_repair")));
-        repairRecords.add(validateString(resultSet.getString("last_overhaul")));
-        repairRecords.add(validateString(resultSet.getString("next_overhaul")));
-        repairRecords.add(validateString(resultSet.getString("last_repair_type")));
-        repairRecords.add(validateString(resultSet.getString("last_repair_date")));
-        repairRecords.add(validateString(resultSet.getString("required_repair_type")));
-        repairRecords.add(validateString(resultSet.getString("required_repair_date")));
-        repairRecords.add(validateString(resultSet.getString("notes")));
-        data.put(resultSet.getInt("id"), repairRecords);
+        repairRecord[0] = resultSet.getString("loco_model_name");
+        repairRecord[1] = resultSet.getString("loco_number");
+        repairRecord[2] = EpochDayColumns.read(resultSet, "last_three_maintenance");
+        repairRecord[3] = EpochDayColumns.read(resultSet, "next_three_maintenance");
+        repairRecord[4] = EpochDayColumns.read(resultSet, "last_one_current_repair");
+        repairRecord[5] = EpochDayColumns.read(resultSet, "next_one_current_repair");
+        repairRecord[6] = EpochDayColumns.read(resultSet, "last_two_current_repair");
+        repairRecord[7] = EpochDayColumns.read(resultSet, "next_two_current_repair");
+        repairRecord[8] = EpochDayColumns.read(resultSet, "last_three_current_repair");
+        repairRecord[9] = EpochDayColumns.read(resultSet, "next_three_current_repair");
+        repairRecord[10] = EpochDayColumns.read(resultSet, "last_medium_repair");
+        repairRecord[11] = EpochDayColumns.read(resultSet, "next_medium_repair");
+        repairRecord[12] = EpochDayColumns.read(resultSet, "last_overhaul");
+        repairRecord[13] = EpochDayColumns.read(resultSet, "next_overhaul");
+        repairRecord[14] = validateString(resultSet.getString("last_repair_type"));
+        repairRecord[15] = EpochDayColumns.read(resultSet, "last_repair_date");
+        repairRecord[16] = validateString(resultSet.getString("required_repair_type"));
+        repairRecord[17] = EpochDayColumns.read(resultSet, "required_repair_date");
+        repairRecord[18] = validateString(resultSet.getString("notes"));
+        final int id = resultSet.getInt("id");
+        data.add(id, repairRecordView);
         
-        orderedId.put(maxId++, resultSet.getInt("id"));
+        orderedId.append(id);
       }
       logger.info(
           "Successfully loaded data from repair records table (" + data.size() + " rows total).");
@@ -409,7 +904,7 @@ public class DbManagerSqliteImp implements DbManager {
                                                    throws IdAlreadyExistsException, SQLException {
     try (final PreparedStatement getMaxId =
         connection.getConnection().prepareStatement(SqlCommands.RT_MAX_ID)) {
-      final int id = getMaxId.executeQuery().getInt("id");
+      final int id = statementTimer.executeQuery(StatementKind.RT_MAX_ID, getMaxId).getInt("id");
       if (repairRecordsTableData.containsKey(id)) {
         final String logString = "Error on attempt to update repair records map data structure"
             + " with new inserted row: the row with id " + id + " already exists. "
@@ -419,8 +914,8 @@ public class DbManagerSqliteImp implements DbManager {
       } else {
         repairRecordsTableData.put(id, row);
         overdueRepairsMap.put(id, false);
-        orderedId.put(maxId++, id);
-        logger.info("Internal data structure was succesfully updated: " + id + ":" + row);
+        orderedId.append(id);
+        logger.debug("Internal data structure was succesfully updated: {}:{}", id, row);
       }
     } catch (final SQLException err) {
       final String logString = "SQLException was occured at attempt to update repair records map: "
@@ -430,41 +925,36 @@ public class DbManagerSqliteImp implements DbManager {
     }
   }
   
-  private List<List<String>> loadDataFromRecordsArchiveTable() {
-    final List<List<String>> data = new ArrayList<>();
-    try (final PreparedStatement fetchData =
-        connection.getConnection().prepareStatement(SqlCommands.AT_ALL_DATA)) {
-      final ResultSet resultSet = fetchData.executeQuery();
-      while (resultSet.next()) {
-        final List<String> archiveRecords = new ArrayList<>(15);
-        archiveRecords.add(resultSet.getString("loco_model_name"));
-        archiveRecords.add(resultSet.getString("loco_number"));
-        archiveRecords.add(resultSet.getString("last_three_maintenance"));
-        archiveRecords.add(resultSet.getString("next_three_maintenance"));
-        archiveRecords.add(resultSet.getString("last_one_current_repair"));
-        archiveRecords.add(resultSet.getString("next_one_current_repair"));
-        archiveRecords.add(resultSet.getString("last_two_current_repair"));
-        archiveRecords.add(resultSet.getString("next_two_current_repair"));
-        archiveRecords.add(resultSet.getString("last_three_current_repair"));
-        archiveRecords.add(resultSet.getString("next_three_current_repair"));
-        archiveRecords.add(resultSet.getString("last_medium_repair"));
-        archiveRecords.add(resultSet.getString("next_medium_repair"));
-        archiveRecords.add(resultSet.getString("last_overhaul"));
-        archiveRecords.add(resultSet.getString("next_overhaul"));
-        archiveRecords.add(resultSet.getString("notes"));
-        data.add(archiveRecords);
+  /**
+   * Rolls back current transaction, if connection is available.
+   * @param dbConnection with failed transaction, could be {@code null}
+   */
+  private void rollback(final Connection dbConnection) {
+    if (dbConnection == null) {
+      return;
+    }
+    try {
+      if (!dbConnection.getAutoCommit()) {
+        dbConnection.rollback();
       }
-      logger.info(
-          "Successfully loaded data from records archive table (" + data.size() + " rows total).");
     } catch (final SQLException err) {
-      final String logString = "Unable to establish connection with database.\n"
-          + "SQLException was occured at attempt to initialize DbManager instance: \n"
-          + "can`t load data from records archive table.";
-      logger.error(logString);
-      err.printStackTrace();
+      logger.error("Failed to rollback transaction: " + err.getMessage());
+    }
+  }
+  
+  /**
+   * Returns connection to auto-commit mode after explicit transaction.
+   * @param dbConnection to restore, could be {@code null}
+   */
+  private void restoreAutoCommit(final Connection dbConnection) {
+    if (dbConnection == null) {
+      return;
+    }
+    try {
+      dbConnection.setAutoCommit(true);
+    } catch (final SQLException err) {
+      logger.error("Failed to restore auto-commit mode: " + err.getMessage());
     }
-    
-    return data;
   }
   
   /**
@@ -472,41 +962,109 @@ public class DbManagerSqliteImp implements DbManager {
    * operation.
    */
   private void rebuildRepairRecordsTableData() {
-    repairRecordsTableData = loadDataFromRepairRecordsTable();
+    repairRecordStore = loadDataFromRepairRecordsTable();
+    repairRecordsTableData = repairRecordStore.asMap();
     logger.info("Data structure with repair records data was updated with latest database data.");
   }
   
   /**
-   * Cleans up unused disk space that remains after previous application sessions.
+   * Updates values of required repair columns for every repair record.
+   * <p>
+   * This method is meant to be used at DbManager initialization cause if application run on
+   * another day, some of required repairs could be overdue and must be updated accordingly.
    * <p>
-   * Running VACUUM to rebuild the database reclaims unused space and
-   * reduces the size of the database file. 
-   * @see <a href="https://www.sqlite.org/lang_vacuum.html">SQLite VACUUM</a>
+   * Works in two phases: at first new values of all records are computed in parallel by
+   * {@code FleetRecomputeService}, then all changed rows are written in one transaction with
+   * batched statements. In-memory data is updated only if the transaction succeeds.
    */
-  private void clearUnusedDiskSpace() {
-    try (final PreparedStatement vacuum =
-        connection.getConnection().prepareStatement("VACUUM;")) {
-      vacuum.executeUpdate();
-      logger.info("Database was successfully vacuumed.");
+  private void updateRequiredRepairValues() {
+    final long start = System.nanoTime();
+    final List<RequiredRepairChange> changes = fleetRecomputeService.recompute(
+        repairRecordStore, orderedId.toArray(), LocalDate.now());
+    final Map<Integer, Map<Integer, String>> changedRows = new LinkedHashMap<>();
+    for (final RequiredRepairChange change : changes) {
+      overdueRepairsMap.put(change.getRowId(), change.isOverdue());
+      if (change.hasChanges()) {
+        changedRows.put(change.getRowId(), change.getChanges());
+      }
+    }
+    final long computed = System.nanoTime();
+    if (changedRows.isEmpty()) {
+      logger.info("Required repair values are up to date (" + orderedId.size()
+          + " rows checked in " + (computed - start) / 1_000_000 + " ms).");
+      return;
+    }
+    
+    Connection dbConnection = null;
+    connection.lock();
+    try {
+      dbConnection = connection.getConnection();
+      dbConnection.setAutoCommit(false);
+      executeBatchedUpdateCells(changedRows);
+      dbConnection.commit();
+      for (final Map.Entry<Integer, Map<Integer, String>> changedRow : changedRows.entrySet()) {
+        final List<String> row = repairRecordsTableData.get(changedRow.getKey());
+        for (final Map.Entry<Integer, String> cell : changedRow.getValue().entrySet()) {
+          row.set(cell.getKey(), cell.getValue());
+        }
+      }
+      logger.info("Required repair values were updated: " + changedRows.size() + " of "
+          + orderedId.size() + " rows changed in " + (System.nanoTime() - start) / 1_000_000
+          + " ms (computation " + (computed - start) / 1_000_000 + " ms, write "
+          + (System.nanoTime() - computed) / 1_000_000 + " ms).");
     } catch (final SQLException err) {
-      logger.error("Failed to vacuum database: " + err.getMessage());
+      logger.error("Failed to write updated required repair values of " + changedRows.size()
+          + " rows: " + err.getMessage());
       err.printStackTrace();
+      rollback(dbConnection);
+    } finally {
+      restoreAutoCommit(dbConnection);
+      connection.unlock();
     }
   }
   
   /**
-   * Updates values of required repair columns for every repair record.
-   * <p>
-   * This method is meant to be used at DbManager initialization cause if application run on
-   * another day, some of required repairs could be overdue and must be updated accordingly.
+   * Writes changes of several rows with batched statements, one batch for every distinct set of
+   * changed columns. Should be called inside transaction.
+   * @param changedRows map with row id`s as keys and maps of column indices and new values as
+   * values
+   * @throws SQLException if a database access error occurs
    */
-  private void updateRequiredRepairValues() {
-    final LocalDate today = LocalDate.now();
-    RequiredRepairHandler requiredRepairHandler = new RequiredRepairHandler(this);
-    for (int j = 0; j < maxId; j++) {
-      requiredRepairHandler.updateRequiredRepairValues(getIdByOrdinalNumber(j), today);
+  private void executeBatchedUpdateCells(final Map<Integer, Map<Integer, String>> changedRows)
+                                                                          throws SQLException {
+    final Map<List<Integer>, PreparedStatement> batches = new LinkedHashMap<>();
+    for (final Map.Entry<Integer, Map<Integer, String>> changedRow : changedRows.entrySet()) {
+      final Map<Integer, String> sortedValues = new TreeMap<>(changedRow.getValue());
+      final List<Integer> columnIndices = new ArrayList<>(sortedValues.keySet());
+      PreparedStatement updateCells = batches.get(columnIndices);
+      if (updateCells == null) {
+        final List<String> columnNames = new ArrayList<>(columnIndices.size());
+        for (final int columnIndex : columnIndices) {
+          columnNames.add(IndexToColumnNameTranslator.translateForRepairRecordsTable(columnIndex));
+        }
+        updateCells = statementCache.get(SqlCommands.rtUpdateCells(columnNames));
+        batches.put(columnIndices, updateCells);
+      }
+      int parameterIndex = 1;
+      for (final Map.Entry<Integer, String> entry : sortedValues.entrySet()) {
+        bindRepairRecordValue(updateCells, parameterIndex++, entry.getKey(), entry.getValue());
+      }
+      updateCells.setInt(parameterIndex, changedRow.getKey());
+      updateCells.addBatch();
     }
-  }  
+    try {
+      for (final PreparedStatement updateCells : batches.values()) {
+        statementTimer.executeBatch(StatementKind.RT_UPDATE_CELLS_BATCH, updateCells,
+            () -> changedRows.size() + " changed rows in " + batches.size() + " batches");
+      }
+    } catch (final SQLException err) {
+      // Statements are cached, so parameters of failed batch must not stay in them
+      for (final PreparedStatement updateCells : batches.values()) {
+        updateCells.clearBatch();
+      }
+      throw err;
+    }
+  }
   
   @Override
   public String toString() {
@@ -515,8 +1073,8 @@ public class DbManagerSqliteImp implements DbManager {
     builder.append(connection);
     builder.append(", repairPeriodsTableData=");
     builder.append(repairPeriodsTableData);
-    builder.append(", repairRecordsTableData=");
-    builder.append(repairRecordsTableData);
+    builder.append(", repairRecordStore=");
+    builder.append(repairRecordStore);
     builder.append("]");
     return builder.toString();
   }
@@ -0,0 +1,56 @@
+package dbapi;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.format.DateTimeParseException;
+import datecalculations.DateCodec;
+
+/**
+ * Converts repair dates at the database boundary.
+ * <p>
+ * Since V5 migration date columns of {@code repair_records} and {@code records_archive} tables
+ * hold {@code INTEGER} epoch days or {@code NULL} for empty date, while the rest of application
+ * works with {@code dd.MM.yyyy} strings.
+ */
+final class EpochDayColumns {
+
+  private EpochDayColumns() {
+  }
+
+  /**
+   * Reads date column of current row.
+   * @param resultSet positioned on the row to read
+   * @param columnLabel of date column
+   * @return date in {@code dd.MM.yyyy} format or empty string for {@code NULL}
+   * @throws SQLException if a database access error occurs
+   */
+  static String read(final ResultSet resultSet, final String columnLabel) throws SQLException {
+    final int epochDay = resultSet.getInt(columnLabel);
+    return resultSet.wasNull() ? "" : DateCodec.format(epochDay);
+  }
+
+  /**
+   * Binds date parameter of prepared statement.
+   * @param statement to bind parameter of
+   * @param parameterIndex of date parameter
+   * @param value in {@code dd.MM.yyyy} format, empty string or {@code null} for {@code NULL}
+   * @throws SQLException if value is not a valid date or a database access error occurs
+   */
+  static void bind(final PreparedStatement statement, final int parameterIndex, final String value)
+                                                                          throws SQLException {
+    final int epochDay;
+    try {
+      epochDay = DateCodec.parse(value);
+    } catch (final DateTimeParseException err) {
+      throw new SQLException("Invalid date value '" + value + "': " + err.getMessage(), err);
+    }
+    if (epochDay == DateCodec.EMPTY) {
+      statement.setNull(parameterIndex, Types.INTEGER);
+    } else {
+      statement.setInt(parameterIndex, epochDay);
+    }
+  }
+
+}
@@ -0,0 +1,86 @@
+package dbapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import gui.utility.ModelNamesComparator;
+
+/**
+ * Sorted view of repair periods table: model names in preferred order, row of every model name
+ * and repair periods of every row.
+ * <p>
+ * Index is built once from repair periods data, so reading it does not sort or allocate. It keeps
+ * references to the same period lists, so changes of periods are visible at once, while insertion
+ * or deletion of a model requires a new index.
+ */
+public final class ModelNameIndex {
+  private static final int ABSENT = -1;
+  private final String[] names;
+  private final Map<String, Integer> rowByName;
+  private final List<List<Integer>> periodsByRow;
+
+  /**
+   * Builds index.
+   * @param repairPeriodsData map with model names as keys and lists of repair periods as values
+   */
+  public ModelNameIndex(final Map<String, List<Integer>> repairPeriodsData) {
+    super();
+    names = repairPeriodsData.keySet().toArray(new String[repairPeriodsData.size()]);
+    Arrays.sort(names, new ModelNamesComparator());
+    rowByName = new HashMap<>(names.length * 2);
+    periodsByRow = new ArrayList<>(names.length);
+    for (int row = 0; row < names.length; row++) {
+      rowByName.put(names[row], row);
+      periodsByRow.add(repairPeriodsData.get(names[row]));
+    }
+  }
+
+  public int size() {
+    return names.length;
+  }
+
+  /**
+   * Returns model name of given row.
+   * @param row from 0 to {@code size() - 1}
+   * @return model name
+   */
+  public String getName(final int row) {
+    return names[row];
+  }
+
+  /**
+   * Returns row of given model name.
+   * @param modelName to look for
+   * @return row or -1 if there is no such model
+   */
+  public int getRow(final String modelName) {
+    final Integer row = rowByName.get(modelName);
+    return row != null ? row : ABSENT;
+  }
+
+  /**
+   * Returns repair period of given row.
+   * @param row from 0 to {@code size() - 1}
+   * @param repairTypeIndex from 0 to 5
+   * @return repair period in days
+   */
+  public int getPeriod(final int row, final int repairTypeIndex) {
+    return periodsByRow.get(row).get(repairTypeIndex);
+  }
+
+  /**
+   * Returns all model names in preferred order.
+   * @return new array with model names
+   */
+  public String[] getNames() {
+    return names.clone();
+  }
+
+  @Override
+  public String toString() {
+    return "ModelNameIndex " + Arrays.toString(names);
+  }
+
+}
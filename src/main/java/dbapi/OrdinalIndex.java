@@ -0,0 +1,195 @@
+package dbapi;
+
+import java.util.Arrays;
+
+/**
+ * Maps ordinal numbers of repair records (their positions in GUI table) to row ids and back.
+ * <p>
+ * Ids are kept in {@code int[]} gap buffer: ordinals before the gap are stored in
+ * {@code [0, gapStart)}, the rest in {@code [gapEnd, end)}, and new ids are appended after
+ * {@code end}. Position of every id in the buffer is tracked in a second array indexed by id.
+ * <br>
+ * Therefore both lookups take constant time and do not box values. Removal moves the gap to the
+ * removed position, which costs the distance between them, so successive removals near each
+ * other are cheap and removal of any ordinal never touches elements outside that range.
+ * Append takes amortized constant time.
+ * <p>
+ * Ids must be non-negative. The class is not thread-safe.
+ */
+public class OrdinalIndex {
+  private static final int ABSENT = -1;
+  private static final int MIN_CAPACITY = 16;
+  private int[] ids;
+  private int[] slotById;
+  private int gapStart;
+  private int gapEnd;
+  private int end;
+
+  /**
+   * Creates empty index.
+   * @param expectedSize expected count of ids, used as initial capacity
+   */
+  public OrdinalIndex(final int expectedSize) {
+    super();
+    ids = new int[Math.max(expectedSize, MIN_CAPACITY)];
+    slotById = new int[Math.max(expectedSize, MIN_CAPACITY)];
+    Arrays.fill(slotById, ABSENT);
+  }
+
+  /**
+   * Returns count of ids in index.
+   * @return count of ids
+   */
+  public int size() {
+    return end - (gapEnd - gapStart);
+  }
+
+  /**
+   * Returns id with given ordinal number.
+   * @param ordinalNumber from 0 to {@code size() - 1}
+   * @return corresponding id
+   * @throws IndexOutOfBoundsException if there is no such ordinal number
+   */
+  public int getId(final int ordinalNumber) {
+    if (ordinalNumber < 0 || ordinalNumber >= size()) {
+      throw new IndexOutOfBoundsException("Ordinal: " + ordinalNumber + ", size: " + size());
+    }
+    return ordinalNumber < gapStart ? ids[ordinalNumber] : ids[ordinalNumber + gapEnd - gapStart];
+  }
+
+  /**
+   * Returns ordinal number of given id.
+   * @param id to look for
+   * @return ordinal number or -1 if index does not contain id
+   */
+  public int getOrdinalNumber(final int id) {
+    if (id < 0 || id >= slotById.length) {
+      return ABSENT;
+    }
+    final int slot = slotById[id];
+    if (slot == ABSENT) {
+      return ABSENT;
+    }
+    return slot < gapStart ? slot : slot - (gapEnd - gapStart);
+  }
+
+  /**
+   * Tells whether or not index contains given id.
+   * @param id to look for
+   * @return {@code true} if id is present
+   */
+  public boolean contains(final int id) {
+    return getOrdinalNumber(id) != ABSENT;
+  }
+
+  /**
+   * Adds id with ordinal number equal to current size.
+   * @param id to add
+   * @throws IllegalArgumentException if id is negative or already present
+   */
+  public void append(final int id) {
+    if (id < 0 || contains(id)) {
+      throw new IllegalArgumentException("Id is negative or already present: " + id);
+    }
+    if (end == ids.length) {
+      compact(Math.max(size() * 2, MIN_CAPACITY));
+    }
+    if (id >= slotById.length) {
+      final int oldLength = slotById.length;
+      slotById = Arrays.copyOf(slotById, Math.max(id + 1, oldLength * 2));
+      Arrays.fill(slotById, oldLength, slotById.length, ABSENT);
+    }
+    ids[end] = id;
+    slotById[id] = end;
+    end++;
+  }
+
+  /**
+   * Removes id and shifts ordinal numbers of all following ids by one.
+   * @param id to remove
+   * @return ordinal number that id had, or -1 if index does not contain id
+   */
+  public int remove(final int id) {
+    final int ordinalNumber = getOrdinalNumber(id);
+    if (ordinalNumber == ABSENT) {
+      return ABSENT;
+    }
+    moveGapTo(ordinalNumber);
+    // Removed id is the first one after the gap
+    slotById[id] = ABSENT;
+    gapEnd++;
+    if (gapEnd == end) {
+      // Nothing after the gap: it becomes free space at the end
+      end = gapStart;
+      gapEnd = gapStart;
+    }
+    return ordinalNumber;
+  }
+
+  /**
+   * Returns all ids in order of their ordinal numbers.
+   * @return new array, changes of index are not reflected in it
+   */
+  public int[] toArray() {
+    final int[] result = new int[size()];
+    System.arraycopy(ids, 0, result, 0, gapStart);
+    System.arraycopy(ids, gapEnd, result, gapStart, end - gapEnd);
+    return result;
+  }
+
+  /**
+   * Removes all ids.
+   */
+  public void clear() {
+    Arrays.fill(slotById, ABSENT);
+    gapStart = 0;
+    gapEnd = 0;
+    end = 0;
+  }
+
+  /**
+   * Moves gap so that it starts at given ordinal number.
+   */
+  private void moveGapTo(final int ordinalNumber) {
+    final int gapLength = gapEnd - gapStart;
+    if (ordinalNumber < gapStart) {
+      final int count = gapStart - ordinalNumber;
+      System.arraycopy(ids, ordinalNumber, ids, gapEnd - count, count);
+      for (int slot = gapEnd - count; slot < gapEnd; slot++) {
+        slotById[ids[slot]] = slot;
+      }
+    } else if (ordinalNumber > gapStart) {
+      final int count = ordinalNumber - gapStart;
+      System.arraycopy(ids, gapEnd, ids, gapStart, count);
+      for (int slot = gapStart; slot < gapStart + count; slot++) {
+        slotById[ids[slot]] = slot;
+      }
+    }
+    gapStart = ordinalNumber;
+    gapEnd = ordinalNumber + gapLength;
+  }
+
+  /**
+   * Closes the gap and reallocates buffer with given capacity.
+   */
+  private void compact(final int capacity) {
+    final int size = size();
+    final int[] newIds = new int[Math.max(capacity, size)];
+    System.arraycopy(ids, 0, newIds, 0, gapStart);
+    System.arraycopy(ids, gapEnd, newIds, gapStart, end - gapEnd);
+    for (int slot = gapStart; slot < size; slot++) {
+      slotById[newIds[slot]] = slot;
+    }
+    ids = newIds;
+    gapStart = size;
+    gapEnd = size;
+    end = size;
+  }
+
+  @Override
+  public String toString() {
+    return "OrdinalIndex [size=" + size() + ", capacity=" + ids.length + ", gapStart=" + gapStart
+        + ", gapEnd=" + gapEnd + "]";
+  }
+
+}
@@ -0,0 +1,83 @@
+package dbapi;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sets of SQLite pragmas which are applied to every new database connection.
+ * <p>
+ * All profiles use write-ahead log, so that a commit appends to the WAL file instead of
+ * rewriting a rollback journal. Profiles differ in durability and memory usage:
+ * <ul>
+ * <li>{@code safe} - {@code synchronous=FULL}: WAL is synced on every commit, committed changes
+ * survive a power cut;
+ * <li>{@code balanced} - {@code synchronous=NORMAL}: WAL is synced only on checkpoint, database
+ * could not be corrupted by a power cut, but last committed changes could be lost;
+ * <li>{@code fast} - {@code synchronous=OFF}: no syncs at all, database could be corrupted by
+ * a power cut or OS crash. Meant for measurements and tests only.
+ * </ul>
+ * @see <a href="https://www.sqlite.org/pragma.html">SQLite pragma statements</a>
+ * @see <a href="https://www.sqlite.org/wal.html">SQLite write-ahead logging</a>
+ */
+public enum PragmaProfile {
+  SAFE("FULL", -2_000, 0, "DEFAULT"),
+  BALANCED("NORMAL", -8_000, 64L * 1024 * 1024, "MEMORY"),
+  FAST("OFF", -32_000, 256L * 1024 * 1024, "MEMORY");
+
+  private static final int BUSY_TIMEOUT_MILLIS = 5_000;
+  private final String synchronous;
+  private final int cacheSize;
+  private final long mmapSize;
+  private final String tempStore;
+
+  /**
+   * Defines profile values.
+   * @param synchronous mode of syncing data to disk
+   * @param cacheSize of page cache, negative value means size in KiB
+   * @param mmapSize maximum number of bytes of database file to access through memory mapping
+   * @param tempStore where temporary tables and indices are kept
+   */
+  PragmaProfile(final String synchronous, final int cacheSize, final long mmapSize,
+                final String tempStore) {
+    this.synchronous = synchronous;
+    this.cacheSize = cacheSize;
+    this.mmapSize = mmapSize;
+    this.tempStore = tempStore;
+  }
+
+  /**
+   * Returns profile with given case-insensitive name.
+   * @param name of profile: "safe", "balanced" or "fast"
+   * @return corresponding profile
+   * @throws IllegalArgumentException if there is no profile with given name
+   */
+  public static PragmaProfile fromName(final String name) {
+    for (final PragmaProfile profile : values()) {
+      if (profile.name().equalsIgnoreCase(name.trim())) {
+        return profile;
+      }
+    }
+    throw new IllegalArgumentException("Unknown SQLite pragma profile: " + name);
+  }
+
+  /**
+   * Returns pragma statements of this profile in order they should be executed.
+   * @return list of SQL statements
+   */
+  public List<String> getPragmaStatements() {
+    return Collections.unmodifiableList(Arrays.asList(
+        "PRAGMA journal_mode=WAL;",
+        "PRAGMA synchronous=" + synchronous + ";",
+        "PRAGMA cache_size=" + cacheSize + ";",
+        "PRAGMA mmap_size=" + mmapSize + ";",
+        "PRAGMA temp_store=" + tempStore + ";",
+        "PRAGMA busy_timeout=" + BUSY_TIMEOUT_MILLIS + ";"));
+  }
+
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+
+}
@@ -0,0 +1,96 @@
+package dbapi;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import metrics.CacheCounter;
+import metrics.MetricsRegistry;
+
+/**
+ * Keeps prepared statements for reuse during the life of database connection.
+ * <p>
+ * Statements are identified by their SQL text, which for cell updates is unique for every
+ * (table, column) pair. If {@code SqliteConnection} provides another connection object (e.g. after
+ * reopening), all cached statements are discarded and prepared again on demand.
+ * <p>
+ * Statements obtained from the cache must not be closed by the caller.
+ * <p>
+ * Hits and misses are counted as {@code dbapi.statement-cache} in global metrics registry.
+ */
+public class PreparedStatementCache {
+  private static final Logger logger = LogManager.getLogger();
+  private static final CacheCounter CACHE_COUNTER =
+      MetricsRegistry.getGlobal().cache("dbapi.statement-cache");
+  private final SqliteConnection connection;
+  private final Map<String, PreparedStatement> statements;
+  private Connection cachedConnection;
+
+  /**
+   * Creates empty cache for statements of given connection.
+   * @param connection to prepare statements with
+   */
+  public PreparedStatementCache(final SqliteConnection connection) {
+    super();
+    this.connection = connection;
+    statements = new HashMap<>();
+  }
+
+  /**
+   * Returns prepared statement for given SQL with cleared parameters.
+   * <p>
+   * Prepares statement on the first request and returns the same object on subsequent requests.
+   * @param sql statement text with {@code ?} placeholders
+   * @return ready to use prepared statement
+   * @throws SQLException if a database access error occurs
+   */
+  public synchronized PreparedStatement get(final String sql) throws SQLException {
+    final Connection current = connection.getConnection();
+    if (current != cachedConnection) {
+      clear();
+      cachedConnection = current;
+    }
+    PreparedStatement statement = statements.get(sql);
+    if (statement == null || statement.isClosed()) {
+      CACHE_COUNTER.miss();
+      statement = current.prepareStatement(sql);
+      statements.put(sql, statement);
+    } else {
+      CACHE_COUNTER.hit();
+      statement.clearParameters();
+    }
+    return statement;
+  }
+
+  /**
+   * Closes and forgets all cached statements.
+   */
+  public synchronized void clear() {
+    for (final PreparedStatement statement : statements.values()) {
+      try {
+        statement.close();
+      } catch (final SQLException err) {
+        logger.warn("Failed to close cached statement: " + err.getMessage());
+      }
+    }
+    statements.clear();
+    cachedConnection = null;
+  }
+
+  /**
+   * Returns number of currently cached statements.
+   * @return count of prepared statements in cache
+   */
+  public synchronized int size() {
+    return statements.size();
+  }
+
+  @Override
+  public String toString() {
+    return "PreparedStatementCache [statements=" + statements.keySet() + "]";
+  }
+
+}
@@ -0,0 +1,503 @@
+package dbapi;
+
+import java.time.format.DateTimeParseException;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import datecalculations.DateCodec;
+
+/**
+ * Compact in-memory storage of repair records.
+ * <p>
+ * Records are kept in columns of primitive arrays instead of list of strings per record:
+ * <ul>
+ * <li>all 14 date columns are stored as epoch days in one {@code int[]}, empty date is
+ * {@code DateCodec.EMPTY};
+ * <li>model names and repair types are dictionary-encoded, so every distinct name is stored once
+ * and record keeps only {@code int} code;
+ * <li>locomotive numbers and notes are kept as strings.
+ * </ul>
+ * Record values are addressed with the same column indices as {@code DbManager} uses, which are
+ * available as constants of this class.
+ * <br>
+ * Typed values could be read with {@code getEpochDay} and {@code getModelName} without parsing.
+ * String values are available through {@code getString}, {@code getRecord} list view and
+ * {@code asMap} view, which are kept for compatibility with code that works with records as
+ * lists of strings. Views are live: they reflect later changes and write changes through.
+ * <p>
+ * A string that could not be parsed as a date is kept as is and is treated as empty date by typed
+ * accessors. The class is not thread-safe.
+ */
+public class RepairRecordStore {
+  public static final int COLUMN_COUNT = 19;
+  public static final int MODEL_NAME = 0;
+  public static final int LOCO_NUMBER = 1;
+  /** First column of last/next repair date pairs: {@code 2 + 2 * k} is last and
+   * {@code 3 + 2 * k} is next date of repair type {@code k}. */
+  public static final int FIRST_REPAIR_DATE = 2;
+  public static final int LAST_REPAIR_TYPE = 14;
+  public static final int LAST_REPAIR_DATE = 15;
+  public static final int REQUIRED_REPAIR_TYPE = 16;
+  public static final int REQUIRED_REPAIR_DATE = 17;
+  public static final int NOTES = 18;
+  private static final int DATE_COLUMNS = 14;
+  private static final int INVALID_DATE = Integer.MIN_VALUE + 1;
+  private static final int ABSENT = -1;
+  private static final int MIN_CAPACITY = 16;
+  private final StringDictionary modelNames;
+  private final StringDictionary repairTypes;
+  private final Map<Long, String> invalidDates;
+  private int[] slotById;
+  private int[] ids;
+  private int[] modelCodes;
+  private String[] locoNumbers;
+  private int[] dates;
+  private int[] typeCodes;
+  private String[] notes;
+  private int size;
+  private Map<Integer, List<String>> mapView;
+
+  /**
+   * Creates empty store.
+   * @param expectedSize expected count of records, used as initial capacity
+   */
+  public RepairRecordStore(final int expectedSize) {
+    super();
+    modelNames = new StringDictionary();
+    repairTypes = new StringDictionary();
+    invalidDates = new HashMap<>();
+    slotById = new int[MIN_CAPACITY];
+    Arrays.fill(slotById, ABSENT);
+    allocate(Math.max(expectedSize, MIN_CAPACITY));
+  }
+
+  /**
+   * Adds new record.
+   * @param id of the record in repair records table, not negative
+   * @param values of all 19 columns
+   * @throws IllegalArgumentException if id is negative or already present or values size is wrong
+   */
+  public void add(final int id, final List<String> values) {
+    if (id < 0 || contains(id)) {
+      throw new IllegalArgumentException("Id is negative or already present: " + id);
+    }
+    if (values.size() != COLUMN_COUNT) {
+      throw new IllegalArgumentException(
+          "Repair record must have " + COLUMN_COUNT + " values, got " + values.size());
+    }
+    if (size == ids.length) {
+      grow(size * 2);
+    }
+    if (id >= slotById.length) {
+      final int oldLength = slotById.length;
+      slotById = Arrays.copyOf(slotById, Math.max(id + 1, oldLength * 2));
+      Arrays.fill(slotById, oldLength, slotById.length, ABSENT);
+    }
+    final int slot = size++;
+    ids[slot] = id;
+    slotById[id] = slot;
+    for (int column = 0; column < COLUMN_COUNT; column++) {
+      setValue(slot, column, values.get(column));
+    }
+  }
+
+  /**
+   * Removes record.
+   * @param id of the record
+   * @return {@code true} if record was present
+   */
+  public boolean remove(final int id) {
+    final int slot = findSlot(id);
+    if (slot == ABSENT) {
+      return false;
+    }
+    removeInvalidDates(id);
+    // Move the last record into the hole, so that storage stays dense
+    final int lastSlot = --size;
+    if (slot != lastSlot) {
+      final int movedId = ids[lastSlot];
+      ids[slot] = movedId;
+      modelCodes[slot] = modelCodes[lastSlot];
+      locoNumbers[slot] = locoNumbers[lastSlot];
+      System.arraycopy(dates, lastSlot * DATE_COLUMNS, dates, slot * DATE_COLUMNS, DATE_COLUMNS);
+      typeCodes[slot * 2] = typeCodes[lastSlot * 2];
+      typeCodes[slot * 2 + 1] = typeCodes[lastSlot * 2 + 1];
+      notes[slot] = notes[lastSlot];
+      slotById[movedId] = slot;
+    }
+    locoNumbers[lastSlot] = null;
+    notes[lastSlot] = null;
+    slotById[id] = ABSENT;
+    return true;
+  }
+
+  /**
+   * Removes all records.
+   */
+  public void clear() {
+    Arrays.fill(slotById, ABSENT);
+    Arrays.fill(locoNumbers, 0, size, null);
+    Arrays.fill(notes, 0, size, null);
+    invalidDates.clear();
+    size = 0;
+  }
+
+  public boolean contains(final int id) {
+    return findSlot(id) != ABSENT;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns value of given column as a string, the same way as it is stored in the database.
+   * @param id of the record
+   * @param columnIndex from 0 to 18
+   * @return value of the cell, empty string for empty values
+   * @throws NoSuchElementException if there is no record with given id
+   */
+  public String getString(final int id, final int columnIndex) {
+    return getValue(requireSlot(id), columnIndex);
+  }
+
+  /**
+   * Sets value of given column.
+   * @param id of the record
+   * @param columnIndex from 0 to 18
+   * @param value to set, {@code null} is stored as empty string
+   * @throws NoSuchElementException if there is no record with given id
+   */
+  public void setString(final int id, final int columnIndex, final String value) {
+    setValue(requireSlot(id), columnIndex, value);
+  }
+
+  /**
+   * Returns date of given column without parsing.
+   * @param id of the record
+   * @param columnIndex of date column
+   * @return epoch day or {@code DateCodec.EMPTY} if date is empty or invalid
+   * @throws NoSuchElementException if there is no record with given id
+   * @throws IllegalArgumentException if column does not contain dates
+   */
+  public int getEpochDay(final int id, final int columnIndex) {
+    final int dateIndex = dateIndex(columnIndex);
+    if (dateIndex == ABSENT) {
+      throw new IllegalArgumentException("Column " + columnIndex + " does not contain dates");
+    }
+    final int epochDay = dates[requireSlot(id) * DATE_COLUMNS + dateIndex];
+    return epochDay == INVALID_DATE ? DateCodec.EMPTY : epochDay;
+  }
+
+  /**
+   * Returns model name of the record.
+   * @param id of the record
+   * @return locomotive model name
+   * @throws NoSuchElementException if there is no record with given id
+   */
+  public String getModelName(final int id) {
+    return modelNames.decode(modelCodes[requireSlot(id)]);
+  }
+
+  /**
+   * Returns live list view of the record with 19 string values.
+   * @param id of the record
+   * @return view that supports {@code get} and {@code set}, or {@code null} if there is no record
+   * with given id
+   */
+  public RecordView getRecord(final int id) {
+    return contains(id) ? new RecordView(id) : null;
+  }
+
+  /**
+   * Returns live map view of the store with record ids as keys and list views of records as
+   * values.
+   * <p>
+   * {@code put} adds a record or overwrites all values of existing one, {@code remove} removes
+   * record from the store.
+   * @return map view of all records
+   */
+  public Map<Integer, List<String>> asMap() {
+    if (mapView == null) {
+      mapView = new MapView();
+    }
+    return mapView;
+  }
+
+  /**
+   * Tells whether or not values of given column are stored as dates.
+   * @param columnIndex from 0 to 18
+   * @return {@code true} for last, next, last repair and required repair date columns
+   */
+  public static boolean isDateColumn(final int columnIndex) {
+    return dateIndex(columnIndex) != ABSENT;
+  }
+
+  private static int dateIndex(final int columnIndex) {
+    if (columnIndex >= FIRST_REPAIR_DATE && columnIndex < LAST_REPAIR_TYPE) {
+      return columnIndex - FIRST_REPAIR_DATE;
+    }
+    if (columnIndex == LAST_REPAIR_DATE) {
+      return DATE_COLUMNS - 2;
+    }
+    if (columnIndex == REQUIRED_REPAIR_DATE) {
+      return DATE_COLUMNS - 1;
+    }
+    return ABSENT;
+  }
+
+  private int findSlot(final int id) {
+    return id >= 0 && id < slotById.length ? slotById[id] : ABSENT;
+  }
+
+  private int requireSlot(final int id) {
+    final int slot = findSlot(id);
+    if (slot == ABSENT) {
+      throw new NoSuchElementException("There is no repair record with id " + id);
+    }
+    return slot;
+  }
+
+  private String getValue(final int slot, final int columnIndex) {
+    switch (columnIndex) {
+    case MODEL_NAME:
+      return modelNames.decode(modelCodes[slot]);
+    case LOCO_NUMBER:
+      return locoNumbers[slot];
+    case LAST_REPAIR_TYPE:
+      return repairTypes.decode(typeCodes[slot * 2]);
+    case REQUIRED_REPAIR_TYPE:
+      return repairTypes.decode(typeCodes[slot * 2 + 1]);
+    case NOTES:
+      return notes[slot];
+    default:
+      final int dateIndex = dateIndex(columnIndex);
+      if (dateIndex == ABSENT) {
+        throw new IndexOutOfBoundsException("Column index: " + columnIndex);
+      }
+      final int epochDay = dates[slot * DATE_COLUMNS + dateIndex];
+      if (epochDay == INVALID_DATE) {
+        return invalidDates.get(invalidDateKey(ids[slot], columnIndex));
+      }
+      return DateCodec.format(epochDay);
+    }
+  }
+
+  private void setValue(final int slot, final int columnIndex, final String value) {
+    final String notNullValue = value != null ? value : "";
+    switch (columnIndex) {
+    case MODEL_NAME:
+      modelCodes[slot] = modelNames.encode(notNullValue);
+      break;
+    case LOCO_NUMBER:
+      locoNumbers[slot] = notNullValue;
+      break;
+    case LAST_REPAIR_TYPE:
+      typeCodes[slot * 2] = repairTypes.encode(notNullValue);
+      break;
+    case REQUIRED_REPAIR_TYPE:
+      typeCodes[slot * 2 + 1] = repairTypes.encode(notNullValue);
+      break;
+    case NOTES:
+      notes[slot] = notNullValue;
+      break;
+    default:
+      final int dateIndex = dateIndex(columnIndex);
+      if (dateIndex == ABSENT) {
+        throw new IndexOutOfBoundsException("Column index: " + columnIndex);
+      }
+      final long key = invalidDateKey(ids[slot], columnIndex);
+      invalidDates.remove(key);
+      int epochDay;
+      try {
+        epochDay = DateCodec.parse(notNullValue);
+      } catch (final DateTimeParseException err) {
+        invalidDates.put(key, notNullValue);
+        epochDay = INVALID_DATE;
+      }
+      dates[slot * DATE_COLUMNS + dateIndex] = epochDay;
+    }
+  }
+
+  private static long invalidDateKey(final int id, final int columnIndex) {
+    return ((long) id << 5) | columnIndex;
+  }
+
+  private void removeInvalidDates(final int id) {
+    if (invalidDates.isEmpty()) {
+      return;
+    }
+    for (int columnIndex = 0; columnIndex < COLUMN_COUNT; columnIndex++) {
+      invalidDates.remove(invalidDateKey(id, columnIndex));
+    }
+  }
+
+  private void allocate(final int capacity) {
+    ids = new int[capacity];
+    modelCodes = new int[capacity];
+    locoNumbers = new String[capacity];
+    dates = new int[capacity * DATE_COLUMNS];
+    typeCodes = new int[capacity * 2];
+    notes = new String[capacity];
+  }
+
+  private void grow(final int capacity) {
+    ids = Arrays.copyOf(ids, capacity);
+    modelCodes = Arrays.copyOf(modelCodes, capacity);
+    locoNumbers = Arrays.copyOf(locoNumbers, capacity);
+    dates = Arrays.copyOf(dates, capacity * DATE_COLUMNS);
+    typeCodes = Arrays.copyOf(typeCodes, capacity * 2);
+    notes = Arrays.copyOf(notes, capacity);
+  }
+
+  @Override
+  public String toString() {
+    return "RepairRecordStore [size=" + size + ", capacity=" + ids.length + ", models="
+        + modelNames.size() + ", invalidDates=" + invalidDates.size() + "]";
+  }
+
+  /**
+   * Live view of one record as list of 19 strings.
+   */
+  public class RecordView extends AbstractList<String> implements RandomAccess {
+    private final int id;
+
+    private RecordView(final int id) {
+      super();
+      this.id = id;
+    }
+
+    @Override
+    public String get(final int index) {
+      return getString(id, index);
+    }
+
+    @Override
+    public String set(final int index, final String element) {
+      final String previous = getString(id, index);
+      setString(id, index, element);
+      return previous;
+    }
+
+    @Override
+    public int size() {
+      return COLUMN_COUNT;
+    }
+
+    /**
+     * Returns date of given column without parsing.
+     * @param columnIndex of date column
+     * @return epoch day or {@code DateCodec.EMPTY} if date is empty or invalid
+     */
+    public int getEpochDay(final int columnIndex) {
+      return RepairRecordStore.this.getEpochDay(id, columnIndex);
+    }
+
+    public int getId() {
+      return id;
+    }
+  }
+
+  /**
+   * Live view of the store as map of record ids to records.
+   */
+  private class MapView extends AbstractMap<Integer, List<String>> {
+
+    @Override
+    public List<String> get(final Object key) {
+      return key instanceof Integer ? getRecord((Integer) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+      return key instanceof Integer && contains((Integer) key);
+    }
+
+    @Override
+    public List<String> put(final Integer key, final List<String> value) {
+      if (!contains(key)) {
+        add(key, value);
+        return null;
+      }
+      final List<String> previous = Arrays.asList(new RecordView(key).toArray(new String[0]));
+      for (int column = 0; column < COLUMN_COUNT; column++) {
+        setString(key, column, value.get(column));
+      }
+      return previous;
+    }
+
+    @Override
+    public List<String> remove(final Object key) {
+      if (!containsKey(key)) {
+        return null;
+      }
+      final int id = (Integer) key;
+      final List<String> removed = Arrays.asList(new RecordView(id).toArray(new String[0]));
+      RepairRecordStore.this.remove(id);
+      return removed;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public void clear() {
+      RepairRecordStore.this.clear();
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, List<String>>> entrySet() {
+      return new AbstractSet<Map.Entry<Integer, List<String>>>() {
+
+        @Override
+        public Iterator<Map.Entry<Integer, List<String>>> iterator() {
+          return new Iterator<Map.Entry<Integer, List<String>>>() {
+            private int slot;
+            private int lastId = ABSENT;
+
+            @Override
+            public boolean hasNext() {
+              return slot < size;
+            }
+
+            @Override
+            public Map.Entry<Integer, List<String>> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              lastId = ids[slot++];
+              return new SimpleImmutableEntry<>(lastId, new RecordView(lastId));
+            }
+
+            @Override
+            public void remove() {
+              if (lastId == ABSENT) {
+                throw new IllegalStateException();
+              }
+              // The last record is moved into the freed slot, so it must be visited next
+              RepairRecordStore.this.remove(lastId);
+              slot--;
+              lastId = ABSENT;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+  }
+
+}
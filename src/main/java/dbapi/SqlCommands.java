@@ -1,7 +1,12 @@
 package dbapi;
 
+import java.util.List;
+
 /**
  * Provides string constants with statements to work with SQLite database. 
+ * <p>
+ * Repair date columns hold {@code INTEGER} epoch days (see V5 migration), so their parameters
+ * must be bound and read with {@code EpochDayColumns}.
  */
 public abstract class SqlCommands {
   
@@ -92,9 +97,12 @@ public abstract class SqlCommands {
       + "    ) VALUES (?, ?, ?, ?, ?, ?, ?);";
   
   /**
-   * Select all rows and columns (except id) from archive table.
+   * Select one page of rows from archive table using keyset pagination.
+   * <p>
+   * Parameters: 1 - id of the last row of the previous page, 2 - page size.
    */
-  public static final String AT_ALL_DATA = "SELECT\n"
+  public static final String AT_PAGE = "SELECT\n"
+      + "    id,\n"
       + "    loco_model_name,\n"
       + "    loco_number,\n"
       + "    last_three_maintenance,\n"
@@ -110,7 +118,37 @@ public abstract class SqlCommands {
       + "    last_overhaul,\n"
       + "    next_overhaul,\n"
       + "    notes\n"
-      + "    FROM records_archive\n;";
+      + "    FROM records_archive\n"
+      + "    WHERE id > ?\n"
+      + "    ORDER BY id\n"
+      + "    LIMIT ?;";
+  
+  /**
+   * Select id of archive row at given position in id order.
+   * <p>
+   * Parameters: 1 - zero-based position.
+   */
+  public static final String AT_ID_AT_OFFSET =
+      "SELECT id FROM records_archive ORDER BY id LIMIT 1 OFFSET ?;";
+  
+  /**
+   * Get value of change counter, which is incremented on every change of repair_records and
+   * repair_periods tables (see V6 migration).
+   */
+  public static final String CC_COUNTER = "SELECT counter FROM change_counter WHERE id = 1;";
+  
+  /**
+   * Get declared type of date column of repair_records table, which is INTEGER since V5
+   * migration.
+   */
+  public static final String RT_DATE_COLUMN_TYPE = "SELECT type\n"
+      + "    FROM pragma_table_info('repair_records')\n"
+      + "    WHERE name = 'next_three_maintenance';";
+  
+  /**
+   * Count rows in archive table.
+   */
+  public static final String AT_COUNT = "SELECT COUNT(*) FROM records_archive;";
   
   /**
    * Insert new row into repair_records table.
@@ -132,5 +170,56 @@ public abstract class SqlCommands {
       + "    next_overhaul,\n"
       + "    notes\n"
       + "    ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);";
+  
+  /**
+   * Delete row with given id from repair_records table.
+   */
+  public static final String RT_DELETE_ROW = "DELETE FROM repair_records WHERE id = ?;";
+  
+  /**
+   * Delete row with given model name from repair_periods table.
+   */
+  public static final String PT_DELETE_ROW = "DELETE FROM repair_periods WHERE loco_model_name = ?;";
+  
+  /**
+   * Returns statement that updates one column of repair_records row with given id.
+   * <p>
+   * Parameters: 1 - new value, 2 - row id.
+   * @param columnName name of column to update
+   * @return parameterized update statement
+   */
+  public static String rtUpdateCell(final String columnName) {
+    return "UPDATE repair_records SET " + columnName + " = ? WHERE id = ?;";
+  }
+  
+  /**
+   * Returns statement that updates several columns of repair_records row with given id.
+   * <p>
+   * Parameters: 1..n - new values in order of given column names, n + 1 - row id.
+   * @param columnNames names of columns to update
+   * @return parameterized update statement
+   */
+  public static String rtUpdateCells(final List<String> columnNames) {
+    final StringBuilder builder = new StringBuilder("UPDATE repair_records SET ");
+    for (int j = 0; j < columnNames.size(); j++) {
+      if (j > 0) {
+        builder.append(", ");
+      }
+      builder.append(columnNames.get(j)).append(" = ?");
+    }
+    builder.append(" WHERE id = ?;");
+    return builder.toString();
+  }
+  
+  /**
+   * Returns statement that updates one column of repair_periods row with given model name.
+   * <p>
+   * Parameters: 1 - new value, 2 - model name.
+   * @param columnName name of column to update
+   * @return parameterized update statement
+   */
+  public static String ptUpdateCell(final String columnName) {
+    return "UPDATE repair_periods SET " + columnName + " = ? WHERE loco_model_name = ?;";
+  }
 
 }
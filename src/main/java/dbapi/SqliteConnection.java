@@ -5,34 +5,292 @@ import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
-
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
  * Wrapper class for JDBC connection which allows to mock it for unit tests.
+ * <p>
+ * Keeps single long-lived connection with SQLite database: the connection is opened on the first
+ * request, reused by all subsequent requests, reopened if it was closed or became invalid, and
+ * closed on application context shutdown. Whether connection is closed is checked on every
+ * request, but it is validated with a query at most once in {@code VALIDATION_INTERVAL_MILLIS}.
+ * <p>
+ * Every new connection is configured with pragmas of chosen {@link PragmaProfile}
+ * ({@code sqlite.pragma-profile} property). Write-ahead log is checkpointed periodically
+ * ({@code sqlite.checkpoint-interval-seconds} property, 0 disables it) and truncated on close.
+ * <p>
+ * All threads share the same connection, so every transaction and any other sequence of
+ * statements that must not be interleaved with statements of other threads (database
+ * maintenance, checkpoints) is run under transaction lock: {@link #lock()} and
+ * {@link #unlock()}. Background work that may be postponed uses {@link #tryLock()} and skips
+ * its run instead of waiting. {@link #close()} waits for the lock, so the connection is not
+ * closed in the middle of a transaction. Transaction lock is always acquired before the monitor
+ * of this object.
  */
 @Component
 public class SqliteConnection {
+  private static final Logger logger = LogManager.getLogger();
   private static final Path PATH = Paths.get(".", "app.db");
-  private static final String CONNECTION_URL = "jdbc:sqlite:" + PATH;
+  private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+  static final long VALIDATION_INTERVAL_MILLIS = 30_000;
+  private final String connectionUrl;
+  private final PragmaProfile pragmaProfile;
+  private final ScheduledExecutorService checkpointExecutor;
+  private final ReentrantLock transactionLock = new ReentrantLock();
   private Connection connection;
-  
+  private long lastValidationMillis;
+
   /**
    * Object that provides access to connection with SQlite database.
+   * <p>
+   * Uses {@code safe} pragma profile without periodic checkpoints.
    */
   public SqliteConnection() {
+    this(PragmaProfile.SAFE.toString(), 0);
+  }
+
+  /**
+   * Object that provides access to connection with SQlite database.
+   * @param pragmaProfileName name of {@link PragmaProfile} to configure connection with,
+   * {@code safe} profile is used if name is unknown
+   * @param checkpointIntervalSeconds period of passive WAL checkpoints, 0 to rely on SQLite
+   * automatic checkpoints only
+   */
+  @Autowired
+  public SqliteConnection(
+      @Value("${sqlite.pragma-profile:safe}") final String pragmaProfileName,
+      @Value("${sqlite.checkpoint-interval-seconds:300}") final long checkpointIntervalSeconds) {
+    this(PATH, pragmaProfileName, checkpointIntervalSeconds);
+  }
+
+  /**
+   * Object that provides access to connection with SQlite database stored in given file.
+   * <p>
+   * Used by tools and benchmarks which work with databases other than application one.
+   * @param databaseFile path to SQLite database file, created on first connection if absent
+   * @param pragmaProfileName name of {@link PragmaProfile} to configure connection with,
+   * {@code safe} profile is used if name is unknown
+   * @param checkpointIntervalSeconds period of passive WAL checkpoints, 0 to rely on SQLite
+   * automatic checkpoints only
+   */
+  public SqliteConnection(final Path databaseFile, final String pragmaProfileName,
+                          final long checkpointIntervalSeconds) {
     super();
+    connectionUrl = "jdbc:sqlite:" + databaseFile;
+    pragmaProfile = parsePragmaProfile(pragmaProfileName);
+    if (checkpointIntervalSeconds > 0) {
+      checkpointExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "sqlite-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+      });
+      checkpointExecutor.scheduleWithFixedDelay(() -> checkpoint("PASSIVE"),
+          checkpointIntervalSeconds, checkpointIntervalSeconds, TimeUnit.SECONDS);
+    } else {
+      checkpointExecutor = null;
+    }
   }
 
   /**
    * Returns connection with SQlite database.
+   * <p>
+   * The same connection object is returned on every call as long as it stays open and valid.
+   * Connection must not be closed by the caller: use {@link #close()} instead.
    * @return a connection to the database.
-   * @throws SQLException
+   * @throws SQLException if connection could not be (re)opened
    */
-  public Connection getConnection() throws SQLException {
-    connection = DriverManager.getConnection(CONNECTION_URL);
+  public synchronized Connection getConnection() throws SQLException {
+    if (!isUsable()) {
+      closeQuietly();
+      final long start = System.nanoTime();
+      connection = DriverManager.getConnection(connectionUrl);
+      applyPragmas(connection);
+      lastValidationMillis = System.currentTimeMillis();
+      logger.info("Connection with database was opened: " + connectionUrl + " (pragma profile "
+          + pragmaProfile + ", " + (System.nanoTime() - start) / 1_000_000 + " ms)");
+    }
     return connection;
   }
+  
+  /**
+   * Acquires transaction lock, waiting for transaction of another thread to finish.
+   * <p>
+   * Must be called before transaction is begun and released with {@link #unlock()} after it is
+   * committed or rolled back. Lock is reentrant.
+   */
+  public void lock() {
+    transactionLock.lock();
+  }
+
+  /**
+   * Acquires transaction lock only if it is not held by another thread.
+   * @return {@code true} if lock was acquired and must be released with {@link #unlock()}
+   */
+  public boolean tryLock() {
+    return transactionLock.tryLock();
+  }
+
+  /**
+   * Releases transaction lock acquired by {@link #lock()} or {@link #tryLock()}.
+   */
+  public void unlock() {
+    transactionLock.unlock();
+  }
+  
+  /**
+   * Writes content of write-ahead log into the database file.
+   * <p>
+   * Checkpoint is skipped if another thread holds transaction lock, so it never becomes part of
+   * its transaction. Failures are only logged: checkpoint will be repeated by the next call or by
+   * SQLite itself.
+   * @param mode of checkpoint: PASSIVE, FULL, RESTART or TRUNCATE
+   * @see <a href="https://www.sqlite.org/pragma.html#pragma_wal_checkpoint">wal_checkpoint</a>
+   */
+  public void checkpoint(final String mode) {
+    if (!tryLock()) {
+      logger.debug("WAL checkpoint (" + mode + ") was skipped: connection is in use.");
+      return;
+    }
+    try {
+      synchronized (this) {
+        executeCheckpoint(mode);
+      }
+    } finally {
+      unlock();
+    }
+  }
+  
+  private void executeCheckpoint(final String mode) {
+    if (!isUsable()) {
+      return;
+    }
+    final long start = System.nanoTime();
+    try (final Statement statement = connection.createStatement()) {
+      statement.execute("PRAGMA wal_checkpoint(" + mode + ");");
+      logger.debug("WAL checkpoint (" + mode + ") took "
+          + (System.nanoTime() - start) / 1_000_000 + " ms");
+    } catch (final SQLException err) {
+      logger.warn("WAL checkpoint (" + mode + ") failed: " + err.getMessage());
+    }
+  }
+  
+  public PragmaProfile getPragmaProfile() {
+    return pragmaProfile;
+  }
+
+  /**
+   * Closes connection with SQLite database if it is open.
+   * <p>
+   * Called by Spring on application context shutdown. Waits for transaction of another thread
+   * to finish. Next {@link #getConnection()} call will open a new connection.
+   */
+  @PreDestroy
+  public void close() {
+    if (checkpointExecutor != null) {
+      checkpointExecutor.shutdownNow();
+    }
+    lock();
+    try {
+      synchronized (this) {
+        if (connection != null) {
+          executeCheckpoint("TRUNCATE");
+          closeQuietly();
+          logger.info("Connection with database was closed.");
+        }
+      }
+    } finally {
+      unlock();
+    }
+  }
+
+  /**
+   * Tells whether or not current connection could be reused.
+   * <p>
+   * Connection is validated only if validation is due, see {@link #isValidationDue(long)}.
+   * @return {@code true} if connection exists, is open and valid
+   */
+  private boolean isUsable() {
+    if (connection == null) {
+      return false;
+    }
+    try {
+      if (connection.isClosed()) {
+        return false;
+      }
+      final long now = System.currentTimeMillis();
+      if (!isValidationDue(now)) {
+        return true;
+      }
+      if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+        logger.warn("Connection with database is not valid and will be reopened.");
+        return false;
+      }
+      lastValidationMillis = now;
+      return true;
+    } catch (final SQLException err) {
+      logger.warn("Connection with database is not valid and will be reopened: "
+          + err.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Tells whether or not connection should be validated at given moment: it is validated when
+   * opened and then at most once in {@code VALIDATION_INTERVAL_MILLIS}.
+   * @param nowMillis current time
+   * @return {@code true} if validation interval has elapsed since the last validation
+   */
+  synchronized boolean isValidationDue(final long nowMillis) {
+    return nowMillis - lastValidationMillis >= VALIDATION_INTERVAL_MILLIS;
+  }
+
+  /**
+   * Executes pragma statements of current profile on given connection.
+   * @param newConnection to configure
+   * @throws SQLException if any pragma could not be applied
+   */
+  private void applyPragmas(final Connection newConnection) throws SQLException {
+    try (final Statement statement = newConnection.createStatement()) {
+      for (final String pragma : pragmaProfile.getPragmaStatements()) {
+        statement.execute(pragma);
+      }
+    } catch (final SQLException err) {
+      logger.error("Failed to apply pragma profile " + pragmaProfile + ": " + err.getMessage());
+      newConnection.close();
+      throw err;
+    }
+  }
+  
+  private static PragmaProfile parsePragmaProfile(final String pragmaProfileName) {
+    try {
+      return PragmaProfile.fromName(pragmaProfileName);
+    } catch (final IllegalArgumentException err) {
+      logger.warn(err.getMessage() + ". Profile " + PragmaProfile.SAFE + " will be used.");
+      return PragmaProfile.SAFE;
+    }
+  }
+  
+  private void closeQuietly() {
+    if (connection == null) {
+      return;
+    }
+    try {
+      connection.close();
+    } catch (final SQLException err) {
+      logger.warn("Failed to close connection with database: " + err.getMessage());
+    }
+    connection = null;
+  }
 
   @Override
   public String toString() {
@@ -0,0 +1,21 @@
+package dbapi;
+
+/**
+ * Receives notifications about stages of application startup, for example to display them on a
+ * splash screen.
+ * <p>
+ * DbManager reports its stages with constants of this interface.
+ */
+@FunctionalInterface
+public interface StartupProgressListener {
+  String OPENING_DATABASE = "Открытие базы данных";
+  String LOADING_RECORDS = "Загрузка записей";
+  String RECOMPUTING_DUE_DATES = "Пересчёт дат ремонтов";
+
+  /**
+   * Called on the thread which performs startup when the next stage begins. The previous stage
+   * is finished at this moment.
+   * @param stage short description of the stage
+   */
+  void onStage(String stage);
+}
@@ -0,0 +1,244 @@
+package dbapi;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import datecalculations.DateCodec;
+
+/**
+ * Binary snapshot of data which {@code DbManagerSqliteImp} loads at startup: repair records in
+ * order of their ordinal numbers and repair periods.
+ * <p>
+ * Snapshot is written at application shutdown together with database change counter and is
+ * used at the next start only if the counter did not change since then. The counter is
+ * incremented by triggers on every change of {@code repair_records} and {@code repair_periods}
+ * tables (V6 migration), so an outdated snapshot is never used.
+ * <p>
+ * File layout (big-endian):
+ * <ul>
+ * <li>header: magic, format version, change counter, count of strings, repair periods and
+ * repair records;
+ * <li>table of distinct strings, each is length of UTF-8 bytes and bytes. Records and periods
+ * refer to strings by their index in this table;
+ * <li>repair periods: model name and six periods;
+ * <li>repair records: id and 19 values. Dates are epoch days, a date which could not be parsed is
+ * written as {@code INVALID_DATE} marker followed by its string;
+ * <li>magic again, to detect truncated files.
+ * </ul>
+ * Snapshot is written into temporary file which then replaces the old one, and is read through
+ * memory-mapped buffer.
+ */
+final class StartupSnapshot {
+  private static final int MAGIC = 0x4C444C53;
+  private static final int FORMAT_VERSION = 1;
+  private static final int INVALID_DATE = Integer.MIN_VALUE + 1;
+  private static final int REPAIR_TYPES = 6;
+  private final RepairRecordStore repairRecordStore;
+  private final OrdinalIndex orderedId;
+  private final Map<String, List<Integer>> repairPeriods;
+
+  private StartupSnapshot(final RepairRecordStore repairRecordStore,
+                          final OrdinalIndex orderedId,
+                          final Map<String, List<Integer>> repairPeriods) {
+    super();
+    this.repairRecordStore = repairRecordStore;
+    this.orderedId = orderedId;
+    this.repairPeriods = repairPeriods;
+  }
+
+  public RepairRecordStore getRepairRecordStore() {
+    return repairRecordStore;
+  }
+
+  public OrdinalIndex getOrderedId() {
+    return orderedId;
+  }
+
+  /**
+   * Returns repair periods.
+   * @return mutable map with model names as keys and mutable lists of six periods as values
+   */
+  public Map<String, List<Integer>> getRepairPeriods() {
+    return repairPeriods;
+  }
+
+  /**
+   * Writes snapshot file.
+   * @param file to write, replaced if exists
+   * @param changeCounter current value of database change counter
+   * @param store repair records to write
+   * @param orderedId ordinal numbers of repair records
+   * @param repairPeriods repair periods to write
+   * @throws IOException if file could not be written
+   */
+  static void write(final Path file, final long changeCounter, final RepairRecordStore store,
+                    final OrdinalIndex orderedId, final Map<String, List<Integer>> repairPeriods)
+                                                                          throws IOException {
+    final Map<String, Integer> strings = new LinkedHashMap<>();
+    for (final String modelName : repairPeriods.keySet()) {
+      encode(strings, modelName);
+    }
+    final int[] ids = orderedId.toArray();
+    for (final int id : ids) {
+      for (int column = 0; column < RepairRecordStore.COLUMN_COUNT; column++) {
+        if (!RepairRecordStore.isDateColumn(column) || isInvalidDate(store, id, column)) {
+          encode(strings, store.getString(id, column));
+        }
+      }
+    }
+
+    final Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try (final DataOutputStream output = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(tempFile), 1 << 16))) {
+      output.writeInt(MAGIC);
+      output.writeInt(FORMAT_VERSION);
+      output.writeLong(changeCounter);
+      output.writeInt(strings.size());
+      output.writeInt(repairPeriods.size());
+      output.writeInt(ids.length);
+      for (final String string : strings.keySet()) {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+      }
+      for (final Map.Entry<String, List<Integer>> periods : repairPeriods.entrySet()) {
+        output.writeInt(strings.get(periods.getKey()));
+        for (int k = 0; k < REPAIR_TYPES; k++) {
+          output.writeInt(periods.getValue().get(k));
+        }
+      }
+      for (final int id : ids) {
+        output.writeInt(id);
+        for (int column = 0; column < RepairRecordStore.COLUMN_COUNT; column++) {
+          if (!RepairRecordStore.isDateColumn(column)) {
+            output.writeInt(strings.get(store.getString(id, column)));
+          } else if (isInvalidDate(store, id, column)) {
+            output.writeInt(INVALID_DATE);
+            output.writeInt(strings.get(store.getString(id, column)));
+          } else {
+            output.writeInt(store.getEpochDay(id, column));
+          }
+        }
+      }
+      output.writeInt(MAGIC);
+    } catch (final IOException err) {
+      Files.deleteIfExists(tempFile);
+      throw err;
+    }
+    try {
+      Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE);
+    } catch (final AtomicMoveNotSupportedException err) {
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Reads snapshot file if it matches database state.
+   * @param file to read
+   * @param changeCounter current value of database change counter
+   * @return snapshot or {@code null} if file does not exist or was written with another value of
+   * change counter
+   * @throws IOException if file could not be read or is corrupted
+   */
+  static StartupSnapshot read(final Path file, final long changeCounter) throws IOException {
+    final MappedByteBuffer buffer;
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (final NoSuchFileException err) {
+      return null;
+    }
+    try {
+      if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+        throw new IOException("Unknown format of startup snapshot " + file);
+      }
+      if (buffer.getLong() != changeCounter) {
+        return null;
+      }
+      final int stringsCount = buffer.getInt();
+      final int periodsCount = buffer.getInt();
+      final int recordsCount = buffer.getInt();
+      // Every string, periods and record entry takes at least 4, 28 and 80 bytes accordingly
+      if (stringsCount < 0 || periodsCount < 0 || recordsCount < 0 || stringsCount * 4L
+          + periodsCount * 28L + recordsCount * 80L > buffer.remaining()) {
+        throw new IOException("Startup snapshot " + file + " is corrupted: wrong header");
+      }
+      final String[] strings = new String[stringsCount];
+      for (int j = 0; j < strings.length; j++) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        strings[j] = new String(bytes, StandardCharsets.UTF_8);
+      }
+      final Map<String, List<Integer>> repairPeriods = new HashMap<>();
+      for (int j = 0; j < periodsCount; j++) {
+        final String modelName = strings[buffer.getInt()];
+        final List<Integer> periods = new ArrayList<>(REPAIR_TYPES);
+        for (int k = 0; k < REPAIR_TYPES; k++) {
+          periods.add(buffer.getInt());
+        }
+        repairPeriods.put(modelName, periods);
+      }
+      final RepairRecordStore store = new RepairRecordStore(recordsCount);
+      final OrdinalIndex orderedId = new OrdinalIndex(recordsCount);
+      // Values are copied into the store, so the same array is reused for every record
+      final String[] record = new String[RepairRecordStore.COLUMN_COUNT];
+      final List<String> recordView = Arrays.asList(record);
+      for (int j = 0; j < recordsCount; j++) {
+        final int id = buffer.getInt();
+        for (int column = 0; column < RepairRecordStore.COLUMN_COUNT; column++) {
+          final int value = buffer.getInt();
+          if (!RepairRecordStore.isDateColumn(column)) {
+            record[column] = strings[value];
+          } else if (value == INVALID_DATE) {
+            record[column] = strings[buffer.getInt()];
+          } else {
+            record[column] = DateCodec.format(value);
+          }
+        }
+        store.add(id, recordView);
+        orderedId.append(id);
+      }
+      if (buffer.getInt() != MAGIC || buffer.hasRemaining()) {
+        throw new IOException("Startup snapshot " + file + " is corrupted");
+      }
+      return new StartupSnapshot(store, orderedId, repairPeriods);
+    } catch (BufferUnderflowException | IndexOutOfBoundsException
+             | NegativeArraySizeException | IllegalArgumentException err) {
+      throw new IOException("Startup snapshot " + file + " is corrupted: " + err, err);
+    }
+  }
+
+  private static boolean isInvalidDate(
+      final RepairRecordStore store, final int id, final int column) {
+    return store.getEpochDay(id, column) == DateCodec.EMPTY
+        && !store.getString(id, column).isEmpty();
+  }
+
+  private static void encode(final Map<String, Integer> strings, final String value) {
+    if (!strings.containsKey(value)) {
+      strings.put(value, strings.size());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "StartupSnapshot [records=" + repairRecordStore.size() + ", repairPeriods="
+        + repairPeriods.size() + "]";
+  }
+
+}
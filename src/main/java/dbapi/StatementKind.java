@@ -0,0 +1,43 @@
+package dbapi;
+
+import java.util.Locale;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+
+/**
+ * Kinds of SQL statements executed by DbManager, named after their {@link SqlCommands} constants.
+ * <p>
+ * Every kind has its own latency histogram {@code dbapi.statement.<kind>} in global metrics
+ * registry, so slow statements of one kind are not hidden by fast statements of others.
+ */
+enum StatementKind {
+  RT_ALL_DATA,
+  RT_MAX_ID,
+  RT_INSERT_ROW,
+  RT_UPDATE_CELL,
+  RT_UPDATE_CELLS,
+  RT_UPDATE_CELLS_BATCH,
+  RT_DELETE_ROW,
+  PT_ALL_DATA,
+  PT_INSERT_ROW,
+  PT_UPDATE_CELL,
+  PT_DELETE_ROW,
+  AT_INSERT_ROW,
+  AT_CLEAR,
+  AT_COUNT,
+  AT_PAGE,
+  AT_ID_AT_OFFSET,
+  CC_COUNTER,
+  RT_DATE_COLUMN_TYPE;
+
+  private final LatencyHistogram timer;
+
+  StatementKind() {
+    timer = MetricsRegistry.getGlobal().timer(
+        MetricsRegistry.STATEMENT_TIMER + "." + name().toLowerCase(Locale.ROOT));
+  }
+
+  LatencyHistogram getTimer() {
+    return timer;
+  }
+}
@@ -0,0 +1,115 @@
+package dbapi;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+import tracing.Stage;
+import tracing.Trace;
+import tracing.Tracing;
+
+/**
+ * Thin timing layer for every statement execution of DbManager.
+ * <p>
+ * Execution time is recorded in global metrics registry both in common {@code dbapi.statement}
+ * histogram and in histogram of the statement kind, and is traced as Java Flight Recorder event.
+ * For queries only execution is measured, reading of result set is not.
+ * <p>
+ * Statements that take longer than threshold given on creation are logged as slow together with
+ * their bound parameters and counted as {@code dbapi.slow-statements}. Parameters are described
+ * by supplier given by the caller, which is invoked only for slow statements.
+ * <p>
+ * Timer is created by DbManager with the threshold from its configuration and shared with
+ * objects that execute statements for it.
+ */
+final class StatementTimer {
+  /** Default slow statement threshold. */
+  static final long DEFAULT_SLOW_THRESHOLD_MILLIS = 250;
+  private static final Logger logger = LogManager.getLogger();
+  private static final Supplier<String> NO_PARAMETERS = () -> "none";
+  private static final LatencyHistogram TIMER =
+      MetricsRegistry.getGlobal().timer(MetricsRegistry.STATEMENT_TIMER);
+  private static final LongAdder SLOW_STATEMENTS =
+      MetricsRegistry.getGlobal().counter("dbapi.slow-statements");
+  private final long slowThresholdNanos;
+
+  /**
+   * Creates timer with given slow statement threshold.
+   * @param slowThresholdMillis how long statement may be executed before it is logged as slow,
+   * 0 or negative value disables slow log
+   */
+  StatementTimer(final long slowThresholdMillis) {
+    super();
+    slowThresholdNanos = slowThresholdMillis > 0
+        ? TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis) : Long.MAX_VALUE;
+  }
+
+  int executeUpdate(final StatementKind kind, final PreparedStatement statement)
+                                                                        throws SQLException {
+    return executeUpdate(kind, statement, NO_PARAMETERS);
+  }
+
+  int executeUpdate(final StatementKind kind, final PreparedStatement statement,
+                           final Supplier<String> parameters) throws SQLException {
+    final Trace trace = Tracing.begin(Stage.STATEMENT);
+    final long start = System.nanoTime();
+    try {
+      return statement.executeUpdate();
+    } finally {
+      finish(kind, start, trace, parameters);
+    }
+  }
+
+  ResultSet executeQuery(final StatementKind kind, final PreparedStatement statement)
+                                                                        throws SQLException {
+    return executeQuery(kind, statement, NO_PARAMETERS);
+  }
+
+  ResultSet executeQuery(final StatementKind kind, final PreparedStatement statement,
+                                final Supplier<String> parameters) throws SQLException {
+    final Trace trace = Tracing.begin(Stage.STATEMENT);
+    final long start = System.nanoTime();
+    try {
+      return statement.executeQuery();
+    } finally {
+      finish(kind, start, trace, parameters);
+    }
+  }
+
+  int[] executeBatch(final StatementKind kind, final PreparedStatement statement,
+                            final Supplier<String> parameters) throws SQLException {
+    final Trace trace = Tracing.begin(Stage.STATEMENT);
+    final long start = System.nanoTime();
+    try {
+      return statement.executeBatch();
+    } finally {
+      finish(kind, start, trace, parameters);
+    }
+  }
+
+  private void finish(final StatementKind kind, final long start, final Trace trace,
+                             final Supplier<String> parameters) {
+    final long duration = System.nanoTime() - start;
+    TIMER.record(duration);
+    kind.getTimer().record(duration);
+    trace.finish(kind.name());
+    if (duration >= slowThresholdNanos) {
+      SLOW_STATEMENTS.increment();
+      logger.warn("Slow statement {} took {} ms (threshold {} ms), parameters: {}", kind,
+          duration / 1_000_000, slowThresholdNanos / 1_000_000, parameters.get());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "StatementTimer [slowThresholdMillis="
+        + (slowThresholdNanos == Long.MAX_VALUE ? 0 : slowThresholdNanos / 1_000_000) + "]";
+  }
+
+}
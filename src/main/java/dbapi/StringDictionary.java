@@ -0,0 +1,57 @@
+package dbapi;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes repeated strings with small integer codes, so that every distinct string is stored once.
+ * <p>
+ * Codes are assigned in order of first appearance starting with 0 and never change.
+ */
+public class StringDictionary {
+  private final Map<String, Integer> codes;
+  private final List<String> values;
+
+  public StringDictionary() {
+    super();
+    codes = new HashMap<>();
+    values = new ArrayList<>();
+  }
+
+  /**
+   * Returns code of given string, assigning new code if string was not encoded before.
+   * @param value to encode, not {@code null}
+   * @return code of the string
+   */
+  public int encode(final String value) {
+    final Integer code = codes.get(value);
+    if (code != null) {
+      return code;
+    }
+    final int newCode = values.size();
+    codes.put(value, newCode);
+    values.add(value);
+    return newCode;
+  }
+
+  /**
+   * Returns string with given code.
+   * @param code obtained from {@code encode}
+   * @return encoded string
+   */
+  public String decode(final int code) {
+    return values.get(code);
+  }
+
+  public int size() {
+    return values.size();
+  }
+
+  @Override
+  public String toString() {
+    return "StringDictionary " + values;
+  }
+
+}
@@ -0,0 +1,221 @@
+package dbapi;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Collects repair records cell writes and persists them on a single background thread.
+ * <p>
+ * Successive writes to the same (row id, column index) cell are coalesced, so only the latest
+ * value is written. All changes collected by the moment of flush are written in one batch by
+ * {@link BatchWriter}, which is expected to use a single transaction.
+ * <p>
+ * If batch write fails, {@link FailureHandler} receives the failed values together with the values
+ * that were in the database before the first queued change, so that caller could roll back its
+ * in-memory data. Failure handler is called on the writer thread.
+ * <p>
+ * {@link #close()} tells whether every queued change reached the database, so that caller
+ * does not persist in-memory data that may differ from the database anywhere else.
+ */
+public class WriteBehindQueue {
+  private static final Logger logger = LogManager.getLogger();
+  private static final long CLOSE_TIMEOUT_SECONDS = 10;
+  private final BatchWriter writer;
+  private final FailureHandler failureHandler;
+  private final long flushDelayMillis;
+  private final ScheduledExecutorService executor;
+  private Map<Integer, Map<Integer, String>> pendingValues;
+  private Map<Integer, Map<Integer, String>> persistedValues;
+  private boolean flushScheduled;
+  private boolean closed;
+  private boolean batchFailed;
+
+  /**
+   * Writes batch of repair records cells changes into the database.
+   */
+  public interface BatchWriter {
+
+    /**
+     * Writes all given values at once.
+     * @param batch map with row id`s as keys and maps of column indices and new values as values
+     * @throws SQLException if batch was not written
+     */
+    void write(Map<Integer, Map<Integer, String>> batch) throws SQLException;
+  }
+
+  /**
+   * Handles batch that was not written into the database.
+   */
+  public interface FailureHandler {
+
+    /**
+     * Called on the writer thread after failed batch write.
+     * @param failedValues values that were not written, grouped by row id
+     * @param persistedValues values of the same cells before the first queued change
+     * @param err cause of failure
+     */
+    void onFailure(Map<Integer, Map<Integer, String>> failedValues,
+                   Map<Integer, Map<Integer, String>> persistedValues, SQLException err);
+  }
+
+  /**
+   * Creates queue with its own writer thread.
+   * @param writer to persist batches with
+   * @param failureHandler to notify about failed batches
+   * @param flushDelayMillis how long changes are collected before they are written
+   */
+  public WriteBehindQueue(
+      final BatchWriter writer, final FailureHandler failureHandler, final long flushDelayMillis) {
+    super();
+    this.writer = writer;
+    this.failureHandler = failureHandler;
+    this.flushDelayMillis = flushDelayMillis;
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "db-write-behind");
+      thread.setDaemon(true);
+      return thread;
+    });
+    pendingValues = new HashMap<>();
+    persistedValues = new HashMap<>();
+    flushScheduled = false;
+    closed = false;
+    batchFailed = false;
+  }
+
+  /**
+   * Queues new values of repair record cells and schedules flush.
+   * @param rowId of repair record
+   * @param values map with column indices as keys and new values as values
+   * @param oldValues map with column indices as keys and current values as values
+   * @throws IllegalStateException if queue was already closed
+   */
+  public synchronized void enqueue(
+      final int rowId, final Map<Integer, String> values, final Map<Integer, String> oldValues) {
+    if (closed) {
+      throw new IllegalStateException("Write-behind queue is closed.");
+    }
+    final Map<Integer, String> pendingRow =
+        pendingValues.computeIfAbsent(rowId, key -> new TreeMap<>());
+    final Map<Integer, String> persistedRow =
+        persistedValues.computeIfAbsent(rowId, key -> new TreeMap<>());
+    for (final Map.Entry<Integer, String> entry : values.entrySet()) {
+      if (!pendingRow.containsKey(entry.getKey())) {
+        persistedRow.put(entry.getKey(), oldValues.get(entry.getKey()));
+      }
+      pendingRow.put(entry.getKey(), entry.getValue());
+    }
+    if (!flushScheduled) {
+      flushScheduled = true;
+      executor.schedule(this::writePending, flushDelayMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Writes all queued changes and waits until they are written.
+   * <p>
+   * Must not be called on the writer thread.
+   */
+  public void flush() {
+    final Future<?> result;
+    try {
+      result = executor.submit(this::writePending);
+    } catch (final RuntimeException err) {
+      // Executor was already shut down, so there is nothing left to wait for
+      return;
+    }
+    try {
+      result.get();
+    } catch (final InterruptedException err) {
+      Thread.currentThread().interrupt();
+      logger.warn("Interrupted while waiting for pending database writes.");
+    } catch (final ExecutionException err) {
+      logger.error("Failed to flush pending database writes: " + err.getMessage());
+    }
+  }
+
+  /**
+   * Flushes queued changes and stops writer thread. Further enqueue calls are rejected.
+   * @return {@code true} if all queued changes were written, {@code false} if any batch failed
+   * since the queue was created or some changes are still pending
+   */
+  public boolean close() {
+    synchronized (this) {
+      if (closed) {
+        return isFullyWritten();
+      }
+      closed = true;
+    }
+    flush();
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        logger.error("Write-behind queue was not stopped in " + CLOSE_TIMEOUT_SECONDS + " s.");
+      }
+    } catch (final InterruptedException err) {
+      Thread.currentThread().interrupt();
+    }
+    logger.info("Write-behind queue was closed.");
+    return isFullyWritten();
+  }
+
+  /**
+   * Returns number of cells waiting to be written.
+   * @return count of queued (row id, column index) pairs
+   */
+  public synchronized int getPendingCount() {
+    int count = 0;
+    for (final Map<Integer, String> row : pendingValues.values()) {
+      count += row.size();
+    }
+    return count;
+  }
+
+  private synchronized boolean isFullyWritten() {
+    return !batchFailed && pendingValues.isEmpty();
+  }
+
+  /**
+   * Takes all queued changes and writes them in one batch. Runs on the writer thread.
+   */
+  private void writePending() {
+    final Map<Integer, Map<Integer, String>> batch;
+    final Map<Integer, Map<Integer, String>> persisted;
+    synchronized (this) {
+      flushScheduled = false;
+      if (pendingValues.isEmpty()) {
+        return;
+      }
+      batch = pendingValues;
+      persisted = persistedValues;
+      pendingValues = new HashMap<>();
+      persistedValues = new HashMap<>();
+    }
+    try {
+      writer.write(batch);
+      logger.info("Write-behind batch was written: {} rows.", batch.size());
+    } catch (final SQLException err) {
+      logger.error("Write-behind batch was not written: " + batch + " Error: " + err.getMessage());
+      synchronized (this) {
+        batchFailed = true;
+      }
+      failureHandler.onFailure(batch, persisted, err);
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "WriteBehindQueue [flushDelayMillis=" + flushDelayMillis
+        + ", pendingValues=" + pendingValues + ", closed=" + closed
+        + ", batchFailed=" + batchFailed + "]";
+  }
+
+}
@@ -0,0 +1,17 @@
+package dbapi;
+
+import java.util.Set;
+
+/**
+ * Receives notifications about changes that were accepted by DbManager but failed to be written
+ * into the database later (in write-behind mode).
+ */
+public interface WriteFailureListener {
+
+  /**
+   * Called on the Event Dispatch Thread after DbManager data was rolled back to the values that
+   * are actually stored in the database.
+   * @param rowIds of repair records which data was rolled back
+   */
+  void onWriteFailure(Set<Integer> rowIds);
+}
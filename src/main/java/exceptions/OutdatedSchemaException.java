@@ -0,0 +1,21 @@
+package exceptions;
+
+/**
+ * An exception for database which schema was not migrated to the version application works with.
+ * <p>
+ * Should be used when data could not be read correctly with current schema, so the application
+ * must not start until pending migrations are applied.
+ */
+public class OutdatedSchemaException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * An exception for database which schema was not migrated to the version application works
+   * with.
+   * @param errorMessage describing what is outdated and how to migrate the database
+   */
+  public OutdatedSchemaException(final String errorMessage) {
+    super(errorMessage);
+  }
+
+}
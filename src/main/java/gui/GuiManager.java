@@ -7,6 +7,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Set;
 
 import javax.swing.ImageIcon;
 import javax.swing.JCheckBoxMenuItem;
@@ -19,8 +20,10 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.KeyStroke;
 import javax.swing.ListSelectionModel;
+import javax.swing.table.AbstractTableModel;
 import javax.swing.table.TableColumn;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import anton.mankovsky.locomotivedepotlogbook.LocomotiveDepotLogbookApplication;
 import datavalidation.InputValidator;
@@ -30,23 +33,31 @@ import datecalculations.RequiredRepairHandler;
 import dbapi.DbManager;
 import gui.eventlisteners.ChooseThemeAction;
 import gui.eventlisteners.DeleteRecordListener;
+import gui.eventlisteners.FlightRecordingListener;
 import gui.eventlisteners.NewRecordAction;
 import gui.eventlisteners.CellEditingStartListener;
 import gui.eventlisteners.ShowNextRepairsDatesListener;
 import gui.tablemodels.RepairRecordsTableModel;
+import gui.tablemodels.TableChangeCoalescer;
 import gui.tablerenderers.RepairRecordsHeaderRenderer;
 import gui.tablerenderers.RepairRecordsTableRenderer;
 import gui.utility.DialogWindow;
 import gui.utility.RecordUpdateHandler;
+import tracing.FlightRecordingService;
 
 /**
  * Creates, displays and provides access to application GUI.
+ * <p>
+ * The bean is lazy: it is created on the Event Dispatch Thread when it is requested after
+ * application context with loaded data is ready.
  */
 @Service
+@Lazy
 public class GuiManager {
   private static final Path APP_ICON_PATH = Paths.get(".", "icon.png");
   private static final ImageIcon APP_ICON = new ImageIcon(APP_ICON_PATH.toString());
   private DbManager dbManager;
+  private FlightRecordingService flightRecordingService;
   private int mainFrameWidth;
   private int mainFrameHeight;
   private JFrame mainFrame;
@@ -67,15 +78,19 @@ public class GuiManager {
    * Builds all components for GUI and registers listeners for them. Displays GUI on screen.
    * @param dbManager that contains database API, that will be used by table models and listeners
    * that handle events.
+   * @param flightRecordingService to start and stop diagnostics recording from the menu
    */
   @Autowired
-  public GuiManager(final DbManager dbManager) {
+  public GuiManager(final DbManager dbManager,
+                    final FlightRecordingService flightRecordingService) {
     super();
     this.dbManager = dbManager;
+    this.flightRecordingService = flightRecordingService;
     dialogWindow = new DialogWindow();
     validator = new InputValidator(dbManager);
     showNextRepairsDates = false;
     createAndShowGui();
+    dbManager.setWriteFailureListener(this::notifyUserOnWriteFailure);
   }
   
   /**
@@ -147,6 +162,17 @@ public class GuiManager {
     
     mainMenu.add(chooseThemeSubmenu);
     
+    tempItem = new JCheckBoxMenuItem("Запись диагностики");
+    tempItem.setSelected(flightRecordingService.isRecording());
+    if (flightRecordingService.isAvailable()) {
+      tempItem.addItemListener(
+          new FlightRecordingListener(this, flightRecordingService, dialogWindow));
+    } else {
+      tempItem.setEnabled(false);
+      tempItem.setToolTipText("Java Flight Recorder недоступен в этой версии Java");
+    }
+    mainMenu.add(tempItem);
+    
     tempItem = new JMenuItem("Выход");
     tempItem.addActionListener(e -> System.exit(0));
     tempItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_E, ActionEvent.CTRL_MASK));
@@ -168,7 +194,10 @@ public class GuiManager {
     repairRecordsTable.getTableHeader().setReorderingAllowed(false);
     repairRecordsTable.getTableHeader()
         .setDefaultRenderer(new RepairRecordsHeaderRenderer(repairRecordsTable));
-    repairRecordsTable.setDefaultRenderer(Object.class, new RepairRecordsTableRenderer(dbManager));
+    final RepairRecordsTableRenderer repairRecordsTableRenderer =
+        new RepairRecordsTableRenderer(dbManager);
+    repairRecordsTable.getModel().addTableModelListener(repairRecordsTableRenderer);
+    repairRecordsTable.setDefaultRenderer(Object.class, repairRecordsTableRenderer);
     repairRecordsTable
         .addPropertyChangeListener(new CellEditingStartListener(repairRecordsTable));
   }
@@ -248,6 +277,16 @@ public class GuiManager {
     return recordUpdateHandler;
   }
   
+  /**
+   * Redraws repair records table with rolled back data and tells user that changes were not saved.
+   * @param rowIds of repair records which changes were not written into the database
+   */
+  private void notifyUserOnWriteFailure(final Set<Integer> rowIds) {
+    ((AbstractTableModel) repairRecordsTable.getModel()).fireTableDataChanged();
+    dialogWindow.showErrorMessage(mainFrame, "Ошибка при сохранении данных",
+        "Не удалось сохранить изменения в базе данных, прежние значения восстановлены");
+  }
+  
   /**
    * Updates submenu items by rebuilding it from scratch.
    * <p>
@@ -287,6 +326,10 @@ public class GuiManager {
     return repairRecordsTable;
   }
   
+  public TableChangeCoalescer getRecordsChangeCoalescer() {
+    return ((RepairRecordsTableModel) repairRecordsTable.getModel()).getChangeCoalescer();
+  }
+  
   public JFrame getMainFrame() {
     return mainFrame;
   }
@@ -0,0 +1,87 @@
+package gui;
+
+import java.awt.BorderLayout;
+import java.awt.EventQueue;
+import java.awt.Font;
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JWindow;
+import javax.swing.SwingConstants;
+
+/**
+ * Lightweight window which is displayed while application is starting.
+ * <p>
+ * Shows application name and description of the current startup stage. Methods could be called
+ * from any thread: window is built and updated on the Event Dispatch Thread.
+ */
+public class SplashWindow {
+  private static final int WIDTH = 420;
+  private static final int HEIGHT = 120;
+  private JWindow window;
+  private JLabel stageLabel;
+
+  /**
+   * Creates splash window, which is not displayed until {@code display} is called.
+   */
+  public SplashWindow() {
+    super();
+  }
+
+  /**
+   * Builds window and displays it in the center of the screen.
+   */
+  public void display() {
+    EventQueue.invokeLater(() -> {
+      final JLabel titleLabel = new JLabel("Журнал учёта ремонтов", SwingConstants.CENTER);
+      titleLabel.setFont(titleLabel.getFont().deriveFont(Font.BOLD, 16f));
+      stageLabel = new JLabel(" ", SwingConstants.CENTER);
+      final JProgressBar progressBar = new JProgressBar();
+      progressBar.setIndeterminate(true);
+      
+      final JPanel contentPane = new JPanel(new BorderLayout(0, 10));
+      contentPane.setBorder(BorderFactory.createCompoundBorder(
+          BorderFactory.createEtchedBorder(), BorderFactory.createEmptyBorder(15, 20, 15, 20)));
+      contentPane.add(titleLabel, BorderLayout.NORTH);
+      contentPane.add(stageLabel, BorderLayout.CENTER);
+      contentPane.add(progressBar, BorderLayout.SOUTH);
+      
+      window = new JWindow();
+      window.setContentPane(contentPane);
+      window.setSize(WIDTH, HEIGHT);
+      window.setLocationRelativeTo(null);
+      window.setVisible(true);
+    });
+  }
+
+  /**
+   * Shows description of the current startup stage.
+   * @param stage to show
+   */
+  public void showStage(final String stage) {
+    EventQueue.invokeLater(() -> {
+      if (stageLabel != null) {
+        stageLabel.setText(stage + "...");
+      }
+    });
+  }
+
+  /**
+   * Hides window and releases its resources.
+   */
+  public void close() {
+    EventQueue.invokeLater(() -> {
+      if (window != null) {
+        window.dispose();
+        window = null;
+      }
+    });
+  }
+
+  @Override
+  public String toString() {
+    return "SplashWindow [stage=" + (stageLabel != null ? stageLabel.getText() : "") + "]";
+  }
+
+}
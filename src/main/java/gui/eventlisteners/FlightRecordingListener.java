@@ -0,0 +1,66 @@
+package gui.eventlisteners;
+
+import java.awt.event.ItemEvent;
+import java.awt.event.ItemListener;
+import java.nio.file.Path;
+import javax.swing.AbstractButton;
+import gui.GuiManager;
+import gui.utility.DialogWindow;
+import tracing.FlightRecordingService;
+
+/**
+ * Reacts to changes in "Diagnostics recording" checkbox value: starts flight recording when it is
+ * selected, stops and writes it to a file when it is deselected.
+ */
+public class FlightRecordingListener implements ItemListener {
+  private final GuiManager guiManager;
+  private final FlightRecordingService flightRecordingService;
+  private final DialogWindow dialogWindow;
+
+  /**
+   * Object that reacts to changes in "Diagnostics recording" checkbox value.
+   * @param guiManager to access main frame that should be used to show dialog windows
+   * @param flightRecordingService to start and stop recording
+   * @param dialogWindow to tell user where recording was written
+   */
+  public FlightRecordingListener(final GuiManager guiManager,
+                                 final FlightRecordingService flightRecordingService,
+                                 final DialogWindow dialogWindow) {
+    super();
+    this.guiManager = guiManager;
+    this.flightRecordingService = flightRecordingService;
+    this.dialogWindow = dialogWindow;
+  }
+
+  @Override
+  public void itemStateChanged(final ItemEvent event) {
+    if (event.getStateChange() == ItemEvent.SELECTED) {
+      startRecording(event);
+    } else {
+      stopRecording();
+    }
+  }
+
+  private void startRecording(final ItemEvent event) {
+    if (flightRecordingService.start(flightRecordingService.newRecordingFile())) {
+      return;
+    }
+    // Deselection leads to stopRecording, which does nothing as recording is not running
+    ((AbstractButton) event.getItem()).setSelected(false);
+    dialogWindow.showErrorMessage(guiManager.getMainFrame(), "Запись диагностики",
+        "Не удалось начать запись диагностики");
+  }
+
+  private void stopRecording() {
+    final Path file = flightRecordingService.stop();
+    if (file != null) {
+      dialogWindow.showInfoMessage(guiManager.getMainFrame(), "Запись диагностики",
+          "Запись диагностики сохранена в файл " + file);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "FlightRecordingListener [flightRecordingService=" + flightRecordingService + "]";
+  }
+}
@@ -2,9 +2,8 @@ package gui.eventlisteners;
 
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
-import javax.swing.table.AbstractTableModel;
-import javax.swing.table.TableModel;
 import gui.GuiManager;
+import gui.tablemodels.TableChangeCoalescer;
 
 /**
  * Reacts to changes in "Show next repairs dates" checkbox value.
@@ -23,21 +22,21 @@ public class ShowNextRepairsDatesListener implements ItemListener {
 
   /**
    * Inverts GUI Manager {@code showNextRepairsDates} boolean value, fires table to redraw
-   * every cell with next_repair_date values.
+   * every cell with next_repair_date values with a single table model event.
    */
   @Override
   public void itemStateChanged(final ItemEvent event) {
     guiManager.setShowNextRepairsDates(!guiManager.isShowNextRepairsDates());
     
-    final TableModel tm = guiManager.getRepairRecordsTable().getModel();
-    final int rowCount = tm.getRowCount();
-    if (tm instanceof AbstractTableModel) {
-      final AbstractTableModel recordsModel = (AbstractTableModel) tm;
+    final int rowCount = guiManager.getRepairRecordsTable().getModel().getRowCount();
+    final TableChangeCoalescer changeCoalescer = guiManager.getRecordsChangeCoalescer();
+    changeCoalescer.begin();
+    try {
       for (int j = 1; j < rowCount; j+=2) {
-        for (int k = 2; k < 8; k++) {
-        recordsModel.fireTableCellUpdated(j, k);
-        }
+        changeCoalescer.cellsUpdated(j, 2, 7);
       }
+    } finally {
+      changeCoalescer.commit();
     }
     
     try {
@@ -6,6 +6,9 @@ import dbapi.DbManager;
 
 /**
  * Custom table model for records archive table.
+ * <p>
+ * Archive rows are requested from DbManager by pages, so only pages that are actually rendered
+ * are loaded from the database.
  */
 public class RecordsArchiveTableModel extends AbstractTableModel {
     private static final long serialVersionUID = 1L;
@@ -21,14 +24,18 @@ public class RecordsArchiveTableModel extends AbstractTableModel {
                                                     "Примечания"
                                                     };
     private final DbManager dbManager;
+    private final int pageSize;
     
     /**
      * Provides methods for core operations with records archive table.
+     * <p>
+     * Rows are requested by pages of the same size as pages cached by DbManager.
      * @param dbManager that provides API for working with database
      */
     public RecordsArchiveTableModel(final DbManager dbManager) {
       super();
       this.dbManager = dbManager;
+      pageSize = dbManager.getArchivePageSize();
     }
     
     /**
@@ -49,7 +56,7 @@ public class RecordsArchiveTableModel extends AbstractTableModel {
     
     @Override
     public int getRowCount() {
-      return dbManager.getAllRecordsArchiveData().size() * 2;
+      return dbManager.getArchiveCount() * 2;
     }
     
     @Override
@@ -76,14 +83,16 @@ public class RecordsArchiveTableModel extends AbstractTableModel {
     
     private String getCellValueForPrimaryRow(final int rowIndex, final int columnIndex) {
       final String result;
-      final List<List<String>> data = dbManager.getAllRecordsArchiveData();
-      if (columnIndex <= 1) {                                     // loco_model_name or loco_number
-        result = data.get(rowIndex).get(columnIndex);
+      final List<String> archiveRecord = getArchiveRecord(rowIndex);
+      if (archiveRecord == null) {
+        result = "";
+      } else if (columnIndex <= 1) {                              // loco_model_name or loco_number
+        result = archiveRecord.get(columnIndex);
       } else if (columnIndex == 8) {                              // notes
-        result = data.get(rowIndex).get(14);
+        result = archiveRecord.get(14);
       } else {                                                    // last repairs
         final int requiredIndex = columnIndex * 2 - 2;
-        result = data.get(rowIndex).get(requiredIndex);
+        result = archiveRecord.get(requiredIndex);
       }
       return result;
     }
@@ -92,12 +101,25 @@ public class RecordsArchiveTableModel extends AbstractTableModel {
       if (columnIndex <= 1 || columnIndex == 8) {
         return "";
       }
-      return dbManager.getAllRecordsArchiveData().get(rowIndex).get(columnIndex * 2 - 1);
+      final List<String> archiveRecord = getArchiveRecord(rowIndex);
+      return archiveRecord != null ? archiveRecord.get(columnIndex * 2 - 1) : "";
+    }
+    
+    /**
+     * Returns archive record from the page that contains it.
+     * @param recordIndex position of record in archive
+     * @return archive record or {@code null} if archive has no such record anymore
+     */
+    private List<String> getArchiveRecord(final int recordIndex) {
+      final int indexInPage = recordIndex % pageSize;
+      final List<List<String>> page =
+          dbManager.getArchivePage(recordIndex - indexInPage, pageSize);
+      return indexInPage < page.size() ? page.get(indexInPage) : null;
     }
     
     @Override
     public String toString() {
-      return "RecordsArchiveTableModel [dbManager=" + dbManager + "]"
+      return "RecordsArchiveTableModel [dbManager=" + dbManager + ", pageSize=" + pageSize + "]"
            + "\nModel for records archive table, performs core operations on data in the table.";
     }
     
@@ -3,6 +3,7 @@ package gui.tablemodels;
 import javax.swing.table.AbstractTableModel;
 import datavalidation.InputValidator;
 import dbapi.DbManager;
+import dbapi.ModelNameIndex;
 import gui.GuiManager;
 import gui.utility.DialogWindow;
 
@@ -56,7 +57,7 @@ public class RepairPeriodsTableModel extends AbstractTableModel {
 
   @Override
   public int getRowCount() {
-    return dbManager.getAllRepairPeriodData().size();
+    return dbManager.getModelNameIndex().size();
   }
 
   @Override
@@ -74,11 +75,11 @@ public class RepairPeriodsTableModel extends AbstractTableModel {
 
   @Override
   public Object getValueAt(final int rowIndex, final int columnIndex) {
-    final String[] models = dbManager.getAllModelNames();
+    final ModelNameIndex modelNameIndex = dbManager.getModelNameIndex();
     if (columnIndex == 0) {
-      return models[rowIndex];
+      return modelNameIndex.getName(rowIndex);
     } else {
-      return dbManager.getAllRepairPeriodData().get(models[rowIndex]).get(columnIndex - 1);
+      return modelNameIndex.getPeriod(rowIndex, columnIndex - 1);
     }
   }
   
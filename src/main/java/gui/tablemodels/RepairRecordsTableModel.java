@@ -1,9 +1,8 @@
 package gui.tablemodels;
 
-import java.util.List;
-import java.util.Map;
 import javax.swing.table.AbstractTableModel;
 import dbapi.DbManager;
+import dbapi.RepairRecordStore;
 import gui.GuiManager;
 import gui.utility.RecordUpdateHandler;
 
@@ -28,6 +27,7 @@ public class RepairRecordsTableModel extends AbstractTableModel {
   private final DbManager dbManager;
   final GuiManager guiManager;
   private RecordUpdateHandler updateHandler;
+  private final transient TableChangeCoalescer changeCoalescer;
   
   /**
    * Provides methods for core operations with repair records table.
@@ -39,6 +39,16 @@ public class RepairRecordsTableModel extends AbstractTableModel {
     this.dbManager = dbManager;
     this.guiManager = guiManager;
     this.updateHandler = updateHandler;
+    changeCoalescer = new TableChangeCoalescer(this);
+  }
+  
+  /**
+   * Returns coalescer which should be used to notify table about changed cells, so that one
+   * edit or bulk operation results in as few table model events as possible.
+   * @return change coalescer of this model
+   */
+  public TableChangeCoalescer getChangeCoalescer() {
+    return changeCoalescer;
   }
   
   @Override
@@ -81,17 +91,21 @@ public class RepairRecordsTableModel extends AbstractTableModel {
     return result;
   }
   
+  /*
+   * Cells are read from repair record store directly: map view of repair records would create
+   * record view for every painted cell.
+   */
   private String getCellValueForPrimaryRow(final int rowIndex, final int columnIndex) {
     final String result;
     final int rowId = dbManager.getIdByOrdinalNumber(rowIndex);
-    final Map<Integer, List<String>> data = dbManager.getAllRepairRecords();
+    final RepairRecordStore store = dbManager.getRepairRecordStore();
     if (columnIndex <= 1) {                                     // loco_model_name or loco_number
-      result = data.get(rowId).get(columnIndex);
+      result = store.getString(rowId, columnIndex);
     } else if (columnIndex == 10) {                             // notes
-      result = data.get(rowId).get(18);
+      result = store.getString(rowId, RepairRecordStore.NOTES);
     } else {                                                    // last repairs and repair types
       final int requiredIndex = columnIndex * 2 - 2;
-      result = data.get(rowId).get(requiredIndex);
+      result = store.getString(rowId, requiredIndex);
     }
     return result;
   }
@@ -106,7 +120,7 @@ public class RepairRecordsTableModel extends AbstractTableModel {
     }
     
     final int rowId = dbManager.getIdByOrdinalNumber(rowIndex);
-      return dbManager.getAllRepairRecords().get(rowId).get(columnIndex * 2 - 1);
+    return dbManager.getRepairRecordStore().getString(rowId, columnIndex * 2 - 1);
   }
   
   /**
@@ -114,6 +128,10 @@ public class RepairRecordsTableModel extends AbstractTableModel {
    * <p>
    * Does nothing if new value is same as old value or if value was inserted in odd row, cause
    * user can edit only certain cells in even rows by application design. 
+   * <p>
+   * Handling of new value runs inside change transaction, so all cells changed by handlers are
+   * reported to the table at once. If new value was rejected or not written, reported cells are
+   * discarded, cause their values stay the same.
    */
   @Override
   public void setValueAt(final Object value, final int rowIndex, final int colIndex) {
@@ -121,7 +139,17 @@ public class RepairRecordsTableModel extends AbstractTableModel {
     valueString = valueString != null ? valueString.trim() : "";
     
     if (rowIndex % 2 == 0 && !valueString.equals(getValueAt(rowIndex, colIndex))) {
-      updateHandler.handleCellNewValue(valueString, rowIndex, colIndex);
+      changeCoalescer.begin();
+      boolean handled = false;
+      try {
+        handled = updateHandler.handleCellNewValue(valueString, rowIndex, colIndex);
+      } finally {
+        if (handled) {
+          changeCoalescer.commit();
+        } else {
+          changeCoalescer.rollback();
+        }
+      }
     }
   }
   
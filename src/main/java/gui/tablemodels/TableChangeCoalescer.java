@@ -0,0 +1,207 @@
+package gui.tablemodels;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import tracing.Stage;
+import tracing.Trace;
+import tracing.Tracing;
+
+/**
+ * Collects changed cells of table model and notifies table listeners about them at once.
+ * <p>
+ * Changes reported between {@code begin()} and matching {@code commit()} are kept as dirty
+ * columns of every changed row. When the outermost transaction is committed, consecutive rows
+ * with the same dirty columns are merged, so listeners get one event per range of rows: for a
+ * single column or, if several columns changed, for whole rows. If ranges are scattered and
+ * there are more than {@code MAX_EVENTS} of them, single event for all rows between first and
+ * last changed row is fired instead.
+ * <br>
+ * Transactions could be nested, so an edit which is a part of a bulk operation does not fire
+ * anything on its own. Changes reported outside of transaction are fired immediately.
+ * <p>
+ * Coalescer is not thread-safe and is supposed to be used in Event Dispatch Thread, as table
+ * model itself.
+ */
+public class TableChangeCoalescer {
+  /** Maximum count of events fired for one transaction. */
+  static final int MAX_EVENTS = 16;
+  private static final long ALL_COLUMNS_MASK = -1L;
+  private final AbstractTableModel tableModel;
+  private final TreeMap<Integer, Long> dirtyColumns;
+  private int depth;
+
+  /**
+   * Object that coalesces change notifications of table model.
+   * @param tableModel to fire events with
+   */
+  public TableChangeCoalescer(final AbstractTableModel tableModel) {
+    super();
+    this.tableModel = tableModel;
+    dirtyColumns = new TreeMap<>();
+  }
+
+  /**
+   * Starts transaction, events are postponed until matching {@code commit()}.
+   */
+  public void begin() {
+    depth++;
+  }
+
+  /**
+   * Ends transaction, fires collected events if it is the outermost one.
+   * @throws IllegalStateException if there is no started transaction
+   */
+  public void commit() {
+    if (depth == 0) {
+      throw new IllegalStateException("Commit without begin of table change transaction");
+    }
+    depth--;
+    if (depth == 0) {
+      flush();
+    }
+  }
+
+  /**
+   * Ends transaction without firing changes reported in it, e.g. if the change they describe
+   * failed.
+   * <p>
+   * Changes are discarded only if it is the outermost transaction: in a nested one they could
+   * not be told apart from changes of the outer transaction, so they are fired with them.
+   * @throws IllegalStateException if there is no started transaction
+   */
+  public void rollback() {
+    if (depth == 0) {
+      throw new IllegalStateException("Rollback without begin of table change transaction");
+    }
+    depth--;
+    if (depth == 0) {
+      dirtyColumns.clear();
+    }
+  }
+
+  /**
+   * Runs task inside transaction, so all changes it reports are fired together.
+   * @param task to run
+   */
+  public void runInTransaction(final Runnable task) {
+    begin();
+    try {
+      task.run();
+    } finally {
+      commit();
+    }
+  }
+
+  public boolean isInTransaction() {
+    return depth > 0;
+  }
+
+  /**
+   * Marks cell as changed.
+   * @param row index of changed cell
+   * @param column index of changed cell
+   */
+  public void cellUpdated(final int row, final int column) {
+    cellsUpdated(row, column, column);
+  }
+
+  /**
+   * Marks cells of one row as changed.
+   * @param row index of changed cells
+   * @param firstColumn index of first changed column
+   * @param lastColumn index of last changed column, inclusive
+   */
+  public void cellsUpdated(final int row, final int firstColumn, final int lastColumn) {
+    markDirty(row, columnsMask(firstColumn, lastColumn));
+  }
+
+  /**
+   * Marks all cells of rows as changed.
+   * @param firstRow index of first changed row
+   * @param lastRow index of last changed row, inclusive
+   */
+  public void rowsUpdated(final int firstRow, final int lastRow) {
+    for (int row = firstRow; row <= lastRow; row++) {
+      dirtyColumns.put(row, ALL_COLUMNS_MASK);
+    }
+    if (depth == 0) {
+      flush();
+    }
+  }
+
+  private void markDirty(final int row, final long mask) {
+    final Long currentMask = dirtyColumns.get(row);
+    dirtyColumns.put(row, currentMask == null ? mask : currentMask | mask);
+    if (depth == 0) {
+      flush();
+    }
+  }
+
+  private static long columnsMask(final int firstColumn, final int lastColumn) {
+    if (firstColumn < 0 || lastColumn >= Long.SIZE || lastColumn < firstColumn) {
+      return ALL_COLUMNS_MASK;
+    }
+    final long upToLast = lastColumn == Long.SIZE - 1 ? ALL_COLUMNS_MASK
+                                                      : (1L << (lastColumn + 1)) - 1;
+    return upToLast & -(1L << firstColumn);
+  }
+
+  private void flush() {
+    if (dirtyColumns.isEmpty()) {
+      return;
+    }
+    final List<TableModelEvent> events = new ArrayList<>();
+    int firstRow = -1;
+    int lastRow = -1;
+    long rangeMask = 0;
+    for (final Map.Entry<Integer, Long> entry : dirtyColumns.entrySet()) {
+      final int row = entry.getKey();
+      final long mask = entry.getValue();
+      if (firstRow != -1 && row == lastRow + 1 && mask == rangeMask) {
+        lastRow = row;
+        continue;
+      }
+      if (firstRow != -1) {
+        events.add(createEvent(firstRow, lastRow, rangeMask));
+      }
+      firstRow = row;
+      lastRow = row;
+      rangeMask = mask;
+    }
+    events.add(createEvent(firstRow, lastRow, rangeMask));
+    dirtyColumns.clear();
+
+    final int firstChangedRow = events.get(0).getFirstRow();
+    final int lastChangedRow = lastRow;
+    final Trace trace = Tracing.begin(Stage.TABLE_EVENT);
+    try {
+      if (events.size() > MAX_EVENTS) {
+        tableModel.fireTableChanged(new TableModelEvent(
+            tableModel, firstChangedRow, lastChangedRow, TableModelEvent.ALL_COLUMNS));
+      } else {
+        for (final TableModelEvent event : events) {
+          tableModel.fireTableChanged(event);
+        }
+      }
+    } finally {
+      trace.finish(() -> "rows " + firstChangedRow + "-" + lastChangedRow, firstChangedRow, -1);
+    }
+  }
+
+  private TableModelEvent createEvent(final int firstRow, final int lastRow, final long mask) {
+    final int column = Long.bitCount(mask) == 1 ? Long.numberOfTrailingZeros(mask)
+                                                : TableModelEvent.ALL_COLUMNS;
+    return new TableModelEvent(tableModel, firstRow, lastRow, column);
+  }
+
+  @Override
+  public String toString() {
+    return "TableChangeCoalescer [depth=" + depth + ", dirtyRows=" + dirtyColumns.size() + "]"
+         + "Collects changed cells of table model and fires them as few events.";
+  }
+
+}
@@ -3,9 +3,13 @@ package gui.tablerenderers;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Font;
+import java.util.Arrays;
+import java.util.Map;
 import javax.swing.JLabel;
 import javax.swing.JTable;
 import javax.swing.border.Border;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
 import javax.swing.table.DefaultTableCellRenderer;
 import dbapi.DbManager;
 import gui.lookandfeel.BorderManager;
@@ -13,12 +17,33 @@ import gui.lookandfeel.ColorManager;
 
 /**
  * Custom table renderer for repair records table.
+ * <p>
+ * Renderer is called for every painted cell, so painting does not allocate objects: colors and
+ * borders of every column of primary (even) and secondary (odd) rows are looked up in arrays
+ * prepared in constructor, bold font is derived once per table font, and overdue flags of
+ * records are kept in {@code boolean[]} indexed by ordinal number.
+ * <p>
+ * Overdue flags are refreshed from DbManager on table model events, so the renderer must be
+ * registered as a listener of repair records table model.
  */
-public class RepairRecordsTableRenderer extends DefaultTableCellRenderer {
+public class RepairRecordsTableRenderer extends DefaultTableCellRenderer
+                                        implements TableModelListener {
   private static final long serialVersionUID = 1L;
-  private final DbManager dbManager;
+  private static final int COLUMN_COUNT = 11;
+  private static final int NEXT_OVERHAUL_COLUMN = 7;
+  private static final int LAST_REPAIR_COLUMN = 8;
+  private static final int REQUIRED_REPAIR_COLUMN = 9;
+  private final transient DbManager dbManager;
   private final ColorManager colorManager;
   private final BorderManager borderManager;
+  private final Color[] primaryRowColors;
+  private final Color[] secondaryRowColors;
+  private final Border[] primaryRowBorders;
+  private final Border[] secondaryRowBorders;
+  private Font baseFont;
+  private Font boldFont;
+  private boolean[] overdueRecords;
+  private int recordsCount;
 
   /**
    * Object that renders repair records table cells in application specific way.
@@ -33,6 +58,30 @@ public class RepairRecordsTableRenderer extends DefaultTableCellRenderer {
     this.dbManager = dbManager;
     colorManager = ColorManager.getColorManager();
     borderManager = BorderManager.getBorderManager();
+
+    primaryRowColors = new Color[COLUMN_COUNT];
+    secondaryRowColors = new Color[COLUMN_COUNT];
+    Arrays.fill(primaryRowColors, colorManager.getRecordsTablePrimaryRowColor());
+    Arrays.fill(secondaryRowColors, colorManager.getRecordsTableSecondaryRowColor());
+    for (final Color[] colors : new Color[][] {primaryRowColors, secondaryRowColors}) {
+      colors[0] = colorManager.getRecordsTableModelNameColor();
+      colors[1] = colorManager.getRecordsTableLocoNumberColor();
+      colors[LAST_REPAIR_COLUMN] = colorManager.getRecordsTableLastRepairColor();
+      colors[REQUIRED_REPAIR_COLUMN] = colorManager.getRecordsTableRequiredRepairColor();
+      colors[10] = colorManager.getRecordsTableNotesColor();
+    }
+
+    primaryRowBorders = new Border[COLUMN_COUNT];
+    secondaryRowBorders = new Border[COLUMN_COUNT];
+    Arrays.fill(primaryRowBorders, borderManager.getDefaultNoFocusBorder());
+    Arrays.fill(secondaryRowBorders, borderManager.getDefaultNoFocusBorder());
+    for (final int column : new int[] {0, 1, LAST_REPAIR_COLUMN, REQUIRED_REPAIR_COLUMN}) {
+      primaryRowBorders[column] = borderManager.getNoBottomLineBorder();
+      secondaryRowBorders[column] = borderManager.getNoTopLineBorder();
+    }
+
+    overdueRecords = new boolean[0];
+    refreshAllRecords();
   }
 
   /**
@@ -41,129 +90,94 @@ public class RepairRecordsTableRenderer extends DefaultTableCellRenderer {
    */
   @Override
   public Component getTableCellRendererComponent(
-      final JTable table, Object value, final boolean isSelected, final boolean hasFocus,
+      final JTable table, final Object value, final boolean isSelected, final boolean hasFocus,
       final int row, final int column) {
-    value = value == null ? "" : value;
-    
+    final String text = value == null ? "" : (String) value;
+
     final Color backgroundColor = isSelected ? table.getSelectionBackground()
-                                             : defineBackgroundColor(row, column, value);
+                                             : defineBackgroundColor(row, column, text);
     super.setBackground(backgroundColor);
-    super.setBorder(defineBorder(row, column, hasFocus));
-    
-    Font font = table.getFont();
-    if (column == 8 || column == 9) {
-      font = font.deriveFont(font.getStyle() | Font.BOLD);
+    if (hasFocus) {
+      super.setBorder(borderManager.getDefaultFocusBorder());
+    } else {
+      super.setBorder(row % 2 == 0 ? primaryRowBorders[column] : secondaryRowBorders[column]);
     }
-    super.setFont(font);
-    
-    super.setText((String) value);
-    return this;     
-  }
-  
-  private Color defineBackgroundColor(final int row, final int column, final Object value) {
-    final Color color;
-    if (row % 2 == 0) {
-      switch (column) {
-      case 0:
-        color = colorManager.getRecordsTableModelNameColor();
-        break;
-      case 1:
-        color = colorManager.getRecordsTableLocoNumberColor();
-        break;
-      case 8:
-        color = colorManager.getRecordsTableLastRepairColor();
-        break;
-      case 9:
-        color = dbManager.getOverdueRepairsMap().get(dbManager.getIdByOrdinalNumber(row / 2))
-              ? colorManager.getRecordsTableOverdueRequiredRepairTypeColor()
-              : colorManager.getRecordsTableRequiredRepairColor();
-        break;
-      case 10:
-        color = colorManager.getRecordsTableNotesColor();
-        break;
-      default:
-        color = colorManager.getRecordsTablePrimaryRowColor();
-        break;
+
+    final Font font = table.getFont();
+    if (column == LAST_REPAIR_COLUMN || column == REQUIRED_REPAIR_COLUMN) {
+      if (font != baseFont) {
+        baseFont = font;
+        boldFont = font.deriveFont(font.getStyle() | Font.BOLD);
       }
+      super.setFont(boldFont);
     } else {
-      switch (column) {
-      case 0:
-        color = colorManager.getRecordsTableModelNameColor();
-        break;
-      case 1:
-        color = colorManager.getRecordsTableLocoNumberColor();
-        break;
-      case 7:
-        color = value.equals("") ? colorManager.getRecordsTableSecondaryRowColor()
-                                 : colorManager.getRecordsTableNextOverhaulWithValueColor();
-        break;
-      case 8:
-        color = colorManager.getRecordsTableLastRepairColor();
-        break;
-      case 9:
-        color = colorManager.getRecordsTableRequiredRepairColor();
-        break;
-      case 10:
-        color = colorManager.getRecordsTableNotesColor();
-        break;
-      default:
-        color = colorManager.getRecordsTableSecondaryRowColor();
-        break;
-      }
+      super.setFont(font);
     }
-    return color;
+
+    super.setText(text);
+    return this;
   }
-  
-  private Border defineBorder(final int row, final int column, final boolean hasFocus) {
-    final Border border;
-    if (hasFocus) {
-      border = borderManager.getDefaultFocusBorder();
+
+  /**
+   * Refreshes overdue flags of records affected by the event: only updated rows for update
+   * events and all records otherwise.
+   */
+  @Override
+  public void tableChanged(final TableModelEvent event) {
+    final int firstRecord = event.getFirstRow() / 2;
+    final int lastRecord = event.getLastRow() / 2;
+    if (event.getType() == TableModelEvent.UPDATE && event.getFirstRow() >= 0
+        && lastRecord < recordsCount) {
+      final Map<Integer, Boolean> overdueRepairsMap = dbManager.getOverdueRepairsMap();
+      for (int record = firstRecord; record <= lastRecord; record++) {
+        overdueRecords[record] = isOverdue(overdueRepairsMap, record);
+      }
     } else {
-      if (row % 2 == 0) {
-        switch (column) {
-        case 0:
-          border = borderManager.getNoBottomLineBorder();
-          break;
-        case 1:
-          border = borderManager.getNoBottomLineBorder();
-          break;
-        case 8:
-          border = borderManager.getNoBottomLineBorder();
-          break;
-        case 9:
-          border = borderManager.getNoBottomLineBorder();
-          break;
-        default:
-          border = borderManager.getDefaultNoFocusBorder();
-          break;
-        }
-      } else {
-        switch (column) {
-        case 0:
-          border = borderManager.getNoTopLineBorder();
-          break;
-        case 1:
-          border = borderManager.getNoTopLineBorder();
-          break;
-        case 8:
-          border = borderManager.getNoTopLineBorder();
-          break;
-        case 9:
-          border = borderManager.getNoTopLineBorder();
-          break;
-        default:
-          border = borderManager.getDefaultNoFocusBorder();
-          break;
-        }
+      refreshAllRecords();
+    }
+  }
+
+  private Color defineBackgroundColor(final int row, final int column, final String text) {
+    if (row % 2 == 0) {
+      if (column == REQUIRED_REPAIR_COLUMN && isOverdueRecord(row / 2)) {
+        return colorManager.getRecordsTableOverdueRequiredRepairTypeColor();
       }
+      return primaryRowColors[column];
+    }
+    if (column == NEXT_OVERHAUL_COLUMN && !text.isEmpty()) {
+      return colorManager.getRecordsTableNextOverhaulWithValueColor();
+    }
+    return secondaryRowColors[column];
+  }
+
+  private boolean isOverdueRecord(final int record) {
+    if (record >= recordsCount) {
+      // Table was changed without notification, so flags are read again
+      refreshAllRecords();
     }
-    return border;
+    return record < recordsCount && overdueRecords[record];
   }
-  
+
+  private void refreshAllRecords() {
+    recordsCount = dbManager.getRecordsCount();
+    if (overdueRecords.length < recordsCount) {
+      overdueRecords = new boolean[recordsCount + recordsCount / 4];
+    }
+    final Map<Integer, Boolean> overdueRepairsMap = dbManager.getOverdueRepairsMap();
+    for (int record = 0; record < recordsCount; record++) {
+      overdueRecords[record] = isOverdue(overdueRepairsMap, record);
+    }
+  }
+
+  private boolean isOverdue(final Map<Integer, Boolean> overdueRepairsMap, final int record) {
+    return Boolean.TRUE.equals(overdueRepairsMap.get(dbManager.getIdByOrdinalNumber(record)));
+  }
+
   @Override
   public String toString() {
     return "RepairRecordsTableRenderer - sets up JLabel properties to desired values. "
-        + "[colorManager=" + colorManager + ", borderManager=" + borderManager + "]";
+        + "[colorManager=" + colorManager + ", borderManager=" + borderManager
+        + ", recordsCount=" + recordsCount + "]";
   }
-  
+
 }
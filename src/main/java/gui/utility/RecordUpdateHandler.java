@@ -1,16 +1,29 @@
 package gui.utility;
 
 import java.time.LocalDate;
+import java.util.concurrent.atomic.LongAdder;
 import datavalidation.InputValidator;
 import datecalculations.DateCalculationsHandler;
 import datecalculations.LastRepairHandler;
+import datecalculations.RecordPatch;
 import dbapi.DbManager;
 import gui.GuiManager;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+import tracing.Stage;
+import tracing.Trace;
+import tracing.Tracing;
 
 /**
  * Provides appropriate reaction to changes in repair records table model. 
  */
 public class RecordUpdateHandler {
+  private static final LatencyHistogram EDIT_TIMER =
+      MetricsRegistry.getGlobal().timer(MetricsRegistry.EDIT_TIMER);
+  private static final LongAdder REJECTED_EDITS =
+      MetricsRegistry.getGlobal().counter("gui.edit.rejected");
+  private static final LongAdder FAILED_EDITS =
+      MetricsRegistry.getGlobal().counter("gui.edit.failed");
   private final DbManager dbManager;
   private final GuiManager guiManager;
   private final DateCalculationsHandler dateCalculationsHandler;
@@ -46,67 +59,111 @@ public class RecordUpdateHandler {
    * <p>
    * Depending on the column, validates the value with an appropriate method.
    * <br>
-   * On validation success, writes a new value to the database or calls the necessary handlers;
+   * On validation success, writes a new value to the database or calls the necessary handlers
+   * and writes the value together with all calculated values;
    * on validation failure, informs the user about it through dialog window.
+   * <p>
+   * Handling time is recorded by {@code gui.edit} timer of global metrics registry. Edits that
+   * end with error dialog are counted separately and not timed, as dialog waits for the user.
+   * For the same reason, informational dialog about potential typo is shown after handling time
+   * was recorded.
+   * The whole handling is also traced as Java Flight Recorder event.
    * @param value to process
    * @param rowIndex where value was inserted
    * @param colIndex where value was inserted
+   * @return {@code true} if value was written, {@code false} if it was rejected, failed to be
+   * written or column is not editable
    */
-  public void handleCellNewValue(final String value, final int rowIndex, final int colIndex) {
-    if (colIndex > 1 && colIndex < 8) {
-      editRepairDateCase(value, rowIndex, colIndex);
-    } else if (colIndex == 1) {
-      editNumberCase(value, rowIndex);
-    } else if (colIndex == 10) {
-      editNotesCase(value, rowIndex);
-    } 
-    
+  public boolean handleCellNewValue(final String value, final int rowIndex, final int colIndex) {
+    final Trace trace = Tracing.begin(Stage.EDIT);
+    final long start = System.nanoTime();
+    final LocalDate today = LocalDate.now();
+    String repairDate = null;
+    boolean handled = false;
+    try {
+      if (colIndex > 1 && colIndex < 8) {
+        repairDate = convertDateFormat(value);
+        handled = editRepairDateCase(repairDate, rowIndex, colIndex, today);
+      } else if (colIndex == 1) {
+        handled = editNumberCase(value, rowIndex);
+      } else if (colIndex == 10) {
+        handled = editNotesCase(value, rowIndex);
+      } else {
+        return false;
+      }
+      if (handled) {
+        EDIT_TIMER.recordSince(start);
+      }
+    } finally {
+      trace.finish(handled ? "applied" : "rejected", rowIndex, colIndex);
+    }
+    if (handled && repairDate != null && !repairDate.equals("")) {
+      dateCalculationsHandler.informUserIfLastRepairDateIsAfterToday(repairDate, today);
+    }
+    return handled;
   }
   
-  private void editRepairDateCase(String value, final int rowIndex, final int colIndex) {
-    value = convertDateFormat(value);
+  private boolean editRepairDateCase(final String value, final int rowIndex, final int colIndex,
+                                     final LocalDate today) {
     try {
       validator.validateRepairDate(value);
     } catch (final IllegalArgumentException err) {
+      REJECTED_EDITS.increment();
       dialogWindow.showErrorMessage(guiManager.getMainFrame(), "Некорректный ввод",
           "Запись должна быть в формате день.месяц.год и указывать на существующую дату");
-      return;
+      return false;
     }
     
     final int rowId = dbManager.getIdByOrdinalNumber(rowIndex / 2);
-    if (!dbManager.setRepairRecordCell(rowId, colIndex * 2 - 2, value)) {
+    final RecordPatch patch = new RecordPatch(rowId, dbManager.getAllRepairRecords().get(rowId));
+    patch.set(colIndex * 2 - 2, value);
+    lastRepairHandler.updateLastRepairColumn(rowIndex, patch);
+    final boolean hasDate = value != null && !value.equals("");
+    if (hasDate) {
+      dateCalculationsHandler.handleDateCalculations(value, rowIndex, colIndex, today, patch);
+    }
+    
+    // User`s value and all values calculated by handlers are written with single call
+    if (!dbManager.updateRepairRecordCells(rowId, patch.getChanges())) {
       notifyUserOnOperationFailure();
-    } else {
-      lastRepairHandler.updateLastRepairColumn(rowIndex);
-      if (value != null && !value.equals("")){
-      dateCalculationsHandler.handleDateCalculations(value, rowIndex, colIndex, LocalDate.now());
-      }
+      return false;
+    }
+    // In-memory state follows the write, so failed write leaves nothing out of sync
+    if (hasDate) {
+      dateCalculationsHandler.applyOverdueState(patch);
     }
+    return true;
   }
   
-  private void editNumberCase(final String value, final int rowIndex) {
+  private boolean editNumberCase(final String value, final int rowIndex) {
     try {
       validator.validateLocoNumber(value);
     } catch (final IllegalArgumentException err) {
+      REJECTED_EDITS.increment();
       dialogWindow.showErrorMessage(
           guiManager.getMainFrame(), "Операция отменена", "Номер должен состоять только из цифр");
-      return;
+      return false;
     }
     
     final int rowId = dbManager.getIdByOrdinalNumber(rowIndex / 2);
     if (!dbManager.setRepairRecordCell(rowId, 1, value)) {
       notifyUserOnOperationFailure();
+      return false;
     }
+    return true;
   }
   
-  private void editNotesCase(final String value, final int rowIndex) {
+  private boolean editNotesCase(final String value, final int rowIndex) {
     final int rowId = dbManager.getIdByOrdinalNumber(rowIndex / 2);
     if (!dbManager.setRepairRecordCell(rowId, 18, value)) {
       notifyUserOnOperationFailure();
+      return false;
     }
+    return true;
   }
   
   private void notifyUserOnOperationFailure() {
+    FAILED_EDITS.increment();
     dialogWindow.showErrorMessage(
         guiManager.getMainFrame(), "Ошибка при изменении ячейки", "Не удалось обновить значение");
   }
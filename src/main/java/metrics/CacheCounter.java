@@ -0,0 +1,72 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts hits and misses of some cache.
+ */
+public class CacheCounter {
+  private final LongAdder hits;
+  private final LongAdder misses;
+
+  /**
+   * Creates counter without hits and misses.
+   */
+  public CacheCounter() {
+    super();
+    hits = new LongAdder();
+    misses = new LongAdder();
+  }
+
+  public void hit() {
+    hits.increment();
+  }
+
+  public void miss() {
+    misses.increment();
+  }
+
+  /**
+   * Counts hit or miss depending on given flag.
+   * @param hit {@code true} if requested value was found in cache
+   */
+  public void record(final boolean hit) {
+    if (hit) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns share of requests that were served from cache.
+   * @return hit rate from 0 to 1, or {@code NaN} if cache was not requested yet
+   */
+  public double getHitRate() {
+    final long hitsCount = hits.sum();
+    final long total = hitsCount + misses.sum();
+    return total == 0 ? Double.NaN : (double) hitsCount / total;
+  }
+
+  /**
+   * Forgets all hits and misses.
+   */
+  public void reset() {
+    hits.reset();
+    misses.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "CacheCounter [hits=" + hits.sum() + ", misses=" + misses.sum() + "]";
+  }
+
+}
@@ -0,0 +1,180 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds with HdrHistogram-like log-linear buckets.
+ * <p>
+ * Every power of two range is split on {@value #SUB_BUCKETS} equal buckets, so any recorded value
+ * is reported with relative error below 7% in the whole range of {@code long}, while histogram
+ * takes fixed 8 KB of memory. Recording is a few atomic increments and does not allocate.
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+  private final AtomicLongArray counts;
+  private final AtomicLong totalCount;
+  private final AtomicLong totalNanos;
+  private final AtomicLong maxNanos;
+
+  /**
+   * Creates empty histogram.
+   */
+  public LatencyHistogram() {
+    super();
+    counts = new AtomicLongArray(BUCKETS_COUNT);
+    totalCount = new AtomicLong();
+    totalNanos = new AtomicLong();
+    maxNanos = new AtomicLong();
+  }
+
+  /**
+   * Records one duration. Negative durations (e.g. caused by clock adjustment) are recorded as 0.
+   * @param nanos duration in nanoseconds
+   */
+  public void record(final long nanos) {
+    final long value = Math.max(0, nanos);
+    counts.incrementAndGet(bucketIndex(value));
+    totalCount.incrementAndGet();
+    totalNanos.addAndGet(value);
+    maxNanos.accumulateAndGet(value, Math::max);
+  }
+
+  /**
+   * Records time passed since given moment.
+   * @param startNanos value of {@link System#nanoTime()} at the start of measured operation
+   */
+  public void recordSince(final long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Returns consistent enough copy of current values to compute several percentiles from.
+   * @return snapshot of this histogram
+   */
+  public Snapshot snapshot() {
+    final long[] bucketCounts = new long[BUCKETS_COUNT];
+    long count = 0;
+    for (int i = 0; i < BUCKETS_COUNT; i++) {
+      bucketCounts[i] = counts.get(i);
+      count += bucketCounts[i];
+    }
+    return new Snapshot(bucketCounts, count, totalNanos.get(), maxNanos.get());
+  }
+
+  /**
+   * Returns count of recorded durations.
+   * @return count of calls of {@code record}
+   */
+  public long getCount() {
+    return totalCount.get();
+  }
+
+  /**
+   * Forgets all recorded durations.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKETS_COUNT; i++) {
+      counts.set(i, 0);
+    }
+    totalCount.set(0);
+    totalNanos.set(0);
+    maxNanos.set(0);
+  }
+
+  static int bucketIndex(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    final int exponent = 63 - Long.numberOfLeadingZeros(value);
+    final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * Returns the highest value that falls into given bucket.
+   */
+  static long bucketUpperBound(final int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    final int shift = index / SUB_BUCKETS - 1;
+    final long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return "LatencyHistogram [count=" + totalCount.get() + ", maxNanos=" + maxNanos.get() + "]";
+  }
+
+  /**
+   * Immutable state of histogram at some moment.
+   */
+  public static class Snapshot {
+    private final long[] bucketCounts;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    Snapshot(final long[] bucketCounts, final long count, final long totalNanos,
+             final long maxNanos) {
+      super();
+      this.bucketCounts = bucketCounts;
+      this.count = count;
+      this.totalNanos = totalNanos;
+      this.maxNanos = maxNanos;
+    }
+
+    /**
+     * Returns value below or equal to which given share of recorded durations is.
+     * <p>
+     * Value is the upper bound of the bucket, but never exceeds the maximal recorded duration.
+     * @param percentile from 0 to 100
+     * @return duration in nanoseconds, 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      final long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, percentile) / 100));
+      long seen = 0;
+      for (int i = 0; i < bucketCounts.length; i++) {
+        seen += bucketCounts[i];
+        if (seen >= rank) {
+          return Math.min(bucketUpperBound(i), maxNanos);
+        }
+      }
+      return maxNanos;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getTotalNanos() {
+      return totalNanos;
+    }
+
+    public long getMaxNanos() {
+      return maxNanos;
+    }
+
+    /**
+     * Returns average recorded duration.
+     * @return mean in nanoseconds, 0 if nothing was recorded
+     */
+    public double getMeanNanos() {
+      return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    @Override
+    public String toString() {
+      return "Snapshot [count=" + count + ", totalNanos=" + totalNanos + ", maxNanos=" + maxNanos
+          + "]";
+    }
+  }
+
+}
@@ -0,0 +1,104 @@
+package metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Standard MBean that exposes metrics registry over JMX.
+ */
+public class Metrics implements MetricsMBean {
+  private final MetricsRegistry registry;
+  private final LatencyHistogram editTimer;
+  private final LatencyHistogram statementTimer;
+
+  /**
+   * Creates MBean for given registry.
+   * @param registry to expose
+   */
+  public Metrics(final MetricsRegistry registry) {
+    super();
+    this.registry = registry;
+    editTimer = registry.timer(MetricsRegistry.EDIT_TIMER);
+    statementTimer = registry.timer(MetricsRegistry.STATEMENT_TIMER);
+  }
+
+  @Override
+  public long getEditCount() {
+    return editTimer.getCount();
+  }
+
+  @Override
+  public double getEditLatencyP50Millis() {
+    return percentileMillis(editTimer, 50);
+  }
+
+  @Override
+  public double getEditLatencyP99Millis() {
+    return percentileMillis(editTimer, 99);
+  }
+
+  @Override
+  public double getEditLatencyMaxMillis() {
+    return MetricsRegistry.toMillis(editTimer.snapshot().getMaxNanos());
+  }
+
+  @Override
+  public double getStatementLatencyP50Millis() {
+    return percentileMillis(statementTimer, 50);
+  }
+
+  @Override
+  public double getStatementLatencyP99Millis() {
+    return percentileMillis(statementTimer, 99);
+  }
+
+  @Override
+  public String[] getTimers() {
+    final List<String> lines = new ArrayList<>();
+    for (final Map.Entry<String, LatencyHistogram> timer : registry.getTimers().entrySet()) {
+      lines.add(MetricsRegistry.describeTimer(timer.getKey(), timer.getValue().snapshot()));
+    }
+    return lines.toArray(new String[0]);
+  }
+
+  @Override
+  public String[] getCounters() {
+    final List<String> lines = new ArrayList<>();
+    for (final Map.Entry<String, LongAdder> counter : registry.getCounters().entrySet()) {
+      lines.add(counter.getKey() + "=" + counter.getValue().sum());
+    }
+    return lines.toArray(new String[0]);
+  }
+
+  @Override
+  public String[] getCacheHitRates() {
+    final List<String> lines = new ArrayList<>();
+    for (final Map.Entry<String, CacheCounter> cache : registry.getCaches().entrySet()) {
+      lines.add(MetricsRegistry.describeCache(cache.getKey(), cache.getValue()));
+    }
+    return lines.toArray(new String[0]);
+  }
+
+  @Override
+  public double getPercentileMillis(final String timerName, final double percentile) {
+    final LatencyHistogram timer = registry.getTimers().get(timerName);
+    return timer == null ? 0 : percentileMillis(timer, percentile);
+  }
+
+  @Override
+  public void reset() {
+    registry.reset();
+  }
+
+  private static double percentileMillis(final LatencyHistogram timer, final double percentile) {
+    return MetricsRegistry.toMillis(timer.snapshot().getValueAtPercentile(percentile));
+  }
+
+  @Override
+  public String toString() {
+    return "Metrics [registry=" + registry + "]";
+  }
+
+}
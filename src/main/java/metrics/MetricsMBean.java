@@ -0,0 +1,78 @@
+package metrics;
+
+/**
+ * JMX management interface of application metrics, as seen in jconsole or VisualVM.
+ * <p>
+ * Numeric attributes can be charted by jconsole directly; array attributes describe every metric
+ * of the registry in one line.
+ */
+public interface MetricsMBean {
+
+  /**
+   * Returns count of handled edits of repair records table cells.
+   * @return count of edits since start or last reset
+   */
+  public abstract long getEditCount();
+
+  /**
+   * Returns median time of edit handling on Event Dispatch Thread.
+   * @return 50th percentile in milliseconds
+   */
+  public abstract double getEditLatencyP50Millis();
+
+  /**
+   * Returns 99th percentile of edit handling time on Event Dispatch Thread.
+   * @return 99th percentile in milliseconds
+   */
+  public abstract double getEditLatencyP99Millis();
+
+  /**
+   * Returns the longest edit handling time on Event Dispatch Thread.
+   * @return maximum in milliseconds
+   */
+  public abstract double getEditLatencyMaxMillis();
+
+  /**
+   * Returns median execution time of SQL statements.
+   * @return 50th percentile in milliseconds
+   */
+  public abstract double getStatementLatencyP50Millis();
+
+  /**
+   * Returns 99th percentile of SQL statements execution time.
+   * @return 99th percentile in milliseconds
+   */
+  public abstract double getStatementLatencyP99Millis();
+
+  /**
+   * Describes all timers: count, median, 99th percentile and maximum.
+   * @return one line per timer
+   */
+  public abstract String[] getTimers();
+
+  /**
+   * Describes all counters.
+   * @return one line per counter
+   */
+  public abstract String[] getCounters();
+
+  /**
+   * Describes hit rates of all caches.
+   * @return one line per cache
+   */
+  public abstract String[] getCacheHitRates();
+
+  /**
+   * Returns percentile of any timer.
+   * @param timerName name of the timer as shown in {@code Timers} attribute
+   * @param percentile from 0 to 100
+   * @return percentile in milliseconds, 0 if timer does not exist or has no values
+   */
+  public abstract double getPercentileMillis(String timerName, double percentile);
+
+  /**
+   * Resets values of all metrics, e.g. to measure one specific scenario.
+   */
+  public abstract void reset();
+
+}
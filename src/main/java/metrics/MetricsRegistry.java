@@ -0,0 +1,186 @@
+package metrics;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named timers, counters and cache hit counters of the application.
+ * <p>
+ * Metrics are created on the first request by name and live as long as the registry. Callers on
+ * hot paths should request metric once and keep the reference, so recording does not involve map
+ * lookups.
+ * <p>
+ * The application uses single global registry, which is available before Spring context is
+ * created (to measure startup) and in objects that are not Spring beans.
+ * <p>
+ * Naming convention: {@code <layer>.<operation>}, e.g. {@code gui.edit} or
+ * {@code dbapi.setRepairRecordCell}.
+ */
+public class MetricsRegistry {
+  /** Time spent on Event Dispatch Thread to handle one edit of repair records table cell. */
+  public static final String EDIT_TIMER = "gui.edit";
+  /** Execution time of SQL statements. */
+  public static final String STATEMENT_TIMER = "dbapi.statement";
+  private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+  private final Map<String, LatencyHistogram> timers;
+  private final Map<String, LongAdder> counters;
+  private final Map<String, CacheCounter> caches;
+
+  /**
+   * Creates empty registry. Application code should use {@link #getGlobal()}.
+   */
+  public MetricsRegistry() {
+    super();
+    timers = new ConcurrentHashMap<>();
+    counters = new ConcurrentHashMap<>();
+    caches = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns registry shared by the whole application.
+   * @return global registry
+   */
+  public static MetricsRegistry getGlobal() {
+    return GLOBAL;
+  }
+
+  /**
+   * Returns timer with given name, creating it if necessary.
+   * @param name of the timer
+   * @return histogram of durations measured by the timer
+   */
+  public LatencyHistogram timer(final String name) {
+    return timers.computeIfAbsent(name, key -> new LatencyHistogram());
+  }
+
+  /**
+   * Returns counter with given name, creating it if necessary.
+   * @param name of the counter
+   * @return counter
+   */
+  public LongAdder counter(final String name) {
+    return counters.computeIfAbsent(name, key -> new LongAdder());
+  }
+
+  /**
+   * Returns cache hit counter with given name, creating it if necessary.
+   * @param name of the cache
+   * @return hit counter of the cache
+   */
+  public CacheCounter cache(final String name) {
+    return caches.computeIfAbsent(name, key -> new CacheCounter());
+  }
+
+  /**
+   * Returns all timers sorted by name.
+   * @return read-only view of timers
+   */
+  public SortedMap<String, LatencyHistogram> getTimers() {
+    return Collections.unmodifiableSortedMap(new TreeMap<>(timers));
+  }
+
+  /**
+   * Returns all counters sorted by name.
+   * @return read-only view of counters
+   */
+  public SortedMap<String, LongAdder> getCounters() {
+    return Collections.unmodifiableSortedMap(new TreeMap<>(counters));
+  }
+
+  /**
+   * Returns all cache hit counters sorted by name.
+   * @return read-only view of cache hit counters
+   */
+  public SortedMap<String, CacheCounter> getCaches() {
+    return Collections.unmodifiableSortedMap(new TreeMap<>(caches));
+  }
+
+  /**
+   * Resets values of all metrics. Metrics themselves stay registered, so references kept by
+   * callers remain valid.
+   */
+  public void reset() {
+    timers.values().forEach(LatencyHistogram::reset);
+    counters.values().forEach(LongAdder::reset);
+    caches.values().forEach(CacheCounter::reset);
+  }
+
+  /**
+   * Describes timer in one line: count, median, 99th percentile and maximum in milliseconds.
+   * @param name of the timer
+   * @param snapshot of the timer
+   * @return description like {@code gui.edit n=12 p50=1.20 p99=8.51 max=9.13 ms}
+   */
+  public static String describeTimer(final String name, final LatencyHistogram.Snapshot snapshot) {
+    return String.format(Locale.ROOT, "%s n=%d p50=%.2f p99=%.2f max=%.2f ms", name,
+        snapshot.getCount(), toMillis(snapshot.getValueAtPercentile(50)),
+        toMillis(snapshot.getValueAtPercentile(99)), toMillis(snapshot.getMaxNanos()));
+  }
+
+  /**
+   * Describes cache hit counter in one line.
+   * @param name of the cache
+   * @param cache hit counter
+   * @return description like {@code dbapi.statement-cache hits=98.5% of 2000}
+   */
+  public static String describeCache(final String name, final CacheCounter cache) {
+    final long hits = cache.getHits();
+    final long total = hits + cache.getMisses();
+    return String.format(Locale.ROOT, "%s hits=%.1f%% of %d", name,
+        total == 0 ? 0.0 : 100.0 * hits / total, total);
+  }
+
+  /**
+   * Builds one line summary of all metrics that have values.
+   * @return summary for periodic logging
+   */
+  public String summary() {
+    final StringBuilder builder = new StringBuilder();
+    for (final Map.Entry<String, LatencyHistogram> timer : getTimers().entrySet()) {
+      final LatencyHistogram.Snapshot snapshot = timer.getValue().snapshot();
+      if (snapshot.getCount() > 0) {
+        appendSeparator(builder).append(describeTimer(timer.getKey(), snapshot));
+      }
+    }
+    for (final Map.Entry<String, LongAdder> counter : getCounters().entrySet()) {
+      final long value = counter.getValue().sum();
+      if (value > 0) {
+        appendSeparator(builder).append(counter.getKey()).append('=').append(value);
+      }
+    }
+    for (final Map.Entry<String, CacheCounter> cache : getCaches().entrySet()) {
+      if (cache.getValue().getHits() + cache.getValue().getMisses() > 0) {
+        appendSeparator(builder).append(describeCache(cache.getKey(), cache.getValue()));
+      }
+    }
+    return builder.length() == 0 ? "no measurements" : builder.toString();
+  }
+
+  /**
+   * Converts nanoseconds to milliseconds with fraction.
+   * @param nanos duration in nanoseconds
+   * @return duration in milliseconds
+   */
+  public static double toMillis(final long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  private static StringBuilder appendSeparator(final StringBuilder builder) {
+    if (builder.length() > 0) {
+      builder.append("; ");
+    }
+    return builder;
+  }
+
+  @Override
+  public String toString() {
+    return "MetricsRegistry [timers=" + timers.size() + ", counters=" + counters.size()
+        + ", caches=" + caches.size() + "]";
+  }
+
+}
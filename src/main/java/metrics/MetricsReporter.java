@@ -0,0 +1,129 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes global metrics registry: registers {@link MetricsMBean} in platform MBean server and
+ * periodically writes summary of all metrics to the log.
+ * <p>
+ * To watch metrics on a workstation, connect jconsole to the running application and open
+ * {@value #OBJECT_NAME} on MBeans tab.
+ */
+@Component
+public class MetricsReporter {
+  static final String OBJECT_NAME = "locomotive_depot_logbook:type=Metrics";
+  private static final Logger logger = LogManager.getLogger();
+  private final MetricsRegistry registry;
+  private final boolean jmxEnabled;
+  private final long summaryIntervalSeconds;
+  private ObjectName objectName;
+  private ScheduledExecutorService executor;
+
+  /**
+   * Creates reporter of global registry, which is started after dependency injection.
+   * @param jmxEnabled whether MBean should be registered
+   * @param summaryIntervalSeconds how often summary is logged, 0 disables it
+   */
+  @Autowired
+  public MetricsReporter(
+      @Value("${metrics.jmx-enabled:true}") final boolean jmxEnabled,
+      @Value("${metrics.summary-interval-seconds:600}") final long summaryIntervalSeconds) {
+    this(MetricsRegistry.getGlobal(), jmxEnabled, summaryIntervalSeconds);
+  }
+
+  /**
+   * Creates reporter of given registry.
+   * @param registry to publish
+   * @param jmxEnabled whether MBean should be registered
+   * @param summaryIntervalSeconds how often summary is logged, 0 disables it
+   */
+  MetricsReporter(final MetricsRegistry registry, final boolean jmxEnabled,
+                  final long summaryIntervalSeconds) {
+    super();
+    this.registry = registry;
+    this.jmxEnabled = jmxEnabled;
+    this.summaryIntervalSeconds = summaryIntervalSeconds;
+  }
+
+  /**
+   * Registers MBean and schedules summary logging.
+   */
+  @PostConstruct
+  public void start() {
+    if (jmxEnabled) {
+      registerMBean();
+    }
+    if (summaryIntervalSeconds > 0) {
+      executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "metrics-summary");
+        thread.setDaemon(true);
+        return thread;
+      });
+      executor.scheduleAtFixedRate(
+          this::logSummary, summaryIntervalSeconds, summaryIntervalSeconds, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Stops summary logging, logs the final summary and unregisters MBean.
+   */
+  @PreDestroy
+  public void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+      logSummary();
+    }
+    if (objectName != null) {
+      try {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+      } catch (final JMException err) {
+        logger.warn("Failed to unregister metrics MBean: " + err.getMessage());
+      }
+      objectName = null;
+    }
+  }
+
+  /**
+   * Writes one line summary of all metrics to the log.
+   */
+  void logSummary() {
+    logger.info("Metrics summary: " + registry.summary());
+  }
+
+  private void registerMBean() {
+    try {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      final ObjectName name = new ObjectName(OBJECT_NAME);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+      server.registerMBean(new Metrics(registry), name);
+      objectName = name;
+      logger.info("Metrics are available over JMX as " + OBJECT_NAME + ".");
+    } catch (final JMException err) {
+      logger.error("Failed to register metrics MBean: " + err.getMessage());
+      err.printStackTrace();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "MetricsReporter [jmxEnabled=" + jmxEnabled + ", summaryIntervalSeconds="
+        + summaryIntervalSeconds + "]";
+  }
+
+}
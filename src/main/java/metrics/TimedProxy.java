@@ -0,0 +1,94 @@
+package metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dynamic proxy that measures calls of interface methods with a timer named
+ * {@code <prefix>.<method name>}. Overloaded methods share one timer.
+ * <p>
+ * Timers are resolved once when proxy is created, so a measured call costs two
+ * {@code System.nanoTime()} invocations and a histogram update in addition to reflective call
+ * itself. Methods that are not measured still pay for the reflective call, so proxy should not
+ * wrap objects whose methods are called per table cell unless it is needed for diagnostics.
+ */
+public final class TimedProxy implements InvocationHandler {
+  private final Object target;
+  private final Map<Method, LatencyHistogram> timers;
+
+  private TimedProxy(final Object target, final Map<Method, LatencyHistogram> timers) {
+    super();
+    this.target = target;
+    this.timers = timers;
+  }
+
+  /**
+   * Wraps object in proxy that implements given interface and measures its methods.
+   * @param <T> type of the interface
+   * @param type interface to implement
+   * @param target object to delegate calls to
+   * @param registry to create timers in
+   * @param prefix of timer names
+   * @return proxy that implements only given interface
+   */
+  public static <T> T wrap(final Class<T> type, final T target, final MetricsRegistry registry,
+                           final String prefix) {
+    return wrap(type, target, registry, prefix, null);
+  }
+
+  /**
+   * Wraps object in proxy that implements given interface and measures only named methods.
+   * @param <T> type of the interface
+   * @param type interface to implement
+   * @param target object to delegate calls to
+   * @param registry to create timers in
+   * @param prefix of timer names
+   * @param methodNames names of methods to measure, {@code null} to measure all methods
+   * @return proxy that implements only given interface
+   */
+  public static <T> T wrap(final Class<T> type, final T target, final MetricsRegistry registry,
+                           final String prefix, final Set<String> methodNames) {
+    final Map<Method, LatencyHistogram> timers = new HashMap<>();
+    for (final Method method : type.getMethods()) {
+      if (!Modifier.isStatic(method.getModifiers())
+          && (methodNames == null || methodNames.contains(method.getName()))) {
+        timers.put(method, registry.timer(prefix + "." + method.getName()));
+      }
+    }
+    return type.cast(Proxy.newProxyInstance(
+        type.getClassLoader(), new Class<?>[] {type}, new TimedProxy(target, timers)));
+  }
+
+  @Override
+  public Object invoke(final Object proxy, final Method method, final Object[] args)
+                                                                            throws Throwable {
+    final LatencyHistogram timer = timers.get(method);
+    if (timer == null) {
+      try {
+        return method.invoke(target, args);
+      } catch (final InvocationTargetException err) {
+        throw err.getCause();
+      }
+    }
+    final long start = System.nanoTime();
+    try {
+      return method.invoke(target, args);
+    } catch (final InvocationTargetException err) {
+      throw err.getCause();
+    } finally {
+      timer.recordSince(start);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "TimedProxy [target=" + target + "]";
+  }
+
+}
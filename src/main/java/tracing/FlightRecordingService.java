@@ -0,0 +1,138 @@
+package tracing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Starts and stops bounded Java Flight Recorder recording of the application, so that users
+ * could send {@code .jfr} file with pipeline events when the table responds slowly.
+ * <p>
+ * Recording could be started from the menu or at startup with
+ * {@code --tracing.jfr-recording=<file>} command line argument. At most one recording runs at
+ * once; running recording is written to its file at application shutdown.
+ */
+@Service
+public class FlightRecordingService {
+  private static final Logger logger = LogManager.getLogger();
+  private static final DateTimeFormatter FILE_NAME_FORMATTER =
+      DateTimeFormatter.ofPattern("'diagnostics-'yyyyMMdd-HHmmss'.jfr'");
+  private final String startupRecordingFile;
+  private final long maxSizeBytes;
+  private JfrRecording recording;
+
+  /**
+   * Creates service, which starts recording after dependency injection if file is given.
+   * @param startupRecordingFile file to record from startup to, empty string disables it
+   * @param maxSizeMegabytes limit of recording size
+   */
+  @Autowired
+  public FlightRecordingService(
+      @Value("${tracing.jfr-recording:}") final String startupRecordingFile,
+      @Value("${tracing.jfr-max-size-mb:64}") final long maxSizeMegabytes) {
+    super();
+    this.startupRecordingFile = startupRecordingFile;
+    maxSizeBytes = maxSizeMegabytes * 1024 * 1024;
+  }
+
+  /**
+   * Starts recording requested at startup.
+   */
+  @PostConstruct
+  public void startStartupRecording() {
+    if (!startupRecordingFile.isEmpty()) {
+      start(Paths.get(startupRecordingFile));
+    }
+  }
+
+  /**
+   * Writes running recording at application shutdown.
+   */
+  @PreDestroy
+  public void shutdown() {
+    stop();
+  }
+
+  /**
+   * Tells whether recordings could be started in this JVM.
+   * @return {@code true} if Java Flight Recorder is available
+   */
+  public boolean isAvailable() {
+    return Tracing.isAvailable();
+  }
+
+  public synchronized boolean isRecording() {
+    return recording != null;
+  }
+
+  /**
+   * Returns file for a new recording in working directory, named after current time.
+   * @return path like {@code ./diagnostics-20221018-134501.jfr}
+   */
+  public Path newRecordingFile() {
+    return Paths.get(".", LocalDateTime.now().format(FILE_NAME_FORMATTER));
+  }
+
+  /**
+   * Starts recording if no recording is running.
+   * @param file to write recording to when it is stopped
+   * @return {@code true} if recording was started or already runs
+   */
+  public synchronized boolean start(final Path file) {
+    if (recording != null) {
+      return true;
+    }
+    if (!Tracing.isAvailable()) {
+      logger.warn("Flight recording was not started: Java Flight Recorder is not available.");
+      return false;
+    }
+    try {
+      recording = new JfrRecording(file.toAbsolutePath(), maxSizeBytes);
+      logger.info("Flight recording to " + file + " started (max size "
+          + maxSizeBytes / 1024 / 1024 + " MB).");
+      return true;
+    } catch (final IOException | ParseException | RuntimeException err) {
+      logger.error("Failed to start flight recording: " + err.getMessage());
+      err.printStackTrace();
+      return false;
+    }
+  }
+
+  /**
+   * Stops running recording and writes it to its file.
+   * @return written file, or {@code null} if no recording was running or it failed to stop
+   */
+  public synchronized Path stop() {
+    if (recording == null) {
+      return null;
+    }
+    final JfrRecording stoppedRecording = recording;
+    recording = null;
+    try {
+      stoppedRecording.stop();
+      logger.info("Flight recording was written to " + stoppedRecording.getFile() + ".");
+      return stoppedRecording.getFile();
+    } catch (final RuntimeException err) {
+      logger.error("Failed to write flight recording: " + err.getMessage());
+      err.printStackTrace();
+      return null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "FlightRecordingService [maxSizeBytes=" + maxSizeBytes + ", recording=" + recording
+        + "]";
+  }
+
+}
@@ -0,0 +1,57 @@
+package tracing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Flight recording with JDK "default" settings (low overhead, suitable for production) plus all
+ * pipeline events, limited in size and written to a file when stopped.
+ * <p>
+ * The class references {@code jdk.jfr} and must be created only if {@link Tracing#isAvailable()}.
+ */
+final class JfrRecording {
+  private final Recording recording;
+  private final Path file;
+
+  /**
+   * Starts recording.
+   * @param file to write recording to when it is stopped
+   * @param maxSizeBytes how much data is kept, older data is discarded
+   * @throws IOException if settings could not be read or file could not be created
+   * @throws ParseException if JDK settings are corrupted
+   */
+  JfrRecording(final Path file, final long maxSizeBytes) throws IOException, ParseException {
+    super();
+    this.file = file;
+    recording = new Recording(Configuration.getConfiguration("default"));
+    recording.setName("locomotive_depot_logbook");
+    recording.setToDisk(true);
+    recording.setMaxSize(maxSizeBytes);
+    recording.setDestination(file);
+    recording.start();
+  }
+
+  /**
+   * Stops recording, writes it to the file and releases resources.
+   */
+  void stop() {
+    try {
+      recording.stop();
+    } finally {
+      recording.close();
+    }
+  }
+
+  Path getFile() {
+    return file;
+  }
+
+  @Override
+  public String toString() {
+    return "JfrRecording [file=" + file + ", state=" + recording.getState() + "]";
+  }
+
+}
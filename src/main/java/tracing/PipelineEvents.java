@@ -0,0 +1,141 @@
+package tracing;
+
+import java.util.function.Supplier;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event types of cell edit pipeline, one per {@link Stage}.
+ * <p>
+ * All events share {@code operation}, {@code row} and {@code column} fields, so in JDK Mission
+ * Control events of one edit could be lined up by thread and time.
+ * <p>
+ * The class references {@code jdk.jfr} and must be used only through {@link Tracing}.
+ */
+final class PipelineEvents {
+  static final String NAME_PREFIX = "locomotive_depot_logbook.";
+  static final String CATEGORY = "Locomotive Depot Logbook";
+
+  private PipelineEvents() {
+  }
+
+  static boolean isFlightRecorderAvailable() {
+    return FlightRecorder.isAvailable();
+  }
+
+  static Trace begin(final Stage stage) {
+    final PipelineEvent event;
+    switch (stage) {
+    case EDIT:
+      event = new CellEditEvent();
+      break;
+    case VALIDATION:
+      event = new ValidationEvent();
+      break;
+    case DATE_CALCULATION:
+      event = new DateCalculationEvent();
+      break;
+    case LAST_REPAIR:
+      event = new LastRepairEvent();
+      break;
+    case REQUIRED_REPAIR:
+      event = new RequiredRepairEvent();
+      break;
+    case STATEMENT:
+      event = new StatementEvent();
+      break;
+    default:
+      event = new TableEventFiringEvent();
+      break;
+    }
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Common fields and finishing logic of pipeline events.
+   */
+  @Category({CATEGORY, "Edit Pipeline"})
+  abstract static class PipelineEvent extends Event implements Trace {
+    @Label("Operation")
+    String operation;
+
+    @Label("Row")
+    int row;
+
+    @Label("Column")
+    int column;
+
+    @Override
+    public void finish(final String operation, final int row, final int column) {
+      end();
+      if (shouldCommit()) {
+        commit(operation, row, column);
+      }
+    }
+
+    @Override
+    public void finish(final Supplier<String> operation, final int row, final int column) {
+      end();
+      if (shouldCommit()) {
+        commit(operation.get(), row, column);
+      }
+    }
+
+    private void commit(final String operation, final int row, final int column) {
+      this.operation = operation;
+      this.row = row;
+      this.column = column;
+      commit();
+    }
+  }
+
+  @Name(NAME_PREFIX + "CellEdit")
+  @Label("Cell Edit")
+  @Description("Handling of new cell value in repair records table on Event Dispatch Thread")
+  static class CellEditEvent extends PipelineEvent {
+  }
+
+  @Name(NAME_PREFIX + "Validation")
+  @Label("Validation")
+  @Description("Validation of user input")
+  static class ValidationEvent extends PipelineEvent {
+  }
+
+  @Name(NAME_PREFIX + "DateCalculation")
+  @Label("Date Calculation")
+  @Description("Calculation of next repair dates after new last repair date")
+  static class DateCalculationEvent extends PipelineEvent {
+  }
+
+  @Name(NAME_PREFIX + "LastRepair")
+  @Label("Last Repair Update")
+  @Description("Update of last repair column")
+  static class LastRepairEvent extends PipelineEvent {
+  }
+
+  @Name(NAME_PREFIX + "RequiredRepair")
+  @Label("Required Repair Update")
+  @Description("Update of required repair column")
+  static class RequiredRepairEvent extends PipelineEvent {
+  }
+
+  @Name(NAME_PREFIX + "Statement")
+  @Label("SQL Statement")
+  @Description("Execution of SQL statement by DbManager")
+  static class StatementEvent extends PipelineEvent {
+  }
+
+  @Name(NAME_PREFIX + "TableEventFiring")
+  @Label("Table Event Firing")
+  @Description("Firing of table model events, which includes synchronous repaint requests")
+  @StackTrace(false)
+  static class TableEventFiringEvent extends PipelineEvent {
+  }
+
+}
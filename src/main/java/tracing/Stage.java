@@ -0,0 +1,21 @@
+package tracing;
+
+/**
+ * Stages of cell edit pipeline that are traced with Java Flight Recorder events.
+ */
+public enum Stage {
+  /** Whole handling of a new cell value in repair records table. */
+  EDIT,
+  /** Validation of user input. */
+  VALIDATION,
+  /** Calculation of next repair dates after new last repair date. */
+  DATE_CALCULATION,
+  /** Update of "last repair" column. */
+  LAST_REPAIR,
+  /** Update of "required repair" column. */
+  REQUIRED_REPAIR,
+  /** Execution of SQL statement. */
+  STATEMENT,
+  /** Firing of table model events to repaint table. */
+  TABLE_EVENT
+}
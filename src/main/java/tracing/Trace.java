@@ -0,0 +1,37 @@
+package tracing;
+
+import java.util.function.Supplier;
+
+/**
+ * Measured part of work, which is started by {@link Tracing#begin(Stage)} and must be finished
+ * by one of {@code finish} methods on the same thread.
+ */
+@FunctionalInterface
+public interface Trace {
+
+  /**
+   * Finishes the work and records it if recording is running.
+   * @param operation short description of what was done, e.g. validated field or SQL statement
+   * @param row index of affected row, -1 if not applicable
+   * @param column index of affected column, -1 if not applicable
+   */
+  void finish(String operation, int row, int column);
+
+  /**
+   * Finishes the work, description of which is built only if the work is recorded.
+   * @param operation supplier of short description of what was done
+   * @param row index of affected row, -1 if not applicable
+   * @param column index of affected column, -1 if not applicable
+   */
+  default void finish(final Supplier<String> operation, final int row, final int column) {
+    finish(operation.get(), row, column);
+  }
+
+  /**
+   * Finishes the work that is not related to a specific table cell.
+   * @param operation short description of what was done
+   */
+  default void finish(final String operation) {
+    finish(operation, -1, -1);
+  }
+}
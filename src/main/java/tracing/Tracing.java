@@ -0,0 +1,70 @@
+package tracing;
+
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Entry point for tracing of cell edit pipeline with Java Flight Recorder custom events.
+ * <p>
+ * Events are emitted only if {@code jdk.jfr} API is present in the running JVM (JDK 8u262+ or
+ * JDK 11+) and are written only while a recording is running: {@link FlightRecordingService},
+ * {@code -XX:StartFlightRecording} or jcmd. On older JVMs every trace is a shared no-op object,
+ * so call sites never need to check availability themselves.
+ * <p>
+ * Classes that reference {@code jdk.jfr} are loaded only after availability check succeeded.
+ */
+public final class Tracing {
+  private static final Logger logger = LogManager.getLogger();
+  private static final Trace NO_TRACE = new NoTrace();
+  private static final boolean AVAILABLE = detectFlightRecorder();
+
+  private Tracing() {
+  }
+
+  /**
+   * Tells whether Java Flight Recorder could be used in this JVM.
+   * @return {@code true} if events are emitted and recordings could be started
+   */
+  public static boolean isAvailable() {
+    return AVAILABLE;
+  }
+
+  /**
+   * Starts measuring given stage.
+   * @param stage of the pipeline
+   * @return trace that must be finished when the stage ends
+   */
+  public static Trace begin(final Stage stage) {
+    return AVAILABLE ? PipelineEvents.begin(stage) : NO_TRACE;
+  }
+
+  /**
+   * Trace of JVM without Java Flight Recorder, which does not even build descriptions.
+   */
+  private static final class NoTrace implements Trace {
+    @Override
+    public void finish(final String operation, final int row, final int column) {
+    }
+
+    @Override
+    public void finish(final Supplier<String> operation, final int row, final int column) {
+    }
+
+    @Override
+    public String toString() {
+      return "NoTrace - trace which records nothing.";
+    }
+  }
+
+  private static boolean detectFlightRecorder() {
+    try {
+      Class.forName("jdk.jfr.FlightRecorder");
+      return PipelineEvents.isFlightRecorderAvailable();
+    } catch (final ClassNotFoundException | LinkageError err) {
+      logger.info("Java Flight Recorder is not available, edit pipeline is not traced.");
+      return false;
+    }
+  }
+
+}
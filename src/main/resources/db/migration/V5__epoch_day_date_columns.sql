@@ -0,0 +1,195 @@
+-- Repair dates were stored as TEXT in dd.MM.yyyy format, which could not be compared or sorted
+-- by SQLite. Date columns are converted to INTEGER number of days since 1970-01-01 (epoch day),
+-- empty and malformed dates become NULL.
+-- SQLite date functions normalize non-existent dates (31.02.2020 becomes 02.03.2020), so every
+-- date is converted only if formatting it back gives the original value.
+-- SQLite could not change column type, so tables are rebuilt.
+
+CREATE TABLE repair_records_v5(
+	id INTEGER NOT NULL PRIMARY KEY,
+	loco_model_name TEXT NOT NULL,
+	loco_number TEXT NOT NULL,
+	
+	last_three_maintenance INTEGER,
+	next_three_maintenance INTEGER,
+	
+	last_one_current_repair INTEGER,
+	next_one_current_repair INTEGER,
+	
+	last_two_current_repair INTEGER,
+	next_two_current_repair INTEGER,
+	
+	last_three_current_repair INTEGER,
+	next_three_current_repair INTEGER,
+	
+	last_medium_repair INTEGER,
+	next_medium_repair INTEGER,
+	
+	last_overhaul INTEGER,
+	next_overhaul INTEGER,
+	
+	last_repair_type TEXT,
+	last_repair_date INTEGER,
+	
+	required_repair_type TEXT,
+	required_repair_date INTEGER,
+	
+	notes TEXT,
+	
+	FOREIGN KEY(loco_model_name) REFERENCES repair_periods(loco_model_name)
+	);
+
+INSERT INTO repair_records_v5 SELECT
+	id,
+	loco_model_name,
+	loco_number,
+	CASE WHEN last_three_maintenance GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(last_three_maintenance, 7, 4) || '-' || substr(last_three_maintenance, 4, 2) || '-' || substr(last_three_maintenance, 1, 2))) = last_three_maintenance
+		THEN CAST(julianday(substr(last_three_maintenance, 7, 4) || '-' || substr(last_three_maintenance, 4, 2) || '-' || substr(last_three_maintenance, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN next_three_maintenance GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(next_three_maintenance, 7, 4) || '-' || substr(next_three_maintenance, 4, 2) || '-' || substr(next_three_maintenance, 1, 2))) = next_three_maintenance
+		THEN CAST(julianday(substr(next_three_maintenance, 7, 4) || '-' || substr(next_three_maintenance, 4, 2) || '-' || substr(next_three_maintenance, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN last_one_current_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(last_one_current_repair, 7, 4) || '-' || substr(last_one_current_repair, 4, 2) || '-' || substr(last_one_current_repair, 1, 2))) = last_one_current_repair
+		THEN CAST(julianday(substr(last_one_current_repair, 7, 4) || '-' || substr(last_one_current_repair, 4, 2) || '-' || substr(last_one_current_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN next_one_current_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(next_one_current_repair, 7, 4) || '-' || substr(next_one_current_repair, 4, 2) || '-' || substr(next_one_current_repair, 1, 2))) = next_one_current_repair
+		THEN CAST(julianday(substr(next_one_current_repair, 7, 4) || '-' || substr(next_one_current_repair, 4, 2) || '-' || substr(next_one_current_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN last_two_current_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(last_two_current_repair, 7, 4) || '-' || substr(last_two_current_repair, 4, 2) || '-' || substr(last_two_current_repair, 1, 2))) = last_two_current_repair
+		THEN CAST(julianday(substr(last_two_current_repair, 7, 4) || '-' || substr(last_two_current_repair, 4, 2) || '-' || substr(last_two_current_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN next_two_current_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(next_two_current_repair, 7, 4) || '-' || substr(next_two_current_repair, 4, 2) || '-' || substr(next_two_current_repair, 1, 2))) = next_two_current_repair
+		THEN CAST(julianday(substr(next_two_current_repair, 7, 4) || '-' || substr(next_two_current_repair, 4, 2) || '-' || substr(next_two_current_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN last_three_current_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(last_three_current_repair, 7, 4) || '-' || substr(last_three_current_repair, 4, 2) || '-' || substr(last_three_current_repair, 1, 2))) = last_three_current_repair
+		THEN CAST(julianday(substr(last_three_current_repair, 7, 4) || '-' || substr(last_three_current_repair, 4, 2) || '-' || substr(last_three_current_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN next_three_current_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(next_three_current_repair, 7, 4) || '-' || substr(next_three_current_repair, 4, 2) || '-' || substr(next_three_current_repair, 1, 2))) = next_three_current_repair
+		THEN CAST(julianday(substr(next_three_current_repair, 7, 4) || '-' || substr(next_three_current_repair, 4, 2) || '-' || substr(next_three_current_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN last_medium_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(last_medium_repair, 7, 4) || '-' || substr(last_medium_repair, 4, 2) || '-' || substr(last_medium_repair, 1, 2))) = last_medium_repair
+		THEN CAST(julianday(substr(last_medium_repair, 7, 4) || '-' || substr(last_medium_repair, 4, 2) || '-' || substr(last_medium_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN next_medium_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(next_medium_repair, 7, 4) || '-' || substr(next_medium_repair, 4, 2) || '-' || substr(next_medium_repair, 1, 2))) = next_medium_repair
+		THEN CAST(julianday(substr(next_medium_repair, 7, 4) || '-' || substr(next_medium_repair, 4, 2) || '-' || substr(next_medium_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN last_overhaul GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(last_overhaul, 7, 4) || '-' || substr(last_overhaul, 4, 2) || '-' || substr(last_overhaul, 1, 2))) = last_overhaul
+		THEN CAST(julianday(substr(last_overhaul, 7, 4) || '-' || substr(last_overhaul, 4, 2) || '-' || substr(last_overhaul, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN next_overhaul GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(next_overhaul, 7, 4) || '-' || substr(next_overhaul, 4, 2) || '-' || substr(next_overhaul, 1, 2))) = next_overhaul
+		THEN CAST(julianday(substr(next_overhaul, 7, 4) || '-' || substr(next_overhaul, 4, 2) || '-' || substr(next_overhaul, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	last_repair_type,
+	CASE WHEN last_repair_date GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(last_repair_date, 7, 4) || '-' || substr(last_repair_date, 4, 2) || '-' || substr(last_repair_date, 1, 2))) = last_repair_date
+		THEN CAST(julianday(substr(last_repair_date, 7, 4) || '-' || substr(last_repair_date, 4, 2) || '-' || substr(last_repair_date, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	required_repair_type,
+	CASE WHEN required_repair_date GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(required_repair_date, 7, 4) || '-' || substr(required_repair_date, 4, 2) || '-' || substr(required_repair_date, 1, 2))) = required_repair_date
+		THEN CAST(julianday(substr(required_repair_date, 7, 4) || '-' || substr(required_repair_date, 4, 2) || '-' || substr(required_repair_date, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	notes
+	FROM repair_records;
+
+DROP TABLE repair_records;
+ALTER TABLE repair_records_v5 RENAME TO repair_records;
+
+CREATE INDEX IF NOT EXISTS index_1 ON repair_records (required_repair_date);
+CREATE INDEX IF NOT EXISTS index_2 ON repair_records (loco_model_name, loco_number);
+
+CREATE TABLE records_archive_v5(
+	id INTEGER NOT NULL PRIMARY KEY,
+	loco_model_name TEXT NOT NULL,
+	loco_number TEXT NOT NULL,
+	
+	last_three_maintenance INTEGER,
+	next_three_maintenance INTEGER,
+	
+	last_one_current_repair INTEGER,
+	next_one_current_repair INTEGER,
+	
+	last_two_current_repair INTEGER,
+	next_two_current_repair INTEGER,
+	
+	last_three_current_repair INTEGER,
+	next_three_current_repair INTEGER,
+	
+	last_medium_repair INTEGER,
+	next_medium_repair INTEGER,
+	
+	last_overhaul INTEGER,
+	next_overhaul INTEGER,
+	
+	notes TEXT
+	);
+
+INSERT INTO records_archive_v5 SELECT
+	id,
+	loco_model_name,
+	loco_number,
+	CASE WHEN last_three_maintenance GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(last_three_maintenance, 7, 4) || '-' || substr(last_three_maintenance, 4, 2) || '-' || substr(last_three_maintenance, 1, 2))) = last_three_maintenance
+		THEN CAST(julianday(substr(last_three_maintenance, 7, 4) || '-' || substr(last_three_maintenance, 4, 2) || '-' || substr(last_three_maintenance, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN next_three_maintenance GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(next_three_maintenance, 7, 4) || '-' || substr(next_three_maintenance, 4, 2) || '-' || substr(next_three_maintenance, 1, 2))) = next_three_maintenance
+		THEN CAST(julianday(substr(next_three_maintenance, 7, 4) || '-' || substr(next_three_maintenance, 4, 2) || '-' || substr(next_three_maintenance, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN last_one_current_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(last_one_current_repair, 7, 4) || '-' || substr(last_one_current_repair, 4, 2) || '-' || substr(last_one_current_repair, 1, 2))) = last_one_current_repair
+		THEN CAST(julianday(substr(last_one_current_repair, 7, 4) || '-' || substr(last_one_current_repair, 4, 2) || '-' || substr(last_one_current_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN next_one_current_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(next_one_current_repair, 7, 4) || '-' || substr(next_one_current_repair, 4, 2) || '-' || substr(next_one_current_repair, 1, 2))) = next_one_current_repair
+		THEN CAST(julianday(substr(next_one_current_repair, 7, 4) || '-' || substr(next_one_current_repair, 4, 2) || '-' || substr(next_one_current_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN last_two_current_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(last_two_current_repair, 7, 4) || '-' || substr(last_two_current_repair, 4, 2) || '-' || substr(last_two_current_repair, 1, 2))) = last_two_current_repair
+		THEN CAST(julianday(substr(last_two_current_repair, 7, 4) || '-' || substr(last_two_current_repair, 4, 2) || '-' || substr(last_two_current_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN next_two_current_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(next_two_current_repair, 7, 4) || '-' || substr(next_two_current_repair, 4, 2) || '-' || substr(next_two_current_repair, 1, 2))) = next_two_current_repair
+		THEN CAST(julianday(substr(next_two_current_repair, 7, 4) || '-' || substr(next_two_current_repair, 4, 2) || '-' || substr(next_two_current_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN last_three_current_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(last_three_current_repair, 7, 4) || '-' || substr(last_three_current_repair, 4, 2) || '-' || substr(last_three_current_repair, 1, 2))) = last_three_current_repair
+		THEN CAST(julianday(substr(last_three_current_repair, 7, 4) || '-' || substr(last_three_current_repair, 4, 2) || '-' || substr(last_three_current_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN next_three_current_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(next_three_current_repair, 7, 4) || '-' || substr(next_three_current_repair, 4, 2) || '-' || substr(next_three_current_repair, 1, 2))) = next_three_current_repair
+		THEN CAST(julianday(substr(next_three_current_repair, 7, 4) || '-' || substr(next_three_current_repair, 4, 2) || '-' || substr(next_three_current_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN last_medium_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(last_medium_repair, 7, 4) || '-' || substr(last_medium_repair, 4, 2) || '-' || substr(last_medium_repair, 1, 2))) = last_medium_repair
+		THEN CAST(julianday(substr(last_medium_repair, 7, 4) || '-' || substr(last_medium_repair, 4, 2) || '-' || substr(last_medium_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN next_medium_repair GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(next_medium_repair, 7, 4) || '-' || substr(next_medium_repair, 4, 2) || '-' || substr(next_medium_repair, 1, 2))) = next_medium_repair
+		THEN CAST(julianday(substr(next_medium_repair, 7, 4) || '-' || substr(next_medium_repair, 4, 2) || '-' || substr(next_medium_repair, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN last_overhaul GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(last_overhaul, 7, 4) || '-' || substr(last_overhaul, 4, 2) || '-' || substr(last_overhaul, 1, 2))) = last_overhaul
+		THEN CAST(julianday(substr(last_overhaul, 7, 4) || '-' || substr(last_overhaul, 4, 2) || '-' || substr(last_overhaul, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	CASE WHEN next_overhaul GLOB '[0-9][0-9].[0-9][0-9].[0-9][0-9][0-9][0-9]'
+		AND strftime('%d.%m.%Y', julianday(substr(next_overhaul, 7, 4) || '-' || substr(next_overhaul, 4, 2) || '-' || substr(next_overhaul, 1, 2))) = next_overhaul
+		THEN CAST(julianday(substr(next_overhaul, 7, 4) || '-' || substr(next_overhaul, 4, 2) || '-' || substr(next_overhaul, 1, 2)) - 2440587.5 AS INTEGER)
+		END,
+	notes
+	FROM records_archive;
+
+DROP TABLE records_archive;
+ALTER TABLE records_archive_v5 RENAME TO records_archive;
@@ -0,0 +1,41 @@
+-- Counter of changes in repair records and repair periods tables. It is incremented by triggers,
+-- so it changes on any write, including writes made by other tools, and persists across
+-- connections (unlike PRAGMA data_version). Application compares it with the value stored in
+-- startup snapshot to decide whether the snapshot is still valid.
+
+CREATE TABLE change_counter(
+	id INTEGER NOT NULL PRIMARY KEY CHECK (id = 1),
+	counter INTEGER NOT NULL
+);
+
+INSERT INTO change_counter (id, counter) VALUES (1, 0);
+
+CREATE TRIGGER repair_records_insert_counter AFTER INSERT ON repair_records
+BEGIN
+	UPDATE change_counter SET counter = counter + 1;
+END;
+
+CREATE TRIGGER repair_records_update_counter AFTER UPDATE ON repair_records
+BEGIN
+	UPDATE change_counter SET counter = counter + 1;
+END;
+
+CREATE TRIGGER repair_records_delete_counter AFTER DELETE ON repair_records
+BEGIN
+	UPDATE change_counter SET counter = counter + 1;
+END;
+
+CREATE TRIGGER repair_periods_insert_counter AFTER INSERT ON repair_periods
+BEGIN
+	UPDATE change_counter SET counter = counter + 1;
+END;
+
+CREATE TRIGGER repair_periods_update_counter AFTER UPDATE ON repair_periods
+BEGIN
+	UPDATE change_counter SET counter = counter + 1;
+END;
+
+CREATE TRIGGER repair_periods_delete_counter AFTER DELETE ON repair_periods
+BEGIN
+	UPDATE change_counter SET counter = counter + 1;
+END;
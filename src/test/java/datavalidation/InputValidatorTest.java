@@ -1,10 +1,16 @@
 package datavalidation;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import org.assertj.core.util.Arrays;
@@ -17,7 +23,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import datavalidation.CellValidationError.Reason;
 import dbapi.DbManager;
+import dbapi.ModelNameIndex;
 
 public class InputValidatorTest {
   private static InputValidator inputValidator;
@@ -35,6 +43,11 @@ public class InputValidatorTest {
   @BeforeEach
   protected void setUp() throws Exception {
     dbManagerMock = mock(DbManager.class);
+    final Map<String, List<Integer>> repairPeriodsData = new HashMap<>();
+    for (final String modelName : testModelNames) {
+      repairPeriodsData.put(modelName, Collections.nCopies(6, 30));
+    }
+    when(dbManagerMock.getModelNameIndex()).thenReturn(new ModelNameIndex(repairPeriodsData));
     inputValidator = new InputValidator(dbManagerMock);
   }
 
@@ -91,7 +104,6 @@ public class InputValidatorTest {
   @MethodSource("provideBadModelNames")
   @DisplayName("Throws exception on bad model name")
   void throwsExceptionOnBadModelName(final String badModelName) {
-    when(dbManagerMock.getAllModelNames()).thenReturn(testModelNames);
     assertThrows(IllegalArgumentException.class,
                  () -> inputValidator.validateRepairPeriodsModelName(badModelName));
   }
@@ -100,10 +112,49 @@ public class InputValidatorTest {
   @MethodSource("provideGoodModelNames")
   @DisplayName("Throws no exception on good model name")
   void throwsNoExceptionOnGoodModelName(final String goodModelName) {
-    when(dbManagerMock.getAllModelNames()).thenReturn(testModelNames);
     inputValidator.validateRepairPeriodsModelName(goodModelName);
   }
   
+  @Test
+  @DisplayName("Valid rows have no errors")
+  void validRowsHaveNoErrors() {
+    final List<List<String>> rows = java.util.Arrays.asList(
+        repairRecord("ТЭМ", "0123", "14.08.2022", ""),
+        repairRecord(" ТЭМ2У ", " 4856 ", null, "31.12.2050 "));
+
+    assertTrue(inputValidator.validateRows(rows).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Invalid cells are reported in order of rows and columns")
+  void invalidCellsAreReportedInOrderOfRowsAndColumns() {
+    final List<String> badRow = repairRecord("ТЭМ7", "12a", "14/08/2022", "30.02.2022");
+    badRow.set(15, "32.01.2022");
+    badRow.set(18, "30.02.2022 is not validated in notes");
+    final List<List<String>> rows = java.util.Arrays.asList(
+        repairRecord("ТЭМ", "0123", "14.08.2022", ""), badRow);
+
+    final List<CellValidationError> errors = inputValidator.validateRows(rows);
+
+    assertEquals(java.util.Arrays.asList(
+        new CellValidationError(1, 0, "ТЭМ7", Reason.UNKNOWN_MODEL),
+        new CellValidationError(1, 1, "12a", Reason.INVALID_NUMBER),
+        new CellValidationError(1, 2, "14/08/2022", Reason.INVALID_DATE_FORMAT),
+        new CellValidationError(1, 3, "30.02.2022", Reason.INVALID_DATE_VALUE),
+        new CellValidationError(1, 15, "32.01.2022", Reason.INVALID_DATE_VALUE)), errors);
+  }
+
+  @Test
+  @DisplayName("Empty model name and number are invalid in rows")
+  void emptyModelNameAndNumberAreInvalidInRows() {
+    final List<CellValidationError> errors = inputValidator.validateRows(
+        Collections.singletonList(repairRecord(null, " ", "", "")));
+
+    assertEquals(2, errors.size());
+    assertEquals(Reason.UNKNOWN_MODEL, errors.get(0).getReason());
+    assertEquals(Reason.INVALID_NUMBER, errors.get(1).getReason());
+  }
+
   @Test
   @DisplayName("Check toString is overriden")
   void checkToStringIsOverriden() {
@@ -111,6 +162,16 @@ public class InputValidatorTest {
     assertTrue(description.contains("data") && description.contains("validation"));
   }
   
+  private static List<String> repairRecord(final String modelName, final String locoNumber,
+                                           final String firstDate, final String secondDate) {
+    final List<String> row = new ArrayList<>(Collections.nCopies(19, ""));
+    row.set(0, modelName);
+    row.set(1, locoNumber);
+    row.set(2, firstDate);
+    row.set(3, secondDate);
+    return row;
+  }
+
   private static Stream<String> provideBadLocoNumbers() {
     return Stream.of(null, "", "abc", "1a", "-s0", "abc0", "1/2", "12 56", "123-123", "/", "1'2");
   }
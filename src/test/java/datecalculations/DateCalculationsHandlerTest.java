@@ -6,9 +6,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -31,10 +31,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.ArgumentCaptor;
 
 import dbapi.DbManager;
 import gui.GuiManager;
+import gui.tablemodels.TableChangeCoalescer;
 import gui.utility.DialogWindow;
 
 /*
@@ -50,6 +50,7 @@ public class DateCalculationsHandlerTest {
   private static Map<Integer, List<String>> repairRecordsMock;
   private static Map<String, List<Integer>> repairPeriodsMock;
   private static AbstractTableModel repairRecordsTableModelMock;
+  private static TableChangeCoalescer changeCoalescerMock;
   private static JTable repairRecordsTableMock;
   private static List<Integer> periodsData;
   private static int rowIndex;
@@ -118,6 +119,7 @@ public class DateCalculationsHandlerTest {
     guiManagerMock = mock(GuiManager.class);
     repairRecordsTableModelMock = mock(AbstractTableModel.class);
     repairRecordsTableMock = mock(JTable.class);
+    changeCoalescerMock = mock(TableChangeCoalescer.class);
     
     when(repairRecordsMock.get(anyInt())).thenReturn(recordData);
     when(repairPeriodsMock.get("ТЭМ")).thenReturn(periodsData);
@@ -126,6 +128,7 @@ public class DateCalculationsHandlerTest {
     
     when(guiManagerMock.getRepairRecordsTable()).thenReturn(repairRecordsTableMock);
     when(repairRecordsTableMock.getModel()).thenReturn(repairRecordsTableModelMock);
+    when(guiManagerMock.getRecordsChangeCoalescer()).thenReturn(changeCoalescerMock);
     
     dateCalculationsHandler = new DateCalculationsHandler(
         guiManagerMock, dbManagerMock, requiredRepairHandlerMock, dialogWindowMock);
@@ -189,7 +192,9 @@ public class DateCalculationsHandlerTest {
   @MethodSource("provideInvalidIndices")
   @DisplayName("Check does nothing on invalid column index")
   void checkDoesNothingOnInvalidColumnIndex(final int colIndex) {
-    dateCalculationsHandler.handleDateCalculations("01.01.2000", rowIndex, colIndex, today);
+    final RecordPatch patch = new RecordPatch(rowIndex / 2, recordData);
+    dateCalculationsHandler.handleDateCalculations("01.01.2000", rowIndex, colIndex, today, patch);
+    assertTrue(patch.isEmpty());
     verify(dbManagerMock, never()).setRepairRecordCell(anyInt(), anyInt(), anyString());
   }
   
@@ -236,20 +241,18 @@ public class DateCalculationsHandlerTest {
   }
   
   private void verifyCorrectnessAlgorithm(final String lastRepairString, final int colIndex) {
-    dateCalculationsHandler.handleDateCalculations(lastRepairString, rowIndex, colIndex, today);
+    final RecordPatch patch = new RecordPatch(rowIndex / 2, recordData);
+    dateCalculationsHandler
+        .handleDateCalculations(lastRepairString, rowIndex, colIndex, today, patch);
     
-    final ArgumentCaptor<String> strArg = ArgumentCaptor.forClass(String.class);
-    final ArgumentCaptor<Integer> intArg = ArgumentCaptor.forClass(Integer.class);
-    verify(
-        dbManagerMock, times(colIndex - 1))
-        .setRepairRecordCell(anyInt(), intArg.capture(), strArg.capture());
-    final List<String> actualStrings = strArg.getAllValues();
-    final List<Integer> actualInts = intArg.getAllValues();
-    final int n = actualStrings.size() - 1;
-    for (int j = 0; j < actualStrings.size(); j++) {
-      assertEquals(correctStrings.get(lastRepairString).get(n - j), actualStrings.get(j));
-      assertEquals(expectedColumnIndices.get(n - j), actualInts.get(j));
+    final Map<Integer, String> actualChanges = patch.getChanges();
+    assertEquals(colIndex - 1, actualChanges.size());
+    for (int j = 0; j < colIndex - 1; j++) {
+      assertEquals(correctStrings.get(lastRepairString).get(j),
+                   actualChanges.get(expectedColumnIndices.get(j)));
     }
+    verify(dbManagerMock, never()).setRepairRecordCell(anyInt(), anyInt(), anyString());
+    verify(requiredRepairHandlerMock).updateRequiredRepairValues(any(RecordPatch.class), eq(today));
   }
   
   /**
@@ -273,34 +276,16 @@ public class DateCalculationsHandlerTest {
   @MethodSource("provideColumnsIndices")
   @DisplayName("Check fire table invocations")
   void checkFireTableInvocations(final int columnIndex) {
-    dateCalculationsHandler.handleDateCalculations("01.01.2000", rowIndex, columnIndex, today);
-    final ArgumentCaptor<Integer> rowCaptor = ArgumentCaptor.forClass(Integer.class);
-    final ArgumentCaptor<Integer> colCaptor = ArgumentCaptor.forClass(Integer.class);
-    verify(repairRecordsTableModelMock, times(columnIndex + 1))
-        .fireTableCellUpdated(rowCaptor.capture(), colCaptor.capture());
-    
-    final List<Integer> expectedColIndices = new ArrayList<>(columnIndex - 1);
-    Stream.iterate(columnIndex, i -> --i).limit(columnIndex - 1).forEach(expectedColIndices::add);
-    final List<Integer> actualColIndices = colCaptor.getAllValues();
-    final List<Integer> actualRowIndices = rowCaptor.getAllValues();
-    
-    // Fire next repair dates updated (exclude required repair column from loop).
-    rowIndex++;
-    int tempInt = actualRowIndices.size() - 2;
-    for (int j = 0; j < tempInt; j++) {
-      assertEquals(rowIndex, actualRowIndices.get(j));
-      assertEquals(expectedColIndices.get(j), actualColIndices.get(j));
-    }
-    // Fire required repair column updated.
-    rowIndex--;
-    for (; tempInt < actualRowIndices.size(); tempInt++) {
-      assertEquals(rowIndex++, actualRowIndices.get(tempInt));
-      assertEquals(9, actualColIndices.get(tempInt));
-    }
+    dateCalculationsHandler.handleDateCalculations(
+        "01.01.2000", rowIndex, columnIndex, today, new RecordPatch(rowIndex / 2, recordData));
+    verify(changeCoalescerMock).cellsUpdated(rowIndex + 1, 2, columnIndex);
+    verify(changeCoalescerMock).cellsUpdated(rowIndex, 9, 9);
+    verify(changeCoalescerMock).cellsUpdated(rowIndex + 1, 9, 9);
+    verify(repairRecordsTableModelMock, never()).fireTableCellUpdated(anyInt(), anyInt());
   }
   
   /**
-   * Checks that only one call to DB was performed by calculations handler if old dates is
+   * Checks that only one value was changed by calculations handler if old dates is
    * bigger than auto calculated next repair dates.
    * @param columnIndex for repair type
    */
@@ -334,29 +319,47 @@ public class DateCalculationsHandlerTest {
     
     final DateCalculationsHandler handler = new DateCalculationsHandler(
                   guiManagerMock, dbManager, requiredRepairHandlerMock, dialogWindowMock);
-    handler.handleDateCalculations("01.01.2000", rowIndex, columnIndex, today);
+    final RecordPatch patch = new RecordPatch(rowIndex / 2, recordData1);
+    handler.handleDateCalculations("01.01.2000", rowIndex, columnIndex, today, patch);
     
-    verify(dbManager, times(1)).setRepairRecordCell(anyInt(), anyInt(), anyString());
+    assertEquals(1, patch.getChanges().size());
+    assertEquals("31.12.2099", recordData1.get(columnIndex * 2 - 1));
   }
   
   @ParameterizedTest
   @MethodSource("provideColumnsIndices")
   @DisplayName("Check user informed if lastRepairDate is after today")
   void checkUserInformedIfLastRepairDateIsAfterToday(final int columnIndex) {
+    dateCalculationsHandler.handleDateCalculations("02.01.2000", rowIndex, columnIndex,
+        LocalDate.of(2000, 1, 01), new RecordPatch(rowIndex / 2, recordData));
+    verifyNoInteractions(dialogWindowMock);
+    
     dateCalculationsHandler
-        .handleDateCalculations("02.01.2000", rowIndex, columnIndex, LocalDate.of(2000, 1, 01));
+        .informUserIfLastRepairDateIsAfterToday("02.01.2000", LocalDate.of(2000, 1, 01));
     verify(dialogWindowMock).showInfoMessage(any(), anyString(), anyString());
   }
   
-  @ParameterizedTest
-  @MethodSource("provideColumnsIndices")
+  @Test
   @DisplayName("Check no dialog window if lastRepairDate is not after today")
-  void checkNoDialogWindowIfLastRepairDateIsNotAfterToday(final int columnIndex) {
+  void checkNoDialogWindowIfLastRepairDateIsNotAfterToday() {
+    dateCalculationsHandler
+        .informUserIfLastRepairDateIsAfterToday("01.01.2000", LocalDate.of(2000, 1, 02));
     dateCalculationsHandler
-        .handleDateCalculations("01.01.2000", rowIndex, columnIndex, LocalDate.of(2000, 1, 02));
+        .informUserIfLastRepairDateIsAfterToday("02.01.2000", LocalDate.of(2000, 1, 02));
     verifyNoInteractions(dialogWindowMock);
   }
   
+  @Test
+  @DisplayName("Check overdue state is applied through required repair handler")
+  void checkOverdueStateIsAppliedThroughRequiredRepairHandler() {
+    final RecordPatch patch = new RecordPatch(rowIndex / 2, recordData);
+    dateCalculationsHandler.handleDateCalculations("01.01.2000", rowIndex, 2, today, patch);
+    verify(requiredRepairHandlerMock, never()).applyOverdueState(any());
+    
+    dateCalculationsHandler.applyOverdueState(patch);
+    verify(requiredRepairHandlerMock).applyOverdueState(patch);
+  }
+  
   @Test
   @DisplayName("Check toString is overriden")
   void checkToStringIsOverriden() {
@@ -0,0 +1,117 @@
+package datecalculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class DateCodecTest {
+  private static DateTimeFormatter formatter;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+    formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideDates")
+  @DisplayName("Parse and format agree with DateTimeFormatter")
+  void parseAndFormatAgreeWithDateTimeFormatter(final LocalDate date) {
+    final String dateString = date.format(formatter);
+
+    assertEquals(date.toEpochDay(), DateCodec.parse(dateString));
+    assertEquals(dateString, DateCodec.format((int) date.toEpochDay()));
+    assertEquals(date, DateCodec.toLocalDate(DateCodec.parse(dateString)));
+  }
+
+  @Test
+  @DisplayName("Empty values are converted to EMPTY and back")
+  void emptyValuesAreConvertedToEmptyAndBack() {
+    assertEquals(DateCodec.EMPTY, DateCodec.parse(null));
+    assertEquals(DateCodec.EMPTY, DateCodec.parse(""));
+    assertEquals("", DateCodec.format(DateCodec.EMPTY));
+    assertNull(DateCodec.toLocalDate(DateCodec.EMPTY));
+  }
+
+  @Test
+  @DisplayName("Invalid values are rejected")
+  void invalidValuesAreRejected() {
+    assertThrows(DateTimeParseException.class, () -> DateCodec.parse("1.1.2022"));
+    assertThrows(DateTimeParseException.class, () -> DateCodec.parse("01-01-2022"));
+    assertThrows(DateTimeParseException.class, () -> DateCodec.parse("0a.01.2022"));
+    assertThrows(DateTimeParseException.class, () -> DateCodec.parse("30.02.2022"));
+    assertThrows(DateTimeParseException.class, () -> DateCodec.parse("01.13.2022"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideDates")
+  @DisplayName("TryParse agrees with parse on valid dates")
+  void tryParseAgreesWithParseOnValidDates(final LocalDate date) {
+    final String dateString = date.format(formatter);
+
+    assertEquals(DateCodec.parse(dateString), DateCodec.tryParse(dateString));
+    assertTrue(DateCodec.hasDateFormat(dateString));
+  }
+
+  @Test
+  @DisplayName("TryParse returns INVALID instead of throwing exception")
+  void tryParseReturnsInvalidInsteadOfThrowingException() {
+    assertEquals(DateCodec.EMPTY, DateCodec.tryParse(null));
+    assertEquals(DateCodec.EMPTY, DateCodec.tryParse(""));
+    assertEquals(DateCodec.INVALID, DateCodec.tryParse("1.1.2022"));
+    assertEquals(DateCodec.INVALID, DateCodec.tryParse("01-01-2022"));
+    assertEquals(DateCodec.INVALID, DateCodec.tryParse("0a.01.2022"));
+    assertEquals(DateCodec.INVALID, DateCodec.tryParse("30.02.2022"));
+    assertEquals(DateCodec.INVALID, DateCodec.tryParse("29.02.2100"));
+    assertEquals(DateCodec.INVALID, DateCodec.tryParse("00.01.2022"));
+    assertEquals(DateCodec.INVALID, DateCodec.tryParse("01.13.2022"));
+    assertFalse(DateCodec.hasDateFormat("0a.01.2022"));
+  }
+
+  @Test
+  @DisplayName("Formatted strings are reused")
+  void formattedStringsAreReused() {
+    final int epochDay = (int) LocalDate.of(2022, 8, 15).toEpochDay();
+    assertSame(DateCodec.format(epochDay), DateCodec.format(epochDay));
+  }
+
+  private static Stream<Arguments> provideDates() {
+    return Stream.of(
+        Arguments.of(LocalDate.of(2022, 8, 15)),
+        Arguments.of(LocalDate.of(2024, 2, 29)),
+        Arguments.of(LocalDate.of(1970, 1, 1)),
+        Arguments.of(LocalDate.of(1949, 12, 31)),
+        Arguments.of(LocalDate.of(2200, 6, 1)),
+        Arguments.of(LocalDate.of(2000, 12, 31)));
+  }
+
+}
@@ -0,0 +1,129 @@
+package datecalculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import dbapi.DbManager;
+import dbapi.RepairRecordStore;
+
+public class FleetRecomputeServiceTest {
+  private static final int FLEET_SIZE = 10_000;
+  private static ForkJoinPool pool;
+  private RepairRecordStore store;
+  private int[] rowIds;
+  private LocalDate today;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+    pool.shutdown();
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    today = LocalDate.of(2022, 6, 15);
+    store = new RepairRecordStore(FLEET_SIZE);
+    rowIds = new int[FLEET_SIZE];
+    final Random random = new Random(42);
+    for (int j = 0; j < FLEET_SIZE; j++) {
+      final List<String> record = new ArrayList<>(RepairRecordStore.COLUMN_COUNT);
+      record.add("ВЛ11");
+      record.add(String.valueOf(j));
+      for (int k = 0; k < 12; k++) {
+        record.add(random.nextInt(4) == 0 ? ""
+            : DateCodec.format((int) today.toEpochDay() + random.nextInt(400) - 200));
+      }
+      record.add("");
+      record.add("");
+      record.add(j % 3 == 0 ? "ТО-3" : "");
+      record.add(j % 3 == 0 ? DateCodec.format((int) today.toEpochDay() - 300) : "");
+      record.add("");
+      // ids are not ordered to check that order of result follows order of given ids
+      final int rowId = FLEET_SIZE - j;
+      store.add(rowId, record);
+      rowIds[j] = rowId;
+    }
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Parallel recompute gives the same changes as sequential one")
+  void parallelRecomputeGivesSameChangesAsSequential() {
+    final List<RequiredRepairChange> parallel =
+        new FleetRecomputeService(pool, 64).recompute(store, rowIds, today);
+    final List<RequiredRepairChange> sequential =
+        new FleetRecomputeService(pool, FLEET_SIZE).recompute(store, rowIds, today);
+
+    assertEquals(FLEET_SIZE, parallel.size());
+    for (int j = 0; j < FLEET_SIZE; j++) {
+      assertEquals(rowIds[j], parallel.get(j).getRowId());
+      assertEquals(sequential.get(j).isOverdue(), parallel.get(j).isOverdue());
+      assertEquals(sequential.get(j).getChanges(), parallel.get(j).getChanges());
+    }
+  }
+
+  @Test
+  @DisplayName("Recompute agrees with RequiredRepairHandler")
+  void recomputeAgreesWithRequiredRepairHandler() {
+    final List<RequiredRepairChange> changes =
+        new FleetRecomputeService(pool, 64).recompute(store, rowIds, today);
+
+    final Map<Integer, Boolean> overdueRepairsMap = new HashMap<>();
+    final DbManager dbManagerMock = mock(DbManager.class);
+    when(dbManagerMock.getOverdueRepairsMap()).thenReturn(overdueRepairsMap);
+    final RequiredRepairHandler handler = new RequiredRepairHandler(dbManagerMock);
+    for (int j = 0; j < FLEET_SIZE; j++) {
+      final RecordPatch patch = new RecordPatch(rowIds[j], store.getRecord(rowIds[j]));
+      handler.updateRequiredRepairValues(patch, today);
+      handler.applyOverdueState(patch);
+      assertEquals(patch.getChanges(), changes.get(j).getChanges());
+      assertEquals(overdueRepairsMap.getOrDefault(rowIds[j], false), changes.get(j).isOverdue());
+    }
+  }
+
+  @Test
+  @DisplayName("Records are not modified by recompute")
+  void recordsAreNotModifiedByRecompute() {
+    final String requiredRepairDate =
+        store.getString(rowIds[1], RepairRecordStore.REQUIRED_REPAIR_DATE);
+
+    final List<RequiredRepairChange> changes =
+        new FleetRecomputeService(pool, 64).recompute(store, rowIds, today);
+
+    assertEquals(requiredRepairDate,
+        store.getString(rowIds[1], RepairRecordStore.REQUIRED_REPAIR_DATE));
+    assertTrue(changes.stream().anyMatch(RequiredRepairChange::hasChanges));
+  }
+
+  @Test
+  @DisplayName("Empty ids array gives empty result")
+  void emptyIdsArrayGivesEmptyResult() {
+    assertFalse(new FleetRecomputeService(pool, 64)
+        .recompute(store, new int[0], today).iterator().hasNext());
+  }
+
+}
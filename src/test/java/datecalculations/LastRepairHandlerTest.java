@@ -1,5 +1,7 @@
 package datecalculations;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -14,9 +16,6 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import javax.swing.JTable;
-import javax.swing.table.AbstractTableModel;
-
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -28,6 +27,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import dbapi.DbManager;
 import gui.GuiManager;
+import gui.tablemodels.TableChangeCoalescer;
 
 public class LastRepairHandlerTest {
   private static LastRepairHandler lastRepairHandler;
@@ -37,8 +37,7 @@ public class LastRepairHandlerTest {
   private static List<List<String>> datesForTests;
   private static String[] expectedDate;
   private static String[] expectedRepairType;
-  private static AbstractTableModel repairRecordsTableModelMock;
-  private static JTable repairRecordsTableMock;
+  private static TableChangeCoalescer changeCoalescerMock;
   
   @BeforeAll
   protected static void setUpBeforeClass() throws Exception {
@@ -56,15 +55,13 @@ public class LastRepairHandlerTest {
     repairRecordsMock = mock(HashMap.class);
     
     guiManagerMock = mock(GuiManager.class);
-    repairRecordsTableModelMock = mock(AbstractTableModel.class);
-    repairRecordsTableMock = mock(JTable.class);
+    changeCoalescerMock = mock(TableChangeCoalescer.class);
     
     when(repairRecordsMock.get(anyInt())).thenAnswer(i -> datesForTests.get(i.getArgument(0)));
     when(dbManagerMock.getAllRepairRecords()).thenReturn(repairRecordsMock);
     when(dbManagerMock.getIdByOrdinalNumber(anyInt())).thenAnswer(i -> (i.getArgument(0)));
     
-    when(guiManagerMock.getRepairRecordsTable()).thenReturn(repairRecordsTableMock);
-    when(repairRecordsTableMock.getModel()).thenReturn(repairRecordsTableModelMock);
+    when(guiManagerMock.getRecordsChangeCoalescer()).thenReturn(changeCoalescerMock);
     
     lastRepairHandler = new LastRepairHandler(guiManagerMock, dbManagerMock);
   }
@@ -121,13 +118,15 @@ public class LastRepairHandlerTest {
   @ValueSource(ints = {0, 2, 4, 6})
   @DisplayName("Handler updates and fires date and type")
   void handlerUpdatesAndFiresDateAndType(final int rowIndex) {
-    lastRepairHandler.updateLastRepairColumn(rowIndex);
+    final RecordPatch patch = new RecordPatch(rowIndex / 2, datesForTests.get(rowIndex / 2));
+    lastRepairHandler.updateLastRepairColumn(rowIndex, patch);
     
-    verify(dbManagerMock).setRepairRecordCell(rowIndex / 2, 14, expectedRepairType[rowIndex / 2]);
-    verify(dbManagerMock).setRepairRecordCell(rowIndex / 2, 15, expectedDate[rowIndex / 2]);
+    assertEquals(expectedRepairType[rowIndex / 2], patch.getChanges().get(14));
+    assertEquals(expectedDate[rowIndex / 2], patch.getChanges().get(15));
+    verify(dbManagerMock, never()).setRepairRecordCell(anyInt(), anyInt(), anyString());
     
-    verify(repairRecordsTableModelMock).fireTableCellUpdated(rowIndex, 8);
-    verify(repairRecordsTableModelMock).fireTableCellUpdated(rowIndex + 1, 8);
+    verify(changeCoalescerMock).cellUpdated(rowIndex, 8);
+    verify(changeCoalescerMock).cellUpdated(rowIndex + 1, 8);
   }
   
   @Test
@@ -137,12 +136,13 @@ public class LastRepairHandlerTest {
     for (int j = 0; j < 19; j++) {
       tempList.add("01.01.2000");
     }
-    when(repairRecordsMock.get(0)).thenReturn(tempList);
+    final RecordPatch patch = new RecordPatch(0, tempList);
     
-    lastRepairHandler.updateLastRepairColumn(0);
+    lastRepairHandler.updateLastRepairColumn(0, patch);
     
+    assertTrue(patch.isEmpty());
     verify(dbManagerMock, never()).setRepairRecordCell(anyInt(), anyInt(), anyString());
-    verify(repairRecordsTableModelMock, never()).fireTableCellUpdated(anyInt(), anyInt());
+    verify(changeCoalescerMock, never()).cellUpdated(anyInt(), anyInt());
   }
 
 }
\ No newline at end of file
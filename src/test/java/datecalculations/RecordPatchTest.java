@@ -0,0 +1,74 @@
+package datecalculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RecordPatchTest {
+  private static List<String> recordData;
+  private RecordPatch patch;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    recordData = Stream.generate(() -> "01.01.2000")
+        .limit(19)
+        .collect(Collectors.toCollection(ArrayList::new));
+    patch = new RecordPatch(5, recordData);
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("New patch is empty and returns original values")
+  void newPatchIsEmptyAndReturnsOriginalValues() {
+    assertTrue(patch.isEmpty());
+    assertEquals(5, patch.getRowId());
+    assertEquals("01.01.2000", patch.get(3));
+  }
+
+  @Test
+  @DisplayName("Patch returns changed value and keeps original data untouched")
+  void patchReturnsChangedValueAndKeepsOriginalDataUntouched() {
+    patch.set(3, "02.02.2002");
+
+    assertFalse(patch.isEmpty());
+    assertEquals("02.02.2002", patch.get(3));
+    assertEquals("01.01.2000", recordData.get(3));
+  }
+
+  @Test
+  @DisplayName("Changes are ordered by column index and read-only")
+  void changesAreOrderedByColumnIndexAndReadOnly() {
+    patch.set(17, "03.03.2003");
+    patch.set(3, "02.02.2002");
+    patch.set(3, "04.04.2004");
+
+    assertEquals("[3, 17]", patch.getChanges().keySet().toString());
+    assertEquals("04.04.2004", patch.getChanges().get(3));
+    assertThrows(UnsupportedOperationException.class, () -> patch.getChanges().put(1, ""));
+  }
+
+}
@@ -0,0 +1,117 @@
+package datecalculations;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RepairCascadeTest {
+  private static int[] periods;
+  private static int lastRepairDay;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+    periods = RepairCascade.toPeriodTable(Arrays.asList(30, 225, 450, 900, 2160, 4320));
+    lastRepairDay = DateCodec.parse("01.01.1980");
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Empty next dates of performed and smaller repairs are filled")
+  void emptyNextDatesOfPerformedAndSmallerRepairsAreFilled() {
+    final int[] nextRepairsDays = new int[6];
+    Arrays.fill(nextRepairsDays, DateCodec.EMPTY);
+
+    final int changes = RepairCascade.apply(lastRepairDay, 3, periods, nextRepairsDays);
+
+    assertEquals(0b1111, changes);
+    assertArrayEquals(new int[] {lastRepairDay + 30, lastRepairDay + 225, lastRepairDay + 450,
+        lastRepairDay + 900, DateCodec.EMPTY, DateCodec.EMPTY}, nextRepairsDays);
+  }
+
+  @Test
+  @DisplayName("Later next dates of smaller repairs are kept")
+  void laterNextDatesOfSmallerRepairsAreKept() {
+    final int laterDay = lastRepairDay + 10_000;
+    final int[] nextRepairsDays = new int[6];
+    Arrays.fill(nextRepairsDays, laterDay);
+    nextRepairsDays[1] = lastRepairDay;
+
+    final int changes = RepairCascade.apply(lastRepairDay, 4, periods, nextRepairsDays);
+
+    assertTrue(RepairCascade.isChanged(changes, 4));
+    assertTrue(RepairCascade.isChanged(changes, 1));
+    assertFalse(RepairCascade.isChanged(changes, 0));
+    assertFalse(RepairCascade.isChanged(changes, 5));
+    assertArrayEquals(new int[] {laterDay, lastRepairDay + 225, laterDay, laterDay,
+        lastRepairDay + 2160, laterDay}, nextRepairsDays);
+  }
+
+  @Test
+  @DisplayName("Patch receives formatted next dates in change vector")
+  void patchReceivesFormattedNextDatesInChangeVector() {
+    final List<String> recordData = new ArrayList<>(Collections.nCopies(19, ""));
+    recordData.set(0, "ТЭМ");
+    recordData.set(3, "31.12.2099");
+    final RecordPatch patch = new RecordPatch(1, recordData);
+
+    final int changes = RepairCascade.applyTo(patch, lastRepairDay, 2, periods);
+
+    assertEquals(0b110, changes);
+    assertEquals(2, patch.getChanges().size());
+    assertEquals("13.08.1980", patch.getChanges().get(5));
+    assertEquals("26.03.1981", patch.getChanges().get(7));
+  }
+
+  @Test
+  @DisplayName("Invalid next date of performed repair is not read")
+  void invalidNextDateOfPerformedRepairIsNotRead() {
+    final List<String> recordData = new ArrayList<>(Collections.nCopies(19, ""));
+    recordData.set(5, "31.12.2099");
+    recordData.set(7, "not a date");
+    final RecordPatch patch = new RecordPatch(1, recordData);
+
+    final int changes = RepairCascade.applyTo(patch, lastRepairDay, 2, periods);
+
+    assertEquals(0b101, changes);
+    assertEquals("26.03.1981", patch.getChanges().get(7));
+    assertEquals("31.01.1980", patch.getChanges().get(3));
+  }
+
+  @Test
+  @DisplayName("Period table keeps order of repair types")
+  void periodTableKeepsOrderOfRepairTypes() {
+    assertArrayEquals(new int[] {30, 225, 450, 900, 2160, 4320}, periods);
+  }
+
+  @Test
+  @DisplayName("Next date columns follow repair records layout")
+  void nextDateColumnsFollowRepairRecordsLayout() {
+    assertEquals(3, RepairCascade.nextRepairDateColumn(0));
+    assertEquals(13, RepairCascade.nextRepairDateColumn(5));
+  }
+
+}
@@ -0,0 +1,90 @@
+package datecalculations;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RequiredRepairCalculatorTest {
+  private static final int E = DateCodec.EMPTY;
+  private RequiredRepairCalculator calculator;
+  private long todayDay;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    calculator = new RequiredRepairCalculator();
+    todayDay = LocalDate.of(2022, 6, 15).toEpochDay();
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("No required repair is calculated without next repair dates")
+  void noRequiredRepairWithoutNextRepairDates() {
+    assertNull(calculator.calculate(new int[] {E, E, E, E, E, E}, todayDay));
+  }
+
+  @Test
+  @DisplayName("Overdue repair of the biggest caliber is required")
+  void overdueRepairOfBiggestCaliberIsRequired() {
+    final int[] days = {day(2022, 6, 1), day(2022, 5, 1), E, day(2022, 7, 1), E, E};
+
+    final RequiredRepair requiredRepair = calculator.calculate(days, todayDay);
+
+    assertEquals(1, requiredRepair.getRepairTypeIndex());
+    assertEquals("ТР-1", requiredRepair.getRepairName());
+    assertEquals(day(2022, 5, 1), requiredRepair.getEpochDay());
+    assertTrue(requiredRepair.isOverdue());
+  }
+
+  @Test
+  @DisplayName("Biggest caliber repair within the month of the nearest repair is required")
+  void biggestCaliberRepairWithinMonthOfNearestRepairIsRequired() {
+    final int[] days = {day(2022, 7, 2), day(2022, 7, 30), day(2022, 8, 1), E, E, E};
+
+    final RequiredRepair requiredRepair = calculator.calculate(days, todayDay);
+
+    assertEquals(1, requiredRepair.getRepairTypeIndex());
+    assertEquals(day(2022, 7, 30), requiredRepair.getEpochDay());
+    assertFalse(requiredRepair.isOverdue());
+  }
+
+  @Test
+  @DisplayName("Next repair dates are recalculated after performed repair")
+  void nextRepairDatesAreRecalculatedAfterPerformedRepair() {
+    final int[] periods = {30, 60, 90, 120, 150, 180};
+    final int lastRepairDay = day(2022, 6, 1);
+    final int[] current = {lastRepairDay + 100, E, day(2022, 6, 20), E, day(2023, 1, 1), E};
+
+    final int[] next = calculator.calculateNextRepairsDays(lastRepairDay, 2, periods, current);
+
+    assertArrayEquals(new int[] {lastRepairDay + 100, lastRepairDay + 60, lastRepairDay + 90, E,
+        day(2023, 1, 1), E}, next);
+    assertEquals(day(2022, 6, 20), current[2]);
+  }
+
+  private static int day(final int year, final int month, final int dayOfMonth) {
+    return (int) LocalDate.of(year, month, dayOfMonth).toEpochDay();
+  }
+
+}
@@ -1,7 +1,10 @@
 package datecalculations;
 
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -12,6 +15,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -59,7 +63,8 @@ public class RequiredRepairHandlerTest {
     when(repairRecordsMock.get(anyInt())).thenReturn(null);
     when(repairRecordsMock.get(anyInt())).thenAnswer(i -> testRecordData.get(i.getArgument(0)));
     when(dbManagerMock.getAllRepairRecords()).thenReturn(repairRecordsMock);
-    when(dbManagerMock.getOverdueRepairsMap()).thenReturn(overdueRepairsMapMock);
+    // Not used when values fail to be written
+    lenient().when(dbManagerMock.getOverdueRepairsMap()).thenReturn(overdueRepairsMapMock);
     
     requiredRepairHandler = new RequiredRepairHandler(dbManagerMock);
   }
@@ -72,15 +77,33 @@ public class RequiredRepairHandlerTest {
   @MethodSource("provideRowIndices")
   @DisplayName("Check correctness of update required repair values")
   void checkCorrectnessOfUpdateRequiredRepairValues(final int rowId) {
+    if (expectedCallsNumber[rowId] != 0) {
+      when(dbManagerMock.updateRepairRecordCells(anyInt(), anyMap())).thenReturn(true);
+    }
     requiredRepairHandler.updateRequiredRepairValues(rowId, today);
     verify(overdueRepairsMapMock).put(rowId, expectedIsOverdueValue[rowId]);
     
+    verify(dbManagerMock, never()).setRepairRecordCell(anyInt(), anyInt(), anyString());
     if (expectedCallsNumber[rowId] == 0) {
-      verify(dbManagerMock, never()).setRepairRecordCell(anyInt(), anyInt(), anyString());
+      verify(dbManagerMock, never()).updateRepairRecordCells(anyInt(), anyMap());
     } else {
-      verify(dbManagerMock).setRepairRecordCell(rowId, 16, expectedRepairType[rowId]);
-      verify(dbManagerMock).setRepairRecordCell(rowId, 17, expectedDate[rowId]);
+      final Map<Integer, String> expectedChanges = new TreeMap<>();
+      expectedChanges.put(16, expectedRepairType[rowId]);
+      expectedChanges.put(17, expectedDate[rowId]);
+      verify(dbManagerMock).updateRepairRecordCells(rowId, expectedChanges);
+    }
+  }
+  
+  @ParameterizedTest
+  @MethodSource("provideRowIndices")
+  @DisplayName("Check overdue state is not applied if values not written")
+  void checkOverdueStateIsNotAppliedIfValuesNotWritten(final int rowId) {
+    if (expectedCallsNumber[rowId] == 0) {
+      return;
     }
+    when(dbManagerMock.updateRepairRecordCells(anyInt(), anyMap())).thenReturn(false);
+    requiredRepairHandler.updateRequiredRepairValues(rowId, today);
+    verify(overdueRepairsMapMock, never()).put(anyInt(), anyBoolean());
   }
   
   private static Stream<Integer> provideRowIndices() {
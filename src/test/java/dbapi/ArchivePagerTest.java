@@ -0,0 +1,176 @@
+package dbapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ArchivePagerTest {
+  private static final int PAGE_SIZE = 2;
+  private PreparedStatementCache statementCacheMock;
+  private PreparedStatement pageStatementMock;
+  private PreparedStatement idStatementMock;
+  private PreparedStatement countStatementMock;
+  private ArchivePager archivePager;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    statementCacheMock = mock(PreparedStatementCache.class);
+    pageStatementMock = mock(PreparedStatement.class);
+    idStatementMock = mock(PreparedStatement.class);
+    countStatementMock = mock(PreparedStatement.class);
+    when(statementCacheMock.get(SqlCommands.AT_PAGE)).thenReturn(pageStatementMock);
+    when(statementCacheMock.get(SqlCommands.AT_ID_AT_OFFSET)).thenReturn(idStatementMock);
+    when(statementCacheMock.get(SqlCommands.AT_COUNT)).thenReturn(countStatementMock);
+    when(pageStatementMock.executeQuery()).thenAnswer(i -> createFullPageResultSet());
+    when(idStatementMock.executeQuery()).thenAnswer(i -> createSingleIntResultSet(41));
+    when(countStatementMock.executeQuery()).thenAnswer(i -> createSingleIntResultSet(7));
+    archivePager = new ArchivePager(statementCacheMock,
+        new StatementTimer(StatementTimer.DEFAULT_SLOW_THRESHOLD_MILLIS), PAGE_SIZE, 2);
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Count is queried once and cached")
+  void countIsQueriedOnceAndCached() throws SQLException {
+    assertEquals(7, archivePager.getCount());
+    assertEquals(7, archivePager.getCount());
+    verify(countStatementMock, times(1)).executeQuery();
+  }
+
+  @Test
+  @DisplayName("Next page is selected by id of the last row of previous page")
+  void nextPageIsSelectedByIdOfTheLastRowOfPreviousPage() throws SQLException {
+    archivePager.getRows(0, PAGE_SIZE);
+    archivePager.getRows(PAGE_SIZE, PAGE_SIZE);
+
+    verify(pageStatementMock).setInt(1, Integer.MIN_VALUE);
+    verify(pageStatementMock).setInt(1, 20);
+    verify(idStatementMock, never()).executeQuery();
+  }
+
+  @Test
+  @DisplayName("Anchor of distant page is looked up by offset")
+  void anchorOfDistantPageIsLookedUpByOffset() throws SQLException {
+    archivePager.getRows(10 * PAGE_SIZE, PAGE_SIZE);
+
+    verify(idStatementMock).setInt(1, 10 * PAGE_SIZE - 1);
+    verify(pageStatementMock).setInt(1, 41);
+  }
+
+  @Test
+  @DisplayName("Cached page is returned without query")
+  void cachedPageIsReturnedWithoutQuery() throws SQLException {
+    final List<List<String>> first = archivePager.getRows(0, PAGE_SIZE);
+    final List<List<String>> second = archivePager.getRows(0, PAGE_SIZE);
+
+    assertSame(first, second);
+    assertEquals(PAGE_SIZE, first.size());
+    verify(pageStatementMock, times(1)).executeQuery();
+  }
+
+  @Test
+  @DisplayName("Least recently used page is evicted")
+  void leastRecentlyUsedPageIsEvicted() throws SQLException {
+    archivePager.getRows(0, PAGE_SIZE);
+    archivePager.getRows(PAGE_SIZE, PAGE_SIZE);
+    archivePager.getRows(2 * PAGE_SIZE, PAGE_SIZE);
+    archivePager.getRows(0, PAGE_SIZE);
+
+    verify(pageStatementMock, times(4)).executeQuery();
+  }
+
+  @Test
+  @DisplayName("Rows crossing page border are assembled from two pages")
+  void rowsCrossingPageBorderAreAssembledFromTwoPages() throws SQLException {
+    final List<List<String>> rows = archivePager.getRows(1, PAGE_SIZE);
+
+    assertEquals(PAGE_SIZE, rows.size());
+    verify(pageStatementMock, times(2)).executeQuery();
+  }
+
+  @Test
+  @DisplayName("Invalidate forgets cached count and pages")
+  void invalidateForgetsCachedCountAndPages() throws SQLException {
+    archivePager.getCount();
+    archivePager.getRows(0, PAGE_SIZE);
+    archivePager.invalidate();
+    archivePager.getCount();
+    archivePager.getRows(0, PAGE_SIZE);
+
+    verify(countStatementMock, times(2)).executeQuery();
+    verify(pageStatementMock, times(2)).executeQuery();
+    assertTrue(archivePager.toString().contains("pageSize=" + PAGE_SIZE));
+  }
+
+  @Test
+  @DisplayName("Appended row drops cached last page when count is unknown")
+  void appendedRowDropsCachedLastPageWhenCountIsUnknown() throws SQLException {
+    when(pageStatementMock.executeQuery()).thenAnswer(i -> createSingleIntResultSet(10));
+    assertEquals(1, archivePager.getRows(0, PAGE_SIZE).size());
+
+    archivePager.onRowAppended();
+    archivePager.getRows(0, PAGE_SIZE);
+
+    verify(pageStatementMock, times(2)).executeQuery();
+    verify(countStatementMock, never()).executeQuery();
+  }
+
+  @Test
+  @DisplayName("Appended row keeps cached full pages")
+  void appendedRowKeepsCachedFullPages() throws SQLException {
+    archivePager.getRows(0, PAGE_SIZE);
+
+    archivePager.onRowAppended();
+    archivePager.getRows(0, PAGE_SIZE);
+
+    verify(pageStatementMock, times(1)).executeQuery();
+  }
+
+  /**
+   * Creates result set with two rows with ids 10 and 20.
+   */
+  private static ResultSet createFullPageResultSet() throws SQLException {
+    final ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, true, false);
+    when(resultSet.getInt("id")).thenReturn(10, 20);
+    when(resultSet.getString(anyString())).thenReturn("");
+    return resultSet;
+  }
+
+  private static ResultSet createSingleIntResultSet(final int value) throws SQLException {
+    final ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getInt(1)).thenReturn(value);
+    return resultSet;
+  }
+
+}
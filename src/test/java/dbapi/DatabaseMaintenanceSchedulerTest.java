@@ -0,0 +1,177 @@
+package dbapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DatabaseMaintenanceSchedulerTest {
+  private static SqliteConnection sqliteConnectionMock;
+  private static Connection connectionMock;
+  private static Statement statementMock;
+  private static ResultSet resultSetMock;
+  private DatabaseMaintenanceScheduler scheduler;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    sqliteConnectionMock = mock(SqliteConnection.class);
+    connectionMock = mock(Connection.class);
+    statementMock = mock(Statement.class);
+    resultSetMock = mock(ResultSet.class);
+    when(sqliteConnectionMock.getConnection()).thenReturn(connectionMock);
+    when(connectionMock.createStatement()).thenReturn(statementMock);
+    when(statementMock.executeQuery(anyString())).thenReturn(resultSetMock);
+    when(resultSetMock.next()).thenReturn(true);
+    when(sqliteConnectionMock.tryLock()).thenReturn(true);
+    scheduler = new DatabaseMaintenanceScheduler(sqliteConnectionMock, 60, 120, 0.25, 256);
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+    scheduler.stop();
+  }
+
+  @Test
+  @DisplayName("Maintenance does not run until UI is idle long enough")
+  void maintenanceDoesNotRunUntilUiIsIdleLongEnough() {
+    final long now = System.currentTimeMillis();
+    scheduler.recordUserActivity();
+    assertFalse(scheduler.shouldRun(now + 60_000));
+    assertTrue(scheduler.shouldRun(now + 121_000));
+  }
+
+  @Test
+  @DisplayName("Vacuum is skipped while free pages are below threshold")
+  void vacuumIsSkippedWhileFreePagesAreBelowThreshold() {
+    assertEquals(DatabaseMaintenanceScheduler.VacuumType.NONE,
+                 scheduler.chooseVacuum(10_000, 1_000, 0));
+    assertEquals(DatabaseMaintenanceScheduler.VacuumType.NONE,
+                 scheduler.chooseVacuum(400, 200, 0));
+  }
+
+  @Test
+  @DisplayName("Incremental vacuum is chosen in incremental auto-vacuum mode")
+  void incrementalVacuumIsChosenInIncrementalAutoVacuumMode() {
+    assertEquals(DatabaseMaintenanceScheduler.VacuumType.INCREMENTAL,
+                 scheduler.chooseVacuum(10_000, 5_000, 2));
+    assertEquals(DatabaseMaintenanceScheduler.VacuumType.FULL,
+                 scheduler.chooseVacuum(10_000, 5_000, 0));
+  }
+
+  @Test
+  @DisplayName("Maintenance runs full vacuum and optimize when threshold is exceeded")
+  void maintenanceRunsFullVacuumAndOptimizeWhenThresholdIsExceeded() throws SQLException {
+    when(resultSetMock.getLong(1)).thenReturn(10_000L, 5_000L, 0L);
+    scheduler.runMaintenance();
+    verify(statementMock).execute("PRAGMA auto_vacuum=INCREMENTAL;");
+    verify(statementMock).execute("VACUUM;");
+    verify(statementMock).execute("PRAGMA optimize;");
+  }
+
+  @Test
+  @DisplayName("Maintenance runs only optimize when database has little free space")
+  void maintenanceRunsOnlyOptimizeWhenDatabaseHasLittleFreeSpace() throws SQLException {
+    when(resultSetMock.getLong(1)).thenReturn(10_000L, 10L, 0L);
+    scheduler.runMaintenance();
+    verify(statementMock, never()).execute("VACUUM;");
+    verify(statementMock).execute("PRAGMA optimize;");
+  }
+
+  @Test
+  @DisplayName("Maintenance is skipped while connection is in use")
+  void maintenanceIsSkippedWhileConnectionIsInUse() throws SQLException {
+    when(sqliteConnectionMock.tryLock()).thenReturn(false);
+
+    assertFalse(scheduler.runMaintenance());
+
+    verify(sqliteConnectionMock, never()).getConnection();
+    verify(sqliteConnectionMock, never()).unlock();
+  }
+
+  @Test
+  @DisplayName("Maintenance releases connection lock")
+  void maintenanceReleasesConnectionLock() throws SQLException {
+    when(resultSetMock.getLong(1)).thenReturn(10_000L, 10L, 0L);
+
+    assertTrue(scheduler.runMaintenance());
+
+    verify(sqliteConnectionMock).unlock();
+  }
+
+  @Test
+  @DisplayName("Incremental vacuum frees pages in steps")
+  void incrementalVacuumFreesPagesInSteps() throws SQLException {
+    when(resultSetMock.getLong(1)).thenReturn(1_000L, 600L, 2L);
+
+    scheduler.runMaintenance();
+
+    verify(statementMock, times(3)).execute("PRAGMA incremental_vacuum(256);");
+    verify(statementMock).execute("PRAGMA optimize;");
+  }
+
+  @Test
+  @DisplayName("User activity interrupts maintenance after current step")
+  void userActivityInterruptsMaintenanceAfterCurrentStep() throws SQLException {
+    when(resultSetMock.getLong(1)).thenReturn(1_000L, 600L, 2L);
+    when(statementMock.execute("PRAGMA incremental_vacuum(256);")).thenAnswer(invocation -> {
+      Thread.sleep(5);
+      scheduler.recordUserActivity();
+      return false;
+    });
+
+    scheduler.runMaintenance();
+
+    verify(statementMock, times(1)).execute("PRAGMA incremental_vacuum(256);");
+    verify(statementMock, never()).execute("PRAGMA optimize;");
+  }
+
+  @Test
+  @DisplayName("Stop waits for running maintenance")
+  void stopWaitsForRunningMaintenance() throws Exception {
+    final CountDownLatch started = new CountDownLatch(1);
+    final AtomicBoolean finished = new AtomicBoolean();
+    when(resultSetMock.getLong(1)).thenReturn(10_000L, 10L, 0L);
+    when(statementMock.execute("PRAGMA optimize;")).thenAnswer(invocation -> {
+      started.countDown();
+      Thread.sleep(200);
+      finished.set(true);
+      return false;
+    });
+    scheduler = new DatabaseMaintenanceScheduler(sqliteConnectionMock, 1, 0, 0.25, 256);
+    scheduler.start();
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    scheduler.stop();
+
+    assertTrue(finished.get());
+  }
+
+}
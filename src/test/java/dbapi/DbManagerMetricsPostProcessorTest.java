@@ -0,0 +1,71 @@
+package dbapi;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DbManagerMetricsPostProcessorTest {
+  private static DbManager dbManagerMock;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    dbManagerMock = mock(DbManager.class);
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Wrapped DbManager is shut down through proxy on destruction")
+  void wrappedDbManagerIsShutDownOnDestruction() {
+    final DbManagerMetricsPostProcessor postProcessor = new DbManagerMetricsPostProcessor(true);
+    final Object proxy = postProcessor.postProcessAfterInitialization(dbManagerMock, "dbManager");
+
+    assertNotSame(dbManagerMock, proxy);
+    assertTrue(postProcessor.requiresDestruction(proxy));
+    postProcessor.postProcessBeforeDestruction(proxy, "dbManager");
+
+    verify(dbManagerMock).shutdown();
+  }
+
+  @Test
+  @DisplayName("DbManager is not wrapped and not shut down by disabled post processor")
+  void disabledPostProcessorDoesNotWrapOrShutDown() {
+    final DbManagerMetricsPostProcessor postProcessor = new DbManagerMetricsPostProcessor(false);
+    final Object bean = postProcessor.postProcessAfterInitialization(dbManagerMock, "dbManager");
+
+    assertSame(dbManagerMock, bean);
+    assertFalse(postProcessor.requiresDestruction(bean));
+    postProcessor.postProcessBeforeDestruction(bean, "dbManager");
+
+    verify(dbManagerMock, never()).shutdown();
+  }
+
+  @Test
+  @DisplayName("Check toString is overriden")
+  void checkToStringIsOverriden() {
+    final String description = new DbManagerMetricsPostProcessor(true).toString().toLowerCase();
+    assertTrue(description.contains("enabled=true"));
+  }
+
+}
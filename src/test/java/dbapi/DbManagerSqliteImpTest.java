@@ -1,19 +1,34 @@
 package dbapi;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterAll;
@@ -22,6 +37,10 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import datecalculations.DateCodec;
+import exceptions.OutdatedSchemaException;
 
 public class DbManagerSqliteImpTest {
   private static DbManagerSqliteImp dbManager;
@@ -40,11 +59,13 @@ public class DbManagerSqliteImpTest {
   private static PreparedStatement prepStatementMockInsertModelRow;
   private static PreparedStatement preparedStatementInsertArchiveRow;
   private static PreparedStatement preparedStatementMockGetMaxId;
+  private static PreparedStatement prepStatementMockDateColumnType;
   
   private static ResultSet resultSetMockPeriodsData;
   private static ResultSet resultSetMockRecordsData;
   private static ResultSet resultSetMockArchiveData;
   private static ResultSet resultSetMockGetMaxId;
+  private static ResultSet resultSetMockDateColumnType;
   
   @BeforeAll
   protected static void setUpBeforeClass() throws Exception {
@@ -63,10 +84,71 @@ public class DbManagerSqliteImpTest {
   }
   
   @Test
-  @DisplayName("Check vacuum call")
-  void checkVacuumCall() throws SQLException {
+  @DisplayName("Check no vacuum call on instantiation")
+  void checkNoVacuumCallOnInstantiation() throws SQLException {
+    setUpDbManager();
+    verify(prepStatementMockVacuum, never()).executeUpdate();
+  }
+  
+  @Test
+  @DisplayName("Database with text date columns is rejected on instantiation")
+  void databaseWithTextDateColumnsIsRejectedOnInstantiation() throws SQLException {
+    setUpResultSetMocks();
+    when(resultSetMockDateColumnType.getString("type")).thenReturn("TEXT");
+    setUpPreparedStatementMocks();
+    setUpConnectionMock();
+    sqliteConnectionMock = mock(SqliteConnection.class);
+    when(sqliteConnectionMock.getConnection()).thenReturn(connectionMock);
+    
+    assertThrows(OutdatedSchemaException.class,
+        () -> new DbManagerSqliteImp(sqliteConnectionMock));
+    verify(prepStatementMockFetchRecordsData, never()).executeQuery();
+  }
+  
+  @Test
+  @DisplayName("Changed required repair values are written in one batch on instantiation")
+  void changedRequiredRepairValuesAreWrittenInOneBatchOnInstantiation() throws SQLException {
+    final int overdueDay = (int) LocalDate.now().minusDays(1).toEpochDay();
+    setUpResultSetMocks();
+    // Record has only next three maintenance date, which is overdue
+    final String[] lastReadColumn = new String[1];
+    when(resultSetMockRecordsData.getInt(anyString())).thenAnswer(i -> {
+      lastReadColumn[0] = i.getArgument(0);
+      return "next_three_maintenance".equals(lastReadColumn[0]) ? overdueDay : 1;
+    });
+    when(resultSetMockRecordsData.wasNull())
+        .thenAnswer(i -> !"next_three_maintenance".equals(lastReadColumn[0]));
+    setUpPreparedStatementMocks();
+    setUpConnectionMock();
+    final PreparedStatement prepStatementMockUpdateCells = mock(PreparedStatement.class);
+    when(connectionMock.prepareStatement(SqlCommands.rtUpdateCells(Arrays.asList(
+        IndexToColumnNameTranslator.translateForRepairRecordsTable(16),
+        IndexToColumnNameTranslator.translateForRepairRecordsTable(17)))))
+        .thenReturn(prepStatementMockUpdateCells);
+    sqliteConnectionMock = mock(SqliteConnection.class);
+    when(sqliteConnectionMock.getConnection()).thenReturn(connectionMock);
+    
+    dbManager = new DbManagerSqliteImp(sqliteConnectionMock);
+    
+    verify(connectionMock).setAutoCommit(false);
+    verify(prepStatementMockUpdateCells).setString(1, "ТО-3");
+    verify(prepStatementMockUpdateCells).setInt(2, overdueDay);
+    verify(prepStatementMockUpdateCells).setInt(3, 1);
+    verify(prepStatementMockUpdateCells, times(1)).addBatch();
+    verify(prepStatementMockUpdateCells, times(1)).executeBatch();
+    verify(prepStatementMockUpdateCells, never()).executeUpdate();
+    verify(connectionMock).commit();
+    assertEquals("ТО-3", dbManager.getAllRepairRecords().get(1).get(16));
+    assertEquals(overdueDay, dbManager.getRepairRecordStore().getEpochDay(1, 17));
+    assertTrue(dbManager.getOverdueRepairsMap().get(1));
+  }
+  
+  @Test
+  @DisplayName("Nothing is written on instantiation if required repair values are up to date")
+  void nothingIsWrittenOnInstantiationIfRequiredRepairValuesAreUpToDate() throws SQLException {
     setUpDbManager();
-    verify(prepStatementMockVacuum).executeUpdate();
+    verify(connectionMock, never()).setAutoCommit(false);
+    verify(connectionMock, never()).commit();
   }
   
   // ============================== Tests for repair records table ==============================
@@ -87,7 +169,7 @@ public class DbManagerSqliteImpTest {
     assertEquals(expectedIsSuccess, actualIsSuccess);
     
     for (int j = 0; j < 19; j++) {
-      verify(prepStatementMockInsertRecordRow).setString(j + 1, testRow.get(j));
+      verifyValueBound(prepStatementMockInsertRecordRow, j + 1, j, testRow.get(j));
     }
     verify(prepStatementMockInsertRecordRow).executeUpdate();
   }
@@ -123,29 +205,45 @@ public class DbManagerSqliteImpTest {
   void setRepairRecordCellSendsCorrectRequestToDb() throws SQLException {
     setUpDbManager();
     final PreparedStatement prepStatementMockUpdateCell = mock(PreparedStatement.class);
-    final String sqlStatement = 
-        "UPDATE repair_records SET " 
-        + IndexToColumnNameTranslator.translateForRepairRecordsTable(2)
-        + " = '15.08.2022' WHERE id = 1";
+    final String sqlStatement = SqlCommands.rtUpdateCell(
+        IndexToColumnNameTranslator.translateForRepairRecordsTable(2));
     when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockUpdateCell);
     
     final boolean actualIsSuccess = dbManager.setRepairRecordCell(1, 2, "15.08.2022");
     final boolean expectedIsSuccess = true;
     assertEquals(expectedIsSuccess, actualIsSuccess);
     
+    verify(prepStatementMockUpdateCell).setInt(1, epochDay("15.08.2022"));
+    verify(prepStatementMockUpdateCell).setInt(2, 1);
     verify(prepStatementMockUpdateCell).executeUpdate();
   }
   
+  @Test
+  @DisplayName("setRepairRecordCell reuses prepared statement")
+  void setRepairRecordCellReusesPreparedStatement() throws SQLException {
+    setUpDbManager();
+    final PreparedStatement prepStatementMockUpdateCell = mock(PreparedStatement.class);
+    final String sqlStatement = SqlCommands.rtUpdateCell(
+        IndexToColumnNameTranslator.translateForRepairRecordsTable(18));
+    when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockUpdateCell);
+    
+    dbManager.setRepairRecordCell(1, 18, "It's fine");
+    dbManager.setRepairRecordCell(1, 18, "Second note");
+    
+    verify(connectionMock, times(1)).prepareStatement(sqlStatement);
+    verify(prepStatementMockUpdateCell).setString(1, "It's fine");
+    verify(prepStatementMockUpdateCell).setString(1, "Second note");
+    verify(prepStatementMockUpdateCell, times(2)).executeUpdate();
+  }
+  
   @Test
   @DisplayName("getAllRepairRecords returns correct data after cell change")
   void getAllRepairRecordsReturnsCorrectDataAfterCellChange () throws SQLException {
     setUpDbManager();
     final PreparedStatement prepStatementMockUpdateCell = mock(PreparedStatement.class);
     final String expectedCellValue = "16.08.2022";
-    final String sqlStatement = 
-        "UPDATE repair_records SET " 
-        + IndexToColumnNameTranslator.translateForRepairRecordsTable(2)
-        + " = '16.08.2022' WHERE id = 1";
+    final String sqlStatement = SqlCommands.rtUpdateCell(
+        IndexToColumnNameTranslator.translateForRepairRecordsTable(2));
     when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockUpdateCell);
     dbManager.setRepairRecordCell(1, 2, expectedCellValue);
     
@@ -153,6 +251,23 @@ public class DbManagerSqliteImpTest {
     assertEquals(expectedCellValue, actualCellValue);
   }
   
+  @Test
+  @DisplayName("getRepairRecordStore returns typed values of the same data")
+  void getRepairRecordStoreReturnsTypedValuesOfTheSameData() throws SQLException {
+    setUpDbManager();
+    final PreparedStatement prepStatementMockUpdateCell = mock(PreparedStatement.class);
+    final String sqlStatement = SqlCommands.rtUpdateCell(
+        IndexToColumnNameTranslator.translateForRepairRecordsTable(2));
+    when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockUpdateCell);
+    dbManager.setRepairRecordCell(1, 2, "16.08.2022");
+    
+    final RepairRecordStore store = dbManager.getRepairRecordStore();
+    assertEquals(LocalDate.of(2022, 8, 16).toEpochDay(), store.getEpochDay(1, 2));
+    assertEquals(DateCodec.EMPTY, store.getEpochDay(1, 3));
+    assertEquals("ТЭМ", store.getModelName(1));
+    assertEquals(dbManager.getAllRepairRecords().get(1).get(0), store.getModelName(1));
+  }
+  
   @Test
   @DisplayName("setRepairRecordCell not crush on bad connection")
   void setRepairRecordCellNotCrushOnBadConnection() throws SQLException {
@@ -171,12 +286,136 @@ public class DbManagerSqliteImpTest {
     final boolean expectedIsSuccess = false;
     assertEquals(expectedIsSuccess, actualIsSuccess);
   }
+
+  @Test
+  @DisplayName("updateRepairRecordCells sends single request to DB in transaction")
+  void updateRepairRecordCellsSendsSingleRequestToDbInTransaction() throws SQLException {
+    setUpDbManager();
+    final PreparedStatement prepStatementMockUpdateCells = mock(PreparedStatement.class);
+    final String sqlStatement = SqlCommands.rtUpdateCells(Arrays.asList(
+        IndexToColumnNameTranslator.translateForRepairRecordsTable(2),
+        IndexToColumnNameTranslator.translateForRepairRecordsTable(3)));
+    when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockUpdateCells);
+    final Map<Integer, String> values = new HashMap<>();
+    values.put(3, "15.09.2022");
+    values.put(2, "15.08.2022");
+
+    final boolean actualIsSuccess = dbManager.updateRepairRecordCells(1, values);
+    final boolean expectedIsSuccess = true;
+    assertEquals(expectedIsSuccess, actualIsSuccess);
+
+    verify(prepStatementMockUpdateCells).setInt(1, epochDay("15.08.2022"));
+    verify(prepStatementMockUpdateCells).setInt(2, epochDay("15.09.2022"));
+    verify(prepStatementMockUpdateCells).setInt(3, 1);
+    verify(prepStatementMockUpdateCells, times(1)).executeUpdate();
+    verify(connectionMock).commit();
+    assertEquals("15.08.2022", dbManager.getAllRepairRecords().get(1).get(2));
+    assertEquals("15.09.2022", dbManager.getAllRepairRecords().get(1).get(3));
+  }
+
+  @Test
+  @DisplayName("updateRepairRecordCells does not change data on bad connection")
+  void updateRepairRecordCellsDoesNotChangeDataOnBadConnection() throws SQLException {
+    setUpDbManagerWithCorruptedConnection();
+    final Map<Integer, String> values = new HashMap<>();
+    values.put(2, "15.08.2022");
+    final boolean actualIsSuccess = dbManagerCorruptedConnection.updateRepairRecordCells(1, values);
+    final boolean expectedIsSuccess = false;
+    assertEquals(expectedIsSuccess, actualIsSuccess);
+    verify(corruptedConnectionMock, never()).commit();
+  }
+
+  @Test
+  @DisplayName("setRepairRecordCell in write-behind mode updates data before DB write")
+  void setRepairRecordCellInWriteBehindModeUpdatesDataBeforeDbWrite() throws SQLException {
+    setUpDbManager("write-behind");
+    final PreparedStatement prepStatementMockUpdateCells = mock(PreparedStatement.class);
+    final String sqlStatement = SqlCommands.rtUpdateCells(Arrays.asList(
+        IndexToColumnNameTranslator.translateForRepairRecordsTable(2)));
+    when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockUpdateCells);
+
+    final boolean actualIsSuccess = dbManager.setRepairRecordCell(1, 2, "15.08.2022");
+    dbManager.setRepairRecordCell(1, 2, "16.08.2022");
+    assertTrue(actualIsSuccess);
+    assertEquals("16.08.2022", dbManager.getAllRepairRecords().get(1).get(2));
+    verify(prepStatementMockUpdateCells, never()).executeUpdate();
+
+    dbManager.shutdown();
+    verify(prepStatementMockUpdateCells).setInt(1, epochDay("16.08.2022"));
+    verify(prepStatementMockUpdateCells).setInt(2, 1);
+    verify(prepStatementMockUpdateCells, times(1)).executeUpdate();
+    verify(connectionMock).commit();
+  }
+
+  @Test
+  @DisplayName("Startup snapshot is discarded if queued changes were not written on shutdown")
+  void startupSnapshotIsDiscardedIfQueuedChangesWereNotWrittenOnShutdown(
+      @TempDir final Path tempDir) throws Exception {
+    final Path snapshotFile = tempDir.resolve("snapshot.bin");
+    Files.write(snapshotFile, new byte[] {1, 2, 3});
+    setUpResultSetMocks();
+    setUpPreparedStatementMocks();
+    setUpConnectionMock();
+    final PreparedStatement prepStatementMockChangeCounter = mock(PreparedStatement.class);
+    final ResultSet resultSetMockChangeCounter = mock(ResultSet.class);
+    when(connectionMock.prepareStatement(SqlCommands.CC_COUNTER))
+        .thenReturn(prepStatementMockChangeCounter);
+    when(prepStatementMockChangeCounter.executeQuery()).thenReturn(resultSetMockChangeCounter);
+    when(resultSetMockChangeCounter.next()).thenReturn(true);
+    when(resultSetMockChangeCounter.getLong("counter")).thenReturn(7L);
+    final PreparedStatement prepStatementMockUpdateCells = mock(PreparedStatement.class);
+    when(connectionMock.prepareStatement(SqlCommands.rtUpdateCells(Arrays.asList(
+        IndexToColumnNameTranslator.translateForRepairRecordsTable(18)))))
+        .thenReturn(prepStatementMockUpdateCells);
+    when(prepStatementMockUpdateCells.executeUpdate()).thenThrow(new SQLException("disk full"));
+    sqliteConnectionMock = mock(SqliteConnection.class);
+    when(sqliteConnectionMock.getConnection()).thenReturn(connectionMock);
+    dbManager = new DbManagerSqliteImp(sqliteConnectionMock, "write-behind", 60_000,
+        snapshotFile.toString(), 250, Optional.empty());
+
+    dbManager.setRepairRecordCell(1, 18, "note");
+    dbManager.shutdown();
+
+    verify(prepStatementMockUpdateCells).executeUpdate();
+    assertFalse(Files.exists(snapshotFile));
+  }
+
+  @Test
+  @DisplayName("deleteRepairRecord in write-behind mode writes queued changes first")
+  void deleteRepairRecordInWriteBehindModeWritesQueuedChangesFirst() throws SQLException {
+    setUpDbManager("write-behind");
+    final PreparedStatement prepStatementMockUpdateCells = mock(PreparedStatement.class);
+    final String sqlStatement = SqlCommands.rtUpdateCells(Arrays.asList(
+        IndexToColumnNameTranslator.translateForRepairRecordsTable(18)));
+    when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockUpdateCells);
+    final PreparedStatement prepStatementMockDeleteRecord = mock(PreparedStatement.class);
+    when(connectionMock.prepareStatement(SqlCommands.RT_DELETE_ROW))
+        .thenReturn(prepStatementMockDeleteRecord);
+
+    dbManager.setRepairRecordCell(1, 18, "note");
+    dbManager.deleteRepairRecord(1);
+
+    verify(prepStatementMockUpdateCells).executeUpdate();
+    verify(prepStatementMockDeleteRecord).executeUpdate();
+    dbManager.shutdown();
+  }
+
+  @Test
+  @DisplayName("updateRepairRecordCells not crush on bad colIndex")
+  void updateRepairRecordCellsNotCrushOnBadColIndex() throws SQLException {
+    setUpDbManager();
+    final Map<Integer, String> values = new HashMap<>();
+    values.put(-1, "15.08.2022");
+    final boolean actualIsSuccess = dbManager.updateRepairRecordCells(1, values);
+    final boolean expectedIsSuccess = false;
+    assertEquals(expectedIsSuccess, actualIsSuccess);
+  }
   
   @Test
   @DisplayName("deleteRepairRecord sends correct request to DB")
   void deleteRepairRecordSendsCorrectRequestToDb() throws SQLException {
     setUpDbManager();
-    final String sqlStatement = "DELETE FROM repair_records WHERE id = 1";
+    final String sqlStatement = SqlCommands.RT_DELETE_ROW;
     final PreparedStatement prepStatementMockDeleteRecord = mock(PreparedStatement.class);
     when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockDeleteRecord);
     
@@ -184,6 +423,7 @@ public class DbManagerSqliteImpTest {
     final boolean expectedIsSuccess = true;
     assertEquals(expectedIsSuccess, actualIsSuccess);
     
+    verify(prepStatementMockDeleteRecord).setInt(1, 1);
     verify(prepStatementMockDeleteRecord).executeUpdate();
   }
   
@@ -191,11 +431,12 @@ public class DbManagerSqliteImpTest {
   @DisplayName("deleteRepairRecord writes deleted row in archive")
   void deleteRepairRecordWritesDeletedRowInArchive() throws SQLException {
     setUpDbManager();
-    final String sqlStatement = "DELETE FROM repair_records WHERE id = 1";
+    final String sqlStatement = SqlCommands.RT_DELETE_ROW;
     final PreparedStatement prepStatementMockDeleteRecord = mock(PreparedStatement.class);
     when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockDeleteRecord);
     
-    final List<String> insertToArchiveExpectedData = dbManager.getAllRepairRecords().get(1);
+    final List<String> insertToArchiveExpectedData =
+        new ArrayList<>(dbManager.getAllRepairRecords().get(1));
     dbManager.deleteRepairRecord(1);
     
     for (int j = 0; j < insertToArchiveExpectedData.size(); j++) {
@@ -203,8 +444,8 @@ public class DbManagerSqliteImpTest {
         verify(preparedStatementInsertArchiveRow).setString(15, insertToArchiveExpectedData.get(j));
         break;
       }
-      verify(
-          preparedStatementInsertArchiveRow).setString(j + 1, insertToArchiveExpectedData.get(j));
+      verifyValueBound(
+          preparedStatementInsertArchiveRow, j + 1, j, insertToArchiveExpectedData.get(j));
     }
     verify(preparedStatementInsertArchiveRow).executeUpdate();
   }
@@ -235,7 +476,7 @@ public class DbManagerSqliteImpTest {
     assertEquals(2, dbManager.getRecordsCount());
     
     // After deletion
-    final String sqlStatement = "DELETE FROM repair_records WHERE id = 2";
+    final String sqlStatement = SqlCommands.RT_DELETE_ROW;
     final PreparedStatement prepStatementMockDeleteRecord = mock(PreparedStatement.class);
     when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockDeleteRecord);
     dbManager.deleteRepairRecord(2);
@@ -291,16 +532,16 @@ public class DbManagerSqliteImpTest {
   void setRepairPeriodCellSendsCorrectRequestToDb() throws SQLException {
     setUpDbManager();
     final PreparedStatement prepStatementMockUpdateCell = mock(PreparedStatement.class);
-    final String sqlStatement = 
-        "UPDATE repair_periods SET "
-        + IndexToColumnNameTranslator.translateForRepairPeriodsTable(1)
-        + " = 30 WHERE loco_model_name = 'ТЭМ'";
+    final String sqlStatement = SqlCommands.ptUpdateCell(
+        IndexToColumnNameTranslator.translateForRepairPeriodsTable(1));
     when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockUpdateCell);
     
     final boolean actualIsSuccess = dbManager.setRepairPeriodCell("ТЭМ", 1, 30);
     final boolean expectedIsSuccess = true;
     assertEquals(expectedIsSuccess, actualIsSuccess);
     
+    verify(prepStatementMockUpdateCell).setInt(1, 30);
+    verify(prepStatementMockUpdateCell).setString(2, "ТЭМ");
     verify(prepStatementMockUpdateCell).executeUpdate();
   }
   
@@ -310,10 +551,8 @@ public class DbManagerSqliteImpTest {
     setUpDbManager();
     final PreparedStatement prepStatementMockUpdateCell = mock(PreparedStatement.class);
     final int expectedCellValue = 1500;
-    final String sqlStatement = 
-        "UPDATE repair_periods SET "
-        + IndexToColumnNameTranslator.translateForRepairPeriodsTable(5)
-        + " = 1500 WHERE loco_model_name = 'ТЭМ'";
+    final String sqlStatement = SqlCommands.ptUpdateCell(
+        IndexToColumnNameTranslator.translateForRepairPeriodsTable(5));
     when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockUpdateCell);
     dbManager.setRepairPeriodCell("ТЭМ", 5, expectedCellValue);
     
@@ -344,7 +583,7 @@ public class DbManagerSqliteImpTest {
   @DisplayName("deleteRepairPeriods sends correct request to DB")
   void deleteRepairPeriodsSendsCorrectRequestToDb() throws SQLException {
     setUpDbManager();
-    final String sqlStatement = "DELETE FROM repair_periods WHERE loco_model_name = " + "\"ТЭМ\"";
+    final String sqlStatement = SqlCommands.PT_DELETE_ROW;
     final PreparedStatement prepStatementMockDeleteRecord = mock(PreparedStatement.class);
     when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockDeleteRecord);
     
@@ -352,6 +591,7 @@ public class DbManagerSqliteImpTest {
     final boolean expectedIsSuccess = true;
     assertEquals(expectedIsSuccess, actualIsSuccess);
     
+    verify(prepStatementMockDeleteRecord).setString(1, "ТЭМ");
     verify(prepStatementMockDeleteRecord).executeUpdate();
   }
   
@@ -386,7 +626,7 @@ public class DbManagerSqliteImpTest {
     assertTrue(actualNames[0].equals("ТЭМ"));
     assertTrue(actualNames[1].equals("ТГМ"));
     
-    final String sqlStatement = "DELETE FROM repair_periods WHERE loco_model_name = " + "\"ТГМ\"";
+    final String sqlStatement = SqlCommands.PT_DELETE_ROW;
     final PreparedStatement prepStatementMockDeleteRecord = mock(PreparedStatement.class);
     when(connectionMock.prepareStatement(sqlStatement)).thenReturn(prepStatementMockDeleteRecord);
     dbManager.deleteRepairPeriods("ТГМ");
@@ -396,27 +636,42 @@ public class DbManagerSqliteImpTest {
     assertTrue(actualNames[0].equals("ТЭМ"));
   }
   
+  @Test
+  @DisplayName("Model name index is cached until row insertion")
+  void modelNameIndexIsCachedUntilRowInsertion() throws SQLException {
+    setUpDbManager();
+    final ModelNameIndex modelNameIndex = dbManager.getModelNameIndex();
+    assertSame(modelNameIndex, dbManager.getModelNameIndex());
+    
+    final List<Integer> testRow = new ArrayList<>(6);
+    Stream.generate(() -> 1).limit(6).forEach(testRow::add);
+    dbManager.insertNewModelRepairPeriods("ТГМ", testRow);
+    
+    assertNotSame(modelNameIndex, dbManager.getModelNameIndex());
+    assertEquals(1, dbManager.getModelNameIndex().getRow("ТГМ"));
+  }
+  
   // ============================== Tests for archive records table ==============================
   
   @Test
-  @DisplayName("getAllRecordsArchiveData returns correct data")
-  void getAllRecordsArchiveDataReturnsCorrectData() throws SQLException {
+  @DisplayName("getArchivePage returns correct data")
+  void getArchivePageReturnsCorrectData() throws SQLException {
     setUpDbManager();
     final List<String> expectedData = new ArrayList<>(15);
     expectedData.add("ТГМ4(Б)");
     expectedData.add("0011");
     Stream.generate(() -> "").limit(13).forEach(expectedData::add);
     
-    assertTrue(dbManager.getAllRecordsArchiveData().size() == 1);
-    final List<String> actualData = dbManager.getAllRecordsArchiveData().get(0);
-    assertEquals(expectedData, actualData);
+    final List<List<String>> actualPage = dbManager.getArchivePage(0, 100);
+    assertEquals(1, actualPage.size());
+    assertEquals(expectedData, actualPage.get(0));
   }
   
   @Test
-  @DisplayName("getAllRecordsArchiveData not crush on bad connection")
-  void getAllRecordsArchiveDataNotCrushOnBadConnection() throws SQLException {
+  @DisplayName("getArchivePage not crush on bad connection")
+  void getArchivePageNotCrushOnBadConnection() throws SQLException {
     setUpDbManagerWithCorruptedConnection();
-    dbManagerCorruptedConnection.getAllRecordsArchiveData();
+    assertTrue(dbManagerCorruptedConnection.getArchivePage(0, 100).isEmpty());
   }
   
   @Test
@@ -427,11 +682,10 @@ public class DbManagerSqliteImpTest {
   }
   
   @Test
-  @DisplayName("getAllRecordsArchiveData returns correct data after insertion when initialized")
-  void getAllRecordsArchiveDataReturnsCorrectDataAfterInsertionWhenInitialized()
-      throws SQLException {
+  @DisplayName("getArchivePage reloads last page after insertion")
+  void getArchivePageReloadsLastPageAfterInsertion() throws SQLException {
     setUpDbManager();
-    dbManager.getAllRecordsArchiveData();
+    dbManager.getArchivePage(0, 100);
     
     final List<String> expectedData = new ArrayList<>(19);
     expectedData.add("ТГМ4У");
@@ -441,7 +695,9 @@ public class DbManagerSqliteImpTest {
     Stream.generate(() -> "").limit(15).forEach(expectedData::add);
     
     dbManager.insertNewArchiveRecord(expectedData);
-    assertEquals(expectedData, dbManager.getAllRecordsArchiveData().get(1));
+    dbManager.getArchivePage(0, 100);
+    verify(preparedStatementInsertArchiveRow).executeUpdate();
+    verify(prepStatementMockFetchArchiveData, times(2)).executeQuery();
   }
 
   @Test
@@ -514,6 +770,17 @@ public class DbManagerSqliteImpTest {
    * @throws SQLException
    */
   private void setUpDbManager() throws SQLException {
+    setUpDbManager("sync");
+  }
+  
+  /**
+   * Instantiates dbManager for tests with given write mode.
+   * <p>
+   * In write-behind mode queued changes are written only on explicit flush (e.g. on shutdown).
+   * @param writeMode of dbManager
+   * @throws SQLException
+   */
+  private void setUpDbManager(final String writeMode) throws SQLException {
     setUpResultSetMocks();
     setUpPreparedStatementMocks();
     setUpConnectionMock();
@@ -521,7 +788,7 @@ public class DbManagerSqliteImpTest {
     sqliteConnectionMock = mock(SqliteConnection.class);
     when(sqliteConnectionMock.getConnection()).thenReturn(connectionMock);
     
-    dbManager = new DbManagerSqliteImp(sqliteConnectionMock);
+    dbManager = new DbManagerSqliteImp(sqliteConnectionMock, writeMode, 60_000);
   }
   
   private static void setUpPreparedStatementMocks() throws SQLException {
@@ -533,11 +800,13 @@ public class DbManagerSqliteImpTest {
     prepStatementMockInsertRecordRow = mock(PreparedStatement.class);
     preparedStatementInsertArchiveRow = mock(PreparedStatement.class);
     preparedStatementMockGetMaxId = mock(PreparedStatement.class);
+    prepStatementMockDateColumnType = mock(PreparedStatement.class);
     
     when(prepStatementMockFetchPeriodsData.executeQuery()).thenReturn(resultSetMockPeriodsData);
     when(prepStatementMockFetchRecordsData.executeQuery()).thenReturn(resultSetMockRecordsData);
     when(prepStatementMockFetchArchiveData.executeQuery()).thenReturn(resultSetMockArchiveData);
     when(preparedStatementMockGetMaxId.executeQuery()).thenReturn(resultSetMockGetMaxId);
+    when(prepStatementMockDateColumnType.executeQuery()).thenReturn(resultSetMockDateColumnType);
   }
   
   private static void setUpConnectionMock() throws SQLException {
@@ -548,7 +817,7 @@ public class DbManagerSqliteImpTest {
     when(connectionMock
         .prepareStatement(SqlCommands.RT_ALL_DATA)).thenReturn(prepStatementMockFetchRecordsData);
     when(connectionMock
-        .prepareStatement(SqlCommands.AT_ALL_DATA)).thenReturn(prepStatementMockFetchArchiveData);
+        .prepareStatement(SqlCommands.AT_PAGE)).thenReturn(prepStatementMockFetchArchiveData);
     when(connectionMock
         .prepareStatement(SqlCommands.PT_INSERT_ROW)).thenReturn(prepStatementMockInsertModelRow);
     when(connectionMock
@@ -557,6 +826,8 @@ public class DbManagerSqliteImpTest {
         .prepareStatement(SqlCommands.AT_INSERT_ROW)).thenReturn(preparedStatementInsertArchiveRow);
     when(connectionMock
         .prepareStatement(SqlCommands.RT_MAX_ID)).thenReturn(preparedStatementMockGetMaxId);
+    when(connectionMock.prepareStatement(SqlCommands.RT_DATE_COLUMN_TYPE))
+        .thenReturn(prepStatementMockDateColumnType);
   }
   
   private static void setUpResultSetMocks() throws SQLException  {
@@ -564,6 +835,9 @@ public class DbManagerSqliteImpTest {
     setUpResultSetRecordsDataMock();
     setUpResultSetArchiveDataMock();
     setUpResultSetMockGetMaxId();
+    resultSetMockDateColumnType = mock(ResultSet.class);
+    when(resultSetMockDateColumnType.next()).thenReturn(true);
+    when(resultSetMockDateColumnType.getString("type")).thenReturn("INTEGER");
   }
   
   private static void setUpResultSetPeriodsDataMock() throws SQLException {
@@ -577,6 +851,8 @@ public class DbManagerSqliteImpTest {
     resultSetMockRecordsData = mock(ResultSet.class);
     when(resultSetMockRecordsData.next()).thenReturn(true, false);
     when(resultSetMockRecordsData.getInt(anyString())).thenReturn(1);
+    // Date columns are NULL
+    when(resultSetMockRecordsData.wasNull()).thenReturn(true);
     when(resultSetMockRecordsData.getString(anyString())).thenAnswer(s -> {
       final String columnLabel = s.getArgument(0);
       if (columnLabel.equals("loco_model_name")) {
@@ -592,6 +868,7 @@ public class DbManagerSqliteImpTest {
   private static void setUpResultSetArchiveDataMock() throws SQLException {
     resultSetMockArchiveData = mock(ResultSet.class);
     when(resultSetMockArchiveData.next()).thenReturn(true, false);
+    when(resultSetMockArchiveData.wasNull()).thenReturn(true);
     when(resultSetMockArchiveData.getString(anyString())).thenAnswer(s -> {
       final String columnLabel = s.getArgument(0);
       if (columnLabel.equals("loco_model_name")) {
@@ -609,4 +886,22 @@ public class DbManagerSqliteImpTest {
     when(resultSetMockGetMaxId.getInt("id")).thenReturn(2);
   }
   
+  private static int epochDay(final String date) {
+    return (int) LocalDate.parse(date, DateTimeFormatter.ofPattern("dd.MM.yyyy")).toEpochDay();
+  }
+  
+  /**
+   * Verifies that value of repair records column was bound as epoch day, NULL or string.
+   */
+  private static void verifyValueBound(final PreparedStatement statement,
+      final int parameterIndex, final int columnIndex, final String value) throws SQLException {
+    if (!RepairRecordStore.isDateColumn(columnIndex)) {
+      verify(statement).setString(parameterIndex, value);
+    } else if (value.isEmpty()) {
+      verify(statement).setNull(parameterIndex, Types.INTEGER);
+    } else {
+      verify(statement).setInt(parameterIndex, epochDay(value));
+    }
+  }
+  
 }
@@ -0,0 +1,84 @@
+package dbapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EpochDayColumnsTest {
+  private PreparedStatement statementMock;
+  private ResultSet resultSetMock;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    statementMock = mock(PreparedStatement.class);
+    resultSetMock = mock(ResultSet.class);
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Epoch day is read as formatted date")
+  void epochDayIsReadAsFormattedDate() throws SQLException {
+    when(resultSetMock.getInt("next_overhaul"))
+        .thenReturn((int) LocalDate.of(2022, 8, 15).toEpochDay());
+    when(resultSetMock.wasNull()).thenReturn(false);
+
+    assertEquals("15.08.2022", EpochDayColumns.read(resultSetMock, "next_overhaul"));
+  }
+
+  @Test
+  @DisplayName("NULL is read as empty string")
+  void nullIsReadAsEmptyString() throws SQLException {
+    when(resultSetMock.getInt("next_overhaul")).thenReturn(0);
+    when(resultSetMock.wasNull()).thenReturn(true);
+
+    assertEquals("", EpochDayColumns.read(resultSetMock, "next_overhaul"));
+  }
+
+  @Test
+  @DisplayName("Date is bound as epoch day and empty date as NULL")
+  void dateIsBoundAsEpochDayAndEmptyDateAsNull() throws SQLException {
+    EpochDayColumns.bind(statementMock, 1, "15.08.2022");
+    EpochDayColumns.bind(statementMock, 2, "");
+    EpochDayColumns.bind(statementMock, 3, null);
+
+    verify(statementMock).setInt(1, (int) LocalDate.of(2022, 8, 15).toEpochDay());
+    verify(statementMock).setNull(2, Types.INTEGER);
+    verify(statementMock).setNull(3, Types.INTEGER);
+  }
+
+  @Test
+  @DisplayName("Invalid date is rejected with SQLException")
+  void invalidDateIsRejectedWithSqlException() throws SQLException {
+    assertThrows(SQLException.class, () -> EpochDayColumns.bind(statementMock, 1, "15/08/2022"));
+    verify(statementMock, never()).setInt(anyInt(), anyInt());
+  }
+
+}
@@ -0,0 +1,145 @@
+package dbapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfoService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import datecalculations.DateCodec;
+
+public class FleetGeneratorTest {
+  private static final LocalDate TODAY = LocalDate.of(2022, 10, 18);
+  @TempDir
+  Path tempDir;
+  private Map<String, List<Integer>> repairPeriods;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    repairPeriods = new HashMap<>();
+    repairPeriods.put("ТГМ4", new ArrayList<>(Arrays.asList(30, 180, 540, 1080, 2160, 4320)));
+    repairPeriods.put("ТЭМ2", new ArrayList<>(Arrays.asList(30, 225, 450, 900, 2160, 4320)));
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Same seed and date give the same records")
+  void sameSeedAndDateGiveSameRecords() {
+    final List<List<String>> records =
+        new FleetGenerator(7, TODAY).generateRecords(repairPeriods, 100);
+
+    assertEquals(records, new FleetGenerator(7, TODAY).generateRecords(repairPeriods, 100));
+    assertEquals(100, records.size());
+    assertEquals(RepairRecordStore.COLUMN_COUNT, records.get(0).size());
+  }
+
+  @Test
+  @DisplayName("Generated dates contain overdue, near-due and empty cells")
+  void generatedDatesContainOverdueNearDueAndEmptyCells() {
+    final List<List<String>> records =
+        new FleetGenerator(1, TODAY).generateRecords(repairPeriods, 1_000);
+    final long todayDay = TODAY.toEpochDay();
+    int overdue = 0;
+    int nearDue = 0;
+    int empty = 0;
+    for (final List<String> record : records) {
+      for (int k = 0; k < 6; k++) {
+        final String nextRepairDate = record.get(RepairRecordStore.FIRST_REPAIR_DATE + 2 * k + 1);
+        if (nextRepairDate.isEmpty()) {
+          empty++;
+          continue;
+        }
+        final int nextRepairDay = DateCodec.parse(nextRepairDate);
+        final int lastRepairDay =
+            DateCodec.parse(record.get(RepairRecordStore.FIRST_REPAIR_DATE + 2 * k));
+        assertEquals(repairPeriods.get(record.get(0)).get(k).intValue(),
+            nextRepairDay - lastRepairDay);
+        if (nextRepairDay < todayDay) {
+          overdue++;
+        } else if (nextRepairDay < todayDay + 30) {
+          nearDue++;
+        }
+      }
+    }
+
+    assertTrue(overdue > 300 && overdue < 900, "overdue: " + overdue);
+    assertTrue(nearDue > 400 && nearDue < 1_100, "near-due: " + nearDue);
+    assertTrue(empty > 150 && empty < 600, "empty: " + empty);
+  }
+
+  @Test
+  @DisplayName("Database is created and supplemented with models, records and archive")
+  void databaseIsCreatedAndSupplemented() throws Exception {
+    final Path databaseFile = tempDir.resolve("fleet.db");
+    final int initialModelsCount;
+    try (final Connection connection =
+             DriverManager.getConnection("jdbc:sqlite:" + databaseFile)) {
+      new FleetGenerator(1, TODAY).generate(databaseFile, 0, 12_000, 50);
+      initialModelsCount = count(connection, "repair_periods");
+      assertEquals(12_000, count(connection, "repair_records"));
+      assertEquals(50, count(connection, "records_archive"));
+      assertTrue(initialModelsCount > 0);
+
+      new FleetGenerator(2, TODAY).generate(databaseFile, initialModelsCount + 3, 100, 0);
+      assertEquals(initialModelsCount + 3, count(connection, "repair_periods"));
+      assertEquals(12_100, count(connection, "repair_records"));
+      assertEquals(1, count(connection, "change_counter"));
+    }
+  }
+
+  @Test
+  @DisplayName("Database schema is migrated by Flyway")
+  void databaseSchemaIsMigratedByFlyway() throws Exception {
+    final Path databaseFile = tempDir.resolve("fleet.db");
+
+    new FleetGenerator(1, TODAY).generate(databaseFile, 0, 10, 0);
+
+    final MigrationInfoService migrations = Flyway.configure()
+        .dataSource("jdbc:sqlite:" + databaseFile, null, null)
+        .locations("classpath:db/migration")
+        .load()
+        .info();
+    assertEquals(0, migrations.pending().length);
+    assertTrue(migrations.applied().length > 0);
+  }
+
+  private static int count(final Connection connection, final String table)
+                                                                    throws SQLException {
+    try (final Statement statement = connection.createStatement();
+         final ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+      return resultSet.getInt(1);
+    }
+  }
+
+}
@@ -0,0 +1,69 @@
+package dbapi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ModelNameIndexTest {
+  private Map<String, List<Integer>> repairPeriodsData;
+  private ModelNameIndex modelNameIndex;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    repairPeriodsData = new HashMap<>();
+    repairPeriodsData.put("ТГМ4", new ArrayList<>(Arrays.asList(30, 180, 360, 720, 2160, 4320)));
+    repairPeriodsData.put("ТЭМ2У", new ArrayList<>(Arrays.asList(45, 180, 540, 1080, 2880, 5760)));
+    repairPeriodsData.put("ТЭМ", new ArrayList<>(Arrays.asList(30, 225, 450, 900, 2160, 4320)));
+    modelNameIndex = new ModelNameIndex(repairPeriodsData);
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Model names are sorted in preferred order")
+  void modelNamesAreSortedInPreferredOrder() {
+    final String[] expectedNames = {"ТЭМ", "ТЭМ2У", "ТГМ4"};
+    assertArrayEquals(expectedNames, modelNameIndex.getNames());
+    assertNotSame(modelNameIndex.getNames(), modelNameIndex.getNames());
+    for (int row = 0; row < expectedNames.length; row++) {
+      assertEquals(expectedNames[row], modelNameIndex.getName(row));
+      assertEquals(row, modelNameIndex.getRow(expectedNames[row]));
+    }
+    assertEquals(-1, modelNameIndex.getRow("ВЛ10"));
+    assertEquals(3, modelNameIndex.size());
+  }
+
+  @Test
+  @DisplayName("Changed repair periods are visible without rebuilding")
+  void changedRepairPeriodsAreVisibleWithoutRebuilding() {
+    assertEquals(180, modelNameIndex.getPeriod(1, 1));
+
+    repairPeriodsData.get("ТЭМ2У").set(1, 200);
+
+    assertEquals(200, modelNameIndex.getPeriod(1, 1));
+  }
+
+}
@@ -0,0 +1,168 @@
+package dbapi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class OrdinalIndexTest {
+  private OrdinalIndex ordinalIndex;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    ordinalIndex = new OrdinalIndex(0);
+    for (int id = 1; id <= 5; id++) {
+      ordinalIndex.append(id * 10);
+    }
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Ids are mapped to ordinal numbers in order of appending")
+  void idsAreMappedToOrdinalNumbersInOrderOfAppending() {
+    assertEquals(5, ordinalIndex.size());
+    for (int ordinal = 0; ordinal < 5; ordinal++) {
+      assertEquals((ordinal + 1) * 10, ordinalIndex.getId(ordinal));
+      assertEquals(ordinal, ordinalIndex.getOrdinalNumber((ordinal + 1) * 10));
+    }
+  }
+
+  @Test
+  @DisplayName("Remove shifts following ordinal numbers")
+  void removeShiftsFollowingOrdinalNumbers() {
+    assertEquals(1, ordinalIndex.remove(20));
+
+    assertEquals(4, ordinalIndex.size());
+    assertEquals(10, ordinalIndex.getId(0));
+    assertEquals(30, ordinalIndex.getId(1));
+    assertEquals(50, ordinalIndex.getId(3));
+    assertEquals(3, ordinalIndex.getOrdinalNumber(50));
+    assertFalse(ordinalIndex.contains(20));
+  }
+
+  @Test
+  @DisplayName("Append after remove keeps order")
+  void appendAfterRemoveKeepsOrder() {
+    ordinalIndex.remove(40);
+    ordinalIndex.remove(10);
+    ordinalIndex.append(60);
+
+    assertEquals(4, ordinalIndex.size());
+    assertEquals(20, ordinalIndex.getId(0));
+    assertEquals(50, ordinalIndex.getId(2));
+    assertEquals(60, ordinalIndex.getId(3));
+    assertEquals(3, ordinalIndex.getOrdinalNumber(60));
+  }
+
+  @Test
+  @DisplayName("Gap moves back and forth between removals")
+  void gapMovesBackAndForthBetweenRemovals() {
+    assertEquals(3, ordinalIndex.remove(40));
+    assertEquals(1, ordinalIndex.remove(20));
+    assertEquals(1, ordinalIndex.getOrdinalNumber(30));
+    assertEquals(2, ordinalIndex.getOrdinalNumber(50));
+    assertEquals(2, ordinalIndex.remove(50));
+
+    assertArrayEquals(new int[] {10, 30}, ordinalIndex.toArray());
+    assertEquals(1, ordinalIndex.getOrdinalNumber(30));
+  }
+
+  @Test
+  @DisplayName("Compaction on growth closes the gap and keeps order")
+  void compactionOnGrowthClosesTheGapAndKeepsOrder() {
+    ordinalIndex.remove(20);
+    ordinalIndex.remove(40);
+    final List<Integer> expected = new ArrayList<>(Arrays.asList(10, 30, 50));
+    // Initial capacity is 16, so buffer is compacted while these ids are appended
+    for (int id = 60; id <= 200; id += 10) {
+      ordinalIndex.append(id);
+      expected.add(id);
+    }
+
+    assertEquals(expected.size(), ordinalIndex.size());
+    for (int ordinal = 0; ordinal < expected.size(); ordinal++) {
+      assertEquals(expected.get(ordinal), ordinalIndex.getId(ordinal));
+      assertEquals(ordinal, ordinalIndex.getOrdinalNumber(expected.get(ordinal)));
+    }
+    assertEquals(-1, ordinalIndex.getOrdinalNumber(40));
+  }
+
+  @Test
+  @DisplayName("Remove of missing id changes nothing")
+  void removeOfMissingIdChangesNothing() {
+    assertEquals(-1, ordinalIndex.remove(11));
+    assertEquals(-1, ordinalIndex.remove(1_000_000));
+    assertEquals(5, ordinalIndex.size());
+  }
+
+  @Test
+  @DisplayName("Invalid arguments are rejected")
+  void invalidArgumentsAreRejected() {
+    assertThrows(IndexOutOfBoundsException.class, () -> ordinalIndex.getId(5));
+    assertThrows(IndexOutOfBoundsException.class, () -> ordinalIndex.getId(-1));
+    assertThrows(IllegalArgumentException.class, () -> ordinalIndex.append(30));
+    assertThrows(IllegalArgumentException.class, () -> ordinalIndex.append(-3));
+  }
+
+  @Test
+  @DisplayName("Clear removes all ids")
+  void clearRemovesAllIds() {
+    ordinalIndex.clear();
+
+    assertEquals(0, ordinalIndex.size());
+    assertFalse(ordinalIndex.contains(10));
+    ordinalIndex.append(10);
+    assertEquals(0, ordinalIndex.getOrdinalNumber(10));
+  }
+
+  @Test
+  @DisplayName("Random appends and removes match list behaviour")
+  void randomAppendsAndRemovesMatchListBehaviour() {
+    final Random random = new Random(42);
+    final List<Integer> expected = new ArrayList<>();
+    ordinalIndex.clear();
+    int nextId = 1;
+    for (int step = 0; step < 5_000; step++) {
+      if (expected.isEmpty() || random.nextInt(3) > 0) {
+        expected.add(nextId);
+        ordinalIndex.append(nextId++);
+      } else {
+        final int ordinal = random.nextInt(expected.size());
+        final int id = expected.remove(ordinal);
+        assertEquals(ordinal, ordinalIndex.remove(id));
+      }
+    }
+
+    assertEquals(expected.size(), ordinalIndex.size());
+    for (int ordinal = 0; ordinal < expected.size(); ordinal++) {
+      assertEquals(expected.get(ordinal), ordinalIndex.getId(ordinal));
+      assertEquals(ordinal, ordinalIndex.getOrdinalNumber(expected.get(ordinal)));
+    }
+    assertTrue(ordinalIndex.toString().contains("size=" + expected.size()));
+  }
+
+}
@@ -0,0 +1,65 @@
+package dbapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class PragmaProfileTest {
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"safe", "Balanced", " FAST "})
+  @DisplayName("fromName finds profile ignoring case and spaces")
+  void fromNameFindsProfileIgnoringCaseAndSpaces(final String name) {
+    assertEquals(name.trim().toLowerCase(), PragmaProfile.fromName(name).toString());
+  }
+
+  @Test
+  @DisplayName("fromName throws on unknown name")
+  void fromNameThrowsOnUnknownName() {
+    assertThrows(IllegalArgumentException.class, () -> PragmaProfile.fromName("turbo"));
+  }
+
+  @Test
+  @DisplayName("Every profile enables WAL before other pragmas")
+  void everyProfileEnablesWalBeforeOtherPragmas() {
+    for (final PragmaProfile profile : PragmaProfile.values()) {
+      final List<String> statements = profile.getPragmaStatements();
+      assertEquals("PRAGMA journal_mode=WAL;", statements.get(0));
+      assertTrue(statements.stream().anyMatch(s -> s.startsWith("PRAGMA busy_timeout=")));
+    }
+  }
+
+  @Test
+  @DisplayName("Safe profile syncs every commit")
+  void safeProfileSyncsEveryCommit() {
+    assertTrue(PragmaProfile.SAFE.getPragmaStatements().contains("PRAGMA synchronous=FULL;"));
+  }
+
+}
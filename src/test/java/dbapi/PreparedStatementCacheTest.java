@@ -0,0 +1,105 @@
+package dbapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PreparedStatementCacheTest {
+  private static PreparedStatementCache statementCache;
+  private static SqliteConnection sqliteConnectionMock;
+  private static Connection connectionMock;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    sqliteConnectionMock = mock(SqliteConnection.class);
+    connectionMock = mock(Connection.class);
+    when(sqliteConnectionMock.getConnection()).thenReturn(connectionMock);
+    when(connectionMock.prepareStatement(anyString()))
+        .thenAnswer(i -> mock(PreparedStatement.class));
+    statementCache = new PreparedStatementCache(sqliteConnectionMock);
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+  
+  @Test
+  @DisplayName("get prepares statement only once")
+  void getPreparesStatementOnlyOnce() throws SQLException {
+    final PreparedStatement first = statementCache.get(SqlCommands.RT_DELETE_ROW);
+    final PreparedStatement second = statementCache.get(SqlCommands.RT_DELETE_ROW);
+    
+    assertSame(first, second);
+    verify(connectionMock, times(1)).prepareStatement(SqlCommands.RT_DELETE_ROW);
+    verify(second).clearParameters();
+  }
+  
+  @Test
+  @DisplayName("get keeps separate statement for every column")
+  void getKeepsSeparateStatementForEveryColumn() throws SQLException {
+    final PreparedStatement notes = statementCache.get(SqlCommands.rtUpdateCell("notes"));
+    final PreparedStatement number = statementCache.get(SqlCommands.rtUpdateCell("loco_number"));
+    
+    assertNotSame(notes, number);
+    assertEquals(2, statementCache.size());
+  }
+  
+  @Test
+  @DisplayName("get prepares statements again for new connection")
+  void getPreparesStatementsAgainForNewConnection() throws SQLException {
+    final PreparedStatement first = statementCache.get(SqlCommands.RT_DELETE_ROW);
+    
+    final Connection newConnectionMock = mock(Connection.class);
+    when(newConnectionMock.prepareStatement(anyString()))
+        .thenAnswer(i -> mock(PreparedStatement.class));
+    when(sqliteConnectionMock.getConnection()).thenReturn(newConnectionMock);
+    final PreparedStatement second = statementCache.get(SqlCommands.RT_DELETE_ROW);
+    
+    assertNotSame(first, second);
+    verify(first).close();
+    verify(newConnectionMock).prepareStatement(SqlCommands.RT_DELETE_ROW);
+  }
+  
+  @Test
+  @DisplayName("clear closes all statements")
+  void clearClosesAllStatements() throws SQLException {
+    final PreparedStatement statement = statementCache.get(SqlCommands.PT_DELETE_ROW);
+    statementCache.clear();
+    
+    verify(statement).close();
+    assertEquals(0, statementCache.size());
+  }
+  
+  @Test
+  @DisplayName("Check toString is overriden")
+  void checkToStringIsOverriden() {
+    final String description = statementCache.toString().toLowerCase();
+    assertTrue(description.contains("statements="));
+  }
+
+}
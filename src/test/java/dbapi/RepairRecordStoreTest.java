@@ -0,0 +1,194 @@
+package dbapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import datecalculations.DateCodec;
+
+public class RepairRecordStoreTest {
+  private RepairRecordStore store;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    store = new RepairRecordStore(0);
+    store.add(1, createRecord("ТЭМ2", "0150", "15.08.2022"));
+    store.add(7, createRecord("ТГМ4(Б)", "0011", ""));
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Added record values are returned as strings")
+  void addedRecordValuesAreReturnedAsStrings() {
+    final List<String> expected = createRecord("ТЭМ2", "0150", "15.08.2022");
+    for (int column = 0; column < RepairRecordStore.COLUMN_COUNT; column++) {
+      assertEquals(expected.get(column), store.getString(1, column));
+    }
+    assertEquals(expected, store.getRecord(1));
+    assertEquals(2, store.size());
+  }
+
+  @Test
+  @DisplayName("Dates are available as epoch days")
+  void datesAreAvailableAsEpochDays() {
+    assertEquals(LocalDate.of(2022, 8, 15).toEpochDay(), store.getEpochDay(1, 2));
+    assertEquals(DateCodec.EMPTY, store.getEpochDay(7, 2));
+    assertEquals(LocalDate.of(2022, 10, 1).toEpochDay(),
+                 store.getEpochDay(1, RepairRecordStore.REQUIRED_REPAIR_DATE));
+    assertThrows(IllegalArgumentException.class,
+        () -> store.getEpochDay(1, RepairRecordStore.NOTES));
+  }
+
+  @Test
+  @DisplayName("Set changes value of one column only")
+  void setChangesValueOfOneColumnOnly() {
+    store.setString(1, 3, "01.01.2023");
+    store.setString(1, RepairRecordStore.NOTES, null);
+
+    assertEquals("01.01.2023", store.getString(1, 3));
+    assertEquals("15.08.2022", store.getString(1, 2));
+    assertEquals("", store.getString(1, RepairRecordStore.NOTES));
+    assertEquals("ТГМ4(Б)", store.getModelName(7));
+  }
+
+  @Test
+  @DisplayName("Invalid date string is kept as is and treated as empty date")
+  void invalidDateStringIsKeptAsIs() {
+    store.setString(1, 4, "32.13.2022");
+
+    assertEquals("32.13.2022", store.getString(1, 4));
+    assertEquals(DateCodec.EMPTY, store.getEpochDay(1, 4));
+    store.setString(1, 4, "02.02.2022");
+    assertEquals("02.02.2022", store.getString(1, 4));
+  }
+
+  @Test
+  @DisplayName("Remove keeps other records intact")
+  void removeKeepsOtherRecordsIntact() {
+    store.add(9, createRecord("ЧМЭ3", "5000", "01.02.2021"));
+
+    assertTrue(store.remove(1));
+    assertFalse(store.remove(1));
+    assertFalse(store.contains(1));
+    assertEquals(2, store.size());
+    assertEquals("5000", store.getString(9, RepairRecordStore.LOCO_NUMBER));
+    assertEquals("01.02.2021", store.getString(9, 2));
+    assertEquals("0011", store.getString(7, RepairRecordStore.LOCO_NUMBER));
+    assertThrows(NoSuchElementException.class, () -> store.getString(1, 0));
+    assertNull(store.getRecord(1));
+  }
+
+  @Test
+  @DisplayName("Record view writes changes through")
+  void recordViewWritesChangesThrough() {
+    final List<String> record = store.getRecord(7);
+    assertEquals("", record.set(2, "03.03.2023"));
+
+    assertEquals("03.03.2023", store.getString(7, 2));
+    assertEquals(LocalDate.of(2023, 3, 3).toEpochDay(),
+                 store.getRecord(7).getEpochDay(2));
+  }
+
+  @Test
+  @DisplayName("Map view put returns copy of replaced record")
+  void mapViewPutReturnsCopyOfReplacedRecord() {
+    final Map<Integer, List<String>> map = store.asMap();
+    final List<String> previous = map.put(7, createRecord("ТЭМ2", "0151", ""));
+
+    assertEquals("0011", previous.get(RepairRecordStore.LOCO_NUMBER));
+    assertEquals("0151", map.get(7).get(RepairRecordStore.LOCO_NUMBER));
+    assertNull(map.put(8, createRecord("ТЭМ18", "1000", "")));
+  }
+
+  @Test
+  @DisplayName("Map view supports put, remove and iteration")
+  void mapViewSupportsPutRemoveAndIteration() {
+    final Map<Integer, List<String>> map = store.asMap();
+    map.put(3, createRecord("ТЭМ18", "1000", ""));
+    map.put(1, createRecord("ТЭМ2", "0151", ""));
+
+    assertEquals(3, map.size());
+    assertEquals("0151", map.get(1).get(RepairRecordStore.LOCO_NUMBER));
+    assertTrue(map.containsKey(3));
+    assertNull(map.get(4));
+
+    final List<String> removed = map.remove(7);
+    assertEquals("0011", removed.get(RepairRecordStore.LOCO_NUMBER));
+    assertFalse(map.containsKey(7));
+
+    final Iterator<Map.Entry<Integer, List<String>>> iterator = map.entrySet().iterator();
+    int visited = 0;
+    while (iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+      visited++;
+    }
+    assertEquals(2, visited);
+    assertTrue(map.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Invalid records are rejected")
+  void invalidRecordsAreRejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> store.add(1, createRecord("ТЭМ2", "0150", "")));
+    assertThrows(IllegalArgumentException.class,
+        () -> store.add(-1, createRecord("ТЭМ2", "0150", "")));
+    assertThrows(IllegalArgumentException.class, () -> store.add(2, new ArrayList<>()));
+  }
+
+  @Test
+  @DisplayName("Store grows beyond initial capacity")
+  void storeGrowsBeyondInitialCapacity() {
+    for (int id = 100; id < 1_100; id++) {
+      store.add(id, createRecord("ТЭМ2", String.valueOf(id), "15.08.2022"));
+    }
+    assertEquals(1_002, store.size());
+    assertEquals("1099", store.getString(1_099, RepairRecordStore.LOCO_NUMBER));
+    assertTrue(store.toString().contains("models=2"));
+  }
+
+  private static List<String> createRecord(
+      final String model, final String number, final String lastRepairDate) {
+    final List<String> record = Stream.generate(() -> "")
+        .limit(RepairRecordStore.COLUMN_COUNT)
+        .collect(Collectors.toCollection(ArrayList::new));
+    record.set(RepairRecordStore.MODEL_NAME, model);
+    record.set(RepairRecordStore.LOCO_NUMBER, number);
+    record.set(2, lastRepairDate);
+    record.set(RepairRecordStore.REQUIRED_REPAIR_TYPE, "ТО-3");
+    record.set(RepairRecordStore.REQUIRED_REPAIR_DATE, "01.10.2022");
+    record.set(RepairRecordStore.NOTES, "note " + number);
+    return record;
+  }
+
+}
@@ -1,9 +1,16 @@
 package dbapi;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -30,6 +37,7 @@ public class SqliteConnectionTest {
 
   @AfterEach
   protected void tearDown() throws Exception {
+    sqliteConnection.close();
   }
   
   @Test
@@ -38,6 +46,111 @@ public class SqliteConnectionTest {
     assertNotNull(sqliteConnection.getConnection()); 
   }
   
+  @Test
+  @DisplayName("Same connection is reused between calls")
+  void sameConnectionIsReusedBetweenCalls() throws SQLException {
+    final Connection first = sqliteConnection.getConnection();
+    final Connection second = sqliteConnection.getConnection();
+    assertSame(first, second);
+  }
+  
+  @Test
+  @DisplayName("Connection is reopened after it was closed")
+  void connectionIsReopenedAfterItWasClosed() throws SQLException {
+    final Connection first = sqliteConnection.getConnection();
+    first.close();
+    final Connection second = sqliteConnection.getConnection();
+    assertNotSame(first, second);
+    assertFalse(second.isClosed());
+  }
+  
+  @Test
+  @DisplayName("Connection is validated only once in validation interval")
+  void connectionIsValidatedOnlyOnceInValidationInterval() throws SQLException {
+    final long before = System.currentTimeMillis();
+    sqliteConnection.getConnection();
+    final long after = System.currentTimeMillis();
+    assertFalse(sqliteConnection.isValidationDue(after));
+    assertFalse(sqliteConnection.isValidationDue(
+        before + SqliteConnection.VALIDATION_INTERVAL_MILLIS - 1));
+    assertTrue(sqliteConnection.isValidationDue(
+        after + SqliteConnection.VALIDATION_INTERVAL_MILLIS));
+  }
+  
+  @Test
+  @DisplayName("close closes provided connection")
+  void closeClosesProvidedConnection() throws SQLException {
+    final Connection connection = sqliteConnection.getConnection();
+    sqliteConnection.close();
+    assertTrue(connection.isClosed());
+  }
+  
+  @Test
+  @DisplayName("close waits for transaction of another thread")
+  void closeWaitsForTransactionOfAnotherThread() throws Exception {
+    final Connection connection = sqliteConnection.getConnection();
+    final Thread closing = new Thread(sqliteConnection::close);
+    sqliteConnection.lock();
+    try {
+      closing.start();
+      closing.join(200);
+      assertFalse(connection.isClosed());
+    } finally {
+      sqliteConnection.unlock();
+    }
+    closing.join(5_000);
+    assertTrue(connection.isClosed());
+  }
+  
+  @Test
+  @DisplayName("Transaction lock is not acquired while another thread holds it")
+  void transactionLockIsNotAcquiredWhileAnotherThreadHoldsIt() throws Exception {
+    final boolean[] acquired = new boolean[1];
+    sqliteConnection.lock();
+    try {
+      final Thread other = new Thread(() -> acquired[0] = sqliteConnection.tryLock());
+      other.start();
+      other.join(5_000);
+    } finally {
+      sqliteConnection.unlock();
+    }
+    assertFalse(acquired[0]);
+    assertTrue(sqliteConnection.tryLock());
+    sqliteConnection.unlock();
+  }
+  
+  @Test
+  @DisplayName("Connection is opened in WAL journal mode")
+  void connectionIsOpenedInWalJournalMode() throws SQLException {
+    try (final Statement statement = sqliteConnection.getConnection().createStatement();
+         final ResultSet resultSet = statement.executeQuery("PRAGMA journal_mode;")) {
+      assertTrue(resultSet.next());
+      assertEquals("wal", resultSet.getString(1).toLowerCase());
+    }
+  }
+  
+  @Test
+  @DisplayName("Pragmas of chosen profile are applied")
+  void pragmasOfChosenProfileAreApplied() throws SQLException {
+    sqliteConnection.close();
+    sqliteConnection = new SqliteConnection("balanced", 0);
+    try (final Statement statement = sqliteConnection.getConnection().createStatement();
+         final ResultSet resultSet = statement.executeQuery("PRAGMA synchronous;")) {
+      assertTrue(resultSet.next());
+      // NORMAL
+      assertEquals(1, resultSet.getInt(1));
+    }
+    assertEquals(PragmaProfile.BALANCED, sqliteConnection.getPragmaProfile());
+  }
+  
+  @Test
+  @DisplayName("Unknown profile name falls back to safe profile")
+  void unknownProfileNameFallsBackToSafeProfile() {
+    sqliteConnection.close();
+    sqliteConnection = new SqliteConnection("turbo", 0);
+    assertEquals(PragmaProfile.SAFE, sqliteConnection.getPragmaProfile());
+  }
+  
   @Test
   @DisplayName("Check toString is overriden")
   void checkToStringIsOverriden() {
@@ -0,0 +1,124 @@
+package dbapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StartupSnapshotTest {
+  private static final long CHANGE_COUNTER = 42;
+  @TempDir
+  Path tempDir;
+  private Path snapshotFile;
+  private RepairRecordStore store;
+  private OrdinalIndex orderedId;
+  private Map<String, List<Integer>> repairPeriods;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    snapshotFile = tempDir.resolve("app.snapshot");
+    store = new RepairRecordStore(0);
+    orderedId = new OrdinalIndex(0);
+    addRecord(7, createRecord("ТГМ4(Б)", "0011", "15.08.2022", "ТО-3", "Примечание"));
+    addRecord(3, createRecord("ТЭМ2", "0150", "", "", ""));
+    addRecord(12, createRecord("ТЭМ2", "0151", "31.02.2022", "ТР-1", ""));
+    orderedId.remove(3);
+    orderedId.append(3);
+    repairPeriods = new HashMap<>();
+    repairPeriods.put("ТГМ4(Б)", new ArrayList<>(Arrays.asList(30, 180, 360, 720, 2160, 4320)));
+    repairPeriods.put("ТЭМ2", new ArrayList<>(Arrays.asList(45, 180, 540, 1080, 2880, 5760)));
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Written snapshot is read back with the same data and order")
+  void writtenSnapshotIsReadBackWithSameDataAndOrder() throws IOException {
+    StartupSnapshot.write(snapshotFile, CHANGE_COUNTER, store, orderedId, repairPeriods);
+
+    final StartupSnapshot snapshot = StartupSnapshot.read(snapshotFile, CHANGE_COUNTER);
+
+    assertEquals(store.asMap(), snapshot.getRepairRecordStore().asMap());
+    assertEquals("31.02.2022", snapshot.getRepairRecordStore().getString(12, 17));
+    assertEquals(orderedId.size(), snapshot.getOrderedId().size());
+    for (int j = 0; j < orderedId.size(); j++) {
+      assertEquals(orderedId.getId(j), snapshot.getOrderedId().getId(j));
+    }
+    assertEquals(repairPeriods, snapshot.getRepairPeriods());
+    assertFalse(Files.exists(tempDir.resolve("app.snapshot.tmp")));
+  }
+
+  @Test
+  @DisplayName("Snapshot with another change counter is not used")
+  void snapshotWithAnotherChangeCounterIsNotUsed() throws IOException {
+    StartupSnapshot.write(snapshotFile, CHANGE_COUNTER, store, orderedId, repairPeriods);
+
+    assertNull(StartupSnapshot.read(snapshotFile, CHANGE_COUNTER + 1));
+  }
+
+  @Test
+  @DisplayName("Missing snapshot is not used")
+  void missingSnapshotIsNotUsed() throws IOException {
+    assertNull(StartupSnapshot.read(snapshotFile, CHANGE_COUNTER));
+  }
+
+  @Test
+  @DisplayName("Truncated snapshot is rejected")
+  void truncatedSnapshotIsRejected() throws IOException {
+    StartupSnapshot.write(snapshotFile, CHANGE_COUNTER, store, orderedId, repairPeriods);
+    final byte[] bytes = Files.readAllBytes(snapshotFile);
+    Files.write(snapshotFile, Arrays.copyOf(bytes, bytes.length - 10));
+
+    assertThrows(IOException.class, () -> StartupSnapshot.read(snapshotFile, CHANGE_COUNTER));
+  }
+
+  private void addRecord(final int id, final List<String> record) {
+    store.add(id, record);
+    orderedId.append(id);
+  }
+
+  private static List<String> createRecord(final String modelName, final String number,
+                                           final String requiredRepairDate,
+                                           final String requiredRepairType, final String notes) {
+    final List<String> record = new ArrayList<>(RepairRecordStore.COLUMN_COUNT);
+    record.add(modelName);
+    record.add(number);
+    for (int j = 2; j < 14; j++) {
+      record.add(j % 3 == 0 ? "" : "0" + (j % 9 + 1) + ".03.2021");
+    }
+    record.add("ТО-3");
+    record.add("01.03.2021");
+    record.add(requiredRepairType);
+    record.add(requiredRepairDate);
+    record.add(notes);
+    return record;
+  }
+
+}
@@ -0,0 +1,124 @@
+package dbapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import metrics.MetricsRegistry;
+
+public class StatementTimerTest {
+  private static PreparedStatement statementMock;
+  private static StatementTimer statementTimer;
+  private static LongAdder slowStatements;
+  private static AtomicInteger parameterRequests;
+  private static Supplier<String> parameters;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    statementMock = mock(PreparedStatement.class);
+    statementTimer = new StatementTimer(StatementTimer.DEFAULT_SLOW_THRESHOLD_MILLIS);
+    slowStatements = MetricsRegistry.getGlobal().counter("dbapi.slow-statements");
+    parameterRequests = new AtomicInteger();
+    parameters = () -> "id=" + parameterRequests.incrementAndGet();
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Execution is recorded in histogram of statement kind")
+  void executionIsRecordedInHistogramOfStatementKind() throws SQLException {
+    when(statementMock.executeUpdate()).thenReturn(1);
+    final long deleteCount = StatementKind.RT_DELETE_ROW.getTimer().getCount();
+    final long insertCount = StatementKind.RT_INSERT_ROW.getTimer().getCount();
+
+    assertEquals(1, statementTimer.executeUpdate(StatementKind.RT_DELETE_ROW, statementMock));
+
+    assertEquals(deleteCount + 1, StatementKind.RT_DELETE_ROW.getTimer().getCount());
+    assertEquals(insertCount, StatementKind.RT_INSERT_ROW.getTimer().getCount());
+  }
+
+  @Test
+  @DisplayName("Fast statement does not describe its parameters")
+  void fastStatementDoesNotDescribeItsParameters() throws SQLException {
+    final long slowCount = slowStatements.sum();
+
+    statementTimer.executeQuery(StatementKind.AT_PAGE, statementMock, parameters);
+
+    assertEquals(0, parameterRequests.get());
+    assertEquals(slowCount, slowStatements.sum());
+  }
+
+  @Test
+  @DisplayName("Slow statement is counted and logged with its parameters")
+  void slowStatementIsCountedAndLoggedWithItsParameters() throws SQLException {
+    statementTimer = new StatementTimer(1);
+    when(statementMock.executeBatch()).thenAnswer(invocation -> {
+      Thread.sleep(5);
+      return new int[] {1, 1};
+    });
+    final long slowCount = slowStatements.sum();
+
+    statementTimer.executeBatch(StatementKind.RT_UPDATE_CELLS_BATCH, statementMock, parameters);
+
+    assertEquals(1, parameterRequests.get());
+    assertEquals(slowCount + 1, slowStatements.sum());
+  }
+
+  @Test
+  @DisplayName("Zero threshold disables slow statement log")
+  void zeroThresholdDisablesSlowStatementLog() throws SQLException {
+    statementTimer = new StatementTimer(0);
+    when(statementMock.executeUpdate()).thenAnswer(invocation -> {
+      Thread.sleep(5);
+      return 1;
+    });
+
+    statementTimer.executeUpdate(StatementKind.PT_UPDATE_CELL, statementMock, parameters);
+
+    assertEquals(0, parameterRequests.get());
+  }
+
+  @Test
+  @DisplayName("Failed statement is recorded too")
+  void failedStatementIsRecordedToo() throws SQLException {
+    when(statementMock.executeUpdate()).thenThrow(new SQLException("database is locked"));
+    final long clearCount = StatementKind.AT_CLEAR.getTimer().getCount();
+
+    assertThrows(SQLException.class,
+        () -> statementTimer.executeUpdate(StatementKind.AT_CLEAR, statementMock));
+
+    assertEquals(clearCount + 1, StatementKind.AT_CLEAR.getTimer().getCount());
+  }
+
+  @Test
+  @DisplayName("Check toString is overriden")
+  void checkToStringIsOverriden() {
+    assertTrue(statementTimer.toString().contains("slowThresholdMillis=250"));
+  }
+
+}
@@ -0,0 +1,148 @@
+package dbapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class WriteBehindQueueTest {
+  private static final long LONG_DELAY_MILLIS = 60_000;
+  private List<Map<Integer, Map<Integer, String>>> writtenBatches;
+  private List<Map<Integer, Map<Integer, String>>> failedBatches;
+  private List<Map<Integer, Map<Integer, String>>> persistedBatches;
+  private boolean writerFails;
+  private WriteBehindQueue queue;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    writtenBatches = Collections.synchronizedList(new ArrayList<>());
+    failedBatches = Collections.synchronizedList(new ArrayList<>());
+    persistedBatches = Collections.synchronizedList(new ArrayList<>());
+    writerFails = false;
+    queue = new WriteBehindQueue(
+        batch -> {
+          if (writerFails) {
+            throw new SQLException("disk I/O error");
+          }
+          writtenBatches.add(batch);
+        },
+        (failed, persisted, err) -> {
+          failedBatches.add(failed);
+          persistedBatches.add(persisted);
+        },
+        LONG_DELAY_MILLIS);
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+    queue.close();
+  }
+
+  @Test
+  @DisplayName("Successive writes to the same cell are coalesced")
+  void successiveWritesToSameCellAreCoalesced() {
+    queue.enqueue(1, Collections.singletonMap(2, "01.01.2020"), Collections.singletonMap(2, ""));
+    queue.enqueue(1, Collections.singletonMap(2, "02.02.2020"),
+                  Collections.singletonMap(2, "01.01.2020"));
+    queue.enqueue(1, Collections.singletonMap(3, "03.03.2020"), Collections.singletonMap(3, ""));
+    queue.enqueue(5, Collections.singletonMap(18, "note"), Collections.singletonMap(18, ""));
+    assertEquals(3, queue.getPendingCount());
+
+    queue.flush();
+
+    assertEquals(1, writtenBatches.size());
+    final Map<Integer, Map<Integer, String>> batch = writtenBatches.get(0);
+    assertEquals("02.02.2020", batch.get(1).get(2));
+    assertEquals("03.03.2020", batch.get(1).get(3));
+    assertEquals("note", batch.get(5).get(18));
+    assertEquals(0, queue.getPendingCount());
+  }
+
+  @Test
+  @DisplayName("Flush without queued changes writes nothing")
+  void flushWithoutQueuedChangesWritesNothing() {
+    queue.flush();
+    assertTrue(writtenBatches.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Failure handler receives values stored before first queued change")
+  void failureHandlerReceivesValuesStoredBeforeFirstQueuedChange() {
+    writerFails = true;
+    final Map<Integer, String> oldValues = new HashMap<>();
+    oldValues.put(2, "persisted");
+    queue.enqueue(1, Collections.singletonMap(2, "first"), oldValues);
+    queue.enqueue(1, Collections.singletonMap(2, "second"), Collections.singletonMap(2, "first"));
+
+    queue.flush();
+
+    assertTrue(writtenBatches.isEmpty());
+    assertEquals(1, failedBatches.size());
+    assertEquals("second", failedBatches.get(0).get(1).get(2));
+    assertEquals("persisted", persistedBatches.get(0).get(1).get(2));
+  }
+
+  @Test
+  @DisplayName("Close writes queued changes and rejects new ones")
+  void closeWritesQueuedChangesAndRejectsNewOnes() {
+    queue.enqueue(1, Collections.singletonMap(2, "01.01.2020"), Collections.singletonMap(2, ""));
+
+    queue.close();
+
+    assertEquals(1, writtenBatches.size());
+    assertThrows(IllegalStateException.class, () -> queue.enqueue(
+        1, Collections.singletonMap(2, "02.02.2020"), Collections.singletonMap(2, "")));
+  }
+
+  @Test
+  @DisplayName("Close reports that all queued changes were written")
+  void closeReportsThatAllQueuedChangesWereWritten() {
+    queue.enqueue(1, Collections.singletonMap(2, "01.01.2020"), Collections.singletonMap(2, ""));
+
+    assertTrue(queue.close());
+  }
+
+  @Test
+  @DisplayName("Close reports failed batch")
+  void closeReportsFailedBatch() {
+    writerFails = true;
+    queue.enqueue(1, Collections.singletonMap(2, "01.01.2020"), Collections.singletonMap(2, ""));
+
+    assertFalse(queue.close());
+    assertFalse(queue.close());
+  }
+
+  @Test
+  @DisplayName("Close reports batch failed before it")
+  void closeReportsBatchFailedBeforeIt() {
+    writerFails = true;
+    queue.enqueue(1, Collections.singletonMap(2, "01.01.2020"), Collections.singletonMap(2, ""));
+    queue.flush();
+    writerFails = false;
+
+    assertFalse(queue.close());
+  }
+
+}
@@ -0,0 +1,115 @@
+package gui.eventlisteners;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.awt.event.ItemEvent;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import javax.swing.JCheckBoxMenuItem;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import gui.GuiManager;
+import gui.utility.DialogWindow;
+import tracing.FlightRecordingService;
+
+public class FlightRecordingListenerTest {
+  private static final Path RECORDING_FILE = Paths.get(".", "diagnostics-test.jfr");
+  private static FlightRecordingListener flightRecordingListener;
+  private static FlightRecordingService flightRecordingServiceMock;
+  private static GuiManager guiManagerMock;
+  private static DialogWindow dialogWindowMock;
+  private static JCheckBoxMenuItem menuItem;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    flightRecordingServiceMock = mock(FlightRecordingService.class);
+    guiManagerMock = mock(GuiManager.class);
+    dialogWindowMock = mock(DialogWindow.class);
+    when(flightRecordingServiceMock.newRecordingFile()).thenReturn(RECORDING_FILE);
+    menuItem = new JCheckBoxMenuItem();
+    flightRecordingListener = new FlightRecordingListener(
+        guiManagerMock, flightRecordingServiceMock, dialogWindowMock);
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  private void changeState(final int stateChange) {
+    flightRecordingListener.itemStateChanged(
+        new ItemEvent(menuItem, ItemEvent.ITEM_STATE_CHANGED, menuItem, stateChange));
+  }
+
+  @Test
+  @DisplayName("Selection starts recording")
+  void selectionStartsRecording() {
+    when(flightRecordingServiceMock.start(RECORDING_FILE)).thenReturn(true);
+    menuItem.setSelected(true);
+    changeState(ItemEvent.SELECTED);
+
+    verify(flightRecordingServiceMock).start(RECORDING_FILE);
+    assertTrue(menuItem.isSelected());
+    verifyNoInteractions(dialogWindowMock);
+  }
+
+  @Test
+  @DisplayName("Failed start deselects item and informs user")
+  void failedStartDeselectsItemAndInformsUser() {
+    when(flightRecordingServiceMock.start(RECORDING_FILE)).thenReturn(false);
+    menuItem.setSelected(true);
+    changeState(ItemEvent.SELECTED);
+
+    assertFalse(menuItem.isSelected());
+    verify(dialogWindowMock).showErrorMessage(any(), anyString(), anyString());
+  }
+
+  @Test
+  @DisplayName("Deselection stops recording and shows written file")
+  void deselectionStopsRecordingAndShowsWrittenFile() {
+    when(flightRecordingServiceMock.stop()).thenReturn(RECORDING_FILE);
+    changeState(ItemEvent.DESELECTED);
+
+    verify(flightRecordingServiceMock).stop();
+    verify(dialogWindowMock).showInfoMessage(any(), anyString(), anyString());
+  }
+
+  @Test
+  @DisplayName("Deselection without running recording does not show anything")
+  void deselectionWithoutRunningRecordingDoesNotShowAnything() {
+    when(flightRecordingServiceMock.stop()).thenReturn(null);
+    changeState(ItemEvent.DESELECTED);
+
+    verify(dialogWindowMock, never()).showInfoMessage(any(), anyString(), anyString());
+  }
+
+  @Test
+  @DisplayName("Check toString is overriden")
+  void checkToStringIsOverriden() {
+    final String description = flightRecordingListener.toString().toLowerCase();
+    assertTrue(description.contains("flightrecordingservice="));
+  }
+
+}
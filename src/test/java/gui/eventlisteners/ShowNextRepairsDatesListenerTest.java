@@ -1,13 +1,18 @@
 package gui.eventlisteners;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.stream.Stream;
 
 import javax.swing.JTable;
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.TableCellEditor;
 
@@ -20,8 +25,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 
 import gui.GuiManager;
+import gui.tablemodels.TableChangeCoalescer;
 
 public class ShowNextRepairsDatesListenerTest {
   private static ShowNextRepairsDatesListener showNextRepairsDatesListener;
@@ -48,6 +55,8 @@ public class ShowNextRepairsDatesListenerTest {
     when(guiManagerMock.getRepairRecordsTable()).thenReturn(repairRecordsTableMock);
     when(repairRecordsTableMock.getModel()).thenReturn(abstractTableModelMock);
     when(repairRecordsTableMock.getCellEditor()).thenReturn(tableCellEditorMock);
+    when(guiManagerMock.getRecordsChangeCoalescer())
+        .thenReturn(new TableChangeCoalescer(abstractTableModelMock));
     
     showNextRepairsDatesListener = new ShowNextRepairsDatesListener(guiManagerMock);
   }
@@ -80,10 +89,16 @@ public class ShowNextRepairsDatesListenerTest {
   void checkFireCellUpdated(final int numberOfRows) {
     when(abstractTableModelMock.getRowCount()).thenReturn(numberOfRows);
     showNextRepairsDatesListener.itemStateChanged(null);
-    for (int j = 1; j < numberOfRows; j+=2) {
-      for (int k = 2; k < 8; k++) {
-      verify(abstractTableModelMock).fireTableCellUpdated(j, k);
-      }
+    final ArgumentCaptor<TableModelEvent> eventCaptor =
+        ArgumentCaptor.forClass(TableModelEvent.class);
+    verify(abstractTableModelMock, times(numberOfRows == 0 ? 0 : 1))
+        .fireTableChanged(eventCaptor.capture());
+    verify(abstractTableModelMock, never()).fireTableCellUpdated(anyInt(), anyInt());
+    if (numberOfRows > 0) {
+      final TableModelEvent event = eventCaptor.getValue();
+      assertEquals(1, event.getFirstRow());
+      assertEquals(numberOfRows - 1, event.getLastRow());
+      assertEquals(TableModelEvent.UPDATE, event.getType());
     }
   }
   
@@ -3,9 +3,11 @@ package gui.tablemodels;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -34,7 +36,7 @@ public class RecordsArchiveTableModelTest {
                                                   "Примечания"
                                                   };
   private static RecordsArchiveTableModel recordsArchiveTableModel;
-  private static List<List<String>> recordsArchiveDataMock;
+  private static List<List<String>> archivePage;
   private static List<String> testArchiveRecord;
   private static String[][] expectedTestValues;
   private static DbManager dbManagerMock;
@@ -49,15 +51,14 @@ public class RecordsArchiveTableModelTest {
   protected static void tearDownAfterClass() throws Exception {
   }
 
-  @SuppressWarnings("unchecked")
   @BeforeEach
   protected void setUp() throws Exception {
     dbManagerMock = mock(DbManager.class);
-    recordsArchiveDataMock = mock(List.class);
+    archivePage = Collections.singletonList(testArchiveRecord);
     
-    when(dbManagerMock.getAllRecordsArchiveData()).thenReturn(recordsArchiveDataMock);
-    when(recordsArchiveDataMock.get(0)).thenReturn(testArchiveRecord);
-    when(recordsArchiveDataMock.size()).thenReturn(1);
+    when(dbManagerMock.getArchivePage(0, 100)).thenReturn(archivePage);
+    when(dbManagerMock.getArchiveCount()).thenReturn(1);
+    when(dbManagerMock.getArchivePageSize()).thenReturn(100);
     
     recordsArchiveTableModel = new RecordsArchiveTableModel(dbManagerMock);
   }
@@ -99,6 +100,32 @@ public class RecordsArchiveTableModelTest {
     assertEquals(expectedTestValues[row][col], recordsArchiveTableModel.getValueAt(row, col));
   }
   
+  @Test
+  @DisplayName("Archive is read by pages, not loaded entirely")
+  void archiveIsReadByPagesNotLoadedEntirely() {
+    recordsArchiveTableModel.getRowCount();
+    recordsArchiveTableModel.getValueAt(1, 2);
+    verify(dbManagerMock).getArchivePage(0, 100);
+  }
+  
+  @Test
+  @DisplayName("Archive is read by pages of DbManager page size")
+  void archiveIsReadByPagesOfDbManagerPageSize() {
+    when(dbManagerMock.getArchivePageSize()).thenReturn(50);
+    when(dbManagerMock.getArchivePage(50, 50)).thenReturn(Collections.emptyList());
+    recordsArchiveTableModel = new RecordsArchiveTableModel(dbManagerMock);
+    recordsArchiveTableModel.getValueAt(120, 0);
+    verify(dbManagerMock).getArchivePage(50, 50);
+  }
+  
+  @Test
+  @DisplayName("getValueAt returns empty string for record missing in page")
+  void getValueAtReturnsEmptyStringForRecordMissingInPage() {
+    when(dbManagerMock.getArchivePage(100, 100)).thenReturn(Collections.emptyList());
+    assertEquals("", recordsArchiveTableModel.getValueAt(200, 0));
+    assertEquals("", recordsArchiveTableModel.getValueAt(201, 2));
+  }
+  
   @Test
   @DisplayName("Check toString is overriden")
   void checkToStringIsOverriden() {
@@ -31,6 +31,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import datavalidation.InputValidator;
 import dbapi.DbManager;
+import dbapi.ModelNameIndex;
 import gui.GuiManager;
 import gui.ModelsFrame;
 import gui.utility.DialogWindow;
@@ -77,6 +78,7 @@ public class RepairPeriodsTableModelTest {
     when(guiManagerMock.getModelsFrame()).thenReturn(modelsFrameMock);
     when(dbManagerMock.getAllRepairPeriodData()).thenReturn(repairPeriodsTestData);
     when(dbManagerMock.getAllModelNames()).thenReturn(MODEL_NAMES);
+    when(dbManagerMock.getModelNameIndex()).thenReturn(new ModelNameIndex(repairPeriodsTestData));
     
     repairPeriodsTableModel = new RepairPeriodsTableModel(
         dbManagerMock, guiManagerMock, dialogWindowMock, validatorMock);
@@ -9,11 +9,11 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Stream;
 
+import javax.swing.event.TableModelEvent;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -25,6 +25,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import dbapi.DbManager;
+import dbapi.RepairRecordStore;
 import gui.GuiManager;
 import gui.utility.RecordUpdateHandler;
 
@@ -46,7 +47,7 @@ public class RepairRecordsTableModelTest {
   private static GuiManager guiManagerMock;
   private static DbManager dbManagerMock;
   private static RecordUpdateHandler updateHandlerMock;
-  private static Map<Integer, List<String>> repairRecordsTestData;
+  private static RepairRecordStore repairRecordsTestData;
   private static String[][] expectedTestValues;
   private static String[][] expectedTestValuesIfShowNextRepairsDatesIsFalse;
 
@@ -68,7 +69,7 @@ public class RepairRecordsTableModelTest {
     updateHandlerMock = mock(RecordUpdateHandler.class);
     
     when(dbManagerMock.getIdByOrdinalNumber(anyInt())).thenReturn(1);
-    when(dbManagerMock.getAllRepairRecords()).thenReturn(repairRecordsTestData);
+    when(dbManagerMock.getRepairRecordStore()).thenReturn(repairRecordsTestData);
     when(dbManagerMock.getRecordsCount()).thenReturn(repairRecordsTestData.size());
     
     recordsTableModel =
@@ -141,6 +142,37 @@ public class RepairRecordsTableModelTest {
     updateHandlerMock.handleCellNewValue("01.01.1970", 0, col);
   }
   
+  @Test
+  @DisplayName("setValueAt fires cells reported by handlers if value was written")
+  void setValueAtFiresCellsReportedByHandlersIfValueWasWritten() {
+    final List<TableModelEvent> events = handleEditReportingLastRepairCell(true);
+    
+    assertEquals(1, events.size());
+    assertEquals(0, events.get(0).getFirstRow());
+    assertEquals(1, events.get(0).getLastRow());
+    assertEquals(8, events.get(0).getColumn());
+  }
+  
+  @Test
+  @DisplayName("setValueAt fires nothing if value was not written")
+  void setValueAtFiresNothingIfValueWasNotWritten() {
+    assertTrue(handleEditReportingLastRepairCell(false).isEmpty());
+    assertFalse(recordsTableModel.getChangeCoalescer().isInTransaction());
+  }
+  
+  private List<TableModelEvent> handleEditReportingLastRepairCell(final boolean written) {
+    final List<TableModelEvent> events = new ArrayList<>();
+    recordsTableModel.addTableModelListener(events::add);
+    when(updateHandlerMock.handleCellNewValue("01.01.1970", 0, 2)).thenAnswer(invocation -> {
+      recordsTableModel.getChangeCoalescer().cellUpdated(0, 8);
+      recordsTableModel.getChangeCoalescer().cellUpdated(1, 8);
+      return written;
+    });
+    
+    recordsTableModel.setValueAt("01.01.1970", 0, 2);
+    return events;
+  }
+  
   @ParameterizedTest
   @MethodSource("provideLastRepairsColumnsIndices")
   @DisplayName("setValueAt not calls updateHandler for same last repair date")
@@ -179,8 +211,8 @@ public class RepairRecordsTableModelTest {
               "30.03.2021", "ТО-3", "02.11.2020", "ТР-3", "18.09.2020", "Поставлен в запас")
           .forEach(repairRecords::add);
     
-    repairRecordsTestData = new HashMap<>(1);
-    repairRecordsTestData.put(1, repairRecords);
+    repairRecordsTestData = new RepairRecordStore(1);
+    repairRecordsTestData.add(1, repairRecords);
   }
   
   private static void initExpectedTestValues() {
@@ -0,0 +1,189 @@
+package gui.tablemodels;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+public class TableChangeCoalescerTest {
+  private static AbstractTableModel tableModelMock;
+  private static TableChangeCoalescer changeCoalescer;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    tableModelMock = mock(AbstractTableModel.class);
+    changeCoalescer = new TableChangeCoalescer(tableModelMock);
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  private List<TableModelEvent> captureEvents(final int expectedCount) {
+    final ArgumentCaptor<TableModelEvent> eventCaptor =
+        ArgumentCaptor.forClass(TableModelEvent.class);
+    verify(tableModelMock, times(expectedCount)).fireTableChanged(eventCaptor.capture());
+    return eventCaptor.getAllValues();
+  }
+
+  private static void assertEvent(final TableModelEvent event, final int firstRow,
+                                  final int lastRow, final int column) {
+    assertEquals(TableModelEvent.UPDATE, event.getType());
+    assertEquals(firstRow, event.getFirstRow());
+    assertEquals(lastRow, event.getLastRow());
+    assertEquals(column, event.getColumn());
+  }
+
+  @Test
+  @DisplayName("Change outside of transaction is fired immediately")
+  void changeOutsideOfTransactionIsFiredImmediately() {
+    changeCoalescer.cellUpdated(3, 8);
+
+    assertEvent(captureEvents(1).get(0), 3, 3, 8);
+  }
+
+  @Test
+  @DisplayName("Changes of transaction are fired on commit")
+  void changesOfTransactionAreFiredOnCommit() {
+    changeCoalescer.begin();
+    changeCoalescer.cellUpdated(0, 8);
+    changeCoalescer.cellUpdated(1, 8);
+    changeCoalescer.cellsUpdated(1, 2, 5);
+    changeCoalescer.cellUpdated(0, 9);
+    changeCoalescer.cellUpdated(1, 9);
+    verify(tableModelMock, never()).fireTableChanged(any());
+    assertTrue(changeCoalescer.isInTransaction());
+
+    changeCoalescer.commit();
+
+    assertFalse(changeCoalescer.isInTransaction());
+    final List<TableModelEvent> events = captureEvents(2);
+    assertEvent(events.get(0), 0, 0, TableModelEvent.ALL_COLUMNS);
+    assertEvent(events.get(1), 1, 1, TableModelEvent.ALL_COLUMNS);
+  }
+
+  @Test
+  @DisplayName("Consecutive rows with same columns are merged")
+  void consecutiveRowsWithSameColumnsAreMerged() {
+    changeCoalescer.begin();
+    for (int row = 10; row < 20; row++) {
+      changeCoalescer.cellUpdated(row, 9);
+    }
+    changeCoalescer.rowsUpdated(4, 5);
+    changeCoalescer.rowsUpdated(6, 7);
+    changeCoalescer.commit();
+
+    final List<TableModelEvent> events = captureEvents(2);
+    assertEvent(events.get(0), 4, 7, TableModelEvent.ALL_COLUMNS);
+    assertEvent(events.get(1), 10, 19, 9);
+  }
+
+  @Test
+  @DisplayName("Nested transaction is fired with outermost one")
+  void nestedTransactionIsFiredWithOutermostOne() {
+    changeCoalescer.begin();
+    changeCoalescer.runInTransaction(() -> changeCoalescer.rowsUpdated(0, 1));
+    verify(tableModelMock, never()).fireTableChanged(any());
+    changeCoalescer.rowsUpdated(2, 3);
+    changeCoalescer.commit();
+
+    assertEvent(captureEvents(1).get(0), 0, 3, TableModelEvent.ALL_COLUMNS);
+  }
+
+  @Test
+  @DisplayName("Scattered bulk changes are fired as one event")
+  void scatteredBulkChangesAreFiredAsOneEvent() {
+    changeCoalescer.runInTransaction(() -> {
+      for (int row = 1; row < 10_000; row += 2) {
+        changeCoalescer.cellsUpdated(row, 2, 7);
+      }
+    });
+
+    assertEvent(captureEvents(1).get(0), 1, 9_999, TableModelEvent.ALL_COLUMNS);
+  }
+
+  @Test
+  @DisplayName("Transaction is committed if task throws exception")
+  void transactionIsCommittedIfTaskThrowsException() {
+    assertThrows(IllegalArgumentException.class, () -> changeCoalescer.runInTransaction(() -> {
+      changeCoalescer.cellUpdated(0, 1);
+      throw new IllegalArgumentException();
+    }));
+
+    assertFalse(changeCoalescer.isInTransaction());
+    assertEvent(captureEvents(1).get(0), 0, 0, 1);
+  }
+
+  @Test
+  @DisplayName("Rollback discards changes of outermost transaction")
+  void rollbackDiscardsChangesOfOutermostTransaction() {
+    changeCoalescer.begin();
+    changeCoalescer.cellUpdated(0, 8);
+    changeCoalescer.cellsUpdated(1, 2, 5);
+    changeCoalescer.rollback();
+    
+    assertFalse(changeCoalescer.isInTransaction());
+    verify(tableModelMock, never()).fireTableChanged(any());
+    
+    changeCoalescer.runInTransaction(() -> changeCoalescer.cellUpdated(2, 9));
+    assertEvent(captureEvents(1).get(0), 2, 2, 9);
+  }
+
+  @Test
+  @DisplayName("Rollback of nested transaction keeps changes for outer one")
+  void rollbackOfNestedTransactionKeepsChangesForOuterOne() {
+    changeCoalescer.begin();
+    changeCoalescer.begin();
+    changeCoalescer.cellUpdated(0, 8);
+    changeCoalescer.rollback();
+    changeCoalescer.commit();
+    
+    assertEvent(captureEvents(1).get(0), 0, 0, 8);
+  }
+
+  @Test
+  @DisplayName("Rollback without begin throws exception")
+  void rollbackWithoutBeginThrowsException() {
+    assertThrows(IllegalStateException.class, () -> changeCoalescer.rollback());
+  }
+
+  @Test
+  @DisplayName("Commit without begin throws exception")
+  void commitWithoutBeginThrowsException() {
+    assertThrows(IllegalStateException.class, () -> changeCoalescer.commit());
+  }
+
+  @Test
+  @DisplayName("Check toString is overriden")
+  void checkToStringIsOverriden() {
+    final String description = changeCoalescer.toString().toLowerCase();
+    assertTrue(description.contains("depth="));
+  }
+
+}
@@ -0,0 +1,123 @@
+package gui.tablerenderers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.Font;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dbapi.DbManager;
+import gui.lookandfeel.ColorManager;
+
+/**
+ * Checks colours and fonts of repair records table cells.
+ * <p>
+ * Table is not displayed, so the test runs headless. Rendering time is measured by
+ * {@code TableRenderersBenchmark}.
+ */
+public class RepairRecordsTableRendererTest {
+  private static final int RECORDS_COUNT = 20;
+  private DbManager dbManagerMock;
+  private RepairRecordsTableRenderer renderer;
+  private JTable table;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    final Map<Integer, Boolean> overdueRepairsMap = new HashMap<>();
+    for (int id = 0; id < RECORDS_COUNT; id++) {
+      overdueRepairsMap.put(id, id % 7 == 0);
+    }
+    dbManagerMock = mock(DbManager.class);
+    when(dbManagerMock.getRecordsCount()).thenReturn(RECORDS_COUNT);
+    when(dbManagerMock.getIdByOrdinalNumber(anyInt()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    when(dbManagerMock.getOverdueRepairsMap()).thenReturn(overdueRepairsMap);
+
+    final AbstractTableModel tableModel = new AbstractTableModel() {
+      private static final long serialVersionUID = 1L;
+      private final String[] values = {"ТЭМ2", "0150", "01.03.2022", "15.01.2022", "10.10.2021",
+          "", "12.05.2020", "", "ТО-3", "ТР-1", "Примечание"};
+
+      @Override
+      public int getRowCount() {
+        return RECORDS_COUNT * 2;
+      }
+
+      @Override
+      public int getColumnCount() {
+        return values.length;
+      }
+
+      @Override
+      public Object getValueAt(final int rowIndex, final int columnIndex) {
+        return values[columnIndex];
+      }
+    };
+    renderer = new RepairRecordsTableRenderer(dbManagerMock);
+    tableModel.addTableModelListener(renderer);
+    table = new JTable(tableModel);
+    table.setDefaultRenderer(Object.class, renderer);
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Required repair of overdue record has overdue colour")
+  void requiredRepairOfOverdueRecordHasOverdueColour() {
+    final int overdueRow = 7 * 2;
+    renderer.getTableCellRendererComponent(table, "ТР-1", false, false, overdueRow, 9);
+    assertEquals(ColorManager.getColorManager().getRecordsTableOverdueRequiredRepairTypeColor(),
+        renderer.getBackground());
+  }
+
+  @Test
+  @DisplayName("Required repair of record in time has regular colour")
+  void requiredRepairOfRecordInTimeHasRegularColour() {
+    final int inTimeRow = 8 * 2;
+    renderer.getTableCellRendererComponent(table, "ТР-1", false, false, inTimeRow, 9);
+    assertEquals(ColorManager.getColorManager().getRecordsTableRequiredRepairColor(),
+        renderer.getBackground());
+  }
+
+  @Test
+  @DisplayName("Last and required repair columns share the same font")
+  void lastAndRequiredRepairColumnsShareTheSameFont() {
+    renderer.getTableCellRendererComponent(table, "ТР-1", false, false, 16, 9);
+    final Font boldFont = renderer.getFont();
+    renderer.getTableCellRendererComponent(table, "ТО-3", false, false, 0, 8);
+    assertSame(boldFont, renderer.getFont());
+  }
+
+  @Test
+  @DisplayName("Check toString is overriden")
+  void checkToStringIsOverriden() {
+    final String description = renderer.toString().toLowerCase();
+    assertTrue(description.contains("colormanager="));
+  }
+
+}
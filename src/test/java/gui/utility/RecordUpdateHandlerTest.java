@@ -1,16 +1,26 @@
 package gui.utility;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterAll;
@@ -21,12 +31,17 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 import datavalidation.InputValidator;
 import datecalculations.DateCalculationsHandler;
 import datecalculations.LastRepairHandler;
+import datecalculations.RecordPatch;
 import dbapi.DbManager;
 import gui.GuiManager;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
 
 public class RecordUpdateHandlerTest {
   private static RecordUpdateHandler updateHandler;
@@ -46,6 +61,7 @@ public class RecordUpdateHandlerTest {
   protected static void tearDownAfterClass() throws Exception {
   }
 
+  @SuppressWarnings("unchecked")
   @BeforeEach
   protected void setUp() throws Exception {
     guiManagerMock = mock(GuiManager.class);
@@ -56,6 +72,11 @@ public class RecordUpdateHandlerTest {
     dialogWindowMock = mock(DialogWindow.class);
     
     when(dbManagerMock.getIdByOrdinalNumber(anyInt())).thenAnswer(i -> i.getArgument(0));
+    final Map<Integer, List<String>> repairRecordsMock = mock(HashMap.class);
+    when(repairRecordsMock.get(anyInt())).thenAnswer(i -> Stream.generate(() -> "")
+        .limit(19)
+        .collect(Collectors.toCollection(ArrayList::new)));
+    when(dbManagerMock.getAllRepairRecords()).thenReturn(repairRecordsMock);
     
     updateHandler = new RecordUpdateHandler(dbManagerMock,
                                             guiManagerMock,
@@ -78,7 +99,7 @@ public class RecordUpdateHandlerTest {
     setDbManagerReturnsTrue();
     updateHandler.handleCellNewValue("", rowIndex, colIndex);
 
-    verify(lastRepairHandlerMock).updateLastRepairColumn(rowIndex);
+    verify(lastRepairHandlerMock).updateLastRepairColumn(eq(rowIndex), any(RecordPatch.class));
   }
   
   @ParameterizedTest
@@ -88,8 +109,8 @@ public class RecordUpdateHandlerTest {
     setDbManagerReturnsTrue();
     updateHandler.handleCellNewValue("16.08.2022", rowIndex, colIndex);
     
-    verify(dateCalculationsHandlerMock)
-        .handleDateCalculations("16.08.2022", rowIndex, colIndex, LocalDate.now());
+    verify(dateCalculationsHandlerMock).handleDateCalculations(eq("16.08.2022"), eq(rowIndex),
+        eq(colIndex), eq(LocalDate.now()), any(RecordPatch.class));
   }
 
   @ParameterizedTest
@@ -101,29 +122,71 @@ public class RecordUpdateHandlerTest {
     updateHandler.handleCellNewValue(null, rowIndex, colIndex);
     
     verify(dateCalculationsHandlerMock, never())
-          .handleDateCalculations(anyString(), anyInt(), anyInt(), any());
+          .handleDateCalculations(anyString(), anyInt(), anyInt(), any(), any());
   }
   
   @ParameterizedTest
   @MethodSource("provideRepairsColumnIndices")
-  @DisplayName("handleCellNewValue not calls handlers if value not written to DB")
-  void handleCellNewValueNotCallsHandlersIfValueNotWrittenToDb(final int colIndex) {
+  @DisplayName("handleCellNewValue notifies user if values not written to DB")
+  void handleCellNewValueNotifiesUserIfValuesNotWrittenToDb(final int colIndex) {
     updateHandler.handleCellNewValue("16.08.2022", rowIndex, colIndex);
     
-    verify(lastRepairHandlerMock, never()).updateLastRepairColumn(anyInt());
-    verify(dateCalculationsHandlerMock, never())
-          .handleDateCalculations(any(), anyInt(), anyInt(), any());
-    
     verify(dialogWindowMock).showErrorMessage(any(), any(), any());
   }
   
   @ParameterizedTest
   @MethodSource("provideRepairsColumnIndices")
-  @DisplayName("handleCellNewValue calls setRepairRecordCell on valid value")
-  void handleCellNewValueCallsSetRepairRecordCellOnValidValue(final int colIndex) {
+  @DisplayName("handleCellNewValue writes valid value with single call")
+  @SuppressWarnings("unchecked")
+  void handleCellNewValueWritesValidValueWithSingleCall(final int colIndex) {
     updateHandler.handleCellNewValue("5.8.22", rowIndex, colIndex);
     
-    verify(dbManagerMock).setRepairRecordCell(rowIndex / 2, colIndex * 2 - 2, "05.08.2022");
+    final ArgumentCaptor<Map<Integer, String>> valuesCaptor = ArgumentCaptor.forClass(Map.class);
+    verify(dbManagerMock).updateRepairRecordCells(eq(rowIndex / 2), valuesCaptor.capture());
+    assertEquals("05.08.2022", valuesCaptor.getValue().get(colIndex * 2 - 2));
+    verify(dbManagerMock, never()).setRepairRecordCell(anyInt(), anyInt(), any());
+  }
+  
+  @ParameterizedTest
+  @MethodSource("provideRepairsColumnIndices")
+  @DisplayName("handleCellNewValue informs user and applies overdue state after write")
+  void handleCellNewValueInformsUserAndAppliesOverdueStateAfterWrite(final int colIndex) {
+    setDbManagerReturnsTrue();
+    updateHandler.handleCellNewValue("16.08.2022", rowIndex, colIndex);
+    
+    final InOrder order = inOrder(dbManagerMock, dateCalculationsHandlerMock);
+    order.verify(dbManagerMock).updateRepairRecordCells(anyInt(), anyMap());
+    order.verify(dateCalculationsHandlerMock).applyOverdueState(any(RecordPatch.class));
+    order.verify(dateCalculationsHandlerMock)
+        .informUserIfLastRepairDateIsAfterToday("16.08.2022", LocalDate.now());
+  }
+  
+  @Test
+  @DisplayName("handleCellNewValue records edit time before informational dialog")
+  void handleCellNewValueRecordsEditTimeBeforeInformationalDialog() {
+    setDbManagerReturnsTrue();
+    final LatencyHistogram editTimer =
+        MetricsRegistry.getGlobal().timer(MetricsRegistry.EDIT_TIMER);
+    final long editCount = editTimer.getCount();
+    final List<Long> countsAtDialog = new ArrayList<>();
+    doAnswer(invocation -> countsAtDialog.add(editTimer.getCount()))
+        .when(dateCalculationsHandlerMock).informUserIfLastRepairDateIsAfterToday(any(), any());
+    
+    updateHandler.handleCellNewValue("16.08.2022", rowIndex, 2);
+    
+    assertEquals(1, countsAtDialog.size());
+    assertEquals(editCount + 1, (long) countsAtDialog.get(0));
+  }
+  
+  @ParameterizedTest
+  @MethodSource("provideRepairsColumnIndices")
+  @DisplayName("handleCellNewValue not applies overdue state if values not written to DB")
+  void handleCellNewValueNotAppliesOverdueStateIfValuesNotWrittenToDb(final int colIndex) {
+    updateHandler.handleCellNewValue("16.08.2022", rowIndex, colIndex);
+    
+    verify(dateCalculationsHandlerMock, never()).applyOverdueState(any());
+    verify(dateCalculationsHandlerMock, never())
+        .informUserIfLastRepairDateIsAfterToday(anyString(), any());
   }
   
   @ParameterizedTest
@@ -133,7 +196,7 @@ public class RecordUpdateHandlerTest {
     setValidatorThrowsException();
     updateHandler.handleCellNewValue("32.01.2000", rowIndex, colIndex);
     
-    verify(dbManagerMock, never()).setRepairRecordCell(anyInt(), anyInt(), any());
+    verify(dbManagerMock, never()).updateRepairRecordCells(anyInt(), anyMap());
     verify(dialogWindowMock).showErrorMessage(any(), any(), any());
   }
   
@@ -192,10 +255,12 @@ public class RecordUpdateHandlerTest {
   }
   
   /**
-   * Sets up dbManager mock to return true on {@code setRepairRecordCell} method call.
+   * Sets up dbManager mock to return true on {@code setRepairRecordCell} and
+   * {@code updateRepairRecordCells} method calls.
    */
   private static void setDbManagerReturnsTrue() {
     when(dbManagerMock.setRepairRecordCell(anyInt(), anyInt(), any())).thenReturn(true);
+    when(dbManagerMock.updateRepairRecordCells(anyInt(), anyMap())).thenReturn(true);
   }
   
   /**
@@ -0,0 +1,85 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+  private static LatencyHistogram histogram;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    histogram = new LatencyHistogram();
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Every value falls into bucket with close upper bound")
+  void everyValueFallsIntoBucketWithCloseUpperBound() {
+    for (long value = 0; value < 100_000; value += 7) {
+      final long upperBound =
+          LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value));
+      assertTrue(upperBound >= value, "value: " + value);
+      assertTrue(upperBound - value <= value / 16, "value: " + value);
+    }
+    final long max = Long.MAX_VALUE;
+    assertEquals(max, LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(max)));
+  }
+
+  @Test
+  @DisplayName("Percentiles are within bucket precision")
+  void percentilesAreWithinBucketPrecision() {
+    for (int i = 1; i <= 1_000; i++) {
+      histogram.record(i * 1_000L);
+    }
+    final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+    assertEquals(1_000, snapshot.getCount());
+    assertEquals(1_000_000, snapshot.getMaxNanos());
+    assertEquals(500_500, snapshot.getMeanNanos(), 0.001);
+    assertEquals(500_000, snapshot.getValueAtPercentile(50), 500_000 / 16);
+    assertEquals(990_000, snapshot.getValueAtPercentile(99), 990_000 / 16);
+    assertEquals(1_000_000, snapshot.getValueAtPercentile(100));
+  }
+
+  @Test
+  @DisplayName("Empty histogram and reset histogram report zeros")
+  void emptyAndResetHistogramReportZeros() {
+    assertEquals(0, histogram.snapshot().getValueAtPercentile(99));
+
+    histogram.record(5_000);
+    histogram.record(-1);
+    assertEquals(2, histogram.getCount());
+    assertEquals(0, histogram.snapshot().getValueAtPercentile(50));
+    histogram.reset();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.snapshot().getMaxNanos());
+    assertEquals(0, histogram.snapshot().getValueAtPercentile(99));
+  }
+
+  @Test
+  @DisplayName("Check toString is overriden")
+  void checkToStringIsOverriden() {
+    final String description = histogram.toString().toLowerCase();
+    assertTrue(description.contains("count="));
+  }
+
+}
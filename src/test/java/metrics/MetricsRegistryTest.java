@@ -0,0 +1,138 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MetricsRegistryTest {
+  private static MetricsRegistry registry;
+
+  @BeforeAll
+  protected static void setUpBeforeClass() throws Exception {
+  }
+
+  @AfterAll
+  protected static void tearDownAfterClass() throws Exception {
+  }
+
+  @BeforeEach
+  protected void setUp() throws Exception {
+    registry = new MetricsRegistry();
+  }
+
+  @AfterEach
+  protected void tearDown() throws Exception {
+  }
+
+  @Test
+  @DisplayName("Metrics are created once per name and survive reset")
+  void metricsAreCreatedOncePerNameAndSurviveReset() {
+    final LatencyHistogram timer = registry.timer("gui.edit");
+    timer.record(1_000);
+    registry.counter("gui.edit.rejected").increment();
+    registry.cache("dbapi.statement-cache").hit();
+
+    registry.reset();
+
+    assertSame(timer, registry.timer("gui.edit"));
+    assertEquals(0, timer.getCount());
+    assertEquals(0, registry.counter("gui.edit.rejected").sum());
+    assertEquals(0, registry.cache("dbapi.statement-cache").getHits());
+  }
+
+  @Test
+  @DisplayName("Summary contains only metrics with values")
+  void summaryContainsOnlyMetricsWithValues() {
+    assertEquals("no measurements", registry.summary());
+
+    registry.timer("gui.edit").record(2_000_000);
+    registry.timer("dbapi.deleteRepairRecord");
+    registry.counter("gui.edit.rejected").add(3);
+    final CacheCounter cache = registry.cache("dbapi.statement-cache");
+    cache.hit();
+    cache.hit();
+    cache.hit();
+    cache.miss();
+
+    assertEquals("gui.edit n=1 p50=2.00 p99=2.00 max=2.00 ms; gui.edit.rejected=3; "
+        + "dbapi.statement-cache hits=75.0% of 4", registry.summary());
+  }
+
+  @Test
+  @DisplayName("MBean reports percentiles and descriptions of registry metrics")
+  void mbeanReportsPercentilesAndDescriptions() {
+    final Metrics mbean = new Metrics(registry);
+    for (int i = 1; i <= 100; i++) {
+      registry.timer(MetricsRegistry.EDIT_TIMER).record(i * 100_000L);
+    }
+    registry.cache("dbapi.archive-pages").miss();
+
+    assertEquals(100, mbean.getEditCount());
+    assertEquals(5.0, mbean.getEditLatencyP50Millis(), 5.0 / 16);
+    assertEquals(9.9, mbean.getEditLatencyP99Millis(), 9.9 / 16);
+    assertEquals(10.0, mbean.getEditLatencyMaxMillis(), 0.001);
+    assertEquals(0, mbean.getStatementLatencyP99Millis(), 0.001);
+    assertEquals(mbean.getEditLatencyP99Millis(),
+        mbean.getPercentileMillis(MetricsRegistry.EDIT_TIMER, 99), 0.001);
+    assertEquals(0, mbean.getPercentileMillis("missing", 99), 0.001);
+    assertEquals(2, mbean.getTimers().length);
+    assertEquals("dbapi.archive-pages hits=0.0% of 1", mbean.getCacheHitRates()[0]);
+
+    mbean.reset();
+    assertEquals(0, mbean.getEditCount());
+  }
+
+  @Test
+  @DisplayName("Timed proxy measures interface methods and rethrows their exceptions")
+  void timedProxyMeasuresMethodsAndRethrowsExceptions() {
+    final List<String> target = new ArrayList<>(Arrays.asList("a", "b"));
+    @SuppressWarnings("unchecked")
+    final List<String> proxy = TimedProxy.wrap(List.class, target, registry, "list");
+
+    assertEquals(2, proxy.size());
+    proxy.add("c");
+    assertThrows(IndexOutOfBoundsException.class, () -> proxy.get(5));
+
+    assertEquals(3, target.size());
+    assertEquals(1, registry.timer("list.size").getCount());
+    assertEquals(1, registry.timer("list.add").getCount());
+    assertEquals(1, registry.timer("list.get").getCount());
+  }
+
+  @Test
+  @DisplayName("Timed proxy measures only allowed methods")
+  void timedProxyMeasuresOnlyAllowedMethods() {
+    final List<String> target = new ArrayList<>(Arrays.asList("a", "b"));
+    @SuppressWarnings("unchecked")
+    final List<String> proxy = TimedProxy.wrap(
+        List.class, target, registry, "list", Collections.singleton("add"));
+
+    assertEquals("a", proxy.get(0));
+    proxy.add("c");
+    assertThrows(IndexOutOfBoundsException.class, () -> proxy.get(5));
+
+    assertEquals(1, registry.timer("list.add").getCount());
+    assertEquals(0, registry.timer("list.get").getCount());
+  }
+
+  @Test
+  @DisplayName("Check toString is overriden")
+  void checkToStringIsOverriden() {
+    final String description = registry.toString().toLowerCase();
+    assertTrue(description.contains("timers="));
+  }
+
+}